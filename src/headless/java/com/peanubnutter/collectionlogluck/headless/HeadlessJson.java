@@ -0,0 +1,171 @@
+package com.peanubnutter.collectionlogluck.headless;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.peanubnutter.collectionlogluck.model.CollectionLog;
+import com.peanubnutter.collectionlogluck.model.CollectionLogItem;
+import com.peanubnutter.collectionlogluck.model.CollectionLogKillCount;
+import com.peanubnutter.collectionlogluck.util.CollectionLogBuilder;
+import com.peanubnutter.collectionlogluck.util.CollectionLogDeserializer;
+
+// Converts between JSON and the plugin's models for the headless tools. Thread safe.
+public class HeadlessJson {
+
+    private static final String COLLECTION_LOG_WRAPPER_KEY = "collectionLog";
+    private static final String TABS_KEY = "tabs";
+    private static final String USERNAME_KEY = "username";
+    private static final String ITEMS_KEY = "items";
+    private static final String KILL_COUNTS_KEY = "killCounts";
+    // Required by CollectionLogDeserializer, which does not check that they exist
+    private static final String[] COLLECTION_LOG_TOTAL_KEYS = {"totalObtained", "totalItems", "uniqueObtained", "uniqueItems"};
+
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(CollectionLog.class, new CollectionLogDeserializer())
+            .create();
+
+    /**
+     * Read a collection log from either:
+     * <ul>
+     * <li>a collection log in the format read by CollectionLogDeserializer, optionally wrapped in a "collectionLog"
+     * object as returned by collectionlog.net, or</li>
+     * <li>a flat list of item quantities and KCs: {"username": ..., "items": [{"id": ..., "quantity": ...}],
+     * "killCounts": [{"name": ..., "amount": ...}]}. Items may be identified by "name" instead of "id".</li>
+     * </ul>
+     *
+     * @throws InvalidCollectionLogException If a required field is missing or has the wrong type, or an item or KC is
+     *                                       unknown
+     */
+    public static CollectionLog parseCollectionLog(JsonElement jsonElement) {
+        JsonObject json = asObject(jsonElement, "collection log");
+        if (json.has(COLLECTION_LOG_WRAPPER_KEY)) {
+            json = asObject(json.get(COLLECTION_LOG_WRAPPER_KEY), COLLECTION_LOG_WRAPPER_KEY);
+        }
+        if (json.has(TABS_KEY)) {
+            validateCollectionLog(json);
+            return GSON.fromJson(json, CollectionLog.class);
+        }
+
+        String username = json.has(USERNAME_KEY) ? getString(json, USERNAME_KEY) : "";
+        CollectionLog collectionLog = CollectionLogBuilder.getEmptyCollectionLog(username);
+
+        if (json.has(ITEMS_KEY)) {
+            for (JsonElement itemElement : getArray(json, ITEMS_KEY)) {
+                JsonObject itemJson = asObject(itemElement, "item");
+                CollectionLogItem item = itemJson.has("id")
+                        ? findItemById(collectionLog, getInt(itemJson, "id"))
+                        : collectionLog.searchForItem(getString(itemJson, "name"));
+                if (item == null) {
+                    throw new InvalidCollectionLogException("Unknown item: " + itemJson);
+                }
+                int quantity = getInt(itemJson, "quantity");
+                item.setQuantity(quantity);
+                item.setObtained(quantity > 0);
+            }
+        }
+
+        if (json.has(KILL_COUNTS_KEY)) {
+            for (JsonElement killCountElement : getArray(json, KILL_COUNTS_KEY)) {
+                JsonObject killCountJson = asObject(killCountElement, "kill count");
+                CollectionLogKillCount killCount = collectionLog.searchForKillCount(getString(killCountJson, "name"));
+                if (killCount == null) {
+                    throw new InvalidCollectionLogException("Unknown kill count: " + killCountJson);
+                }
+                killCount.setAmount(getInt(killCountJson, "amount"));
+            }
+        }
+
+        return collectionLog;
+    }
+
+    // Check the fields that CollectionLogDeserializer reads without checking
+    private static void validateCollectionLog(JsonObject json) {
+        getString(json, USERNAME_KEY);
+        for (String key : COLLECTION_LOG_TOTAL_KEYS) {
+            getInt(json, key);
+        }
+        JsonObject tabs = asObject(json.get(TABS_KEY), TABS_KEY);
+        for (String tabName : tabs.keySet()) {
+            JsonObject tab = asObject(tabs.get(tabName), "tab " + tabName);
+            for (String pageName : tab.keySet()) {
+                JsonObject page = asObject(tab.get(pageName), "page " + pageName);
+                for (JsonElement item : getArray(page, ITEMS_KEY)) {
+                    asObject(item, "item on page " + pageName);
+                }
+            }
+        }
+    }
+
+    private static JsonObject asObject(JsonElement json, String description) {
+        if (json == null || !json.isJsonObject()) {
+            throw new InvalidCollectionLogException("Expected an object for " + description + ": " + json);
+        }
+        return json.getAsJsonObject();
+    }
+
+    private static JsonArray getArray(JsonObject json, String key) {
+        JsonElement value = json.get(key);
+        if (value == null || !value.isJsonArray()) {
+            throw new InvalidCollectionLogException("Expected an array for \"" + key + "\": " + json);
+        }
+        return value.getAsJsonArray();
+    }
+
+    private static String getString(JsonObject json, String key) {
+        JsonElement value = json.get(key);
+        if (value == null || !value.isJsonPrimitive()) {
+            throw new InvalidCollectionLogException("Expected a value for \"" + key + "\": " + json);
+        }
+        return value.getAsString();
+    }
+
+    private static int getInt(JsonObject json, String key) {
+        JsonElement value = json.get(key);
+        if (value == null || !value.isJsonPrimitive()) {
+            throw new InvalidCollectionLogException("Expected a number for \"" + key + "\": " + json);
+        }
+        try {
+            return value.getAsInt();
+        } catch (NumberFormatException e) {
+            throw new InvalidCollectionLogException("Expected a number for \"" + key + "\": " + json);
+        }
+    }
+
+    private static CollectionLogItem findItemById(CollectionLog collectionLog, int itemId) {
+        // The empty collection log has every item on a single page
+        return collectionLog.getTabs().values().stream()
+                .flatMap(tab -> tab.getPages().values().stream())
+                .map(page -> page.getItemById(itemId))
+                .filter(item -> item != null)
+                .findFirst()
+                .orElse(null);
+    }
+
+    public static JsonObject toJson(ItemLuckRecord record) {
+        JsonObject json = new JsonObject();
+        json.addProperty("username", record.getUsername());
+        json.addProperty("itemId", record.getItemId());
+        json.addProperty("itemName", record.getItemName());
+        json.addProperty("quantity", record.getQuantity());
+        json.addProperty("kcDescription", record.getKillCountDescription());
+        json.addProperty("luck", record.getLuck());
+        json.addProperty("dryness", record.getDryness());
+        json.addProperty("overallLuck", record.getOverallLuck());
+        return json;
+    }
+
+    public static JsonArray toJson(Iterable<ItemLuckRecord> records) {
+        JsonArray json = new JsonArray();
+        for (ItemLuckRecord record : records) {
+            json.add(toJson(record));
+        }
+        return json;
+    }
+
+    public static String toString(JsonElement json) {
+        return GSON.toJson(json);
+    }
+
+}
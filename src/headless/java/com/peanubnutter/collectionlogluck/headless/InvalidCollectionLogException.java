@@ -0,0 +1,11 @@
+package com.peanubnutter.collectionlogluck.headless;
+
+// Thrown when a request's collection log is missing required fields or has fields of the wrong type. This is the
+// caller's mistake, unlike any other exception thrown while calculating luck.
+public class InvalidCollectionLogException extends IllegalArgumentException {
+
+    public InvalidCollectionLogException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.peanubnutter.collectionlogluck.headless;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// The luck of a single player for a single collection log item
+@Getter
+@AllArgsConstructor
+public class ItemLuckRecord {
+
+    private final String username;
+
+    private final int itemId;
+
+    private final String itemName;
+
+    private final int quantity;
+
+    private final String killCountDescription;
+
+    private final double luck;
+
+    private final double dryness;
+
+    private final double overallLuck;
+
+}
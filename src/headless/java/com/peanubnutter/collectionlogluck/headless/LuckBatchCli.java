@@ -0,0 +1,124 @@
+package com.peanubnutter.collectionlogluck.headless;
+
+import com.google.gson.JsonParser;
+import com.peanubnutter.collectionlogluck.CollectionLogLuckConfig;
+import com.peanubnutter.collectionlogluck.model.CollectionLog;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Computes luck for every supported item of every collection log in a directory, without RuneLite.
+ * <p>
+ * Usage: LuckBatchCli &lt;input dir&gt; [--format csv|ndjson] [--output file] [--threads n]
+ * <p>
+ * Each input file is a collection log JSON file in the format read by CollectionLogDeserializer, optionally wrapped
+ * in a "collectionLog" object as returned by collectionlog.net (see HeadlessJson). Logs are parsed and calculated on
+ * a worker pool, and each player's results are written as soon as they are ready, so the output is in no particular
+ * player order. Calculations use the default config settings for every player.
+ */
+public class LuckBatchCli {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: LuckBatchCli <input dir> [--format csv|ndjson] [--output file] [--threads n]");
+            System.exit(1);
+        }
+
+        File inputDir = new File(args[0]);
+        LuckRecordWriter.Format format = LuckRecordWriter.Format.CSV;
+        String outputPath = null;
+        int numThreads = Runtime.getRuntime().availableProcessors();
+
+        for (int i = 1; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for option: " + args[i]);
+            }
+            switch (args[i]) {
+                case "--format":
+                    format = LuckRecordWriter.Format.valueOf(args[i + 1].toUpperCase());
+                    break;
+                case "--output":
+                    outputPath = args[i + 1];
+                    break;
+                case "--threads":
+                    numThreads = Integer.parseInt(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        File[] inputFiles = inputDir.listFiles((dir, name) -> name.toLowerCase().endsWith(".json"));
+        if (inputFiles == null) {
+            throw new IllegalArgumentException(inputDir + " is not a directory");
+        }
+
+        Writer output = outputPath == null
+                ? new OutputStreamWriter(System.out, StandardCharsets.UTF_8)
+                : new OutputStreamWriter(new FileOutputStream(outputPath), StandardCharsets.UTF_8);
+
+        try (LuckRecordWriter writer = new LuckRecordWriter(new BufferedWriter(output), format)) {
+            int numFailed = run(Arrays.asList(inputFiles), writer, numThreads);
+            if (numFailed > 0) {
+                System.err.println(numFailed + " of " + inputFiles.length + " collection logs could not be processed");
+            }
+        }
+    }
+
+    /**
+     * Calculate luck for every collection log file on a pool of worker threads.
+     *
+     * @return The number of files that failed
+     */
+    public static int run(List<File> inputFiles, LuckRecordWriter writer, int numThreads) throws InterruptedException {
+        // Every config method has a default, which is the same as a player who has never changed their settings
+        CollectionLogLuckConfig config = new CollectionLogLuckConfig() {};
+        PlayerLuckCalculator calculator = new PlayerLuckCalculator(config);
+
+        ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, numThreads));
+        ExecutorCompletionService<File> completionService = new ExecutorCompletionService<>(workers);
+        try {
+            for (File inputFile : inputFiles) {
+                completionService.submit(() -> {
+                    CollectionLog collectionLog = readCollectionLog(inputFile);
+                    writer.write(calculator.calculate(collectionLog));
+                    return inputFile;
+                });
+            }
+
+            int numFailed = 0;
+            for (int i = 0; i < inputFiles.size(); i++) {
+                try {
+                    completionService.take().get();
+                } catch (ExecutionException e) {
+                    System.err.println("Unable to process collection log: " + e.getCause());
+                    numFailed++;
+                }
+            }
+            return numFailed;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private static CollectionLog readCollectionLog(File inputFile) throws IOException {
+        try (Reader reader = Files.newBufferedReader(inputFile.toPath(), StandardCharsets.UTF_8)) {
+            return HeadlessJson.parseCollectionLog(new JsonParser().parse(reader));
+        }
+    }
+
+}
@@ -0,0 +1,261 @@
+package com.peanubnutter.collectionlogluck.headless;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.peanubnutter.collectionlogluck.CollectionLogLuckConfig;
+import com.peanubnutter.collectionlogluck.model.CollectionLog;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A small HTTP service that calculates luck for many items in one request, e.g. for a clan website or Discord bot.
+ * <p>
+ * Endpoints:
+ * <ul>
+ * <li>POST /luck - the body is a collection log in any format read by HeadlessJson. Responds with
+ * {"username": ..., "items": [...]}, with one entry per supported item. A POST body may also be a JSON array of
+ * collection logs, in which case the response is an array of results in the same order.</li>
+ * <li>GET /health - responds 200 once the service is running.</li>
+ * </ul>
+ * Responses are cached by a hash of the request body, and requests are handled by a bounded pool of workers. Requests
+ * that arrive while the pool's queue is full are rejected with 503.
+ * <p>
+ * Usage: LuckHttpService [--port n] [--threads n] [--queue n] [--cache n] [--host address]
+ */
+@Slf4j
+public class LuckHttpService {
+
+    static final int MAX_REQUEST_BYTES = 16 * 1024 * 1024;
+
+    private final HttpServer server;
+    // Reads requests, calculates luck and writes responses. Bounded, so that a burst of requests is rejected instead
+    // of queueing without limit.
+    private final ThreadPoolExecutor workers;
+    private final PlayerLuckCalculator calculator;
+
+    // SHA-256 of the request body -> response body. Least recently used responses are evicted first.
+    private final Map<String, byte[]> responseCache;
+
+    public LuckHttpService(String host, int port, int numThreads, int queueSize, int cacheSize) throws IOException {
+        // Every config method has a default, which is the same as a player who has never changed their settings
+        this(host, port, numThreads, queueSize, cacheSize, new PlayerLuckCalculator(new CollectionLogLuckConfig() {}));
+    }
+
+    LuckHttpService(String host, int port, int numThreads, int queueSize, int cacheSize,
+                    PlayerLuckCalculator calculator) throws IOException {
+        this.calculator = calculator;
+
+        this.responseCache = Collections.synchronizedMap(new LinkedHashMap<String, byte[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                return size() > cacheSize;
+            }
+        });
+
+        this.workers = new ThreadPoolExecutor(numThreads, numThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize));
+
+        this.server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        server.createContext("/luck", this::handleLuck);
+        server.createContext("/health",
+                exchange -> respond(exchange, 200, "{\"status\":\"ok\"}".getBytes(StandardCharsets.UTF_8)));
+        // Handlers run on the server's own thread, so they must hand any real work to the workers. Otherwise requests
+        // would wait in the server's unbounded queue instead of being rejected.
+        server.setExecutor(null);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        workers.shutdownNow();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handleLuck(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            respondError(exchange, 405, "Use POST");
+            return;
+        }
+
+        try {
+            workers.execute(() -> handleLuckRequest(exchange));
+        } catch (RejectedExecutionException e) {
+            log.warn("Luck service is overloaded. Rejecting request.");
+            respondError(exchange, 503, "Too many requests. Try again later.");
+        }
+    }
+
+    private void handleLuckRequest(HttpExchange exchange) {
+        try {
+            byte[] requestBody = readRequestBody(exchange.getRequestBody());
+            if (requestBody == null) {
+                respondError(exchange, 413, "Request body is too large");
+                return;
+            }
+
+            String cacheKey = sha256(requestBody);
+            byte[] responseBody = responseCache.get(cacheKey);
+            if (responseBody == null) {
+                try {
+                    responseBody = calculateLuck(requestBody);
+                } catch (JsonParseException | InvalidCollectionLogException e) {
+                    // Anything else is a bug in the service rather than the request, so it is logged and is a 500
+                    respondError(exchange, 400, "Invalid collection log: " + e.getMessage());
+                    return;
+                }
+                responseCache.put(cacheKey, responseBody);
+            }
+
+            respond(exchange, 200, responseBody);
+        } catch (Exception e) {
+            log.error("Unable to calculate luck", e);
+            try {
+                respondError(exchange, 500, "Unable to calculate luck");
+            } catch (IOException ignored) {
+                // The client has already gone
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private byte[] calculateLuck(byte[] requestBody) {
+        JsonElement requestJson = new JsonParser().parse(new String(requestBody, StandardCharsets.UTF_8));
+
+        // Every log is parsed before any is calculated, so that an invalid request is rejected without any work
+        JsonElement responseJson;
+        if (requestJson.isJsonArray()) {
+            List<CollectionLog> collectionLogs = new ArrayList<>();
+            for (JsonElement collectionLogJson : requestJson.getAsJsonArray()) {
+                collectionLogs.add(HeadlessJson.parseCollectionLog(collectionLogJson));
+            }
+            JsonArray results = new JsonArray();
+            for (CollectionLog collectionLog : collectionLogs) {
+                results.add(calculateLuck(collectionLog));
+            }
+            responseJson = results;
+        } else {
+            responseJson = calculateLuck(HeadlessJson.parseCollectionLog(requestJson));
+        }
+
+        return HeadlessJson.toString(responseJson).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private JsonObject calculateLuck(CollectionLog collectionLog) {
+        List<ItemLuckRecord> records = calculator.calculate(collectionLog);
+
+        JsonObject result = new JsonObject();
+        result.addProperty("username", collectionLog.getUsername());
+        result.add("items", HeadlessJson.toJson(records));
+        return result;
+    }
+
+    // Returns null if the body is too large
+    private static byte[] readRequestBody(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int numRead;
+        while ((numRead = inputStream.read(buffer)) != -1) {
+            body.write(buffer, 0, numRead);
+            if (body.size() > MAX_REQUEST_BYTES) {
+                return null;
+            }
+        }
+        return body.toByteArray();
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void respondError(HttpExchange exchange, int statusCode, String message) throws IOException {
+        JsonObject error = new JsonObject();
+        error.addProperty("error", message);
+        respond(exchange, statusCode, HeadlessJson.toString(error).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void respond(HttpExchange exchange, int statusCode, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(statusCode, body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        String host = "localhost";
+        int port = 8080;
+        int numThreads = Runtime.getRuntime().availableProcessors();
+        int queueSize = 256;
+        int cacheSize = 1024;
+
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for option: " + args[i]);
+            }
+            switch (args[i]) {
+                case "--host":
+                    host = args[i + 1];
+                    break;
+                case "--port":
+                    port = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--threads":
+                    numThreads = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--queue":
+                    queueSize = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--cache":
+                    cacheSize = Integer.parseInt(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        LuckHttpService service = new LuckHttpService(host, port, numThreads, queueSize, cacheSize);
+        Runtime.getRuntime().addShutdownHook(new Thread(service::stop));
+        service.start();
+        log.info("Luck service listening on http://{}:{}", host, service.getPort());
+    }
+
+}
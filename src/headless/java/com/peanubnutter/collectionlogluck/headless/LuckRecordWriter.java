@@ -0,0 +1,75 @@
+package com.peanubnutter.collectionlogluck.headless;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+// Streams luck records as CSV or newline-delimited JSON. Safe to use from multiple threads: each player's records are
+// written together.
+public class LuckRecordWriter implements Closeable {
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private static final String CSV_HEADER = "username,item_id,item_name,quantity,kc_description,luck,dryness,overall_luck";
+
+    private final Writer writer;
+    private final Format format;
+
+    public LuckRecordWriter(Writer writer, Format format) throws IOException {
+        this.writer = writer;
+        this.format = format;
+
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+    }
+
+    public synchronized void write(List<ItemLuckRecord> records) throws IOException {
+        StringBuilder output = new StringBuilder();
+        for (ItemLuckRecord record : records) {
+            if (format == Format.CSV) {
+                appendCsv(output, record);
+            } else {
+                appendJson(output, record);
+            }
+            output.append('\n');
+        }
+        writer.write(output.toString());
+    }
+
+    private void appendCsv(StringBuilder output, ItemLuckRecord record) {
+        output.append(escapeCsv(record.getUsername())).append(',')
+                .append(record.getItemId()).append(',')
+                .append(escapeCsv(record.getItemName())).append(',')
+                .append(record.getQuantity()).append(',')
+                .append(escapeCsv(record.getKillCountDescription())).append(',')
+                .append(record.getLuck()).append(',')
+                .append(record.getDryness()).append(',')
+                .append(record.getOverallLuck());
+    }
+
+    private void appendJson(StringBuilder output, ItemLuckRecord record) {
+        output.append(HeadlessJson.toString(HeadlessJson.toJson(record)));
+    }
+
+    private static String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+}
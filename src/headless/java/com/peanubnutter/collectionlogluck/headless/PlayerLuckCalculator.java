@@ -0,0 +1,53 @@
+package com.peanubnutter.collectionlogluck.headless;
+
+import com.peanubnutter.collectionlogluck.CollectionLogLuckConfig;
+import com.peanubnutter.collectionlogluck.luck.LogItemInfo;
+import com.peanubnutter.collectionlogluck.luck.LuckCalculationResult;
+import com.peanubnutter.collectionlogluck.luck.drop.DropLuck;
+import com.peanubnutter.collectionlogluck.model.CollectionLog;
+import com.peanubnutter.collectionlogluck.model.CollectionLogItem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Calculates luck for every supported item in a single player's collection log, the same way the plugin does for the
+// !luck command.
+public class PlayerLuckCalculator {
+
+    private final CollectionLogLuckConfig config;
+
+    public PlayerLuckCalculator(CollectionLogLuckConfig config) {
+        this.config = config;
+    }
+
+    public List<ItemLuckRecord> calculate(CollectionLog collectionLog) {
+        List<ItemLuckRecord> records = new ArrayList<>();
+
+        for (LogItemInfo logItemInfo : LogItemInfo.getAllLogItemInfos()) {
+            CollectionLogItem item = collectionLog.searchForItem(logItemInfo.getItemName());
+            if (item == null) continue;
+
+            DropLuck dropLuck = logItemInfo.getDropProbabilityDistribution();
+            if (dropLuck.getIncalculableReason(item, config) != null) continue;
+
+            double luck = dropLuck.calculateLuck(item, collectionLog, config);
+            double dryness = dropLuck.calculateDryness(item, collectionLog, config);
+            // Same as the plugin's "Unknown error calculating luck" case
+            if (luck < 0 || luck > 1 || dryness < 0 || dryness > 1) continue;
+
+            LuckCalculationResult result = new LuckCalculationResult(luck, dryness);
+            records.add(new ItemLuckRecord(
+                    collectionLog.getUsername(),
+                    logItemInfo.getItemId(),
+                    logItemInfo.getItemName(),
+                    item.getQuantity(),
+                    dropLuck.getKillCountDescription(collectionLog),
+                    luck,
+                    dryness,
+                    result.getOverallLuck()));
+        }
+
+        return records;
+    }
+
+}
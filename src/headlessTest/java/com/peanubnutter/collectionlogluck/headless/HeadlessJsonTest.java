@@ -0,0 +1,97 @@
+package com.peanubnutter.collectionlogluck.headless;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.peanubnutter.collectionlogluck.model.CollectionLog;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class HeadlessJsonTest {
+
+    private static JsonObject parse(String json) {
+        return new JsonParser().parse(json).getAsJsonObject();
+    }
+
+    static String getTabsCollectionLogJson(String username, int quantity, int kc) {
+        return "{\"username\": \"" + username + "\", \"totalObtained\": 1, \"totalItems\": 1,"
+                + " \"uniqueObtained\": 1, \"uniqueItems\": 1, \"tabs\": {\"Bosses\": {\"Zulrah\": {"
+                + "\"items\": [{\"id\": 12922, \"name\": \"Tanzanite fang\", \"quantity\": " + quantity + ","
+                + " \"obtained\": " + (quantity > 0) + ", \"sequence\": 0}],"
+                + " \"killCounts\": [{\"name\": \"Zulrah kills\", \"amount\": " + kc + ", \"sequence\": 0}]}}}}";
+    }
+
+    @Test
+    public void parseCollectionLog_tabs() {
+        CollectionLog collectionLog = HeadlessJson.parseCollectionLog(parse(getTabsCollectionLogJson("someusername", 2, 500)));
+
+        assertEquals("someusername", collectionLog.getUsername());
+        assertEquals(2, collectionLog.searchForItem("Tanzanite fang").getQuantity());
+        assertEquals(500, collectionLog.searchForKillCount("Zulrah kills").getAmount());
+    }
+
+    @Test
+    public void parseCollectionLog_wrapped() {
+        String json = "{\"collectionLog\": " + getTabsCollectionLogJson("someusername", 2, 500) + "}";
+        CollectionLog collectionLog = HeadlessJson.parseCollectionLog(parse(json));
+
+        assertEquals("someusername", collectionLog.getUsername());
+        assertEquals(2, collectionLog.searchForItem("Tanzanite fang").getQuantity());
+    }
+
+    @Test
+    public void parseCollectionLog_flat() {
+        String json = "{\"username\": \"someusername\","
+                + " \"items\": [{\"id\": 12922, \"quantity\": 2}, {\"name\": \"Tanzanite mutagen\", \"quantity\": 1}],"
+                + " \"killCounts\": [{\"name\": \"Zulrah kills\", \"amount\": 500}]}";
+        CollectionLog collectionLog = HeadlessJson.parseCollectionLog(parse(json));
+
+        assertEquals("someusername", collectionLog.getUsername());
+        assertEquals(2, collectionLog.searchForItem("Tanzanite fang").getQuantity());
+        assertEquals(true, collectionLog.searchForItem("Tanzanite fang").isObtained());
+        assertEquals(1, collectionLog.searchForItem("Tanzanite mutagen").getQuantity());
+        assertEquals(500, collectionLog.searchForKillCount("Zulrah kills").getAmount());
+        // Items and KCs that are not listed are empty
+        assertEquals(0, collectionLog.searchForItem("Abyssal whip").getQuantity());
+        assertEquals(false, collectionLog.searchForItem("Abyssal whip").isObtained());
+        assertEquals(0, collectionLog.searchForKillCount("Vorkath kills").getAmount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseCollectionLog_flat_unknownItem() {
+        HeadlessJson.parseCollectionLog(parse("{\"items\": [{\"name\": \"Not a real item\", \"quantity\": 1}]}"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseCollectionLog_flat_unknownKillCount() {
+        HeadlessJson.parseCollectionLog(parse("{\"killCounts\": [{\"name\": \"Not a real boss\", \"amount\": 1}]}"));
+    }
+
+    @Test(expected = InvalidCollectionLogException.class)
+    public void parseCollectionLog_flat_missingQuantity() {
+        HeadlessJson.parseCollectionLog(parse("{\"items\": [{\"name\": \"Tanzanite fang\"}]}"));
+    }
+
+    @Test(expected = InvalidCollectionLogException.class)
+    public void parseCollectionLog_tabs_missingUsername() {
+        HeadlessJson.parseCollectionLog(parse("{\"tabs\": {}, \"totalObtained\": 0, \"totalItems\": 0,"
+                + " \"uniqueObtained\": 0, \"uniqueItems\": 0}"));
+    }
+
+    @Test
+    public void toJson_record() {
+        ItemLuckRecord record = new ItemLuckRecord("someusername", 12922, "Tanzanite fang", 2, "500 Zulrah kills",
+                0.25, 0.5, 0.375);
+        JsonObject json = HeadlessJson.toJson(record);
+
+        assertEquals("someusername", json.get("username").getAsString());
+        assertEquals(12922, json.get("itemId").getAsInt());
+        assertEquals("Tanzanite fang", json.get("itemName").getAsString());
+        assertEquals(2, json.get("quantity").getAsInt());
+        assertEquals("500 Zulrah kills", json.get("kcDescription").getAsString());
+        assertEquals(0.25, json.get("luck").getAsDouble(), 0);
+        assertEquals(0.5, json.get("dryness").getAsDouble(), 0);
+        assertEquals(0.375, json.get("overallLuck").getAsDouble(), 0);
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.peanubnutter.collectionlogluck.headless;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LuckBatchCliTest {
+
+    private Path inputDir;
+
+    @Before
+    public void setUp() throws IOException {
+        inputDir = Files.createTempDirectory("luck-batch-cli-test");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(inputDir)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private File writeInputFile(String name, String contents) throws IOException {
+        Path inputFile = inputDir.resolve(name);
+        Files.write(inputFile, contents.getBytes(StandardCharsets.UTF_8));
+        return inputFile.toFile();
+    }
+
+    private static String getFlatCollectionLogJson(String username) {
+        return "{\"username\": \"" + username + "\","
+                + " \"items\": [{\"name\": \"Tanzanite fang\", \"quantity\": 1}],"
+                + " \"killCounts\": [{\"name\": \"Zulrah kills\", \"amount\": 500}]}";
+    }
+
+    @Test
+    public void run_failingFile_isCountedAndOtherFilesAreStillWritten() throws Exception {
+        File firstFile = writeInputFile("first.json", getFlatCollectionLogJson("firstuser"));
+        File brokenFile = writeInputFile("broken.json", "{\"username\": \"brokenuser\", \"items\": [");
+        File unknownItemFile = writeInputFile("unknown.json",
+                "{\"items\": [{\"name\": \"Not a real item\", \"quantity\": 1}]}");
+        File secondFile = writeInputFile("second.json", getFlatCollectionLogJson("seconduser"));
+
+        StringWriter output = new StringWriter();
+        int numFailed;
+        try (LuckRecordWriter writer = new LuckRecordWriter(output, LuckRecordWriter.Format.NDJSON)) {
+            numFailed = LuckBatchCli.run(Arrays.asList(firstFile, brokenFile, unknownItemFile, secondFile), writer, 2);
+        }
+
+        assertEquals(2, numFailed);
+
+        Set<String> fangUsernames = new HashSet<>();
+        for (String line : output.toString().split("\n")) {
+            JsonObject record = new JsonParser().parse(line).getAsJsonObject();
+            if (record.get("itemName").getAsString().equals("Tanzanite fang")) {
+                assertEquals(1, record.get("quantity").getAsInt());
+                fangUsernames.add(record.get("username").getAsString());
+            }
+        }
+        assertEquals(new HashSet<>(Arrays.asList("firstuser", "seconduser")), fangUsernames);
+    }
+
+    @Test
+    public void run_noFiles_writesOnlyCsvHeader() throws Exception {
+        StringWriter output = new StringWriter();
+        int numFailed;
+        try (LuckRecordWriter writer = new LuckRecordWriter(output, LuckRecordWriter.Format.CSV)) {
+            numFailed = LuckBatchCli.run(Collections.emptyList(), writer, 1);
+        }
+
+        assertEquals(0, numFailed);
+        assertTrue(output.toString().startsWith("username,"));
+        assertEquals(1, output.toString().split("\n").length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void main_trailingOptionWithoutValue_isRejected() throws Exception {
+        LuckBatchCli.main(new String[]{inputDir.toString(), "--format", "ndjson", "--threads"});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void main_unknownOption_isRejected() throws Exception {
+        LuckBatchCli.main(new String[]{inputDir.toString(), "--colour", "blue"});
+    }
+
+}
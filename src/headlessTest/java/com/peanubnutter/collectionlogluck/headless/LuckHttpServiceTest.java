@@ -0,0 +1,284 @@
+package com.peanubnutter.collectionlogluck.headless;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.peanubnutter.collectionlogluck.CollectionLogLuckConfig;
+import com.peanubnutter.collectionlogluck.model.CollectionLog;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class LuckHttpServiceTest {
+
+    private static final String FLAT_COLLECTION_LOG_JSON = "{\"username\": \"flatuser\","
+            + " \"items\": [{\"name\": \"Tanzanite fang\", \"quantity\": 1}],"
+            + " \"killCounts\": [{\"name\": \"Zulrah kills\", \"amount\": 500}]}";
+
+    private LuckHttpService service;
+
+    // Counts calculations, and optionally blocks each one until released
+    private static class TestCalculator extends PlayerLuckCalculator {
+
+        private final AtomicInteger numCalculations = new AtomicInteger();
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        TestCalculator(boolean block) {
+            super(new CollectionLogLuckConfig() {});
+            this.release = new CountDownLatch(block ? 1 : 0);
+        }
+
+        @Override
+        public List<ItemLuckRecord> calculate(CollectionLog collectionLog) {
+            numCalculations.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.calculate(collectionLog);
+        }
+    }
+
+    private static class Response {
+        private final int statusCode;
+        private final String body;
+
+        Response(int statusCode, String body) {
+            this.statusCode = statusCode;
+            this.body = body;
+        }
+
+        JsonElement json() {
+            return new JsonParser().parse(body);
+        }
+    }
+
+    private LuckHttpService startService(int numThreads, int queueSize, PlayerLuckCalculator calculator)
+            throws IOException {
+        service = new LuckHttpService("localhost", 0, numThreads, queueSize, 16, calculator);
+        service.start();
+        return service;
+    }
+
+    @After
+    public void tearDown() {
+        if (service != null) {
+            service.stop();
+        }
+    }
+
+    private Response request(String method, String path, byte[] body) throws IOException {
+        URL url = new URL("http://localhost:" + service.getPort() + path);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(body.length);
+            try (OutputStream requestBody = connection.getOutputStream()) {
+                requestBody.write(body);
+            } catch (IOException e) {
+                // The server may respond and close the connection before reading a body it has rejected
+            }
+        }
+
+        int statusCode = connection.getResponseCode();
+        InputStream responseBody = statusCode < 400 ? connection.getInputStream() : connection.getErrorStream();
+        ByteArrayOutputStream responseBytes = new ByteArrayOutputStream();
+        try (InputStream input = responseBody) {
+            byte[] buffer = new byte[8192];
+            int numRead;
+            while ((numRead = input.read(buffer)) != -1) {
+                responseBytes.write(buffer, 0, numRead);
+            }
+        }
+        return new Response(statusCode, new String(responseBytes.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    private Response post(String body) throws IOException {
+        return request("POST", "/luck", body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static JsonObject findItem(JsonObject result, String itemName) {
+        for (JsonElement item : result.getAsJsonArray("items")) {
+            if (item.getAsJsonObject().get("itemName").getAsString().equals(itemName)) {
+                return item.getAsJsonObject();
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void health() throws Exception {
+        startService(1, 1, new TestCalculator(false));
+
+        Response response = request("GET", "/health", null);
+
+        assertEquals(200, response.statusCode);
+        assertEquals("ok", response.json().getAsJsonObject().get("status").getAsString());
+    }
+
+    @Test
+    public void luck_collectionLogObject() throws Exception {
+        startService(1, 1, new TestCalculator(false));
+
+        Response response = post(HeadlessJsonTest.getTabsCollectionLogJson("tabsuser", 1, 500));
+
+        assertEquals(200, response.statusCode);
+        JsonObject result = response.json().getAsJsonObject();
+        assertEquals("tabsuser", result.get("username").getAsString());
+        JsonObject fang = findItem(result, "Tanzanite fang");
+        assertNotNull(fang);
+        assertEquals(1, fang.get("quantity").getAsInt());
+        double luck = fang.get("luck").getAsDouble();
+        assertTrue(luck > 0 && luck < 1);
+    }
+
+    @Test
+    public void luck_flatItemsAndKillCounts() throws Exception {
+        startService(1, 1, new TestCalculator(false));
+
+        Response response = post(FLAT_COLLECTION_LOG_JSON);
+
+        assertEquals(200, response.statusCode);
+        JsonObject result = response.json().getAsJsonObject();
+        assertEquals("flatuser", result.get("username").getAsString());
+        JsonObject fang = findItem(result, "Tanzanite fang");
+        assertNotNull(fang);
+        assertEquals(1, fang.get("quantity").getAsInt());
+    }
+
+    @Test
+    public void luck_array_respondsInRequestOrder() throws Exception {
+        startService(1, 1, new TestCalculator(false));
+
+        Response response = post("[" + FLAT_COLLECTION_LOG_JSON + ", "
+                + HeadlessJsonTest.getTabsCollectionLogJson("tabsuser", 0, 10) + "]");
+
+        assertEquals(200, response.statusCode);
+        JsonArray results = response.json().getAsJsonArray();
+        assertEquals(2, results.size());
+        assertEquals("flatuser", results.get(0).getAsJsonObject().get("username").getAsString());
+        assertEquals("tabsuser", results.get(1).getAsJsonObject().get("username").getAsString());
+        assertEquals(0, findItem(results.get(1).getAsJsonObject(), "Tanzanite fang").get("quantity").getAsInt());
+    }
+
+    @Test
+    public void luck_sameBody_isCached() throws Exception {
+        TestCalculator calculator = new TestCalculator(false);
+        startService(1, 1, calculator);
+
+        Response first = post(FLAT_COLLECTION_LOG_JSON);
+        Response second = post(FLAT_COLLECTION_LOG_JSON);
+
+        assertEquals(200, second.statusCode);
+        assertEquals(first.body, second.body);
+        assertEquals(1, calculator.numCalculations.get());
+
+        post(HeadlessJsonTest.getTabsCollectionLogJson("tabsuser", 1, 500));
+        assertEquals(2, calculator.numCalculations.get());
+    }
+
+    @Test
+    public void luck_invalidJson_is400() throws Exception {
+        startService(1, 1, new TestCalculator(false));
+
+        assertEquals(400, post("{\"username\": \"brokenuser\", \"items\": [").statusCode);
+        assertEquals(400, post("\"not a collection log\"").statusCode);
+        assertEquals(400, post("{\"items\": [{\"name\": \"Not a real item\", \"quantity\": 1}]}").statusCode);
+    }
+
+    @Test
+    public void luck_missingFields_is400() throws Exception {
+        TestCalculator calculator = new TestCalculator(false);
+        startService(1, 1, calculator);
+
+        assertEquals(400, post("{\"items\": [{\"name\": \"Tanzanite fang\"}]}").statusCode);
+        assertEquals(400, post("{\"killCounts\": [{\"amount\": 500}]}").statusCode);
+        assertEquals(400, post("{\"tabs\": {}}").statusCode);
+        assertEquals(400, post("[" + FLAT_COLLECTION_LOG_JSON + ", 5]").statusCode);
+        assertEquals(0, calculator.numCalculations.get());
+    }
+
+    @Test
+    public void luck_calculatorBug_is500() throws Exception {
+        startService(1, 1, new PlayerLuckCalculator(new CollectionLogLuckConfig() {}) {
+            @Override
+            public List<ItemLuckRecord> calculate(CollectionLog collectionLog) {
+                throw new NullPointerException("bug in the calculator");
+            }
+        });
+
+        assertEquals(500, post(FLAT_COLLECTION_LOG_JSON).statusCode);
+    }
+
+    @Test
+    public void luck_bodyTooLarge_is413() throws Exception {
+        startService(1, 1, new TestCalculator(false));
+
+        byte[] body = new byte[LuckHttpService.MAX_REQUEST_BYTES + 1];
+        Arrays.fill(body, (byte) ' ');
+        Response response = request("POST", "/luck", body);
+
+        assertEquals(413, response.statusCode);
+    }
+
+    @Test
+    public void luck_get_is405() throws Exception {
+        startService(1, 1, new TestCalculator(false));
+
+        assertEquals(405, request("GET", "/luck", null).statusCode);
+    }
+
+    @Test
+    public void luck_queueFull_is503() throws Exception {
+        TestCalculator calculator = new TestCalculator(true);
+        // One request can be calculated, and one more can wait
+        startService(1, 1, calculator);
+
+        ExecutorService clients = Executors.newFixedThreadPool(3);
+        try {
+            Future<Response> running = clients.submit(() -> post(FLAT_COLLECTION_LOG_JSON));
+            assertTrue(calculator.started.await(10, TimeUnit.SECONDS));
+
+            // Whichever of these two is handled second is rejected without waiting for the running request
+            ExecutorCompletionService<Response> waiting = new ExecutorCompletionService<>(clients);
+            waiting.submit(() -> post(HeadlessJsonTest.getTabsCollectionLogJson("firstwaiting", 1, 500)));
+            waiting.submit(() -> post(HeadlessJsonTest.getTabsCollectionLogJson("secondwaiting", 1, 500)));
+
+            Response rejected = waiting.poll(10, TimeUnit.SECONDS).get();
+            assertEquals(503, rejected.statusCode);
+
+            calculator.release.countDown();
+            assertEquals(200, running.get(10, TimeUnit.SECONDS).statusCode);
+            assertEquals(200, waiting.poll(10, TimeUnit.SECONDS).get().statusCode);
+        } finally {
+            calculator.release.countDown();
+            clients.shutdownNow();
+        }
+    }
+
+}
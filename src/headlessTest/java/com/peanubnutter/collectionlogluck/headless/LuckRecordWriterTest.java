@@ -0,0 +1,72 @@
+package com.peanubnutter.collectionlogluck.headless;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertEquals;
+
+public class LuckRecordWriterTest {
+
+    private static ItemLuckRecord getRecord(String username, String itemName) {
+        return new ItemLuckRecord(username, 12922, itemName, 1, "500 Zulrah kills", 0.25, 0.5, 0.375);
+    }
+
+    @Test
+    public void write_csv_writesHeaderAndOneLinePerRecord() throws Exception {
+        StringWriter output = new StringWriter();
+        try (LuckRecordWriter writer = new LuckRecordWriter(output, LuckRecordWriter.Format.CSV)) {
+            writer.write(ImmutableList.of(getRecord("someusername", "Tanzanite fang")));
+        }
+
+        assertEquals("username,item_id,item_name,quantity,kc_description,luck,dryness,overall_luck\n"
+                + "someusername,12922,Tanzanite fang,1,500 Zulrah kills,0.25,0.5,0.375\n", output.toString());
+    }
+
+    @Test
+    public void write_csv_quotesFieldsWithSpecialCharacters() throws Exception {
+        StringWriter output = new StringWriter();
+        try (LuckRecordWriter writer = new LuckRecordWriter(output, LuckRecordWriter.Format.CSV)) {
+            writer.write(ImmutableList.of(
+                    getRecord("some,user", "Tanzanite fang"),
+                    getRecord("someusername", "The \"fang\""),
+                    getRecord("some\nuser", "Tanzanite fang")));
+        }
+
+        String[] lines = output.toString().split("\n", 2);
+        assertEquals("\"some,user\",12922,Tanzanite fang,1,500 Zulrah kills,0.25,0.5,0.375\n"
+                + "someusername,12922,\"The \"\"fang\"\"\",1,500 Zulrah kills,0.25,0.5,0.375\n"
+                + "\"some\nuser\",12922,Tanzanite fang,1,500 Zulrah kills,0.25,0.5,0.375\n", lines[1]);
+    }
+
+    @Test
+    public void write_ndjson_writesOneJsonObjectPerLine() throws Exception {
+        StringWriter output = new StringWriter();
+        try (LuckRecordWriter writer = new LuckRecordWriter(output, LuckRecordWriter.Format.NDJSON)) {
+            writer.write(ImmutableList.of(getRecord("someusername", "Tanzanite fang")));
+            writer.write(ImmutableList.of(getRecord("otherusername", "The \"fang\"")));
+        }
+
+        // No header, and every record is on its own line
+        String[] lines = output.toString().split("\n");
+        assertEquals(2, lines.length);
+
+        JsonObject first = new JsonParser().parse(lines[0]).getAsJsonObject();
+        assertEquals("someusername", first.get("username").getAsString());
+        assertEquals(12922, first.get("itemId").getAsInt());
+        assertEquals("Tanzanite fang", first.get("itemName").getAsString());
+        assertEquals(1, first.get("quantity").getAsInt());
+        assertEquals("500 Zulrah kills", first.get("kcDescription").getAsString());
+        assertEquals(0.25, first.get("luck").getAsDouble(), 0);
+        assertEquals(0.5, first.get("dryness").getAsDouble(), 0);
+        assertEquals(0.375, first.get("overallLuck").getAsDouble(), 0);
+
+        JsonObject second = new JsonParser().parse(lines[1]).getAsJsonObject();
+        assertEquals("otherusername", second.get("username").getAsString());
+        assertEquals("The \"fang\"", second.get("itemName").getAsString());
+    }
+
+}
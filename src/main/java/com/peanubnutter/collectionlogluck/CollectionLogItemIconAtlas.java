@@ -0,0 +1,228 @@
+package com.peanubnutter.collectionlogluck;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Client;
+import net.runelite.api.GameState;
+import net.runelite.api.IndexedSprite;
+import net.runelite.api.ScriptID;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.game.ItemManager;
+import net.runelite.client.util.AsyncBufferedImage;
+import net.runelite.client.util.ImageUtil;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Chat messages can only show images that are in the client's mod icons, so item icons are appended to the mod icons
+// before being used in a message. Growing the mod icons means copying the whole array, so slots are reserved in
+// batches with headroom and then filled in place. Item images are resized off the client thread, and resized icons are
+// installed together on the next client tick. Loaded icons are kept across logins, as long as the client keeps them.
+//
+// All methods except those noted must be called on the client thread.
+@Slf4j
+@Singleton
+public class CollectionLogItemIconAtlas {
+
+    private static final int ICON_WIDTH = 18;
+    private static final int ICON_HEIGHT = 16;
+
+    // Whenever the mod icons have to grow, reserve at least this many extra slots (or as many slots as are already
+    // used, whichever is more) so that growth is rare.
+    private static final int MIN_SLOT_HEADROOM = 32;
+
+    @Inject
+    private Client client;
+
+    @Inject
+    private ClientThread clientThread;
+
+    @Inject
+    private ItemManager itemManager;
+
+    @Inject
+    private ScheduledExecutorService executor;
+
+    // item ID -> mod icon index, including icons that have been reserved but not yet installed
+    private final Map<Integer, Integer> iconIndices = new HashMap<>();
+
+    // mod icon index -> the sprite this atlas put there. Used to notice if the client replaces its mod icons.
+    private final Map<Integer, IndexedSprite> expectedSprites = new HashMap<>();
+
+    // Reserved mod icon slots that are not yet assigned to an item
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+
+    // Shown in reserved slots until the real icon is installed, since the client does not expect null mod icons
+    private IndexedSprite placeholderSprite;
+
+    // Incremented whenever the atlas is reset, so that icons resized for a previous atlas are discarded
+    private int generation = 0;
+
+    // Resized icons waiting to be installed on the client thread. Written from any thread.
+    private final Queue<ResizedIcon> resizedIcons = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean installScheduled = new AtomicBoolean(false);
+
+    /**
+     * Returns the mod icon index for this item, reserving a slot and starting to load its icon if necessary. The icon
+     * may appear shortly after a message using it is shown, in which case the chatbox is rebuilt.
+     *
+     * @param itemId The item's ID
+     * @return The mod icon index to use in an img tag, or -1 if mod icons are not available yet
+     */
+    public int getIconIndex(int itemId) {
+        loadIcons(Collections.singleton(itemId));
+        return iconIndices.getOrDefault(itemId, -1);
+    }
+
+    /**
+     * Loads icons for a batch of items (e.g. a whole collection log page), growing the mod icons at most once.
+     *
+     * @param itemIds The IDs of items whose icons should be loaded
+     */
+    public void loadIcons(Collection<Integer> itemIds) {
+        if (!validateModIcons()) {
+            return;
+        }
+
+        Set<Integer> itemIdsToLoad = new LinkedHashSet<>();
+        for (Integer itemId : itemIds) {
+            if (!iconIndices.containsKey(itemId)) {
+                itemIdsToLoad.add(itemId);
+            }
+        }
+        if (itemIdsToLoad.isEmpty()) {
+            return;
+        }
+
+        reserveSlots(itemIdsToLoad.size());
+
+        final int loadGeneration = generation;
+        for (Integer itemId : itemIdsToLoad) {
+            iconIndices.put(itemId, freeSlots.pop());
+
+            AsyncBufferedImage image = itemManager.getImage(itemId);
+            // Item images may still be loading. Resizing is done in the background once they are ready.
+            image.onLoaded(() -> executor.submit(() -> {
+                BufferedImage resizedImage = ImageUtil.resizeImage(image, ICON_WIDTH, ICON_HEIGHT);
+                resizedIcons.add(new ResizedIcon(loadGeneration, itemId, resizedImage));
+                scheduleInstall();
+            }));
+        }
+    }
+
+    // Can be called from any thread
+    private void scheduleInstall() {
+        if (installScheduled.compareAndSet(false, true)) {
+            clientThread.invokeLater(this::installResizedIcons);
+        }
+    }
+
+    private void installResizedIcons() {
+        installScheduled.set(false);
+
+        IndexedSprite[] modIcons = client.getModIcons();
+        boolean installedAny = false;
+
+        ResizedIcon resizedIcon;
+        while ((resizedIcon = resizedIcons.poll()) != null) {
+            if (resizedIcon.generation != generation || modIcons == null) {
+                continue;
+            }
+            Integer index = iconIndices.get(resizedIcon.itemId);
+            if (index == null || index >= modIcons.length || modIcons[index] != placeholderSprite) {
+                continue;
+            }
+
+            IndexedSprite sprite = ImageUtil.getImageIndexedSprite(resizedIcon.image, client);
+            modIcons[index] = sprite;
+            expectedSprites.put(index, sprite);
+            installedAny = true;
+        }
+
+        if (installedAny) {
+            client.setModIcons(modIcons);
+            // Show icons in any messages that were added before their icon was ready
+            if (client.getGameState() == GameState.LOGGED_IN) {
+                client.runScript(ScriptID.BUILD_CHATBOX);
+            }
+        }
+    }
+
+    // Make sure that there are at least numSlots free slots, growing the mod icons in a single step if necessary
+    private void reserveSlots(int numSlots) {
+        int numMissingSlots = numSlots - freeSlots.size();
+        if (numMissingSlots <= 0) {
+            return;
+        }
+
+        IndexedSprite[] modIcons = client.getModIcons();
+        int numNewSlots = numMissingSlots + Math.max(MIN_SLOT_HEADROOM, expectedSprites.size());
+
+        IndexedSprite[] newModIcons = Arrays.copyOf(modIcons, modIcons.length + numNewSlots);
+        for (int index = modIcons.length; index < newModIcons.length; index++) {
+            newModIcons[index] = placeholderSprite;
+            expectedSprites.put(index, placeholderSprite);
+            freeSlots.add(index);
+        }
+
+        client.setModIcons(newModIcons);
+    }
+
+    // Returns false if mod icons are not available yet. If the client has replaced its mod icons since icons were last
+    // loaded (other plugins may append to them, but the atlas' slots should be untouched), every icon is reloaded.
+    private boolean validateModIcons() {
+        IndexedSprite[] modIcons = client.getModIcons();
+        if (modIcons == null) {
+            return false;
+        }
+
+        if (placeholderSprite == null) {
+            placeholderSprite = ImageUtil.getImageIndexedSprite(
+                    new BufferedImage(ICON_WIDTH, ICON_HEIGHT, BufferedImage.TYPE_INT_ARGB), client);
+        }
+
+        for (Map.Entry<Integer, IndexedSprite> expectedSprite : expectedSprites.entrySet()) {
+            int index = expectedSprite.getKey();
+            if (index >= modIcons.length || modIcons[index] != expectedSprite.getValue()) {
+                log.debug("Mod icons were replaced. Reloading item icons.");
+                reset();
+                return true;
+            }
+        }
+
+        return true;
+    }
+
+    private void reset() {
+        iconIndices.clear();
+        expectedSprites.clear();
+        freeSlots.clear();
+        generation++;
+    }
+
+    private static class ResizedIcon {
+        private final int generation;
+        private final int itemId;
+        private final BufferedImage image;
+
+        private ResizedIcon(int generation, int itemId, BufferedImage image) {
+            this.generation = generation;
+            this.itemId = itemId;
+            this.image = image;
+        }
+    }
+
+}
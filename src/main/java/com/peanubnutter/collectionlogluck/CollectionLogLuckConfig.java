@@ -50,6 +50,13 @@ public interface CollectionLogLuckConfig extends Config
 	String SHOW_LUCK_TEXT_ON_COLLECTION_LOG_KEY = "show_luck_text_on_collection_log";
 	String SHOW_LUCK_BACKGROUND_ON_COLLECTION_LOG_KEY = "show_luck_background_on_collection_log";
 	String REPLACE_PERCENTILE_WITH_DRYCALC_NUMBER_KEY = "replace_percentile_with_drycalc_number";
+	String SHOW_EXPECTED_RANGE_TOOLTIP_KEY = "show_expected_range_tooltip";
+	String CAPTURE_FULL_COLLECTION_LOG_KEY = "capture_full_collection_log";
+	String COLLECTION_LOG_SERVER_URL_KEY = "collection_log_server_url";
+	String PREFETCH_COLLECTION_LOGS_KEY = "prefetch_collection_logs";
+	String SHOW_DEBUG_OVERLAY_KEY = "show_debug_overlay";
+	String USE_CDF_ATLAS_KEY = "use_cdf_atlas";
+	String PROGRESSIVE_OVERLAY_CALCULATION_KEY = "progressive_overlay_calculation";
 
 	// Used in GET request to collectionlog.net. Should be up-to-date with collection log plugin updates.
 	String COLLECTION_LOG_VERSION = "3.1.4";
@@ -124,6 +131,70 @@ public interface CollectionLogLuckConfig extends Config
 		return false;
 	}
 
+	@ConfigItem(
+			keyName = SHOW_EXPECTED_RANGE_TOOLTIP_KEY,
+			name = "Show expected range tooltip",
+			description = "When hovering over an item in the collection log, show the range of drops that 80% of" +
+					" players would have at your KC.",
+			position = 6,
+			section = appearanceSection
+	)
+	default boolean showExpectedRangeTooltip()
+	{
+		return true;
+	}
+
+	// ############### Capture section ###############
+
+	@ConfigSection(
+			name = "Collection log capture",
+			description = "Settings for reading the collection log in game",
+			position = 3
+	)
+	String captureSection = "capture";
+
+	// Walking the collection log changes the page being shown, so it must be opt-in.
+	@ConfigItem(
+			keyName = CAPTURE_FULL_COLLECTION_LOG_KEY,
+			name = "Capture full collection log",
+			description = "The first time the collection log is opened each login, step through every page to read" +
+					" your whole collection log. Takes a few seconds, and leaves the log on its last page.",
+			position = 1,
+			section = captureSection
+	)
+	default boolean captureFullCollectionLog()
+	{
+		return false;
+	}
+
+	// collectionlog.net has shut down, so there is no log server by default.
+	@ConfigItem(
+			keyName = COLLECTION_LOG_SERVER_URL_KEY,
+			name = "Collection log server URL",
+			description = "Optional server to fetch other players' collection logs from, for !luck. Logs of" +
+					" everyone using !luck around the same time are fetched in one request.",
+			position = 2,
+			section = captureSection
+	)
+	default String collectionLogServerUrl()
+	{
+		return "";
+	}
+
+	@ConfigItem(
+			keyName = PREFETCH_COLLECTION_LOGS_KEY,
+			name = "Prefetch chatting players' logs",
+			description = "Fetch the collection logs of players chatting in friends, clan and private chat (and players" +
+					" nearby in raids) in the background, so their !luck replies are instant. Requires a collection" +
+					" log server.",
+			position = 3,
+			section = captureSection
+	)
+	default boolean prefetchCollectionLogs()
+	{
+		return true;
+	}
+
 	// ############### Luck section ###############
 
 	@ConfigSection(
@@ -532,4 +603,43 @@ public interface CollectionLogLuckConfig extends Config
 			position = 1
 	) default String getVersion() { return ""; }
 
+	@ConfigItem(
+			keyName = SHOW_DEBUG_OVERLAY_KEY,
+			name = "Show calculation metrics",
+			description = "Show an overlay with calculation times, cache hit ratios and queue sizes. The same metrics" +
+					" can be printed to chat with !luckstats.",
+			section = debugSection,
+			position = 2
+	)
+	default boolean showDebugOverlay()
+	{
+		return false;
+	}
+
+	@ConfigItem(
+			keyName = USE_CDF_ATLAS_KEY,
+			name = "Use precomputed CDF atlas",
+			description = "Precompute common drop chance distributions into a file in the RuneLite cache directory" +
+					" (about 15MB), so most luck calculations are a single lookup.",
+			section = debugSection,
+			position = 3
+	)
+	default boolean useCdfAtlas()
+	{
+		return false;
+	}
+
+	@ConfigItem(
+			keyName = PROGRESSIVE_OVERLAY_CALCULATION_KEY,
+			name = "Progressive overlay calculation",
+			description = "Show a quick approximation (marked with ~) on the collection log for items that take a while" +
+					" to calculate, then the exact luck once it is ready. Chat commands always use exact luck.",
+			section = debugSection,
+			position = 4
+	)
+	default boolean progressiveOverlayCalculation()
+	{
+		return false;
+	}
+
 }
@@ -0,0 +1,355 @@
+package com.peanubnutter.collectionlogluck;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// An immutable copy of the plugin configuration, taken on startup and whenever the configuration changes. Reading the
+// live configuration goes through the ConfigManager, which looks up and parses a string on every call, and calculations
+// read it many times per item. A snapshot is cheap to read and safe to share with background threads.
+//
+// Every snapshot taken with of() has a distinct version, so cached results can be keyed by the configuration they were
+// calculated with. Changes that can't affect calculations keep the version, so they don't throw those results away.
+public class CollectionLogLuckConfigSnapshot implements CollectionLogLuckConfig {
+
+    private static final AtomicInteger NEXT_SNAPSHOT_VERSION = new AtomicInteger();
+
+    private final int snapshotVersion;
+
+    private final boolean showPluginUpdates;
+    private final boolean hidePersonalLuckCalculation;
+    private final boolean showCollectionLogOverlayText;
+    private final boolean showCollectionLogOverlayBackground;
+    private final boolean replacePercentileWithDrycalcNumber;
+    private final boolean showExpectedRangeTooltip;
+    private final boolean captureFullCollectionLog;
+    private final String collectionLogServerUrl;
+    private final boolean prefetchCollectionLogs;
+    private final int avgPersonalCoxPoints;
+    private final int avgPersonalCoxCmPoints;
+    private final double avgPersonalTobPointFraction;
+    private final double avgPersonalTobHmPointFraction;
+    private final double entryToaUniqueChance;
+    private final double regularToaUniqueChance;
+    private final double expertToaUniqueChance;
+    private final double avgNightmareTeamSize;
+    private final double avgNightmareContribution;
+    private final double avgNexContribution;
+    private final double avgHueycoatlContribution;
+    private final double avgRoyalTitansContribution;
+    private final double avgCallistoContribution;
+    private final double avgVenenatisContribution;
+    private final double avgVetionContribution;
+    private final double avgScurriusMvpRate;
+    private final double avgZalcanoContribution;
+    private final int avgZalcanoPoints;
+    private final int numInvalidBarrowsKc;
+    private final boolean barrowsBoltRacksEnabled;
+    private final int numFireCapesSacrificed;
+    private final int numInfernalCapesSacrificed;
+    private final int numDizanasQuiversSacrificed;
+    private final int numAraxxorDestroyed;
+    private final int numRoyalTitansSacrificed;
+    private final int numCrystalWeaponSeedsPurchased;
+    private final int skotizoKcPreBuff;
+    private final int kqKcPreDPickBuff;
+    private final int kbdKcPreDPickBuff;
+    private final int nightmareKcPreBuff;
+    private final int phosanisNightmareKcPreBuff;
+    private final String pluginVersion;
+    private final boolean showDebugOverlay;
+    private final boolean useCdfAtlas;
+    private final boolean progressiveOverlayCalculation;
+
+    /**
+     * Copy every setting of the given configuration.
+     *
+     * @param config The configuration to copy, usually the live configuration
+     * @return A snapshot with a version that no other snapshot has
+     */
+    public static CollectionLogLuckConfigSnapshot of(CollectionLogLuckConfig config) {
+        return new CollectionLogLuckConfigSnapshot(config, NEXT_SNAPSHOT_VERSION.getAndIncrement());
+    }
+
+    /**
+     * Copy every setting of the given configuration, keeping this snapshot's version. Only use this when the settings
+     * that changed cannot affect calculation results, since results cached with this version are still used.
+     *
+     * @param config The configuration to copy, usually the live configuration
+     * @return A snapshot with the same version as this one
+     */
+    public CollectionLogLuckConfigSnapshot withUnversionedChanges(CollectionLogLuckConfig config) {
+        return new CollectionLogLuckConfigSnapshot(config, snapshotVersion);
+    }
+
+    CollectionLogLuckConfigSnapshot(CollectionLogLuckConfig config, int snapshotVersion) {
+        this.snapshotVersion = snapshotVersion;
+        this.showPluginUpdates = config.showPluginUpdates();
+        this.hidePersonalLuckCalculation = config.hidePersonalLuckCalculation();
+        this.showCollectionLogOverlayText = config.showCollectionLogOverlayText();
+        this.showCollectionLogOverlayBackground = config.showCollectionLogOverlayBackground();
+        this.replacePercentileWithDrycalcNumber = config.replacePercentileWithDrycalcNumber();
+        this.showExpectedRangeTooltip = config.showExpectedRangeTooltip();
+        this.captureFullCollectionLog = config.captureFullCollectionLog();
+        this.collectionLogServerUrl = config.collectionLogServerUrl();
+        this.prefetchCollectionLogs = config.prefetchCollectionLogs();
+        this.avgPersonalCoxPoints = config.avgPersonalCoxPoints();
+        this.avgPersonalCoxCmPoints = config.avgPersonalCoxCmPoints();
+        this.avgPersonalTobPointFraction = config.avgPersonalTobPointFraction();
+        this.avgPersonalTobHmPointFraction = config.avgPersonalTobHmPointFraction();
+        this.entryToaUniqueChance = config.entryToaUniqueChance();
+        this.regularToaUniqueChance = config.regularToaUniqueChance();
+        this.expertToaUniqueChance = config.expertToaUniqueChance();
+        this.avgNightmareTeamSize = config.avgNightmareTeamSize();
+        this.avgNightmareContribution = config.avgNightmareContribution();
+        this.avgNexContribution = config.avgNexContribution();
+        this.avgHueycoatlContribution = config.avgHueycoatlContribution();
+        this.avgRoyalTitansContribution = config.avgRoyalTitansContribution();
+        this.avgCallistoContribution = config.avgCallistoContribution();
+        this.avgVenenatisContribution = config.avgVenenatisContribution();
+        this.avgVetionContribution = config.avgVetionContribution();
+        this.avgScurriusMvpRate = config.avgScurriusMvpRate();
+        this.avgZalcanoContribution = config.avgZalcanoContribution();
+        this.avgZalcanoPoints = config.avgZalcanoPoints();
+        this.numInvalidBarrowsKc = config.numInvalidBarrowsKc();
+        this.barrowsBoltRacksEnabled = config.barrowsBoltRacksEnabled();
+        this.numFireCapesSacrificed = config.numFireCapesSacrificed();
+        this.numInfernalCapesSacrificed = config.numInfernalCapesSacrificed();
+        this.numDizanasQuiversSacrificed = config.numDizanasQuiversSacrificed();
+        this.numAraxxorDestroyed = config.numAraxxorDestroyed();
+        this.numRoyalTitansSacrificed = config.numRoyalTitansSacrificed();
+        this.numCrystalWeaponSeedsPurchased = config.numCrystalWeaponSeedsPurchased();
+        this.skotizoKcPreBuff = config.skotizoKcPreBuff();
+        this.kqKcPreDPickBuff = config.kqKcPreDPickBuff();
+        this.kbdKcPreDPickBuff = config.kbdKcPreDPickBuff();
+        this.nightmareKcPreBuff = config.nightmareKcPreBuff();
+        this.phosanisNightmareKcPreBuff = config.phosanisNightmareKcPreBuff();
+        this.pluginVersion = config.getVersion();
+        this.showDebugOverlay = config.showDebugOverlay();
+        this.useCdfAtlas = config.useCdfAtlas();
+        this.progressiveOverlayCalculation = config.progressiveOverlayCalculation();
+    }
+
+    public int getSnapshotVersion() {
+        return snapshotVersion;
+    }
+
+    @Override
+    public boolean showPluginUpdates() {
+        return showPluginUpdates;
+    }
+
+    @Override
+    public boolean hidePersonalLuckCalculation() {
+        return hidePersonalLuckCalculation;
+    }
+
+    @Override
+    public boolean showCollectionLogOverlayText() {
+        return showCollectionLogOverlayText;
+    }
+
+    @Override
+    public boolean showCollectionLogOverlayBackground() {
+        return showCollectionLogOverlayBackground;
+    }
+
+    @Override
+    public boolean replacePercentileWithDrycalcNumber() {
+        return replacePercentileWithDrycalcNumber;
+    }
+
+    @Override
+    public boolean showExpectedRangeTooltip() {
+        return showExpectedRangeTooltip;
+    }
+
+    @Override
+    public boolean captureFullCollectionLog() {
+        return captureFullCollectionLog;
+    }
+
+    @Override
+    public String collectionLogServerUrl() {
+        return collectionLogServerUrl;
+    }
+
+    @Override
+    public boolean prefetchCollectionLogs() {
+        return prefetchCollectionLogs;
+    }
+
+    @Override
+    public int avgPersonalCoxPoints() {
+        return avgPersonalCoxPoints;
+    }
+
+    @Override
+    public int avgPersonalCoxCmPoints() {
+        return avgPersonalCoxCmPoints;
+    }
+
+    @Override
+    public double avgPersonalTobPointFraction() {
+        return avgPersonalTobPointFraction;
+    }
+
+    @Override
+    public double avgPersonalTobHmPointFraction() {
+        return avgPersonalTobHmPointFraction;
+    }
+
+    @Override
+    public double entryToaUniqueChance() {
+        return entryToaUniqueChance;
+    }
+
+    @Override
+    public double regularToaUniqueChance() {
+        return regularToaUniqueChance;
+    }
+
+    @Override
+    public double expertToaUniqueChance() {
+        return expertToaUniqueChance;
+    }
+
+    @Override
+    public double avgNightmareTeamSize() {
+        return avgNightmareTeamSize;
+    }
+
+    @Override
+    public double avgNightmareContribution() {
+        return avgNightmareContribution;
+    }
+
+    @Override
+    public double avgNexContribution() {
+        return avgNexContribution;
+    }
+
+    @Override
+    public double avgHueycoatlContribution() {
+        return avgHueycoatlContribution;
+    }
+
+    @Override
+    public double avgRoyalTitansContribution() {
+        return avgRoyalTitansContribution;
+    }
+
+    @Override
+    public double avgCallistoContribution() {
+        return avgCallistoContribution;
+    }
+
+    @Override
+    public double avgVenenatisContribution() {
+        return avgVenenatisContribution;
+    }
+
+    @Override
+    public double avgVetionContribution() {
+        return avgVetionContribution;
+    }
+
+    @Override
+    public double avgScurriusMvpRate() {
+        return avgScurriusMvpRate;
+    }
+
+    @Override
+    public double avgZalcanoContribution() {
+        return avgZalcanoContribution;
+    }
+
+    @Override
+    public int avgZalcanoPoints() {
+        return avgZalcanoPoints;
+    }
+
+    @Override
+    public int numInvalidBarrowsKc() {
+        return numInvalidBarrowsKc;
+    }
+
+    @Override
+    public boolean barrowsBoltRacksEnabled() {
+        return barrowsBoltRacksEnabled;
+    }
+
+    @Override
+    public int numFireCapesSacrificed() {
+        return numFireCapesSacrificed;
+    }
+
+    @Override
+    public int numInfernalCapesSacrificed() {
+        return numInfernalCapesSacrificed;
+    }
+
+    @Override
+    public int numDizanasQuiversSacrificed() {
+        return numDizanasQuiversSacrificed;
+    }
+
+    @Override
+    public int numAraxxorDestroyed() {
+        return numAraxxorDestroyed;
+    }
+
+    @Override
+    public int numRoyalTitansSacrificed() {
+        return numRoyalTitansSacrificed;
+    }
+
+    @Override
+    public int numCrystalWeaponSeedsPurchased() {
+        return numCrystalWeaponSeedsPurchased;
+    }
+
+    @Override
+    public int skotizoKcPreBuff() {
+        return skotizoKcPreBuff;
+    }
+
+    @Override
+    public int kqKcPreDPickBuff() {
+        return kqKcPreDPickBuff;
+    }
+
+    @Override
+    public int kbdKcPreDPickBuff() {
+        return kbdKcPreDPickBuff;
+    }
+
+    @Override
+    public int nightmareKcPreBuff() {
+        return nightmareKcPreBuff;
+    }
+
+    @Override
+    public int phosanisNightmareKcPreBuff() {
+        return phosanisNightmareKcPreBuff;
+    }
+
+    @Override
+    public String getVersion() {
+        return pluginVersion;
+    }
+
+    @Override
+    public boolean showDebugOverlay() {
+        return showDebugOverlay;
+    }
+
+    @Override
+    public boolean useCdfAtlas() {
+        return useCdfAtlas;
+    }
+
+    @Override
+    public boolean progressiveOverlayCalculation() {
+        return progressiveOverlayCalculation;
+    }
+
+}
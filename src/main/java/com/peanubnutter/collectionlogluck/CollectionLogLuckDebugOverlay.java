@@ -0,0 +1,48 @@
+package com.peanubnutter.collectionlogluck;
+
+import com.peanubnutter.collectionlogluck.util.LuckMetrics;
+import net.runelite.client.ui.overlay.OverlayPanel;
+import net.runelite.client.ui.overlay.OverlayPosition;
+import net.runelite.client.ui.overlay.components.LineComponent;
+import net.runelite.client.ui.overlay.components.TitleComponent;
+
+import javax.inject.Inject;
+import java.awt.*;
+import java.util.List;
+
+// Shows LuckMetrics, e.g. to find out which items cause frame hitches on the collection log page
+public class CollectionLogLuckDebugOverlay extends OverlayPanel {
+
+    private static final int MAX_LINES = 25;
+    private static final int PANEL_WIDTH = 320;
+
+    @Inject
+    private CollectionLogLuckConfig config;
+
+    public CollectionLogLuckDebugOverlay() {
+        super();
+        setPosition(OverlayPosition.TOP_LEFT);
+    }
+
+    @Override
+    public Dimension render(Graphics2D graphics) {
+        if (!config.showDebugOverlay()) {
+            return null;
+        }
+
+        panelComponent.setPreferredSize(new Dimension(PANEL_WIDTH, 0));
+        panelComponent.getChildren().add(TitleComponent.builder()
+                .text("Collection Log Luck metrics")
+                .build());
+
+        List<String> lines = LuckMetrics.GLOBAL.summarize();
+        for (String line : lines.subList(0, Math.min(MAX_LINES, lines.size()))) {
+            panelComponent.getChildren().add(LineComponent.builder()
+                    .left(line)
+                    .build());
+        }
+
+        return super.render(graphics);
+    }
+
+}
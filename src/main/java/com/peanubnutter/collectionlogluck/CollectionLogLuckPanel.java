@@ -0,0 +1,204 @@
+package com.peanubnutter.collectionlogluck;
+
+import com.peanubnutter.collectionlogluck.model.ItemLuckRow;
+import com.peanubnutter.collectionlogluck.util.ItemLuckListModel;
+import com.peanubnutter.collectionlogluck.util.LuckUtils;
+import net.runelite.client.ui.ColorScheme;
+import net.runelite.client.ui.FontManager;
+import net.runelite.client.ui.PluginPanel;
+import net.runelite.client.ui.components.IconTextField;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+// Side panel listing the luck of every calculable item in the local player's collection log. Rows are calculated on a
+// background thread by the plugin and streamed in as they complete. The JList only renders visible rows, so the panel
+// stays responsive even while hundreds of rows are still being calculated.
+//
+// All methods must be called on the event dispatch thread.
+public class CollectionLogLuckPanel extends PluginPanel {
+
+    private static final int ROW_HEIGHT = 42;
+
+    private final Runnable onRefresh;
+
+    private final ItemLuckListModel listModel = new ItemLuckListModel();
+
+    private final JLabel statusLabel = new JLabel();
+
+    // The calculation whose rows are currently shown. Rows from earlier calculations are ignored.
+    private int shownGeneration = -1;
+
+    private int expectedNumRows;
+
+    /**
+     * @param onRefresh Called when the panel is opened or the refresh button is clicked, to recalculate every row
+     */
+    public CollectionLogLuckPanel(Runnable onRefresh) {
+        // The item list has its own scroll pane
+        super(false);
+        this.onRefresh = onRefresh;
+
+        setLayout(new BorderLayout(0, 6));
+        setBorder(new EmptyBorder(10, 10, 10, 10));
+        setBackground(ColorScheme.DARK_GRAY_COLOR);
+
+        IconTextField searchBar = new IconTextField();
+        searchBar.setIcon(IconTextField.Icon.SEARCH);
+        searchBar.setPreferredSize(new Dimension(PluginPanel.PANEL_WIDTH - 20, 30));
+        searchBar.setBackground(ColorScheme.DARKER_GRAY_COLOR);
+        searchBar.setHoverBackgroundColor(ColorScheme.DARK_GRAY_HOVER_COLOR);
+        searchBar.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                listModel.setFilterText(searchBar.getText());
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                listModel.setFilterText(searchBar.getText());
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                listModel.setFilterText(searchBar.getText());
+            }
+        });
+
+        JComboBox<ItemLuckListModel.SortOrder> sortOrderBox = new JComboBox<>(ItemLuckListModel.SortOrder.values());
+        sortOrderBox.setFocusable(false);
+        sortOrderBox.addItemListener(e ->
+                listModel.setSortOrder((ItemLuckListModel.SortOrder) sortOrderBox.getSelectedItem()));
+
+        JButton refreshButton = new JButton("Refresh");
+        refreshButton.setFocusable(false);
+        refreshButton.addActionListener(e -> onRefresh.run());
+
+        JPanel sortRow = new JPanel(new BorderLayout(6, 0));
+        sortRow.setBackground(ColorScheme.DARK_GRAY_COLOR);
+        sortRow.add(sortOrderBox, BorderLayout.CENTER);
+        sortRow.add(refreshButton, BorderLayout.EAST);
+
+        statusLabel.setFont(FontManager.getRunescapeSmallFont());
+        statusLabel.setForeground(ColorScheme.LIGHT_GRAY_COLOR);
+
+        JPanel controls = new JPanel(new GridLayout(0, 1, 0, 6));
+        controls.setBackground(ColorScheme.DARK_GRAY_COLOR);
+        controls.add(searchBar);
+        controls.add(sortRow);
+        controls.add(statusLabel);
+
+        JList<ItemLuckRow> itemList = new JList<>(listModel);
+        // A fixed cell height means the list never has to render every row to lay itself out
+        itemList.setFixedCellHeight(ROW_HEIGHT);
+        itemList.setCellRenderer(new ItemLuckRowRenderer());
+        itemList.setBackground(ColorScheme.DARK_GRAY_COLOR);
+        itemList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+
+        JScrollPane scrollPane = new JScrollPane(itemList);
+        scrollPane.setBorder(null);
+        scrollPane.setHorizontalScrollBarPolicy(ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
+
+        add(controls, BorderLayout.NORTH);
+        add(scrollPane, BorderLayout.CENTER);
+
+        showMessage("Open this panel while logged in to see your luck.");
+    }
+
+    @Override
+    public void onActivate() {
+        onRefresh.run();
+    }
+
+    // Clear the list and show a message in place of the calculation progress, e.g. while logged out
+    public void showMessage(String message) {
+        shownGeneration = -1;
+        listModel.clear();
+        statusLabel.setText(message);
+    }
+
+    public void startCalculation(int generation, int numItems) {
+        shownGeneration = generation;
+        expectedNumRows = numItems;
+        listModel.clear();
+        statusLabel.setText("Calculating luck...");
+    }
+
+    public void addRows(int generation, List<ItemLuckRow> rows) {
+        if (generation != shownGeneration) {
+            return;
+        }
+        listModel.addRows(rows);
+        statusLabel.setText("Calculating luck... (" + listModel.getNumRows() + " items)");
+    }
+
+    public void finishCalculation(int generation) {
+        if (generation != shownGeneration) {
+            return;
+        }
+        statusLabel.setText(listModel.getNumRows() + " items with calculable luck");
+    }
+
+    // Drawn rather than loaded, so the plugin does not need to ship an image resource
+    static BufferedImage createNavigationIcon() {
+        BufferedImage icon = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = icon.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        // four-leaf clover
+        g.setColor(new Color(60, 160, 60));
+        g.fillOval(3, 0, 6, 6);
+        g.fillOval(7, 3, 6, 6);
+        g.fillOval(3, 6, 6, 6);
+        g.fillOval(0, 3, 6, 6);
+        g.setStroke(new BasicStroke(1.5f));
+        g.drawLine(7, 9, 11, 15);
+        g.dispose();
+        return icon;
+    }
+
+    private static class ItemLuckRowRenderer extends JPanel implements ListCellRenderer<ItemLuckRow> {
+
+        private final JLabel nameLabel = new JLabel();
+        private final JLabel luckLabel = new JLabel();
+        private final JLabel killCountLabel = new JLabel();
+
+        ItemLuckRowRenderer() {
+            setLayout(new BorderLayout());
+            setBorder(new EmptyBorder(2, 4, 2, 4));
+
+            nameLabel.setForeground(Color.WHITE);
+            luckLabel.setFont(FontManager.getRunescapeSmallFont());
+            killCountLabel.setFont(FontManager.getRunescapeSmallFont());
+            killCountLabel.setForeground(ColorScheme.LIGHT_GRAY_COLOR);
+
+            JPanel details = new JPanel(new GridLayout(2, 1));
+            details.setOpaque(false);
+            details.add(luckLabel);
+            details.add(killCountLabel);
+
+            add(nameLabel, BorderLayout.NORTH);
+            add(details, BorderLayout.CENTER);
+        }
+
+        @Override
+        public Component getListCellRendererComponent(JList<? extends ItemLuckRow> list, ItemLuckRow row, int index,
+                                                      boolean isSelected, boolean cellHasFocus) {
+            nameLabel.setText(row.getItemName() + " x" + row.getQuantity());
+            luckLabel.setText("Luck: " + LuckUtils.formatLuckSigDigits(row.getLuck())
+                    + "%  Dryness: " + LuckUtils.formatLuckSigDigits(row.getDryness()) + "%");
+            luckLabel.setForeground(LuckUtils.getOverallLuckColor(row.getOverallLuck()));
+            killCountLabel.setText(row.getKillCountDescription());
+            setToolTipText(row.getKillCountDescription());
+
+            setBackground(isSelected ? ColorScheme.DARK_GRAY_HOVER_COLOR
+                    : index % 2 == 0 ? ColorScheme.DARKER_GRAY_COLOR : ColorScheme.DARK_GRAY_COLOR);
+            return this;
+        }
+    }
+
+}
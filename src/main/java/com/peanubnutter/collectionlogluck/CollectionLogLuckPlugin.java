@@ -2,29 +2,52 @@ package com.peanubnutter.collectionlogluck;
 
 import com.google.common.collect.ImmutableList;
 import com.google.inject.Provides;
+import com.peanubnutter.collectionlogluck.luck.AggregateLuckCalculationResult;
+import com.peanubnutter.collectionlogluck.luck.AggregateLuckCalculator;
 import com.peanubnutter.collectionlogluck.luck.CollectionLogItemAliases;
 import com.peanubnutter.collectionlogluck.luck.LogItemInfo;
 import com.peanubnutter.collectionlogluck.luck.LuckCalculationResult;
 import com.peanubnutter.collectionlogluck.luck.drop.AbstractDrop;
+import com.peanubnutter.collectionlogluck.luck.drop.BinomialDrop;
 import com.peanubnutter.collectionlogluck.luck.drop.DropLuck;
+import com.peanubnutter.collectionlogluck.luck.probability.CdfAtlas;
+import com.peanubnutter.collectionlogluck.luck.probability.CdfTable;
 import com.peanubnutter.collectionlogluck.model.CollectionLog;
+import com.peanubnutter.collectionlogluck.model.CollectionLogChange;
 import com.peanubnutter.collectionlogluck.model.CollectionLogItem;
 import com.peanubnutter.collectionlogluck.model.CollectionLogKillCount;
 import com.peanubnutter.collectionlogluck.model.CollectionLogPage;
-import com.peanubnutter.collectionlogluck.util.CollectionLogBuilder;
+import com.peanubnutter.collectionlogluck.model.CollectionLogTab;
+import com.peanubnutter.collectionlogluck.model.ItemLuckRow;
+import com.peanubnutter.collectionlogluck.source.BatchingCollectionLogSource;
+import com.peanubnutter.collectionlogluck.source.CollectionLogSource;
+import com.peanubnutter.collectionlogluck.source.EmptyCollectionLogSource;
+import com.peanubnutter.collectionlogluck.source.FallbackCollectionLogSource;
+import com.peanubnutter.collectionlogluck.source.LocalCollectionLogSource;
+import com.peanubnutter.collectionlogluck.source.RemoteCollectionLogSource;
 import com.peanubnutter.collectionlogluck.util.CollectionLogLuckApiClient;
+import com.peanubnutter.collectionlogluck.util.CollectionLogPrefetchQueue;
+import com.peanubnutter.collectionlogluck.util.CollectionLogReconciler;
 import com.peanubnutter.collectionlogluck.util.JsonUtils;
+import com.peanubnutter.collectionlogluck.util.LuckIndex;
+import com.peanubnutter.collectionlogluck.util.LuckMetrics;
 import com.peanubnutter.collectionlogluck.util.LuckUtils;
+import com.peanubnutter.collectionlogluck.util.ProgressiveResultCache;
+import com.peanubnutter.collectionlogluck.util.TickReplyQueue;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.*;
 import net.runelite.api.events.ChatMessage;
+import net.runelite.api.events.ClientTick;
 import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.GameTick;
 import net.runelite.api.events.ScriptPostFired;
 import net.runelite.api.events.WidgetLoaded;
 import net.runelite.api.widgets.ComponentID;
 import net.runelite.api.widgets.InterfaceID;
 import net.runelite.api.widgets.Widget;
+import net.runelite.client.RuneLite;
 import net.runelite.client.callback.ClientThread;
 import net.runelite.client.chat.ChatCommandManager;
 import net.runelite.client.chat.ChatMessageBuilder;
@@ -33,25 +56,39 @@ import net.runelite.client.chat.QueuedMessage;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.events.ConfigChanged;
-import net.runelite.client.game.ItemManager;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
+import net.runelite.client.ui.ClientToolbar;
+import net.runelite.client.ui.NavigationButton;
 import net.runelite.client.ui.overlay.OverlayManager;
-import net.runelite.client.util.ImageUtil;
 import net.runelite.client.util.Text;
+import okhttp3.HttpUrl;
 
 import javax.inject.Inject;
+import javax.swing.SwingUtilities;
 import java.awt.*;
-import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CancellationException;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -66,14 +103,54 @@ public class CollectionLogLuckPlugin extends Plugin {
 
     private static final Pattern COLLECTION_LOG_LUCK_CHECK_REGEX = Pattern.compile("^You have received (.*) x (.*)\\.$");
     private static final String COLLECTION_LOG_LUCK_COMMAND_STRING = "!luck";
+    private static final String COLLECTION_LOG_LUCK_STATS_COMMAND_STRING = "!luckstats";
     private static final Pattern COLLECTION_LOG_LUCK_COMMAND_PATTERN = Pattern.compile("!luck\\s*(.+)\\s*", Pattern.CASE_INSENSITIVE);
+    // !luck lucky [n] or !luck dry [n]
+    private static final Pattern LUCK_EXTREMES_COMMAND_PATTERN =
+            Pattern.compile("(lucky|luckiest|dry|driest)(?:\\s+(\\d+))?", Pattern.CASE_INSENSITIVE);
     private static final String COLLECTION_LOG_LUCK_CONFIG_GROUP = "collectionlogluck";
     private static final int ADVENTURE_LOG_COLLECTION_LOG_SELECTED_VARBIT_ID = 12061;
     private static final Pattern ADVENTURE_LOG_TITLE_PATTERN = Pattern.compile("The Exploits of (.+)");
     private static final Color WARNING_TEXT_COLOR = Color.RED.darker();
 
-    private static final String COLLECTION_LOG_NET_SHUTDOWN_ERROR =
-            "CLog Luck - warning: collectionlog.net has shut down. Text commands are disabled until further notice.";
+    // In a burst of !luck commands (e.g. a whole raid team), each sender gets a few replies every few seconds, and only
+    // a few distinct replies are built per tick to bound the time spent on the client thread.
+    private static final int MAX_LUCK_COMMANDS_PER_SENDER = 3;
+    private static final int LUCK_COMMAND_RATE_LIMIT_WINDOW_TICKS = 10;
+    private static final int MAX_LUCK_REPLIES_PER_TICK = 5;
+
+    // !luck commands within this window share a single collection log request
+    private static final long COLLECTION_LOG_BATCH_WINDOW_MILLIS = 100;
+    private static final int MAX_COLLECTION_LOG_BATCH_SIZE = 50;
+
+    // Loaded collection logs beyond this are evicted, least recently used first
+    private static final int MAX_LOADED_COLLECTION_LOGS = 200;
+    private static final int MAX_PREFETCH_CANDIDATES = 100;
+    private static final int MAX_PREFETCHES_PER_TICK = 5;
+    private static final int NEARBY_PLAYER_PREFETCH_INTERVAL_TICKS = 10;
+    // Senders in these chats are likely to use !luck, or to be asked about with !luck
+    private static final Set<ChatMessageType> PREFETCH_CHAT_MESSAGE_TYPES = EnumSet.of(
+            ChatMessageType.FRIENDSCHAT,
+            ChatMessageType.CLAN_CHAT,
+            ChatMessageType.CLAN_GUEST_CHAT,
+            ChatMessageType.PRIVATECHAT
+    );
+
+    // Rows of the luck panel are shown in batches of this size as they are calculated
+    private static final int LUCK_PANEL_BATCH_SIZE = 25;
+
+    // How many items !luck lucky and !luck dry list by default, and at most, to fit in a chat message
+    private static final int DEFAULT_LUCK_EXTREMES_COUNT = 3;
+    private static final int MAX_LUCK_EXTREMES_COUNT = 5;
+
+    // How long the overlay waits for an exact luck calculation when it first asks for it, before showing an approximation
+    private static final long PROGRESSIVE_CALCULATION_DEADLINE_MILLIS = 2;
+
+    private static final File CDF_ATLAS_FILE = new File(RuneLite.CACHE_DIR, "collection-log-luck-cdf-atlas.bin");
+
+    // The "expected range" of drops is the range that 80% of players would have at the same KC
+    private static final double EXPECTED_RANGE_LOW_QUANTILE = 0.1;
+    private static final double EXPECTED_RANGE_HIGH_QUANTILE = 0.9;
 
     // Make sure to update this version to show the plugin message below.
     private final String pluginVersion = "v1.2.2";
@@ -81,18 +158,55 @@ public class CollectionLogLuckPlugin extends Plugin {
             "<colHIGHLIGHT>* Fixed broken luck calculations<br>" +
             "<colHIGHLIGHT>* Support Shellbane Gryphon and Steel Ring<br>";
 
-    private Map<Integer, Integer> loadedCollectionLogIcons;
-
-    // caches collection log per username. Cleared on logout (including hopping worlds).
-    // Returns a CompletableFuture to help track in-progress collection log requests
+    // caches collection log per username, evicting the least recently used. Cleared on logout (including hopping
+    // worlds). Returns a CompletableFuture to help track in-progress collection log requests
     private Map<String, CompletableFuture<CollectionLog>> loadedCollectionLogs;
 
+    // Collection logs captured in game. Kept across logins, unlike loadedCollectionLogs.
+    private LocalCollectionLogSource localCollectionLogSource;
+    // Where collection logs are fetched from: captured logs, then the log server (if any), then an empty log.
+    private CollectionLogSource collectionLogSource;
+    // Prefetching is pointless without a log server, since other sources only have empty logs for other players
+    private boolean collectionLogServerEnabled;
+    // Recently active players whose logs should be fetched before they are needed
+    private CollectionLogPrefetchQueue collectionLogPrefetchQueue;
+
     // caches luck calculations per username+luckCalculationID. Cleared on logout (including hopping worlds).
-    private Map<String, LuckCalculationResult> luckCalculationResults;
+    private ProgressiveResultCache<String, LuckCalculationResult> luckCalculationResults;
+    // Calculates exact luck for the overlay in the background, while approximations are shown
+    private ExecutorService luckRefinementExecutor;
+
+    // The luck of every calculable item per username, for !luck lucky and !luck dry. Cleared along with
+    // luckCalculationResults.
+    private Map<String, LuckIndex> luckIndexes;
+
+    // caches item distributions per username+item+KC, for quantiles. Cleared along with luckCalculationResults.
+    private Map<String, CdfTable> cdfTables;
+
+    // The player's seen item counts and boss KC in the collection log
+    private CollectionLogReconciler collectionLogReconciler;
+    // !luck commands waiting to be replied to on the next game tick
+    private TickReplyQueue<PendingLuckReply> luckReplyQueue;
+
+    // collection log page name -> fingerprint of the page when it was last scraped. Cleared on logout.
+    private Map<String, Integer> scrapedPageFingerprints;
+    // Whether a scrape of the collection log page is already scheduled on the client thread
+    private boolean collectionLogScrapeScheduled;
+    // Whether a background collection log reconciliation is waiting to run
+    private final AtomicBoolean collectionLogReconcileJobPending = new AtomicBoolean(false);
+
+    // Pages read so far by the full collection log capture, per tab
+    private Map<String, Map<String, CollectionLogPage>> capturedTabs;
+    private CollectionLogLuckPanel luckPanel;
+    private NavigationButton luckPanelNavigationButton;
+    // Calculates the luck panel's rows, so that neither the client thread nor the UI thread is blocked
+    private ExecutorService luckPanelExecutor;
+    // Incremented for every luck panel calculation, so that older calculations stop early and are not shown
+    private final AtomicInteger luckPanelGeneration = new AtomicInteger();
+
+    // Only capture the full collection log once per login.
+    private boolean fullCollectionLogCaptured;
 
-    // Map of the player's seen item counts and boss KC in the collection log
-    private Map<Integer, Integer> seenItemCounts;
-    private Map<String, Integer> seenKillCounts;
     // Only warn players of desynced collection log once per login.
     private boolean desyncReminderSent;
 
@@ -114,8 +228,9 @@ public class CollectionLogLuckPlugin extends Plugin {
     @Inject
     private CollectionLogLuckConfig config;
 
-    @Inject
-    private ItemManager itemManager;
+    // The config that calculations use, rather than the live config. Replaced whenever the config changes.
+    @Getter
+    private volatile CollectionLogLuckConfigSnapshot configSnapshot;
 
     @Inject
     private CollectionLogLuckApiClient apiClient;
@@ -135,6 +250,18 @@ public class CollectionLogLuckPlugin extends Plugin {
     @Inject
     private CollectionLogWidgetItemOverlay collectionLogWidgetItemOverlay;
 
+    @Inject
+    private CollectionLogLuckDebugOverlay debugOverlay;
+
+    @Inject
+    private CollectionLogItemIconAtlas itemIconAtlas;
+
+    @Inject
+    private CollectionLogPageWalker collectionLogPageWalker;
+
+    @Inject
+    private ClientToolbar clientToolbar;
+
     @Provides
     CollectionLogLuckConfig provideConfig(ConfigManager configManager) {
         return configManager.getConfig(CollectionLogLuckConfig.class);
@@ -142,36 +269,161 @@ public class CollectionLogLuckPlugin extends Plugin {
 
     @Override
     protected void startUp() {
-        overlayManager.add(collectionLogWidgetItemOverlay);
+        configSnapshot = CollectionLogLuckConfigSnapshot.of(config);
 
-        loadedCollectionLogIcons = new HashMap<>();
-        loadedCollectionLogs = new HashMap<>();
-        luckCalculationResults = new HashMap<>();
-        seenItemCounts = new HashMap<>();
-        seenKillCounts = new HashMap<>();
+        overlayManager.add(collectionLogWidgetItemOverlay);
+        overlayManager.add(debugOverlay);
+
+        loadedCollectionLogs = Collections.synchronizedMap(
+                new LinkedHashMap<String, CompletableFuture<CollectionLog>>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<CollectionLog>> eldest) {
+                        return size() > MAX_LOADED_COLLECTION_LOGS;
+                    }
+                });
+        collectionLogPrefetchQueue = new CollectionLogPrefetchQueue(MAX_PREFETCH_CANDIDATES, MAX_PREFETCHES_PER_TICK);
+        localCollectionLogSource = new LocalCollectionLogSource();
+        collectionLogSource = buildCollectionLogSource();
+        luckRefinementExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "collection-log-luck-refinement");
+            thread.setDaemon(true);
+            return thread;
+        });
+        luckCalculationResults = new ProgressiveResultCache<>(luckRefinementExecutor,
+                TimeUnit.MILLISECONDS.toNanos(PROGRESSIVE_CALCULATION_DEADLINE_MILLIS));
+        cdfTables = new HashMap<>();
+        luckIndexes = new ConcurrentHashMap<>();
+        collectionLogReconciler = new CollectionLogReconciler();
+        scrapedPageFingerprints = new HashMap<>();
+        capturedTabs = new LinkedHashMap<>();
+        fullCollectionLogCaptured = false;
+        luckReplyQueue = new TickReplyQueue<>(
+                MAX_LUCK_COMMANDS_PER_SENDER, LUCK_COMMAND_RATE_LIMIT_WINDOW_TICKS, MAX_LUCK_REPLIES_PER_TICK);
         desyncReminderSent = false;
 
         chatCommandManager.registerCommandAsync(COLLECTION_LOG_LUCK_COMMAND_STRING, this::processLuckCommandMessage);
+        chatCommandManager.registerCommand(COLLECTION_LOG_LUCK_STATS_COMMAND_STRING, this::processLuckStatsCommandMessage);
+
+        LuckMetrics.GLOBAL.registerGauge("queue.luckReplies", luckReplyQueue::size);
+        LuckMetrics.GLOBAL.registerGauge("queue.prefetch", collectionLogPrefetchQueue::size);
+        LuckMetrics.GLOBAL.registerGauge("size.loadedCollectionLogs", loadedCollectionLogs::size);
+        LuckMetrics.GLOBAL.registerGauge("size.luckCalculationResults", () -> luckCalculationResults.size());
+
+        luckPanelExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "collection-log-luck-panel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        luckPanel = new CollectionLogLuckPanel(this::refreshLuckPanel);
+        luckPanelNavigationButton = NavigationButton.builder()
+                .tooltip("Collection Log Luck")
+                .icon(CollectionLogLuckPanel.createNavigationIcon())
+                .priority(10)
+                .panel(luckPanel)
+                .build();
+        clientToolbar.addNavigation(luckPanelNavigationButton);
+
+        updateCdfAtlas();
     }
 
     @Override
     protected void shutDown() {
         overlayManager.remove(collectionLogWidgetItemOverlay);
+        overlayManager.remove(debugOverlay);
 
         clearCache();
 
         chatCommandManager.unregisterCommand(COLLECTION_LOG_LUCK_COMMAND_STRING);
+        chatCommandManager.unregisterCommand(COLLECTION_LOG_LUCK_STATS_COMMAND_STRING);
+
+        LuckMetrics.GLOBAL.unregisterGauge("queue.luckReplies");
+        LuckMetrics.GLOBAL.unregisterGauge("queue.prefetch");
+        LuckMetrics.GLOBAL.unregisterGauge("size.loadedCollectionLogs");
+        LuckMetrics.GLOBAL.unregisterGauge("size.luckCalculationResults");
+
+        clientToolbar.removeNavigation(luckPanelNavigationButton);
+        luckPanelExecutor.shutdownNow();
+        luckPanel = null;
+        luckRefinementExecutor.shutdownNow();
+
+        CdfAtlas.install(null);
+    }
+
+    // Install or uninstall the CDF atlas according to the config. Building the atlas takes a moment, so it is loaded
+    // (and rebuilt if missing or outdated) in the background. Calculations are the same either way, only faster.
+    private void updateCdfAtlas() {
+        if (!config.useCdfAtlas()) {
+            CdfAtlas.install(null);
+            return;
+        }
+        executor.execute(() -> {
+            Set<Double> dropChances = BinomialDrop.getDistinctDropChances(LogItemInfo.getAllLogItemInfos());
+            long fingerprint = CdfAtlas.fingerprint(dropChances);
+
+            // Check the fingerprint before mapping the atlas, since a mapped atlas can't be replaced on Windows
+            boolean upToDate = false;
+            if (CDF_ATLAS_FILE.exists()) {
+                try {
+                    upToDate = CdfAtlas.readFingerprint(CDF_ATLAS_FILE.toPath()) == fingerprint;
+                } catch (IOException e) {
+                    log.debug("Unable to read CDF atlas, rebuilding it: " + e.getMessage());
+                }
+            }
+            CdfAtlas atlas;
+            try {
+                if (!upToDate) {
+                    CdfAtlas.write(CDF_ATLAS_FILE.toPath(), dropChances);
+                }
+                atlas = CdfAtlas.load(CDF_ATLAS_FILE.toPath());
+            } catch (IOException e) {
+                log.warn("Unable to build CDF atlas: " + e.getMessage());
+                return;
+            }
+            // The config may have changed while loading
+            if (config.useCdfAtlas()) {
+                CdfAtlas.install(atlas);
+            }
+        });
+    }
+
+    private CollectionLogSource buildCollectionLogSource() {
+        List<CollectionLogSource> sources = new ArrayList<>();
+        sources.add(localCollectionLogSource);
+        collectionLogServerEnabled = false;
+
+        String serverUrl = config.collectionLogServerUrl().trim();
+        if (!serverUrl.isEmpty()) {
+            HttpUrl parsedServerUrl = HttpUrl.parse(serverUrl);
+            if (parsedServerUrl == null) {
+                log.warn("Invalid collection log server URL: " + serverUrl);
+            } else {
+                sources.add(new RemoteCollectionLogSource(apiClient, jsonUtils, parsedServerUrl));
+                collectionLogServerEnabled = true;
+            }
+        }
+
+        sources.add(new EmptyCollectionLogSource());
+
+        return new BatchingCollectionLogSource(new FallbackCollectionLogSource(sources), executor,
+                COLLECTION_LOG_BATCH_WINDOW_MILLIS, MAX_COLLECTION_LOG_BATCH_SIZE);
     }
 
     protected void clearCache() {
-        loadedCollectionLogIcons.clear();
         loadedCollectionLogs.clear();
         luckCalculationResults.clear();
+        cdfTables.clear();
+        luckIndexes.clear();
         // We could probably avoid clearing these on logout, to help the user figure out when their collection log has
         // been updated properly, but it might also warn users every time they log in, so just defer the warning until
         // they actually try to calculate luck for an out of date item.
-        seenItemCounts.clear();
-        seenKillCounts.clear();
+        collectionLogReconciler.clear();
+        scrapedPageFingerprints.clear();
+        collectionLogPageWalker.stop();
+        capturedTabs.clear();
+        fullCollectionLogCaptured = false;
+        luckReplyQueue.clear();
+        clearLuckPanel();
+        collectionLogPrefetchQueue.clear();
         desyncReminderSent = false;
     }
 
@@ -225,6 +477,10 @@ public class CollectionLogLuckPlugin extends Plugin {
 
     @Subscribe
     public void onChatMessage(ChatMessage chatMessage) {
+        if (PREFETCH_CHAT_MESSAGE_TYPES.contains(chatMessage.getType()) && isPrefetchEnabled()) {
+            collectionLogPrefetchQueue.offer(Text.sanitize(chatMessage.getName()));
+        }
+
         if (chatMessage.getType() != ChatMessageType.GAMEMESSAGE) {
             return;
         }
@@ -257,11 +513,12 @@ public class CollectionLogLuckPlugin extends Plugin {
         fetchCollectionLog(username, true, collectionLog -> {
             // fetching may be async, but we need to be back on client thread to add chat message.
             clientThread.invoke(() -> {
-                String message = buildLuckCommandMessage(username, collectionLog, checkLuckMatcher.group(2), false);
-                // Jagex added some "CA_ID: #### |" format thing to the beginning of messages which messes up message
-                // parsing. Adding this as a hack to bypass whatever is stripping the message.
-                message = "|" + message;
-                client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", message, null);
+                buildLuckCommandMessage(username, collectionLog, checkLuckMatcher.group(2), false)
+                        .thenAccept(message -> clientThread.invoke(() -> {
+                            // Jagex added some "CA_ID: #### |" format thing to the beginning of messages which messes
+                            // up message parsing. Adding this as a hack to bypass whatever is stripping the message.
+                            client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", "|" + message, null);
+                        }));
             });
         });
     }
@@ -278,7 +535,8 @@ public class CollectionLogLuckPlugin extends Plugin {
     }
 
     /**
-     * After a "!luck" chat message, fetches collection log for the chatting user and then replaces the message
+     * After a "!luck" chat message, fetches collection log for the chatting user and then queues the message to be
+     * replaced on the next game tick
      *
      * @param chatMessage The ChatMessage event
      * @param message     Text of the message
@@ -286,18 +544,123 @@ public class CollectionLogLuckPlugin extends Plugin {
     private void processLuckCommandMessage(ChatMessage chatMessage, String message) {
         String username = getChatMessageSenderUsername(chatMessage);
 
+        Matcher commandMatcher = COLLECTION_LOG_LUCK_COMMAND_PATTERN.matcher(message);
+        if (!commandMatcher.matches()) {
+            return;
+        }
+        String commandTarget = commandMatcher.group(1);
+
         fetchCollectionLog(username, true, collectionLog -> {
-            // fetching may be async, but we need to be back on client thread to modify chat message.
-            clientThread.invoke(() -> {
-                replaceCommandMessage(username, chatMessage, message, collectionLog);
-            });
+            // Identical commands from the same player share a reply. Rate limited commands are left as they are.
+            String requestKey = username.toLowerCase() + "|" + commandTarget.trim().toLowerCase();
+            luckReplyQueue.offer(username, requestKey,
+                    new PendingLuckReply(username, chatMessage, commandTarget, collectionLog),
+                    client.getTickCount());
         });
     }
 
+    /**
+     * Print calculation metrics to chat after the local player types "!luckstats" ("!luckstats reset" clears them)
+     *
+     * @param chatMessage The ChatMessage event
+     * @param message     Text of the message
+     */
+    private void processLuckStatsCommandMessage(ChatMessage chatMessage, String message) {
+        if (!isLocalPlayerCollectionLog(getChatMessageSenderUsername(chatMessage))) {
+            return;
+        }
+
+        if (message.trim().equalsIgnoreCase(COLLECTION_LOG_LUCK_STATS_COMMAND_STRING + " reset")) {
+            LuckMetrics.GLOBAL.reset();
+            client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", "Collection Log Luck metrics reset.", null);
+            return;
+        }
+
+        client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", "Collection Log Luck metrics:", null);
+        for (String line : LuckMetrics.GLOBAL.summarize()) {
+            client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", "|" + line, null);
+        }
+    }
+
+    // Replace queued !luck messages, rebuilding the chatbox at most once per tick for replies that are ready. Replies
+    // that are calculated in the background replace their messages once they finish.
+    @Subscribe
+    public void onGameTick(GameTick gameTick) {
+        prefetchCollectionLogs();
+
+        List<List<PendingLuckReply>> replyBatches = luckReplyQueue.poll(client.getTickCount());
+        if (replyBatches.isEmpty()) {
+            return;
+        }
+
+        boolean chatboxChanged = false;
+        for (List<PendingLuckReply> replyBatch : replyBatches) {
+            PendingLuckReply firstReply = replyBatch.get(0);
+            CompletableFuture<String> replacementMessage = buildCommandReplacementMessage(
+                    firstReply.username, firstReply.commandTarget, firstReply.collectionLog);
+
+            if (replacementMessage.isDone()) {
+                replaceLuckReplyMessages(replyBatch, replacementMessage.join());
+                chatboxChanged = true;
+                continue;
+            }
+            replacementMessage.thenAccept(message -> clientThread.invoke(() -> {
+                replaceLuckReplyMessages(replyBatch, message);
+                client.runScript(ScriptID.BUILD_CHATBOX);
+            }));
+        }
+
+        if (chatboxChanged) {
+            client.runScript(ScriptID.BUILD_CHATBOX);
+        }
+    }
+
+    private void replaceLuckReplyMessages(List<PendingLuckReply> replyBatch, String replacementMessage) {
+        for (PendingLuckReply reply : replyBatch) {
+            reply.chatMessage.getMessageNode().setValue(replacementMessage);
+        }
+    }
+
+    private boolean isPrefetchEnabled() {
+        return collectionLogServerEnabled && config.prefetchCollectionLogs();
+    }
+
+    // Start fetching a few logs of recently active players. Requests started in the same tick share one batch.
+    private void prefetchCollectionLogs() {
+        if (!isPrefetchEnabled()) {
+            return;
+        }
+
+        // Raid parties often compare luck, so also prefetch the other players in the raid
+        if (client.getTickCount() % NEARBY_PLAYER_PREFETCH_INTERVAL_TICKS == 0
+                && (client.getVarbitValue(Varbits.IN_RAID) == 1 || client.getVarbitValue(Varbits.THEATRE_OF_BLOOD) > 1)) {
+            for (Player player : client.getPlayers()) {
+                if (player != null && player.getName() != null && player != client.getLocalPlayer()) {
+                    collectionLogPrefetchQueue.offer(Text.sanitize(player.getName()));
+                }
+            }
+        }
+
+        if (collectionLogPrefetchQueue.isEmpty()) {
+            return;
+        }
+        for (String username : collectionLogPrefetchQueue.poll(loadedCollectionLogs::containsKey)) {
+            fetchCollectionLog(username, false, collectionLog -> {});
+        }
+    }
+
     @Subscribe
     public void onScriptPostFired(ScriptPostFired scriptPostFired) {
         if (scriptPostFired.getScriptId() == ScriptID.COLLECTION_DRAW_LIST) {
-            clientThread.invokeLater(this::cacheCollectionLogPageData);
+            // The list can be redrawn many times in a row (e.g. while scrolling), but only the final page matters.
+            if (collectionLogScrapeScheduled) {
+                return;
+            }
+            collectionLogScrapeScheduled = true;
+            clientThread.invokeLater(() -> {
+                collectionLogScrapeScheduled = false;
+                cacheCollectionLogPageData();
+            });
         }
     }
 
@@ -325,6 +688,20 @@ public class CollectionLogLuckPlugin extends Plugin {
         }
 
         Widget[] widgetItems = itemsContainer.getDynamicChildren();
+        Widget[] children = pageHead.getDynamicChildren();
+
+        // Skip pages that look exactly the same as the last time they were scraped
+        if (children.length > 0) {
+            String pageName = Text.removeTags(children[0].getText());
+            int pageFingerprint = getPageFingerprint(widgetItems, children);
+            Integer previousFingerprint = scrapedPageFingerprints.put(pageName, pageFingerprint);
+            if (previousFingerprint != null && previousFingerprint == pageFingerprint) {
+                return;
+            }
+        }
+
+        // Load the whole page's icons at once, so that !luck replies for these items don't need to grow mod icons
+        itemIconAtlas.loadIcons(Arrays.stream(widgetItems).map(Widget::getItemId).collect(Collectors.toList()));
         for (Widget widgetItem : widgetItems) {
             boolean isObtained = widgetItem.getOpacity() == 0;
             int quantity = isObtained ? widgetItem.getItemQuantity() : 0;
@@ -340,10 +717,9 @@ public class CollectionLogLuckPlugin extends Plugin {
 //            }
 
             // TODO: prepend the key with the player's username if ever supporting adventure log
-            seenItemCounts.put(widgetItem.getItemId(), quantity);
+            collectionLogReconciler.recordItemCount(widgetItem.getItemId(), quantity);
         }
 
-        Widget[] children = pageHead.getDynamicChildren();
         // page has killcount widgets
         if (children.length >= 3) {
             Widget[] killCountWidgets = Arrays.copyOfRange(children, 2, children.length);
@@ -355,15 +731,41 @@ public class CollectionLogLuckPlugin extends Plugin {
                 // Collection log KC parsing can fail
                 if (killCount != null) {
                     // TODO: prepend the key with the player's username if ever supporting adventure log
-                    seenKillCounts.put(killCount.getName(), killCount.getAmount());
+                    collectionLogReconciler.recordKillCount(killCount.getName(), killCount.getAmount());
                 }
             }
         }
 
+        // Nothing to do if the page's counts are unchanged since it was last seen
+        if (!collectionLogReconciler.hasPendingChanges()) {
+            return;
+        }
+
         // Update collection log immediately if out of sync errors were found. Note: Assumes this is the local player
         // and not the adventure log.
-        // Run in background to avoid delaying collection log rendering.
-        executor.submit(() -> fetchCollectionLog(client.getLocalPlayer().getName(), true, collectionLog -> {}));
+        // Run in background to avoid delaying collection log rendering. A job that has not started yet will pick up
+        // this page's changes too, so there is no need for another.
+        if (!collectionLogReconcileJobPending.compareAndSet(false, true)) {
+            return;
+        }
+        String username = client.getLocalPlayer().getName();
+        executor.submit(() -> {
+            collectionLogReconcileJobPending.set(false);
+            fetchCollectionLog(username, true, collectionLog -> {});
+        });
+    }
+
+    // Combines everything scraped from a collection log page, to detect when a page is unchanged
+    private static int getPageFingerprint(Widget[] widgetItems, Widget[] pageHeadChildren) {
+        int fingerprint = 1;
+        for (Widget widgetItem : widgetItems) {
+            fingerprint = 31 * fingerprint + widgetItem.getItemId();
+            fingerprint = 31 * fingerprint + (widgetItem.getOpacity() == 0 ? widgetItem.getItemQuantity() : -1);
+        }
+        for (Widget child : pageHeadChildren) {
+            fingerprint = 31 * fingerprint + String.valueOf(child.getText()).hashCode();
+        }
+        return fingerprint;
     }
 
     @Subscribe
@@ -372,6 +774,14 @@ public class CollectionLogLuckPlugin extends Plugin {
             return;
         }
 
+        if (widgetLoaded.getGroupId() == InterfaceID.COLLECTION_LOG
+                && config.captureFullCollectionLog()
+                && !fullCollectionLogCaptured
+                && !collectionLogPageWalker.isWalking()) {
+            // Wait for the collection log to finish loading before selecting pages
+            clientThread.invokeLater(this::startFullCollectionLogCapture);
+        }
+
         if (widgetLoaded.getGroupId() == InterfaceID.ADVENTURE_LOG) {
             Widget adventureLog = client.getWidget(ComponentID.ADVENTURE_LOG_CONTAINER);
             if (adventureLog == null) {
@@ -388,88 +798,241 @@ public class CollectionLogLuckPlugin extends Plugin {
         }
     }
 
+    private void startFullCollectionLogCapture() {
+        // Only the player's own collection log can be captured
+        boolean openedFromAdventureLog = client.getVarbitValue(ADVENTURE_LOG_COLLECTION_LOG_SELECTED_VARBIT_ID) != 0;
+        if (openedFromAdventureLog || collectionLogPageWalker.isWalking()) {
+            return;
+        }
+
+        capturedTabs.clear();
+        collectionLogPageWalker.start(this::captureCollectionLogPage, this::finishFullCollectionLogCapture);
+    }
+
+    @Subscribe
+    public void onClientTick(ClientTick clientTick) {
+        if (collectionLogPageWalker.isWalking()) {
+            collectionLogPageWalker.step();
+        }
+    }
+
+    private void captureCollectionLogPage(String tabName) {
+        CollectionLogPage page = readCollectionLogPage();
+        if (page == null) {
+            return;
+        }
+        capturedTabs.computeIfAbsent(tabName, t -> new LinkedHashMap<>()).put(page.getName(), page);
+
+        // Also record the page's counts, exactly as if the player had opened it
+        cacheCollectionLogPageData();
+    }
+
+    private void finishFullCollectionLogCapture(boolean visitedEveryPage) {
+        if (!visitedEveryPage) {
+            // Try again the next time the collection log is opened
+            capturedTabs.clear();
+            return;
+        }
+
+        String username = Text.sanitize(client.getLocalPlayer().getName());
+
+        Map<String, CollectionLogTab> tabs = new LinkedHashMap<>();
+        Set<Integer> uniqueItemIds = new HashSet<>();
+        Set<Integer> uniqueObtainedItemIds = new HashSet<>();
+        for (Map.Entry<String, Map<String, CollectionLogPage>> capturedTab : capturedTabs.entrySet()) {
+            tabs.put(capturedTab.getKey(), new CollectionLogTab(capturedTab.getKey(), capturedTab.getValue()));
+            for (CollectionLogPage page : capturedTab.getValue().values()) {
+                for (CollectionLogItem item : page.getItems()) {
+                    uniqueItemIds.add(item.getId());
+                    if (item.isObtained()) {
+                        uniqueObtainedItemIds.add(item.getId());
+                    }
+                }
+            }
+        }
+        capturedTabs.clear();
+
+        CollectionLog collectionLog = new CollectionLog(username,
+                uniqueObtainedItemIds.size(), uniqueItemIds.size(),
+                uniqueObtainedItemIds.size(), uniqueItemIds.size(),
+                tabs);
+        loadedCollectionLogs.put(username, CompletableFuture.completedFuture(collectionLog));
+        localCollectionLogSource.put(username, collectionLog);
+        fullCollectionLogCaptured = true;
+
+        client.addChatMessage(ChatMessageType.GAMEMESSAGE, "",
+                "Collection Log Luck plugin: Captured " + uniqueObtainedItemIds.size() + "/" + uniqueItemIds.size()
+                        + " collection log items.", null);
+    }
+
+    // Read the collection log page that is currently shown, or null if no page is shown
+    private CollectionLogPage readCollectionLogPage() {
+        Widget pageHead = client.getWidget(ComponentID.COLLECTION_LOG_ENTRY_HEADER);
+        Widget itemsContainer = client.getWidget(ComponentID.COLLECTION_LOG_ENTRY_ITEMS);
+        if (pageHead == null || itemsContainer == null) {
+            return null;
+        }
+
+        Widget[] children = pageHead.getDynamicChildren();
+        if (children.length == 0) {
+            return null;
+        }
+        String pageName = Text.removeTags(children[0].getText());
+
+        List<CollectionLogItem> items = new ArrayList<>();
+        Widget[] widgetItems = itemsContainer.getDynamicChildren();
+        for (int i = 0; i < widgetItems.length; i++) {
+            Widget widgetItem = widgetItems[i];
+            boolean isObtained = widgetItem.getOpacity() == 0;
+            int quantity = isObtained ? widgetItem.getItemQuantity() : 0;
+
+            // Widget names may be display names, so prefer the known item name
+            LogItemInfo logItemInfo = LogItemInfo.findByItemId(widgetItem.getItemId());
+            String itemName = logItemInfo != null
+                    ? logItemInfo.getItemName()
+                    : Text.removeTags(widgetItem.getName());
+
+            items.add(new CollectionLogItem(widgetItem.getItemId(), itemName, quantity, isObtained, i));
+        }
+
+        List<CollectionLogKillCount> killCounts = new ArrayList<>();
+        for (int i = 2; i < children.length; i++) {
+            CollectionLogKillCount killCount = CollectionLogKillCount.fromString(Text.removeTags(children[i].getText()), i - 2);
+            if (killCount != null) {
+                killCounts.add(killCount);
+            }
+        }
+
+        return new CollectionLogPage(pageName, items, killCounts, true);
+    }
+
+    // Recalculate every row of the luck panel for the local player. Called on the UI thread.
+    private void refreshLuckPanel() {
+        clientThread.invokeLater(() -> {
+            if (!isValidWorldType() || client.getGameState() != GameState.LOGGED_IN || client.getLocalPlayer() == null) {
+                clearLuckPanel();
+                return;
+            }
+            fetchCollectionLog(client.getLocalPlayer().getName(), true, this::calculateLuckPanelRows);
+        });
+    }
+
+    // Stop any calculation in progress and empty the luck panel, e.g. on logout
+    private void clearLuckPanel() {
+        luckPanelGeneration.incrementAndGet();
+        CollectionLogLuckPanel panel = luckPanel;
+        if (panel != null) {
+            SwingUtilities.invokeLater(() -> panel.showMessage("Log in to see your luck."));
+        }
+    }
+
+    // Calculate luck for every item on the luck panel's executor, streaming rows into the panel in batches. This may
+    // take a while for a maxed account, and a newer calculation cancels this one.
+    private void calculateLuckPanelRows(CollectionLog collectionLog) {
+        int generation = luckPanelGeneration.incrementAndGet();
+        CollectionLogLuckPanel panel = luckPanel;
+        ExecutorService panelExecutor = luckPanelExecutor;
+        if (panel == null || panelExecutor.isShutdown()) return;
+
+        if (collectionLog == null) {
+            SwingUtilities.invokeLater(() -> panel.showMessage("Unable to load your collection log."));
+            return;
+        }
+
+        List<LogItemInfo> logItemInfos = new ArrayList<>(LogItemInfo.getAllLogItemInfos());
+        CollectionLogLuckConfigSnapshot calculationConfig = configSnapshot;
+        // The live log is corrected as new counts are seen, so calculate from a copy that can't change underneath
+        CollectionLog collectionLogSnapshot = collectionLog.getSnapshot();
+        SwingUtilities.invokeLater(() -> panel.startCalculation(generation, logItemInfos.size()));
+
+        panelExecutor.execute(() -> {
+            long startTime = System.nanoTime();
+            List<ItemLuckRow> batch = new ArrayList<>();
+            for (LogItemInfo logItemInfo : logItemInfos) {
+                if (generation != luckPanelGeneration.get()) return;
+
+                ItemLuckRow row = calculateItemLuckRow(logItemInfo, collectionLogSnapshot, calculationConfig);
+                if (row != null) {
+                    batch.add(row);
+                }
+                if (batch.size() >= LUCK_PANEL_BATCH_SIZE) {
+                    List<ItemLuckRow> completedBatch = batch;
+                    SwingUtilities.invokeLater(() -> panel.addRows(generation, completedBatch));
+                    batch = new ArrayList<>();
+                }
+            }
+            List<ItemLuckRow> lastBatch = batch;
+            SwingUtilities.invokeLater(() -> {
+                panel.addRows(generation, lastBatch);
+                panel.finishCalculation(generation);
+            });
+            LuckMetrics.GLOBAL.recordLatency("aggregate.panel", System.nanoTime() - startTime);
+        });
+    }
+
+    // Returns null if the item's luck cannot be calculated. Does not use the luck calculation cache, which is only
+    // safe to use on the client thread.
+    private ItemLuckRow calculateItemLuckRow(LogItemInfo logItemInfo, CollectionLog collectionLog,
+                                             CollectionLogLuckConfigSnapshot calculationConfig) {
+        CollectionLogItem item = collectionLog.searchForItem(logItemInfo.getItemName());
+        if (item == null) return null;
+
+        DropLuck dropLuck = logItemInfo.getDropProbabilityDistribution();
+        if (dropLuck.getIncalculableReason(item, calculationConfig) != null) return null;
+
+        double luck = dropLuck.calculateLuck(item, collectionLog, calculationConfig);
+        double dryness = dropLuck.calculateDryness(item, collectionLog, calculationConfig);
+        if (luck < 0 || luck > 1 || dryness < 0 || dryness > 1) return null;
+
+        return new ItemLuckRow(item.getId(), item.getName(), item.getQuantity(),
+                dropLuck.getKillCountDescription(collectionLog),
+                luck, dryness, LuckUtils.getOverallLuck(luck, dryness));
+    }
+
     // Fetch the collection log for this username, then call the callback. If allowAsync is set to false,
     // the function will call the callback immediately with a null collection log, but it will still request a
-    // new collection log if an equivalent request is not already in progress.
+    // new collection log if an equivalent request is not already in progress. Otherwise, the callback may be called
+    // later on another thread, so that requests for many players can be batched together.
     protected void fetchCollectionLog(String rawUsername, boolean allowAsync, Consumer<CollectionLog> callback) {
         // Apparently this can happen rarely, according to one user's report. No idea how it is possible.
         if (rawUsername == null) {
             log.error("Unable to retrieve collection log: username is null");
             callback.accept(null);
+            return;
         }
 
         final String sanitizedUsername = Text.sanitize(rawUsername);
 
-        try {
-            // Only fetch collection log if necessary
-            if (!loadedCollectionLogs.containsKey(sanitizedUsername)) {
-                CompletableFuture<CollectionLog> collectionLogFuture = new CompletableFuture<>();
-                loadedCollectionLogs.put(sanitizedUsername, collectionLogFuture);
-
-                // TODO: Collectionlog.net has been disabled. For now, return anb empty log and
-                // investigate integrating with WikiSync and the OSRS wiki API (if possible) instead.
-                collectionLogFuture.complete(CollectionLogBuilder.getEmptyCollectionLog(sanitizedUsername));
-
-//                apiClient.getCollectionLog(sanitizedUsername, new Callback() {
-//                    @Override
-//                    public void onFailure(@NonNull Call call, @NonNull IOException e) {
-//                        log.error("Unable to retrieve collection log: " + e.getMessage());
-//
-//                        // NOTE: Maybe we should clear the loaded collection logs if this failed.
-//                        // For now, keep the collectionLogFuture mapping to avoid issues like repeated
-//                        // spamming the collectionlog.net website if some issue occurs.
-//                        // loadedCollectionLogs.remove(sanitizedUsername);
-//
-//                        collectionLogFuture.complete(null);
-//                    }
-//
-//                    @Override
-//                    public void onResponse(@NonNull Call call, @NonNull Response response) throws IOException {
-//                        JsonObject collectionLogJson = apiClient.processResponse(response);
-//                        response.close();
-//
-//                        if (collectionLogJson == null) {
-//                            // NOTE: Maybe we should clear the loaded collection logs if this failed.
-//                            // For now, keep the collectionLogFuture mapping to avoid issues like repeated
-//                            // spamming the collectionlog.net website if some issue occurs.
-//                            // loadedCollectionLogs.remove(sanitizedUsername);
-//
-//                            collectionLogFuture.complete(null);
-//                            return;
-//                        }
-//
-//                        CollectionLog collectionLog = jsonUtils.fromJsonObject(
-//                                collectionLogJson.getAsJsonObject("collectionLog"),
-//                                CollectionLog.class,
-//                                new CollectionLogDeserializer()
-//                        );
-//
-//                        collectionLogFuture.complete(collectionLog);
-//                    }
-//                });
-            }
-
-            CompletableFuture<CollectionLog> collectionLogFuture = loadedCollectionLogs.get(sanitizedUsername);
-
-            CollectionLog collectionLog;
-            if (allowAsync) {
-                collectionLog = collectionLogFuture.get();
-            } else {
-                // Return the value if present, otherwise return null
-                collectionLog = collectionLogFuture.getNow(null);
-            }
+        // Only fetch collection log if necessary.
+        // NOTE: Failed requests keep their mapping to avoid repeatedly spamming the log server if some issue occurs.
+        // Only count requests that wait for the log. Overlays look logs up every frame, which would drown out the rest.
+        if (allowAsync) {
+            LuckMetrics.GLOBAL.recordCacheLookup("cache.collectionLog", loadedCollectionLogs.containsKey(sanitizedUsername));
+        }
+        CompletableFuture<CollectionLog> collectionLogFuture = loadedCollectionLogs.computeIfAbsent(sanitizedUsername,
+                username -> {
+                    long startTime = System.nanoTime();
+                    return collectionLogSource.fetchCollectionLog(username)
+                            .whenComplete((collectionLog, e) ->
+                                    LuckMetrics.GLOBAL.recordLatency("fetch.collectionLog", System.nanoTime() - startTime))
+                            .exceptionally(e -> {
+                                log.error("Unable to retrieve collection log: " + e.getMessage());
+                                return null;
+                            });
+                });
+
+        if (!allowAsync) {
+            // Return the value if present, otherwise return null
+            CollectionLog collectionLog = collectionLogFuture.getNow(null);
             checkForOutOfSyncCollectionLogData(collectionLog, sanitizedUsername);
             callback.accept(collectionLog);
-        } catch (ExecutionException | CancellationException | InterruptedException e) {
-            log.error("Unable to retrieve collection log: " + e.getMessage());
-
-            // NOTE: Maybe we should clear the loaded collection logs if this failed.
-            // For now, keep the collectionLogFuture mapping to avoid issues like repeated
-            // spamming the collectionlog.net website if some issue occurs.
-            // loadedCollectionLogs.remove(sanitizedUsername);
-
-            callback.accept(null);
+            return;
         }
+
+        collectionLogFuture.thenAccept(collectionLog -> {
+            checkForOutOfSyncCollectionLogData(collectionLog, sanitizedUsername);
+            callback.accept(collectionLog);
+        });
     }
 
     // Check for out of sync data, correct any issues that were found, and print a warning message.
@@ -480,7 +1043,7 @@ public class CollectionLogLuckPlugin extends Plugin {
         // only correct out of sync issues for the local player
         if (!isLocalPlayerCollectionLog(username)) return;
 
-        if (fixOutOfSyncCollectionLogData(collectionLog)) {
+        if (!fixOutOfSyncCollectionLogData(collectionLog).isEmpty()) {
             // TODO: collectionlog.net shut down. No point in sending a desync warning at this time.
             if (true)
                 return;
@@ -506,49 +1069,62 @@ public class CollectionLogLuckPlugin extends Plugin {
         }
     }
 
-    protected boolean fixOutOfSyncCollectionLogData(CollectionLog collectionLog) {
-        boolean foundDesync = false;
-
-        // check obtained item counts
-        for (Integer itemId : seenItemCounts.keySet()) {
-            LogItemInfo logItemInfo = LogItemInfo.findByItemId(itemId);
-            if (logItemInfo == null) continue;
-
-            CollectionLogItem item = collectionLog.searchForItem(logItemInfo.getItemName());
-            if (item == null) continue;
-
-            // Out of date unsupported drops don't matter
-            String incalculableReason = logItemInfo.getDropProbabilityDistribution().getIncalculableReason(item, config);
-            if (incalculableReason != null) continue;
-
-            // Whatever is seen in game should be authoritative, so use the in-game value even if the collectionlog.net
-            // has a higher value. This also protects against corrupt (or manipulated) data on collectionlog.net.
-            if (seenItemCounts.get(itemId) != item.getQuantity()) {
-                item.setQuantity(seenItemCounts.get(itemId));
-
-                foundDesync = true;
-            }
-        }
-
-        // check kill counts
-        for (String dropSource : seenKillCounts.keySet()) {
-            CollectionLogKillCount collectionLogKc = collectionLog.searchForKillCount(dropSource);
-            if (collectionLogKc == null) continue;
+    // Apply any seen counts that changed since the last check, and forget cached luck for items that changed.
+    protected List<CollectionLogChange> fixOutOfSyncCollectionLogData(CollectionLog collectionLog) {
+        List<CollectionLogChange> changes = collectionLogReconciler.reconcile(collectionLog, configSnapshot);
 
-            if (seenKillCounts.get(dropSource) != collectionLogKc.getAmount()) {
-                collectionLogKc.setAmount(seenKillCounts.get(dropSource));
-                foundDesync = true;
+        // Cached results are keyed by quantity, so they would never be used again. Results for changed kill counts
+        // are left alone since any item could depend on them.
+        for (CollectionLogChange change : changes) {
+            if (change.getType() == CollectionLogChange.Type.ITEM_QUANTITY) {
+                String calculationIdPrefix = Text.sanitize(collectionLog.getUsername()) + "|" + change.getItemId() + "|";
+                luckCalculationResults.invalidate(calculationId -> calculationId.startsWith(calculationIdPrefix));
             }
         }
 
-        return foundDesync;
+        return changes;
     }
 
     // Calculate luck for this item, caching results
     protected LuckCalculationResult fetchLuckCalculationResult(DropLuck dropLuck,
                                                                CollectionLogItem item,
                                                                CollectionLog collectionLog,
-                                                               CollectionLogLuckConfig calculationConfig) {
+                                                               CollectionLogLuckConfigSnapshot calculationConfig) {
+        String calculationId = getLuckCalculationId(dropLuck, item, collectionLog, calculationConfig);
+
+        LuckMetrics.GLOBAL.recordCacheLookup("cache.luck", luckCalculationResults.isExact(calculationId));
+        return luckCalculationResults.getExact(calculationId,
+                () -> calculateLuck(dropLuck, item, collectionLog, calculationConfig));
+    }
+
+    /**
+     * Return luck for this item without blocking for long, e.g. while rendering. If the exact calculation does not
+     * finish within a short deadline, it continues in the background and an approximation is returned until then.
+     *
+     * @return The exact or approximate luck, or null if this drop has no approximation and is still being calculated
+     */
+    protected LuckCalculationResult fetchProgressiveLuckCalculationResult(DropLuck dropLuck,
+                                                                          CollectionLogItem item,
+                                                                          CollectionLog collectionLog,
+                                                                          CollectionLogLuckConfigSnapshot calculationConfig) {
+        if (!calculationConfig.progressiveOverlayCalculation()) {
+            return fetchLuckCalculationResult(dropLuck, item, collectionLog, calculationConfig);
+        }
+
+        // The exact calculation runs in the background, so it must not see the live log being corrected. The
+        // calculation ID is built from the same copies, so it always matches the result.
+        CollectionLog collectionLogSnapshot = collectionLog.getSnapshot();
+        CollectionLogItem itemSnapshot = item.copy();
+        String calculationId = getLuckCalculationId(dropLuck, itemSnapshot, collectionLogSnapshot, calculationConfig);
+
+        LuckMetrics.GLOBAL.recordCacheLookup("cache.luck", luckCalculationResults.isExact(calculationId));
+        return luckCalculationResults.getProgressive(calculationId,
+                () -> calculateLuck(dropLuck, itemSnapshot, collectionLogSnapshot, calculationConfig),
+                () -> dropLuck.approximateLuck(item, collectionLog, calculationConfig));
+    }
+
+    private String getLuckCalculationId(DropLuck dropLuck, CollectionLogItem item, CollectionLog collectionLog,
+                                        CollectionLogLuckConfigSnapshot calculationConfig) {
         String username = Text.sanitize(collectionLog.getUsername());
 
         // If the client first calculates luck for an item, its result will be cached. Then, if the client
@@ -557,74 +1133,67 @@ public class CollectionLogLuckPlugin extends Plugin {
         // To solve this, we could clear calculation results for any item that is found to be out of date,
         // but the problem is that the client will then recalculate every single frame when displaying luck for an
         // out of date page.
-        // Instead, we can simply add the kc and item quantity to the calculation ID. Then, we don't need to
+        // Instead, we can simply add the kc and item quantity (or every set piece's quantity, for sets) to the
+        // calculation ID. Then, we don't need to
         // clear calculation results at all, since upon discovering an item is out of date, the key will change and the
         // luck will be recalculated.
         // The killcount description could be long, but it is necessary
-        String calculationId = username + "|" + item.getId() + "|" + item.getQuantity() + "|"
-                + dropLuck.getKillCountDescription(collectionLog);
-
-        // Only calculate if necessary
-        if (!luckCalculationResults.containsKey(calculationId)) {
-            double luck = dropLuck.calculateLuck(item, collectionLog, calculationConfig);
-            double dryness = dropLuck.calculateDryness(item, collectionLog, calculationConfig);
-
-            luckCalculationResults.put(calculationId, new LuckCalculationResult(luck, dryness));
-        }
-
-        return luckCalculationResults.get(calculationId);
+        // The config version is included too, so results calculated in the background with an older config are
+        // never used.
+        return username + "|" + item.getId() + "|" + dropLuck.getQuantityDescription(item, collectionLog) + "|"
+                + dropLuck.getKillCountDescription(collectionLog) + "|" + calculationConfig.getSnapshotVersion();
     }
 
-    private void replaceCommandMessage(String username, ChatMessage chatMessage, String message, CollectionLog collectionLog) {
-        Matcher commandMatcher = COLLECTION_LOG_LUCK_COMMAND_PATTERN.matcher(message);
-        if (!commandMatcher.matches()) {
-            return;
-        }
-
-        String replacementMessage;
-        if (collectionLog == null) {
-            replacementMessage = "Collection Log not found for " + username
-                    + ". Make sure to upload to collectionlog.net using the Collection Log plugin.";
-        } else {
-            String commandTarget = commandMatcher.group(1);
-            replacementMessage = buildLuckCommandMessage(username, collectionLog, commandTarget, true);
-        }
-
-        // TODO: Figure out what to do about collectionlog.net being shut down.
-        replacementMessage = COLLECTION_LOG_NET_SHUTDOWN_ERROR;
+    private LuckCalculationResult calculateLuck(DropLuck dropLuck,
+                                                CollectionLogItem item,
+                                                CollectionLog collectionLog,
+                                                CollectionLogLuckConfigSnapshot calculationConfig) {
+        long startTime = System.nanoTime();
+        double luck = dropLuck.calculateLuck(item, collectionLog, calculationConfig);
+        double dryness = dropLuck.calculateDryness(item, collectionLog, calculationConfig);
+        LuckMetrics.GLOBAL.recordLatency("drop." + dropLuck.getClass().getSimpleName(), System.nanoTime() - startTime);
 
-        chatMessage.getMessageNode().setValue(replacementMessage);
-        client.runScript(ScriptID.BUILD_CHATBOX);
+        return new LuckCalculationResult(luck, dryness);
     }
 
     /**
-     * Loads a list of Collection Log items into the client's mod icons.
+     * Return the range of quantities that 80% of players would have received at the same KC, looked up in a cached
+     * distribution of the item.
      *
-     * @param collectionLogItems List of items to load
+     * @return {low, high}, or null if the range cannot be calculated
      */
-    private void loadItemIcons(List<CollectionLogItem> collectionLogItems) {
-        List<CollectionLogItem> itemsToLoad = collectionLogItems
-                .stream()
-                .filter(item -> !loadedCollectionLogIcons.containsKey(item.getId()))
-                .collect(Collectors.toList());
-
-        final IndexedSprite[] modIcons = client.getModIcons();
-
-        final IndexedSprite[] newModIcons = Arrays.copyOf(modIcons, modIcons.length + itemsToLoad.size());
-        int modIconIdx = modIcons.length;
-
-        for (int i = 0; i < itemsToLoad.size(); i++) {
-            final CollectionLogItem item = itemsToLoad.get(i);
-            final ItemComposition itemComposition = itemManager.getItemComposition(item.getId());
-            final BufferedImage image = ImageUtil.resizeImage(itemManager.getImage(itemComposition.getId()), 18, 16);
-            final IndexedSprite sprite = ImageUtil.getImageIndexedSprite(image, client);
-            final int spriteIndex = modIconIdx + i;
-
-            newModIcons[spriteIndex] = sprite;
-            loadedCollectionLogIcons.put(item.getId(), spriteIndex);
+    protected int[] fetchExpectedRange(DropLuck dropLuck,
+                                       CollectionLogItem item,
+                                       CollectionLog collectionLog,
+                                       CollectionLogLuckConfigSnapshot calculationConfig) {
+        // The distribution does not depend on the player's own quantity, so unlike luck results it is not part of the ID
+        String calculationId = Text.sanitize(collectionLog.getUsername()) + "|" + item.getId() + "|"
+                + dropLuck.getKillCountDescription(collectionLog) + "|" + calculationConfig.getSnapshotVersion();
+
+        CdfTable cdfTable = cdfTables.computeIfAbsent(calculationId,
+                id -> dropLuck.getCdfTable(item, collectionLog, calculationConfig));
+
+        int low = DropLuck.calculateQuantile(EXPECTED_RANGE_LOW_QUANTILE, cdfTable);
+        int high = DropLuck.calculateQuantile(EXPECTED_RANGE_HIGH_QUANTILE, cdfTable);
+        if (low < 0 || high < 0) {
+            return null;
         }
+        return new int[]{low, high};
+    }
 
-        client.setModIcons(newModIcons);
+    private CompletableFuture<String> buildCommandReplacementMessage(String username, String commandTarget,
+                                                                     CollectionLog collectionLog) {
+        if (collectionLog == null) {
+            return CompletableFuture.completedFuture(getWarningString(
+                    "Collection Log Luck plugin: Collection log not found for " + username + "."));
+        }
+        // Without a log server, other players' logs are empty, so their luck would be meaningless
+        if (!collectionLogServerEnabled && !isLocalPlayerCollectionLog(username)) {
+            return CompletableFuture.completedFuture(getWarningString(
+                    "Collection Log Luck plugin: Set a collection log server in the plugin config to see the luck of "
+                            + username + "."));
+        }
+        return buildLuckCommandMessage(username, collectionLog, commandTarget, true);
     }
 
     /**
@@ -658,39 +1227,86 @@ public class CollectionLogLuckPlugin extends Plugin {
     }
 
     /**
-     * Builds the replacement messages for the !luck... command
+     * Builds the replacement messages for the !luck... command. Item luck is built straight away, but page, account
+     * and luckiest/driest item luck cover many items, so they are calculated in the background from a snapshot of the
+     * collection log.
      *
      * @param collectionLog The collection log to use for the luck calculation (which may be another player's)
      * @param commandTarget The item or page for which to calculate luck. If omitted, calculates account-level luck
      * @param useFuzzyMatch For sources that could be misspelled, e.g. user input, use a fuzzy match algorithm to
      *                      guess the intended item target
-     * @return Replacement message
+     * @return Replacement message, which is complete unless it is being calculated in the background
      */
-    private String buildLuckCommandMessage(String username, CollectionLog collectionLog, String commandTarget, boolean useFuzzyMatch) {
+    private CompletableFuture<String> buildLuckCommandMessage(String username, CollectionLog collectionLog,
+                                                              String commandTarget, boolean useFuzzyMatch) {
         boolean collectionLogIsLocalPlayer = isLocalPlayerCollectionLog(username);
 
         if (collectionLogIsLocalPlayer && config.hidePersonalLuckCalculation()) {
             // This should make it obvious that 1) The player can go to the config to change this setting, and 2) other
             // players can still see their luck if they type in a !log luck command.
-            return getWarningString(
-                    "Collection Log Luck plugin: Your luck is set to be hidden from you in the plugin config.");
+            return CompletableFuture.completedFuture(getWarningString(
+                    "Collection Log Luck plugin: Your luck is set to be hidden from you in the plugin config."));
         }
+
+        CollectionLog collectionLogSnapshot = collectionLog.getSnapshot();
+        CollectionLogLuckConfigSnapshot calculationConfig = configSnapshot;
+
         // !luck [account|total|overall]
         if (commandTarget == null
                 || commandTarget.equalsIgnoreCase("account")
                 || commandTarget.equalsIgnoreCase("total")
                 || commandTarget.equalsIgnoreCase("overall")) {
-            return getWarningString("Collection Log Luck plugin: Account-level luck calculation is not yet supported.");
+            return calculateLuckCommandMessage(() -> {
+                long startTime = System.nanoTime();
+                AggregateLuckCalculationResult accountLuck =
+                        AggregateLuckCalculator.calculateAccountLuck(collectionLogSnapshot, calculationConfig);
+                LuckMetrics.GLOBAL.recordLatency("aggregate.account", System.nanoTime() - startTime);
+                return buildAggregateLuckCommandMessage("Collection log", accountLuck, calculationConfig,
+                        collectionLogIsLocalPlayer);
+            });
+        }
+
+        // !luck lucky [n] / !luck dry [n]
+        Matcher extremesMatcher = LUCK_EXTREMES_COMMAND_PATTERN.matcher(commandTarget.trim());
+        if (extremesMatcher.matches()) {
+            boolean lucky = extremesMatcher.group(1).toLowerCase().startsWith("luck");
+            int count = extremesMatcher.group(2) == null
+                    ? DEFAULT_LUCK_EXTREMES_COUNT
+                    : Math.max(1, Math.min(MAX_LUCK_EXTREMES_COUNT, Integer.parseInt(extremesMatcher.group(2))));
+            return calculateLuckCommandMessage(() -> buildLuckExtremesCommandMessage(
+                    username, collectionLogSnapshot, calculationConfig, lucky, count, collectionLogIsLocalPlayer));
         }
 
         // !luck <page-name>
         String pageName = CollectionLogPage.aliasPageName(commandTarget);
-        if (collectionLog.searchForPage(pageName) != null) {
-            return getWarningString(
-                    "Collection Log Luck plugin: Per-activity or per-page luck calculation is not yet supported.");
+        CollectionLogPage page = collectionLogSnapshot.searchForPage(pageName);
+        if (page != null) {
+            return calculateLuckCommandMessage(() -> {
+                long startTime = System.nanoTime();
+                AggregateLuckCalculationResult pageLuck =
+                        AggregateLuckCalculator.calculatePageLuck(page, collectionLogSnapshot, calculationConfig);
+                LuckMetrics.GLOBAL.recordLatency("aggregate.page", System.nanoTime() - startTime);
+                return buildAggregateLuckCommandMessage(page.getName(), pageLuck, calculationConfig,
+                        collectionLogIsLocalPlayer);
+            });
         }
 
-        // !luck <item-name>
+        return CompletableFuture.completedFuture(
+                buildItemLuckCommandMessage(collectionLog, commandTarget, useFuzzyMatch, collectionLogIsLocalPlayer));
+    }
+
+    // Build a !luck reply on the executor, so that calculating many items does not stall the client
+    private CompletableFuture<String> calculateLuckCommandMessage(Supplier<String> buildMessage) {
+        return CompletableFuture.supplyAsync(buildMessage, executor)
+                .exceptionally(e -> {
+                    log.error("Unable to calculate luck", e);
+                    return getWarningString("Collection Log Luck plugin: Unknown error calculating luck.");
+                });
+    }
+
+    // !luck <item-name>
+    private String buildItemLuckCommandMessage(CollectionLog collectionLog, String commandTarget,
+                                               boolean useFuzzyMatch, boolean collectionLogIsLocalPlayer) {
         String itemName = itemDisplayNameToItemName(commandTarget);
         if (useFuzzyMatch) {
             itemName = CollectionLogItemAliases.aliasItemName(itemName);
@@ -711,7 +1327,8 @@ public class CollectionLogLuckPlugin extends Plugin {
 
         String warningText = "";
 
-        CollectionLogLuckConfig relevantConfig = config;
+        CollectionLogLuckConfigSnapshot calculationConfig = configSnapshot;
+        CollectionLogLuckConfig relevantConfig = calculationConfig;
         if (!collectionLogIsLocalPlayer) {
             relevantConfig = null;
         }
@@ -728,15 +1345,15 @@ public class CollectionLogLuckPlugin extends Plugin {
             }
         }
 
-        // make sure this item's icon is loaded
-        loadItemIcons(ImmutableList.of(item));
+        // make sure this item's icon is loaded. It is usually already loaded with the rest of its page.
+        int itemIconIndex = itemIconAtlas.getIconIndex(item.getId());
 
         // calculate using player's config, even if the calculation is for another player
         LuckCalculationResult luckCalculationResult = fetchLuckCalculationResult(
                 logItemInfo.getDropProbabilityDistribution(),
                 item,
                 collectionLog,
-                config);
+                calculationConfig);
 
         double luck = luckCalculationResult.getLuck();
         double dryness = luckCalculationResult.getDryness();
@@ -744,12 +1361,60 @@ public class CollectionLogLuckPlugin extends Plugin {
             return getWarningString("Collection Log Luck plugin: Unknown error calculating luck for item.");
         }
 
+        String shownLuckText = buildShownLuckText(luckCalculationResult, numObtained, calculationConfig);
+
+        String kcDescription = logItemInfo.getDropProbabilityDistribution().getKillCountDescription(collectionLog);
+
+        // rarer than 1 in 100M is likely an error. Note: 0 luck or 0 dryness is normal as a result of low KC and does
+        // not need a warning.
+        if (luck > 0.99999999 || dryness > 0.99999999) {
+            // previous warnings supersede this warning
+            if (warningText.isEmpty()) {
+                warningText = " - Warning: Check plugin configuration. Did you have many KC" +
+                        " before the log existed, or have you reached the max # tracked for this item?";
+            }
+        }
+
+        ChatMessageBuilder messageBuilder = new ChatMessageBuilder()
+                .append(item.getName() + " ");
+        if (itemIconIndex >= 0) {
+            messageBuilder.img(itemIconIndex);
+        }
+        messageBuilder
+                .append("x" + numObtained + ": ")
+                .append(luckCalculationResult.getLuckColor(), shownLuckText)
+                .append(" in ")
+                .append(kcDescription);
+
+        int[] expectedRange = fetchExpectedRange(logItemInfo.getDropProbabilityDistribution(), item, collectionLog, calculationConfig);
+        if (expectedRange != null) {
+            messageBuilder.append(" (typical: " + formatExpectedRange(expectedRange) + ")");
+        }
+
+        return messageBuilder
+                .append(WARNING_TEXT_COLOR, warningText)
+                .build();
+    }
+
+    // e.g. "2" or "0-3"
+    protected static String formatExpectedRange(int[] expectedRange) {
+        if (expectedRange[0] == expectedRange[1]) {
+            return String.valueOf(expectedRange[0]);
+        }
+        return expectedRange[0] + "-" + expectedRange[1];
+    }
+
+    // e.g. "(40th percentile | 60% luckier than you | 40% drier than you)"
+    private String buildShownLuckText(LuckCalculationResult luckCalculationResult, int numObtained,
+                                      CollectionLogLuckConfigSnapshot calculationConfig) {
+        double luck = luckCalculationResult.getLuck();
+        double dryness = luckCalculationResult.getDryness();
         int luckPercentile = (int) Math.round(luckCalculationResult.getOverallLuck() * 100);
 
         StringBuilder shownLuckText = new StringBuilder()
                 .append("(");
 
-        if (config.replacePercentileWithDrycalcNumber()) {
+        if (calculationConfig.replacePercentileWithDrycalcNumber()) {
             shownLuckText.append(LuckUtils.formatLuckSigDigits(1 - dryness))
                     .append("% <lt>= your luck");
         } else {
@@ -771,29 +1436,115 @@ public class CollectionLogLuckPlugin extends Plugin {
         }
         shownLuckText.append(")");
 
-        String kcDescription = logItemInfo.getDropProbabilityDistribution().getKillCountDescription(collectionLog);
+        return shownLuckText.toString();
+    }
 
-        // rarer than 1 in 100M is likely an error. Note: 0 luck or 0 dryness is normal as a result of low KC and does
-        // not need a warning.
-        if (luck > 0.99999999 || dryness > 0.99999999) {
-            // previous warnings supersede this warning
-            if (warningText.isEmpty()) {
-                warningText = " - Warning: Check plugin configuration. Did you have many KC" +
-                        " before the log existed, or have you reached the max # tracked for this item?";
-            }
+    /**
+     * Builds the replacement message for page-level or account-level luck, which is luck for the number of unique
+     * items obtained.
+     *
+     * @param targetName The name of the page, or a description of the account
+     * @param aggregateLuck The combined luck of every calculable item
+     * @param calculationConfig The config the luck was calculated with
+     * @param collectionLogIsLocalPlayer Whether the luck was calculated with the player's own collection log
+     * @return Replacement message
+     */
+    private String buildAggregateLuckCommandMessage(String targetName, AggregateLuckCalculationResult aggregateLuck,
+                                                    CollectionLogLuckConfigSnapshot calculationConfig,
+                                                    boolean collectionLogIsLocalPlayer) {
+        if (aggregateLuck.getNumItems() == 0) {
+            return getWarningString("Collection Log Luck plugin: No items on " + targetName
+                    + " are supported for luck calculation.");
         }
 
+        double luck = aggregateLuck.getLuck();
+        double dryness = aggregateLuck.getDryness();
+        if (luck < 0 || luck > 1 || dryness < 0 || dryness > 1) {
+            return getWarningString("Collection Log Luck plugin: Unknown error calculating luck for " + targetName + ".");
+        }
+
+        String warningText = "";
+        if (!collectionLogIsLocalPlayer) {
+            warningText = " - Warning: Calculation uses YOUR config settings. May be inaccurate.";
+        }
+
+        String shownLuckText = buildShownLuckText(aggregateLuck, aggregateLuck.getNumObtained(), calculationConfig);
+
         return new ChatMessageBuilder()
-                .append(item.getName() + " ")
-                .img(loadedCollectionLogIcons.get(item.getId()))
-                .append("x" + numObtained + ": ")
-                .append(luckCalculationResult.getLuckColor(), shownLuckText.toString())
-                .append(" in ")
-                .append(kcDescription)
+                .append(targetName + ": ")
+                .append(aggregateLuck.getNumObtained() + "/" + aggregateLuck.getNumItems() + " uniques (expected "
+                        + String.format("%.1f", aggregateLuck.getExpectedNumObtained()) + "): ")
+                .append(aggregateLuck.getLuckColor(), shownLuckText)
                 .append(WARNING_TEXT_COLOR, warningText)
                 .build();
     }
 
+    // Bring the luck index up to date, only calculating items whose quantities, KC or config changed since last time
+    // The index is not thread-safe, so hold its lock while using it.
+    private void updateLuckIndex(LuckIndex luckIndex, CollectionLog collectionLog,
+                                 CollectionLogLuckConfigSnapshot calculationConfig,
+                                 boolean collectionLogIsLocalPlayer) {
+        // Other players' items that need config are skipped, rather than calculated with YOUR config
+        CollectionLogLuckConfig relevantConfig = collectionLogIsLocalPlayer ? calculationConfig : null;
+
+        for (LogItemInfo logItemInfo : LogItemInfo.getAllLogItemInfos()) {
+            CollectionLogItem item = collectionLog.searchForItem(logItemInfo.getItemName());
+            if (item == null) continue;
+
+            DropLuck dropLuck = logItemInfo.getDropProbabilityDistribution();
+            // Luck may depend on other items' quantities (e.g. sets), which are part of the calculation ID
+            String inputsId = getLuckCalculationId(dropLuck, item, collectionLog, calculationConfig);
+            if (luckIndex.isUpToDate(item.getName(), inputsId)) continue;
+
+            if (dropLuck.getIncalculableReason(item, relevantConfig) != null) {
+                luckIndex.update(item.getName(), inputsId, null);
+                continue;
+            }
+
+            LuckCalculationResult result = fetchLuckCalculationResult(dropLuck, item, collectionLog, calculationConfig);
+            double luck = result.getLuck();
+            double dryness = result.getDryness();
+            ItemLuckRow row = null;
+            if (luck >= 0 && luck <= 1 && dryness >= 0 && dryness <= 1) {
+                row = new ItemLuckRow(item.getId(), item.getName(), item.getQuantity(),
+                        dropLuck.getKillCountDescription(collectionLog), luck, dryness, result.getOverallLuck());
+            }
+            luckIndex.update(item.getName(), inputsId, row);
+        }
+    }
+
+    private String buildLuckExtremesCommandMessage(String username, CollectionLog collectionLog,
+                                                   CollectionLogLuckConfigSnapshot calculationConfig, boolean lucky,
+                                                   int count, boolean collectionLogIsLocalPlayer) {
+        long startTime = System.nanoTime();
+        List<ItemLuckRow> rows;
+        LuckIndex luckIndex = luckIndexes.computeIfAbsent(Text.sanitize(username), k -> new LuckIndex());
+        synchronized (luckIndex) {
+            updateLuckIndex(luckIndex, collectionLog, calculationConfig, collectionLogIsLocalPlayer);
+            rows = lucky ? luckIndex.getLuckiest(count) : luckIndex.getDriest(count);
+        }
+        LuckMetrics.GLOBAL.recordLatency("aggregate.extremes", System.nanoTime() - startTime);
+
+        if (rows.isEmpty()) {
+            return getWarningString("Collection Log Luck plugin: No items are supported for luck calculation.");
+        }
+
+        ChatMessageBuilder messageBuilder = new ChatMessageBuilder()
+                .append(lucky ? "Luckiest items: " : "Driest items: ");
+        for (int i = 0; i < rows.size(); i++) {
+            ItemLuckRow row = rows.get(i);
+            int luckPercentile = (int) Math.round(row.getOverallLuck() * 100);
+            if (i > 0) {
+                messageBuilder.append(", ");
+            }
+            messageBuilder
+                    .append(row.getItemName() + " x" + row.getQuantity() + " ")
+                    .append(LuckUtils.getOverallLuckColor(row.getOverallLuck()),
+                            "(" + luckPercentile + LuckUtils.getOrdinalSuffix(luckPercentile) + " percentile)");
+        }
+        return messageBuilder.build();
+    }
+
     @Subscribe
     public void onConfigChanged(ConfigChanged event) {
         if (event.getGroup().equals(COLLECTION_LOG_LUCK_CONFIG_GROUP)) {
@@ -801,16 +1552,50 @@ public class CollectionLogLuckPlugin extends Plugin {
                     config.HIDE_PERSONAL_LUCK_CALCULATION_KEY,
                     config.SHOW_LUCK_TEXT_ON_COLLECTION_LOG_KEY,
                     config.SHOW_LUCK_BACKGROUND_ON_COLLECTION_LOG_KEY,
-                    config.REPLACE_PERCENTILE_WITH_DRYCALC_NUMBER_KEY
+                    config.REPLACE_PERCENTILE_WITH_DRYCALC_NUMBER_KEY,
+                    config.SHOW_EXPECTED_RANGE_TOOLTIP_KEY,
+                    config.CAPTURE_FULL_COLLECTION_LOG_KEY,
+                    config.PREFETCH_COLLECTION_LOGS_KEY,
+                    config.SHOW_DEBUG_OVERLAY_KEY,
+                    // the atlas holds the same values as live calculation
+                    config.USE_CDF_ATLAS_KEY,
+                    config.PROGRESSIVE_OVERLAY_CALCULATION_KEY
             );
+            boolean affectsCalculations = !nonCacheClearingConfigSettings.contains(event.getKey());
+
+            // Calculation results are cached by snapshot version, so only settings that affect them get a new version
+            configSnapshot = affectsCalculations
+                    ? CollectionLogLuckConfigSnapshot.of(config)
+                    : configSnapshot.withUnversionedChanges(config);
+
+            if (event.getKey().equals(config.USE_CDF_ATLAS_KEY)) {
+                updateCdfAtlas();
+            }
+
+            if (event.getKey().equals(config.COLLECTION_LOG_SERVER_URL_KEY)) {
+                collectionLogSource = buildCollectionLogSource();
+                loadedCollectionLogs.clear();
+            }
 
             // Skip clearing calculation cache if the modified setting could not possibly affect calculation results
-            if (nonCacheClearingConfigSettings.contains(event.getKey())) {
+            if (!affectsCalculations) {
                 return;
             }
 
             luckCalculationResults.clear();
+            cdfTables.clear();
+            luckIndexes.clear();
+            // Config changes can make previously unsupported items calculable, so they should be checked again.
+            collectionLogReconciler.markAllDirty();
         }
     }
 
+    @AllArgsConstructor
+    private static class PendingLuckReply {
+        private final String username;
+        private final ChatMessage chatMessage;
+        private final String commandTarget;
+        private final CollectionLog collectionLog;
+    }
+
 }
@@ -0,0 +1,181 @@
+package com.peanubnutter.collectionlogluck;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Client;
+import net.runelite.api.widgets.InterfaceID;
+import net.runelite.api.widgets.Widget;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.function.Consumer;
+
+// Steps through every tab and page of the open collection log by running the same scripts that clicking on them would
+// run. Pages are selected a few at a time, spread over client ticks so that no tick spends more than a small time
+// budget, and each page is scraped right after it is drawn.
+//
+// All methods must be called on the client thread.
+@Slf4j
+@Singleton
+public class CollectionLogPageWalker {
+
+    private static final String[] TAB_NAMES = {"Bosses", "Raids", "Clues", "Minigames", "Other"};
+
+    // Child IDs in the collection log interface. RuneLite's ComponentID only names the page header and item container,
+    // so the tab buttons and page lists are named here. These IDs are not part of any API and can change in a game
+    // update. Every tab has pages, so a tab whose page list is missing or empty means an ID is out of date. In that
+    // case the capture is abandoned, rather than saving a log that is missing a whole tab.
+    private static final int BOSSES_TAB_CHILD_ID = 4;
+    private static final int RAIDS_TAB_CHILD_ID = 5;
+    private static final int CLUES_TAB_CHILD_ID = 6;
+    private static final int MINIGAMES_TAB_CHILD_ID = 7;
+    private static final int OTHER_TAB_CHILD_ID = 8;
+
+    // Note that the Minigames and Other lists are not in increasing order
+    private static final int BOSSES_PAGE_LIST_CHILD_ID = 12;
+    private static final int RAIDS_PAGE_LIST_CHILD_ID = 16;
+    private static final int CLUES_PAGE_LIST_CHILD_ID = 32;
+    private static final int MINIGAMES_PAGE_LIST_CHILD_ID = 35;
+    private static final int OTHER_PAGE_LIST_CHILD_ID = 34;
+
+    // Tab buttons at the top of the collection log, in the same order as TAB_NAMES
+    private static final int[] TAB_COMPONENT_IDS = {
+            collectionLogComponentId(BOSSES_TAB_CHILD_ID),
+            collectionLogComponentId(RAIDS_TAB_CHILD_ID),
+            collectionLogComponentId(CLUES_TAB_CHILD_ID),
+            collectionLogComponentId(MINIGAMES_TAB_CHILD_ID),
+            collectionLogComponentId(OTHER_TAB_CHILD_ID),
+    };
+
+    // The list of page names shown for each tab, in the same order as TAB_NAMES
+    private static final int[] PAGE_LIST_COMPONENT_IDS = {
+            collectionLogComponentId(BOSSES_PAGE_LIST_CHILD_ID),
+            collectionLogComponentId(RAIDS_PAGE_LIST_CHILD_ID),
+            collectionLogComponentId(CLUES_PAGE_LIST_CHILD_ID),
+            collectionLogComponentId(MINIGAMES_PAGE_LIST_CHILD_ID),
+            collectionLogComponentId(OTHER_PAGE_LIST_CHILD_ID),
+    };
+
+    // Time allowed for selecting and scraping pages each client tick. A client tick is ~20ms.
+    private static final long TICK_TIME_BUDGET_NANOS = 2_000_000;
+
+    @Inject
+    private Client client;
+
+    private boolean walking = false;
+    private int tabIndex;
+    private int pageIndex;
+    private boolean tabSelected;
+
+    // Called with the tab name after each page is selected, to scrape it
+    private Consumer<String> pageScraper;
+    // Called with whether every page was visited
+    private Consumer<Boolean> onFinished;
+
+    /**
+     * Start walking the collection log, which must be open.
+     *
+     * @param pageScraper Called with the tab name each time a page has been selected and drawn
+     * @param onFinished  Called with true once every page has been visited, or false if the collection log was closed or
+     *                    a tab or page could not be read or selected
+     */
+    public void start(Consumer<String> pageScraper, Consumer<Boolean> onFinished) {
+        this.pageScraper = pageScraper;
+        this.onFinished = onFinished;
+        tabIndex = 0;
+        pageIndex = 0;
+        tabSelected = false;
+        walking = true;
+    }
+
+    public boolean isWalking() {
+        return walking;
+    }
+
+    // Abandon the walk without calling onFinished, e.g. on logout.
+    public void stop() {
+        walking = false;
+    }
+
+    // Visit as many pages as fit in this client tick's time budget
+    public void step() {
+        long startTime = System.nanoTime();
+        while (walking && System.nanoTime() - startTime < TICK_TIME_BUDGET_NANOS) {
+            advance();
+        }
+    }
+
+    private void advance() {
+        if (tabIndex >= TAB_COMPONENT_IDS.length) {
+            finish(true);
+            return;
+        }
+
+        Widget tab = client.getWidget(TAB_COMPONENT_IDS[tabIndex]);
+        if (tab == null) {
+            // The collection log was closed
+            finish(false);
+            return;
+        }
+
+        if (!tabSelected) {
+            // Skipping the tab would save a log that is missing every page on it
+            if (!select(tab)) {
+                log.warn("Unable to select collection log tab {}", TAB_NAMES[tabIndex]);
+                finish(false);
+                return;
+            }
+            tabSelected = true;
+            return;
+        }
+
+        Widget pageList = client.getWidget(PAGE_LIST_COMPONENT_IDS[tabIndex]);
+        Widget[] pages = pageList == null ? new Widget[0] : pageList.getDynamicChildren();
+        if (pages.length == 0) {
+            log.warn("Collection log tab {} has no pages, so its component IDs may be out of date", TAB_NAMES[tabIndex]);
+            finish(false);
+            return;
+        }
+        if (pageIndex >= pages.length) {
+            nextTab();
+            return;
+        }
+
+        Widget page = pages[pageIndex];
+        if (!select(page)) {
+            log.warn("Unable to select page {} of collection log tab {}", pageIndex, TAB_NAMES[tabIndex]);
+            finish(false);
+            return;
+        }
+        pageScraper.accept(TAB_NAMES[tabIndex]);
+        pageIndex++;
+    }
+
+    private void nextTab() {
+        tabIndex++;
+        pageIndex = 0;
+        tabSelected = false;
+    }
+
+    private void finish(boolean visitedEveryPage) {
+        walking = false;
+        onFinished.accept(visitedEveryPage);
+    }
+
+    private static int collectionLogComponentId(int childId) {
+        return InterfaceID.COLLECTION_LOG << 16 | childId;
+    }
+
+    // Run the widget's click handler. The scripts run synchronously, so the page is drawn once this returns.
+    private boolean select(Widget widget) {
+        Object[] onOpListener = widget.getOnOpListener();
+        if (onOpListener == null) {
+            return false;
+        }
+        client.createScriptEvent(onOpListener)
+                .setSource(widget)
+                .setOp(1)
+                .run();
+        return true;
+    }
+
+}
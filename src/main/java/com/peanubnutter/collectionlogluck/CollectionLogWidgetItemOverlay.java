@@ -7,6 +7,8 @@ import com.peanubnutter.collectionlogluck.util.LuckUtils;
 import net.runelite.api.widgets.InterfaceID;
 import net.runelite.api.widgets.WidgetItem;
 import net.runelite.client.ui.overlay.WidgetItemOverlay;
+import net.runelite.client.ui.overlay.tooltip.Tooltip;
+import net.runelite.client.ui.overlay.tooltip.TooltipManager;
 
 import javax.inject.Inject;
 import java.awt.*;
@@ -17,7 +19,7 @@ public class CollectionLogWidgetItemOverlay extends WidgetItemOverlay {
     private CollectionLogLuckPlugin collectionLogLuckPlugin;
 
     @Inject
-    private CollectionLogLuckConfig config;
+    private TooltipManager tooltipManager;
 
     // on a scale from 0 to 255
     private static final int LUCK_OVERLAY_ALPHA = 40;
@@ -32,6 +34,8 @@ public class CollectionLogWidgetItemOverlay extends WidgetItemOverlay {
 
     @Override
     public void renderItemOverlay(Graphics2D graphics, int itemId, WidgetItem widgetItem) {
+        // The snapshot is much cheaper to read than the live config, which matters for an overlay drawn every frame
+        CollectionLogLuckConfigSnapshot config = collectionLogLuckPlugin.getConfigSnapshot();
         if (config.hidePersonalLuckCalculation()) {
             return;
         }
@@ -53,11 +57,13 @@ public class CollectionLogWidgetItemOverlay extends WidgetItemOverlay {
             String incalculableReason = logItemInfo.getDropProbabilityDistribution().getIncalculableReason(item, config);
             if (incalculableReason != null) return;
 
-            LuckCalculationResult luckCalculationResult = collectionLogLuckPlugin.fetchLuckCalculationResult(
+            LuckCalculationResult luckCalculationResult = collectionLogLuckPlugin.fetchProgressiveLuckCalculationResult(
                 logItemInfo.getDropProbabilityDistribution(),
                 item,
                 collectionLog,
                 config);
+            // Still being calculated in the background
+            if (luckCalculationResult == null) return;
 
             Rectangle r = widgetItem.getCanvasBounds();
             Color luckColor = luckCalculationResult.getLuckColor();
@@ -79,6 +85,9 @@ public class CollectionLogWidgetItemOverlay extends WidgetItemOverlay {
                         LuckUtils.getOrdinalSuffix(luckDisplayRounded);
 
                 String overallLuckText = Math.round(100 * luckToDisplay) + luckDisplaySymbol;
+                if (luckCalculationResult.isApproximate()) {
+                    overallLuckText = "~" + overallLuckText;
+                }
 
                 // drop shadow
                 graphics.setColor(Color.BLACK);
@@ -91,6 +100,19 @@ public class CollectionLogWidgetItemOverlay extends WidgetItemOverlay {
                 graphics.drawString(overallLuckText, r.x, r.y + r.height);
             }
 
+            if (config.showExpectedRangeTooltip()) {
+                net.runelite.api.Point mouse = collectionLogLuckPlugin.getClient().getMouseCanvasPosition();
+                if (r.contains(mouse.getX(), mouse.getY())) {
+                    int[] expectedRange = collectionLogLuckPlugin.fetchExpectedRange(
+                            logItemInfo.getDropProbabilityDistribution(), item, collectionLog, config);
+                    if (expectedRange != null) {
+                        tooltipManager.add(new Tooltip("Typical at your KC: "
+                                + CollectionLogLuckPlugin.formatExpectedRange(expectedRange)
+                                + " (10th-90th percentile)"));
+                    }
+                }
+            }
+
         });
     }
 }
@@ -0,0 +1,28 @@
+package com.peanubnutter.collectionlogluck.luck;
+
+import lombok.Getter;
+
+// The luck of a player's number of unique items obtained across a group of items, e.g. a collection log page or the
+// entire account.
+public class AggregateLuckCalculationResult extends LuckCalculationResult {
+
+    // The number of items whose luck could be calculated, and which are therefore included in the aggregate
+    @Getter
+    private final int numItems;
+
+    // The number of included items that the player has obtained
+    @Getter
+    private final int numObtained;
+
+    // The expected number of included items obtained, given the player's KC
+    @Getter
+    private final double expectedNumObtained;
+
+    public AggregateLuckCalculationResult(double luck, double dryness, int numItems, int numObtained, double expectedNumObtained) {
+        super(luck, dryness);
+        this.numItems = numItems;
+        this.numObtained = numObtained;
+        this.expectedNumObtained = expectedNumObtained;
+    }
+
+}
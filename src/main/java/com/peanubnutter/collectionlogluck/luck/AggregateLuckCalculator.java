@@ -0,0 +1,84 @@
+package com.peanubnutter.collectionlogluck.luck;
+
+import com.peanubnutter.collectionlogluck.CollectionLogLuckConfig;
+import com.peanubnutter.collectionlogluck.luck.drop.DropLuck;
+import com.peanubnutter.collectionlogluck.luck.probability.UniqueCountDistribution;
+import com.peanubnutter.collectionlogluck.model.CollectionLog;
+import com.peanubnutter.collectionlogluck.model.CollectionLogItem;
+import com.peanubnutter.collectionlogluck.model.CollectionLogPage;
+import com.peanubnutter.collectionlogluck.model.CollectionLogTab;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Calculates luck for the number of unique items obtained across many items, treating each item as independently
+// obtained or not. Items whose luck cannot be calculated (unsupported drops, missing KC, etc.) are left out.
+public final class AggregateLuckCalculator {
+
+    private AggregateLuckCalculator() {
+    }
+
+    public static AggregateLuckCalculationResult calculatePageLuck(CollectionLogPage page, CollectionLog collectionLog,
+                                                                   CollectionLogLuckConfig config) {
+        return calculateUniquesLuck(page.getItems(), collectionLog, config);
+    }
+
+    public static AggregateLuckCalculationResult calculateAccountLuck(CollectionLog collectionLog,
+                                                                      CollectionLogLuckConfig config) {
+        // Some items appear on multiple pages, but should only count once
+        Map<Integer, CollectionLogItem> uniqueItems = new LinkedHashMap<>();
+        for (CollectionLogTab tab : collectionLog.getTabs().values()) {
+            for (CollectionLogPage page : tab.getPages().values()) {
+                for (CollectionLogItem item : page.getItems()) {
+                    uniqueItems.putIfAbsent(item.getId(), item);
+                }
+            }
+        }
+        return calculateUniquesLuck(uniqueItems.values(), collectionLog, config);
+    }
+
+    public static AggregateLuckCalculationResult calculateUniquesLuck(Collection<CollectionLogItem> items,
+                                                                      CollectionLog collectionLog,
+                                                                      CollectionLogLuckConfig config) {
+        List<Double> chancesObtained = new ArrayList<>();
+        int numObtained = 0;
+
+        for (CollectionLogItem item : items) {
+            LogItemInfo logItemInfo = LogItemInfo.findByItemId(item.getId());
+            if (logItemInfo == null) {
+                logItemInfo = LogItemInfo.findByName(item.getName());
+            }
+            if (logItemInfo == null) {
+                continue;
+            }
+
+            DropLuck dropLuck = logItemInfo.getDropProbabilityDistribution();
+            if (dropLuck.getIncalculableReason(item, config) != null) {
+                continue;
+            }
+
+            double chanceObtained = dropLuck.calculateChanceObtained(item, collectionLog, config);
+            if (chanceObtained < 0 || chanceObtained > 1 || Double.isNaN(chanceObtained)) {
+                continue;
+            }
+
+            chancesObtained.add(chanceObtained);
+            if (item.getQuantity() > 0) {
+                numObtained++;
+            }
+        }
+
+        UniqueCountDistribution dist = new UniqueCountDistribution(chancesObtained);
+
+        // Same definitions as for a single item: luck is the chance of having fewer uniques, and dryness is the
+        // chance of having more.
+        double luck = dist.cumulativeProbability(numObtained - 1);
+        double dryness = 1 - dist.cumulativeProbability(numObtained);
+
+        return new AggregateLuckCalculationResult(luck, dryness, chancesObtained.size(), numObtained, dist.getMean());
+    }
+
+}
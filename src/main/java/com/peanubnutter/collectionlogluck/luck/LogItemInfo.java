@@ -5,8 +5,10 @@ import com.peanubnutter.collectionlogluck.CollectionLogLuckConfig;
 import com.peanubnutter.collectionlogluck.luck.drop.*;
 import net.runelite.api.ItemID;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -16,6 +18,8 @@ public class LogItemInfo {
     // case-insensitive map, just in case
     private static final Map<String, LogItemInfo> logItemInfos = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
     private static final Map<Integer, LogItemInfo> logItemInfoIds = new HashMap<>();
+    // Every item's drop, including items that share a name or ID with another item
+    private static final List<DropLuck> dropLucks = new ArrayList<>();
 
     /*
      Example of each supported probability distribution type:
@@ -4423,6 +4427,13 @@ public class LogItemInfo {
     public static LogItemInfo HELMET_OF_THE_MOON = new LogItemInfo("Helmet of the moon",30111, new MissingKillCountDrop());
     public static LogItemInfo SQUID_BEAK = new LogItemInfo("Squid beak",31572, new MissingKillCountDrop());
 
+    // Drops that refer to other items can only look them up once every item above has been created
+    static {
+        for (DropLuck dropLuck : dropLucks) {
+            dropLuck.resolveLogItemInfos();
+        }
+    }
+
     private final String itemName;
     private final int itemId;
     private final DropLuck dropLuck;
@@ -4433,6 +4444,7 @@ public class LogItemInfo {
         this.itemId = itemId;
         this.dropLuck = dropLuck;
         dropLuck.setItemName(itemName);
+        dropLucks.add(dropLuck);
 
         logItemInfos.put(itemName, this);
         logItemInfoIds.put(itemId, this);
@@ -19,11 +19,20 @@ public class LuckCalculationResult {
     @Getter
     private Color luckColor;
 
+    // Whether this is a cheap approximation that is shown until the exact result has been calculated
+    @Getter
+    private boolean approximate;
+
     public LuckCalculationResult(double luck, double dryness) {
+        this(luck, dryness, false);
+    }
+
+    public LuckCalculationResult(double luck, double dryness, boolean approximate) {
         this.luck = luck;
         this.dryness = dryness;
         this.overallLuck = LuckUtils.getOverallLuck(luck, dryness);
         this.luckColor = LuckUtils.getOverallLuckColor(overallLuck);
+        this.approximate = approximate;
     }
 
 }
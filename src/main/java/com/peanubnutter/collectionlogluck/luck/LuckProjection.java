@@ -0,0 +1,63 @@
+package com.peanubnutter.collectionlogluck.luck;
+
+import lombok.Getter;
+
+// Luck and dryness for a player's current number of drops if they got more KC without any more drops, from their
+// current KC (0 additional KC) up to a horizon. Chance obtained describes when the player is likely to get the next
+// drop: the chance of having received at least one more by then.
+public class LuckProjection {
+
+    // The drop source whose KC is projected
+    @Getter
+    private final LogItemSourceInfo dropSource;
+
+    // The player's current KC of the projected drop source
+    @Getter
+    private final int currentKc;
+
+    private final double[] luck;
+
+    private final double[] dryness;
+
+    private final double[] chanceOfNextDrop;
+
+    public LuckProjection(LogItemSourceInfo dropSource, int currentKc, double[] luck, double[] dryness,
+                          double[] chanceOfNextDrop) {
+        if (luck.length != dryness.length || luck.length != chanceOfNextDrop.length) {
+            throw new IllegalArgumentException("Projected values must have the same length");
+        }
+        this.dropSource = dropSource;
+        this.currentKc = currentKc;
+        this.luck = luck;
+        this.dryness = dryness;
+        this.chanceOfNextDrop = chanceOfNextDrop;
+    }
+
+    public int getNumAdditionalKc() {
+        return luck.length - 1;
+    }
+
+    public double getLuck(int additionalKc) {
+        return luck[additionalKc];
+    }
+
+    public double getDryness(int additionalKc) {
+        return dryness[additionalKc];
+    }
+
+    // The chance that the player will have received at least one more drop within this many additional KC
+    public double getChanceOfNextDrop(int additionalKc) {
+        return chanceOfNextDrop[additionalKc];
+    }
+
+    // The number of additional KC after which the chance of the next drop reaches this chance, or -1 beyond the horizon
+    public int getAdditionalKcForChanceOfNextDrop(double chance) {
+        for (int i = 0; i < chanceOfNextDrop.length; i++) {
+            if (chanceOfNextDrop[i] >= chance) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+}
@@ -6,15 +6,19 @@ import com.peanubnutter.collectionlogluck.model.CollectionLogItem;
 import com.peanubnutter.collectionlogluck.model.CollectionLogKillCount;
 import com.peanubnutter.collectionlogluck.luck.LogItemInfo;
 import com.peanubnutter.collectionlogluck.luck.LogItemSourceInfo;
+import com.peanubnutter.collectionlogluck.luck.LuckProjection;
 import com.peanubnutter.collectionlogluck.luck.RollInfo;
+import com.peanubnutter.collectionlogluck.luck.probability.DistributionEngineSelector;
+import com.peanubnutter.collectionlogluck.luck.probability.IncrementalPoissonBinomialPmf;
+import com.google.common.collect.ImmutableList;
 
-import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
-// Describes the probability distribution for a drop
+// Describes the probability distribution for a drop. Drops are configured while LogItemInfo is initialized and are
+// frozen by resolveLogItemInfos, so the same drop can be evaluated from many threads at once.
 public abstract class AbstractDrop implements DropLuck {
 
     public static final String INCALCULABLE_MISSING_CONFIG =
@@ -22,10 +26,17 @@ public abstract class AbstractDrop implements DropLuck {
 
     protected final List<RollInfo> rollInfos;
 
+    // Replaced rather than modified, so readers never see a list that is being changed
     protected List<String> configOptions;
 
     protected String itemName;
 
+    protected DistributionEngineSelector engineSelector = DistributionEngineSelector.DEFAULT;
+
+    // Set by resolveLogItemInfos. Nothing may be configured afterwards. LogItemInfo's static initializer freezes every
+    // drop, so other threads see the final configuration once they can see the drop.
+    private boolean frozen;
+
     public AbstractDrop(List<RollInfo> rollInfos) {
         this.rollInfos = rollInfos;
 
@@ -33,7 +44,7 @@ public abstract class AbstractDrop implements DropLuck {
             throw new IllegalArgumentException("At least one RollInfo is required.");
         }
 
-        this.configOptions = new ArrayList<>();
+        this.configOptions = ImmutableList.of();
     }
 
     /**
@@ -41,15 +52,73 @@ public abstract class AbstractDrop implements DropLuck {
      * This helps correct inflated KC for various reasons, correct inflated # items received, etc.
      */
     public AbstractDrop withConfigOption(String configOption) {
-        this.configOptions.add(configOption);
+        requireNotFrozen();
+        this.configOptions = ImmutableList.<String>builder()
+                .addAll(configOptions)
+                .add(configOption)
+                .build();
         return this;
     }
 
+    /**
+     * Subclasses that can choose between exact and approximate calculations use this selector to decide. The default
+     * selector's accuracy target is enough for display purposes, but a stricter or looser one can be provided.
+     */
+    public AbstractDrop withEngineSelector(DistributionEngineSelector engineSelector) {
+        requireNotFrozen();
+        this.engineSelector = engineSelector;
+        return this;
+    }
+
+    // Return the LogItemInfo of every item ID, or null if any of them has not been created yet. Drops that belong to a
+    // LogItemInfo are created before most of the items they refer to, so they are resolved again by
+    // resolveLogItemInfos once every item exists.
+    protected static List<LogItemInfo> findLogItemInfos(List<Integer> itemIds) {
+        ImmutableList.Builder<LogItemInfo> logItemInfos = ImmutableList.builder();
+        for (Integer itemId : itemIds) {
+            LogItemInfo logItemInfo = LogItemInfo.findByItemId(itemId);
+            if (logItemInfo == null) {
+                return null;
+            }
+            logItemInfos.add(logItemInfo);
+        }
+        return logItemInfos.build();
+    }
+
+    // The quantity of every set piece, in set order, for drops whose luck depends on the whole set
+    protected static String getSetQuantityDescription(List<LogItemInfo> setLogItemInfos, CollectionLog collectionLog) {
+        return setLogItemInfos.stream()
+                .map(setPiece -> collectionLog.searchForItem(setPiece.getItemName()))
+                .map(setItem -> setItem == null ? "0" : String.valueOf(setItem.getQuantity()))
+                .collect(Collectors.joining(","));
+    }
+
+    protected List<LogItemInfo> requireLogItemInfos(List<Integer> itemIds) {
+        List<LogItemInfo> logItemInfos = findLogItemInfos(itemIds);
+        if (logItemInfos == null) {
+            throw new IllegalStateException("Unknown item ID in the set of " + itemName + ": " + itemIds);
+        }
+        return logItemInfos;
+    }
+
     @Override
     public void setItemName(String itemName) {
+        requireNotFrozen();
         this.itemName = itemName;
     }
 
+    // Subclasses that refer to other items must look them up before calling this
+    @Override
+    public void resolveLogItemInfos() {
+        frozen = true;
+    }
+
+    protected void requireNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("The drop for " + itemName + " cannot be changed once it is resolved.");
+        }
+    }
+
     @Override
     public String getIncalculableReason(CollectionLogItem item, CollectionLogLuckConfig config) {
         // This drop needs custom behavior defined in client configs, but these are only available client-side.
@@ -78,6 +147,83 @@ public abstract class AbstractDrop implements DropLuck {
                 .collect(Collectors.joining(", "));
     }
 
+    /**
+     * Project luck and dryness for every KC from the player's current KC up to numAdditionalKc more kills of this drop's
+     * first drop source, assuming no more drops are received.
+     *
+     * @return the projection, or null if this drop does not support projections
+     */
+    public LuckProjection projectLuck(CollectionLogItem item, CollectionLog collectionLog, CollectionLogLuckConfig config,
+                                      int numAdditionalKc) {
+        return null;
+    }
+
+    /**
+     * Projection for drops whose successes follow a (Poisson) binomial distribution over rolls. Rather than building a
+     * new distribution per KC, each additional kill's rolls are added to the distribution incrementally, so the whole
+     * curve takes a single pass.
+     *
+     * @param probabilities the distinct drop chances of the player's current rolls
+     * @param counts        the number of current rolls at each respective drop chance
+     */
+    protected LuckProjection projectLuck(CollectionLogItem item, CollectionLog collectionLog, CollectionLogLuckConfig config,
+                                         int numAdditionalKc, List<Double> probabilities, List<Integer> counts) {
+        if (numAdditionalKc < 0) {
+            throw new IllegalArgumentException("numAdditionalKc must be >= 0");
+        }
+
+        int numSuccesses = getNumSuccesses(item, collectionLog, config);
+        int maxEquivalentNumSuccesses = getMaxEquivalentNumSuccesses(item, collectionLog, config);
+        IncrementalPoissonBinomialPmf pmf =
+                new IncrementalPoissonBinomialPmf(Math.max(0, Math.max(numSuccesses - 1, maxEquivalentNumSuccesses)));
+        for (int i = 0; i < probabilities.size(); i++) {
+            pmf.addTrials(probabilities.get(i), counts.get(i));
+        }
+
+        RollInfo projectedRollInfo = rollInfos.get(0);
+        double projectedDropChance = getDropChance(projectedRollInfo, collectionLog, config);
+        double projectedRollsPerKc = getRollsPerKc(projectedRollInfo, config);
+        CollectionLogKillCount currentKc = collectionLog.searchForKillCount(projectedRollInfo.getDropSource().getName());
+
+        int currentNumTrials = getNumTrials(collectionLog, config);
+        long numAdditionalRolls = 0;
+
+        double[] luck = new double[numAdditionalKc + 1];
+        double[] dryness = new double[numAdditionalKc + 1];
+        double[] chanceOfNextDrop = new double[numAdditionalKc + 1];
+        for (int additionalKc = 0; additionalKc <= numAdditionalKc; additionalKc++) {
+            if (additionalKc > 0) {
+                // Rolls per KC may be fractional, so add however many whole rolls this kill completes
+                long numRolls = Math.round(additionalKc * projectedRollsPerKc)
+                        - Math.round((additionalKc - 1) * projectedRollsPerKc);
+                for (long roll = 0; roll < numRolls; roll++) {
+                    pmf.addTrial(projectedDropChance);
+                }
+                numAdditionalRolls += numRolls;
+            }
+
+            // Same edge cases as calculateLuck and calculateDryness
+            long numTrials = currentNumTrials + numAdditionalRolls;
+            if (numSuccesses <= 0) {
+                luck[additionalKc] = 0;
+            } else {
+                luck[additionalKc] = numSuccesses > numTrials ? -1 : pmf.cumulativeProbability(numSuccesses - 1);
+            }
+            if (numTrials <= 0) {
+                dryness[additionalKc] = 0;
+            } else {
+                dryness[additionalKc] = numSuccesses > numTrials
+                        ? -1
+                        : 1 - pmf.cumulativeProbability(maxEquivalentNumSuccesses);
+            }
+            chanceOfNextDrop[additionalKc] = -Math.expm1(numAdditionalRolls * Math.log1p(-projectedDropChance));
+        }
+
+        return new LuckProjection(projectedRollInfo.getDropSource(),
+                currentKc == null ? 0 : currentKc.getAmount(),
+                luck, dryness, chanceOfNextDrop);
+    }
+
     protected int getNumTrials(CollectionLog collectionLog, CollectionLogLuckConfig config) {
         double numTrials = 0;
 
@@ -1,6 +1,8 @@
 package com.peanubnutter.collectionlogluck.luck.drop;
 
 import com.peanubnutter.collectionlogluck.CollectionLogLuckConfig;
+import com.peanubnutter.collectionlogluck.luck.probability.CdfTable;
+import com.peanubnutter.collectionlogluck.model.CollectionLog;
 import com.peanubnutter.collectionlogluck.model.CollectionLogItem;
 
 // Base class for all unsupported or unimplemented drops
@@ -11,6 +13,11 @@ public abstract class AbstractUnsupportedDrop implements DropLuck {
     @Override
     public abstract String getIncalculableReason(CollectionLogItem item, CollectionLogLuckConfig config);
 
+    @Override
+    public CdfTable getCdfTable(CollectionLogItem item, CollectionLog collectionLog, CollectionLogLuckConfig config) {
+        return null;
+    }
+
     @Override
     public void setItemName(String itemName) {
         this.itemName = itemName;
@@ -3,11 +3,19 @@ package com.peanubnutter.collectionlogluck.luck.drop;
 import com.peanubnutter.collectionlogluck.CollectionLogLuckConfig;
 import com.peanubnutter.collectionlogluck.model.CollectionLog;
 import com.peanubnutter.collectionlogluck.model.CollectionLogItem;
+import com.peanubnutter.collectionlogluck.luck.LogItemInfo;
+import com.peanubnutter.collectionlogluck.luck.LuckProjection;
 import com.peanubnutter.collectionlogluck.luck.RollInfo;
+import com.peanubnutter.collectionlogluck.luck.probability.CdfAtlas;
+import com.peanubnutter.collectionlogluck.luck.probability.CdfTable;
+import com.peanubnutter.collectionlogluck.luck.probability.ProbabilityKernels;
 import com.google.common.collect.ImmutableList;
-import org.apache.commons.math3.distribution.BinomialDistribution;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 // A drop that follows the standard Binomial distribution. Note: This class supports drops that come from
 // multiple item sources, but it requires the drop chance for the item to be the same across all sources.
@@ -44,9 +52,9 @@ public class BinomialDrop extends AbstractDrop {
             return -1;
         }
 
-        BinomialDistribution dist = new BinomialDistribution(numTrials, getDropChance(rollInfos.get(0), collectionLog, config));
+        double dropChance = getDropChance(rollInfos.get(0), collectionLog, config);
 
-        return dist.cumulativeProbability(numSuccesses - 1);
+        return getCumulativeProbability(numSuccesses - 1, numTrials, dropChance);
     }
 
     @Override
@@ -63,11 +71,68 @@ public class BinomialDrop extends AbstractDrop {
 
         // we have already validated that at least 1 RollInfo exists, and all RollInfos have the same drop chance
         double dropChance = getDropChance(rollInfos.get(0), collectionLog, config);
-        BinomialDistribution dist = new BinomialDistribution(numTrials, dropChance);
 
         int maxEquivalentNumSuccesses = getMaxEquivalentNumSuccesses(item, collectionLog, config);
 
-        return 1 - dist.cumulativeProbability(maxEquivalentNumSuccesses);
+        return 1 - getCumulativeProbability(maxEquivalentNumSuccesses, numTrials, dropChance);
+    }
+
+    @Override
+    public CdfTable getCdfTable(CollectionLogItem item, CollectionLog collectionLog, CollectionLogLuckConfig config) {
+        // Subclasses map quantities to successes differently (e.g. stacks), and purchased seeds offset the
+        // quantity. calculateLuck already handles these.
+        if (getClass() != BinomialDrop.class
+                || configOptions.contains(CollectionLogLuckConfig.NUM_CRYSTAL_WEAPON_SEEDS_PURCHASED_KEY)) {
+            return super.getCdfTable(item, collectionLog, config);
+        }
+
+        // Look up the KC and drop chance once, rather than for every quantity
+        int numTrials = getNumTrials(collectionLog, config);
+        double dropChance = getDropChance(rollInfos.get(0), collectionLog, config);
+        return new CdfTable(k -> k >= numTrials ? 1 : getCumulativeProbability(k, numTrials, dropChance));
+    }
+
+    @Override
+    public LuckProjection projectLuck(CollectionLogItem item, CollectionLog collectionLog, CollectionLogLuckConfig config,
+                                      int numAdditionalKc) {
+        if (!supportsProjection()) {
+            return null;
+        }
+        // All drop sources share the same drop chance
+        return projectLuck(item, collectionLog, config, numAdditionalKc,
+                Collections.singletonList(getDropChance(rollInfos.get(0), collectionLog, config)),
+                Collections.singletonList(getNumTrials(collectionLog, config)));
+    }
+
+    // Whether the number of successes is binomial over rolls, so that it can be projected. Subclasses that replace the
+    // distribution itself (e.g. with a finite number of items, or with amounts per drop) can't be projected this way.
+    protected boolean supportsProjection() {
+        return true;
+    }
+
+    // Return the chance of having received numSuccesses or fewer drops in numTrials. Subclasses whose drop chance
+    // depends on the drops already received (e.g. dupe protection) can override this with an exact distribution.
+    protected double getCumulativeProbability(int numSuccesses, int numTrials, double dropChance) {
+        CdfAtlas atlas = CdfAtlas.getInstalled();
+        if (atlas != null) {
+            double cumulativeProbability = atlas.cumulativeProbability(numSuccesses, numTrials, dropChance);
+            if (!Double.isNaN(cumulativeProbability)) {
+                return cumulativeProbability;
+            }
+        }
+        return ProbabilityKernels.binomialCumulativeProbability(numSuccesses, numTrials, dropChance);
+    }
+
+    // The distinct drop chances of the plain Binomial items among these, e.g. for precomputing their CDFs
+    public static SortedSet<Double> getDistinctDropChances(Collection<LogItemInfo> logItemInfos) {
+        SortedSet<Double> dropChances = new TreeSet<>();
+        for (LogItemInfo logItemInfo : logItemInfos) {
+            DropLuck dropLuck = logItemInfo.getDropProbabilityDistribution();
+            if (dropLuck.getClass() == BinomialDrop.class) {
+                dropChances.add(((BinomialDrop) dropLuck).rollInfos.get(0).getDropChancePerRoll());
+            }
+        }
+        return dropChances;
     }
 
 }
@@ -6,6 +6,9 @@ import com.peanubnutter.collectionlogluck.model.CollectionLogItem;
 import com.peanubnutter.collectionlogluck.luck.RollInfo;
 import com.peanubnutter.collectionlogluck.luck.probability.BinomialDiscreteApproxUniformSumDistribution;
 import com.peanubnutter.collectionlogluck.luck.probability.BinomialUniformSumNormalApproxDistribution;
+import com.peanubnutter.collectionlogluck.luck.probability.DistributionEngine;
+import com.peanubnutter.collectionlogluck.luck.probability.EngineSelection;
+import com.peanubnutter.collectionlogluck.util.LuckMetrics;
 import com.google.common.collect.ImmutableList;
 
 import java.util.List;
@@ -14,8 +17,6 @@ import java.util.List;
 // of variable size, and you would like to know the chance of having received <= X coins in N kills.
 public class BinomialUniformSumDrop extends BinomialDrop {
 
-    protected static final int NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD = 100;
-
     private final long minRollOnSuccess;
     private final long maxRollOnSuccess;
 
@@ -31,15 +32,20 @@ public class BinomialUniformSumDrop extends BinomialDrop {
     }
 
     private double getExactOrApproxCumulativeProbability(long numReceived, double dropChance, int numTrials) {
-        double expectedSuccesses = numTrials * dropChance;
+        EngineSelection engineSelection = engineSelector.selectBinomialUniformSumEngine(
+                numTrials, dropChance, minRollOnSuccess, maxRollOnSuccess, numReceived);
 
-        if (expectedSuccesses > NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD) {
-            return new BinomialUniformSumNormalApproxDistribution(numTrials, dropChance, minRollOnSuccess, maxRollOnSuccess)
+        long startTime = System.nanoTime();
+        double cumulativeProbability;
+        if (engineSelection.getEngine() == DistributionEngine.BINOMIAL_UNIFORM_SUM_NORMAL_APPROX) {
+            cumulativeProbability = new BinomialUniformSumNormalApproxDistribution(numTrials, dropChance, minRollOnSuccess, maxRollOnSuccess)
                     .cumulativeProbability(numReceived);
         } else {
-            return new BinomialDiscreteApproxUniformSumDistribution(numTrials, dropChance, minRollOnSuccess, maxRollOnSuccess)
+            cumulativeProbability = new BinomialDiscreteApproxUniformSumDistribution(numTrials, dropChance, minRollOnSuccess, maxRollOnSuccess)
                     .cumulativeProbability(numReceived);
         }
+        LuckMetrics.GLOBAL.recordLatency("engine." + engineSelection.getEngine(), System.nanoTime() - startTime);
+        return cumulativeProbability;
     }
 
     @Override
@@ -80,4 +86,9 @@ public class BinomialUniformSumDrop extends BinomialDrop {
                 (int) numTrials);
     }
 
+    @Override
+    protected boolean supportsProjection() {
+        return false;
+    }
+
 }
@@ -1,6 +1,8 @@
 package com.peanubnutter.collectionlogluck.luck.drop;
 
 import com.peanubnutter.collectionlogluck.CollectionLogLuckConfig;
+import com.peanubnutter.collectionlogluck.luck.LuckCalculationResult;
+import com.peanubnutter.collectionlogluck.luck.probability.CdfTable;
 import com.peanubnutter.collectionlogluck.model.CollectionLog;
 import com.peanubnutter.collectionlogluck.model.CollectionLogItem;
 
@@ -31,10 +33,76 @@ public interface DropLuck {
         return -1;
     }
 
+    /**
+     * Return a cheap approximation of this item's luck and dryness, to show while the exact values are calculated in
+     * the background. Only drops whose exact calculation can be slow need to support this.
+     *
+     * @param item the item for which to approximate luck
+     * @param collectionLog the collectionLog for which to approximate luck
+     * @return the approximate luck and dryness, or null if this drop has no cheaper approximation
+     */
+    default LuckCalculationResult approximateLuck(CollectionLogItem item, CollectionLog collectionLog, CollectionLogLuckConfig config) {
+        return null;
+    }
+
+    /**
+     * Return the chance of having received at least one of this item in the same KC as the player. This is used to
+     * combine many items into page-level or account-level luck for the number of unique items obtained.
+     *
+     * @param item the item for which to calculate the chance of obtaining it
+     * @param collectionLog the collectionLog for which to calculate the chance
+     * @return the chance of having obtained this item, or a negative value if it cannot be calculated
+     */
+    default double calculateChanceObtained(CollectionLogItem item, CollectionLog collectionLog, CollectionLogLuckConfig config) {
+        // The chance of being luckier than a player who has received none of the item
+        CollectionLogItem unobtainedItem = new CollectionLogItem(item.getId(), item.getName(), 0, false, item.getSequence());
+        return calculateDryness(unobtainedItem, collectionLog, config);
+    }
+
+    /**
+     * Return the distribution of the number of this item received in the same KC as the player, as a table of
+     * P(X <= k) that is filled in as it is used. The table does not depend on the player's own quantity, so it can be
+     * cached along with the KC.
+     *
+     * @param item the item whose distribution to return. Its quantity is ignored.
+     * @param collectionLog the collectionLog whose KC to use
+     * @return the distribution, or null if it cannot be calculated
+     */
+    default CdfTable getCdfTable(CollectionLogItem item, CollectionLog collectionLog, CollectionLogLuckConfig config) {
+        return new CdfTable(k -> {
+            // P(X <= k) is the luck of a player who received k + 1
+            CollectionLogItem itemWithQuantity = new CollectionLogItem(item.getId(), item.getName(), k + 1, true, item.getSequence());
+            double luck = calculateLuck(itemWithQuantity, collectionLog, config);
+            // More than could possibly be received, so every player has received fewer
+            return luck < 0 ? 1 : luck;
+        });
+    }
+
+    /**
+     * Return the number of this item received by the given fraction of players in the same KC as the player, e.g.
+     * 0.5 for the median.
+     *
+     * @param quantile a probability between 0 and 1, exclusive
+     * @param cdfTable the table from getCdfTable, which should be cached
+     * @return the smallest quantity k such that P(X <= k) >= quantile, or -1 if it cannot be calculated
+     */
+    static int calculateQuantile(double quantile, CdfTable cdfTable) {
+        if (cdfTable == null) {
+            return -1;
+        }
+        return cdfTable.quantile(quantile);
+    }
+
     default String getKillCountDescription(CollectionLog collectionLog) {
         return "UNIMPLEMENTED";
     };
 
+    // Describe every quantity in the collection log that this item's luck depends on, so that cached results change
+    // when any of them do. This is only the item's own quantity, unless luck depends on other items (e.g. sets).
+    default String getQuantityDescription(CollectionLogItem item, CollectionLog collectionLog) {
+        return String.valueOf(item.getQuantity());
+    }
+
     // If this probability distribution cannot be calculated, return the reason why, otherwise return null.
     default String getIncalculableReason(CollectionLogItem item, CollectionLogLuckConfig config) {
         return null;
@@ -42,5 +110,10 @@ public interface DropLuck {
 
     void setItemName(String itemName);
 
+    // Called by LogItemInfo once every item has been created, for drops that refer to other items (e.g. sets). Drops
+    // are frozen after this, and any attempt to configure them further throws an IllegalStateException.
+    default void resolveLogItemInfos() {
+    }
+
 
 }
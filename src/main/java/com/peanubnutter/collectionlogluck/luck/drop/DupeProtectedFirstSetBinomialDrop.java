@@ -3,37 +3,59 @@ package com.peanubnutter.collectionlogluck.luck.drop;
 import com.peanubnutter.collectionlogluck.CollectionLogLuckConfig;
 import com.peanubnutter.collectionlogluck.luck.LogItemInfo;
 import com.peanubnutter.collectionlogluck.luck.RollInfo;
+import com.peanubnutter.collectionlogluck.luck.probability.CdfTable;
+import com.peanubnutter.collectionlogluck.luck.probability.SetProgressMarkovChainDistribution;
 import com.peanubnutter.collectionlogluck.model.CollectionLog;
 import com.peanubnutter.collectionlogluck.model.CollectionLogItem;
+import com.google.common.collect.ImmutableList;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 // Represents a Binomial drop whose FIRST set of gear (configured in constructor) will not drop duplicate pieces
 // until all of the items in the set have been received at least once. Afterwards, normal binomial drop behavior resumes.
-// This is not accurate, since the variance of a dupe-protected set is much lower than an unprotected set of the same
-// individual item rarity. But math is hard, and I'm not sure how else to calculate this besides simulation, because
-// dupe protection violates the basic binomial assumption of independent trials.
+// Dupe protection violates the basic binomial assumption of independent trials, so once the set is complete, the
+// individual item's luck is calculated exactly by modelling progress through the first set, followed by the item's own
+// drops, as a Markov chain.
 // NOTE: This class assumes that all items in the set have the same drop chance and drop mechanics.
 public class DupeProtectedFirstSetBinomialDrop extends BinomialDrop {
 
+    // Above this many Markov chain states, fall back to the binomial approximation for performance reasons. This would
+    // only be reached by receiving hundreds of the same set piece.
+    private static final int MAX_EXACT_NUM_STATES = 200;
+
     // The item IDs of all items in the set, including this item.
     // For technical reasons (LogItemInfos are static variables rather than an enum because of its size), these should
     // be integer item IDs.
     private final List<Integer> setItemIds;
-    private final List<LogItemInfo> setLogItemInfos = new ArrayList<>();
+    // Looked up when the drop is created, or once every LogItemInfo exists. Never changes afterwards.
+    private List<LogItemInfo> setLogItemInfos;
 
     public DupeProtectedFirstSetBinomialDrop(RollInfo rollInfo, List<Integer> setItemIds) {
         super(rollInfo);
-        this.setItemIds = setItemIds;
+        this.setItemIds = ImmutableList.copyOf(setItemIds);
+        this.setLogItemInfos = findLogItemInfos(this.setItemIds);
     }
 
-    private void fetchLogItemInfos() {
-        if (setLogItemInfos.isEmpty()) {
-            for (Integer itemId : setItemIds) {
-                setLogItemInfos.add(LogItemInfo.findByItemId(itemId));
-            }
+    @Override
+    public void resolveLogItemInfos() {
+        if (setLogItemInfos == null) {
+            setLogItemInfos = requireLogItemInfos(setItemIds);
         }
+        super.resolveLogItemInfos();
+    }
+
+    // Luck depends on how many of every set piece the player has, not just this item's quantity, so there is no
+    // distribution of this item alone to compare against.
+    @Override
+    public CdfTable getCdfTable(CollectionLogItem item, CollectionLog collectionLog, CollectionLogLuckConfig config) {
+        return null;
+    }
+
+    @Override
+    public String getQuantityDescription(CollectionLogItem item, CollectionLog collectionLog) {
+        return getSetQuantityDescription(setLogItemInfos, collectionLog);
     }
 
     // Before (and when) the set is complete, then individual item luck is related to the sum of the number of drops.
@@ -51,8 +73,6 @@ public class DupeProtectedFirstSetBinomialDrop extends BinomialDrop {
 
     @Override
     protected int getNumSuccesses(CollectionLogItem item, CollectionLog collectionLog, CollectionLogLuckConfig config) {
-        fetchLogItemInfos();
-
         if (hasProgressedPastCompletedSet(collectionLog)) {
             return super.getNumSuccesses(item, collectionLog, config);
         }
@@ -70,8 +90,6 @@ public class DupeProtectedFirstSetBinomialDrop extends BinomialDrop {
 
     @Override
     protected double getDropChance(RollInfo rollInfo, CollectionLog collectionLog, CollectionLogLuckConfig config) {
-        fetchLogItemInfos();
-
         if (hasProgressedPastCompletedSet(collectionLog)) {
             return super.getDropChance(rollInfo, collectionLog, config);
         }
@@ -79,4 +97,102 @@ public class DupeProtectedFirstSetBinomialDrop extends BinomialDrop {
         // Assumes all items in the set drop with equal chance
         return super.getDropChance(rollInfo, collectionLog, config) * setLogItemInfos.size();
     }
+
+    @Override
+    public double calculateLuck(CollectionLogItem item, CollectionLog collectionLog, CollectionLogLuckConfig config) {
+        if (!hasProgressedPastCompletedSet(collectionLog)) {
+            return super.calculateLuck(item, collectionLog, config);
+        }
+
+        int numSuccesses = getNumSuccesses(item, collectionLog, config);
+        if (numSuccesses <= 0) {
+            return 0;
+        }
+        int numTrials = getNumTrials(collectionLog, config);
+        if (numSuccesses > numTrials) {
+            // this can happen if a drop source is not accounted for
+            return -1;
+        }
+        if (setLogItemInfos.size() + numSuccesses + 1 > MAX_EXACT_NUM_STATES) {
+            return super.calculateLuck(item, collectionLog, config);
+        }
+
+        double dropChance = getDropChance(rollInfos.get(0), collectionLog, config);
+
+        return getItemCumulativeProbability(numSuccesses - 1, numTrials, dropChance);
+    }
+
+    @Override
+    public double calculateDryness(CollectionLogItem item, CollectionLog collectionLog, CollectionLogLuckConfig config) {
+        if (!hasProgressedPastCompletedSet(collectionLog)) {
+            return super.calculateDryness(item, collectionLog, config);
+        }
+
+        int numSuccesses = getNumSuccesses(item, collectionLog, config);
+        int numTrials = getNumTrials(collectionLog, config);
+        if (numTrials <= 0) {
+            return 0;
+        }
+        if (numSuccesses > numTrials) {
+            // this can happen if a drop source is not accounted for
+            return -1;
+        }
+        int maxEquivalentNumSuccesses = getMaxEquivalentNumSuccesses(item, collectionLog, config);
+        if (setLogItemInfos.size() + maxEquivalentNumSuccesses + 2 > MAX_EXACT_NUM_STATES) {
+            return super.calculateDryness(item, collectionLog, config);
+        }
+
+        double dropChance = getDropChance(rollInfos.get(0), collectionLog, config);
+
+        return 1 - getItemCumulativeProbability(maxEquivalentNumSuccesses, numTrials, dropChance);
+    }
+
+    @Override
+    public double calculateChanceObtained(CollectionLogItem item, CollectionLog collectionLog, CollectionLogLuckConfig config) {
+        int numTrials = getNumTrials(collectionLog, config);
+        if (numTrials <= 0) {
+            return 0;
+        }
+        // the individual item's drop chance, regardless of set progress
+        double dropChance = super.getDropChance(rollInfos.get(0), collectionLog, config);
+
+        return 1 - getItemCumulativeProbability(0, numTrials, dropChance);
+    }
+
+    // Return the exact chance of having received numReceived or fewer of this individual item.
+    // States 0 to setSize - 1 track progress towards the dupe-protected first set, during which any set piece drops at
+    // setSize times the individual item's drop chance, and each piece is equally likely to be this item. Completing the
+    // set guarantees 1 of this item, after which state setSize + c - 1 means c copies of this item, which then only
+    // drops at its individual drop chance.
+    private double getItemCumulativeProbability(int numReceived, int numTrials, double itemDropChance) {
+        if (numReceived < 0) {
+            return 0;
+        }
+
+        int setSize = setLogItemInfos.size();
+
+        List<Double> advanceProbabilities = new ArrayList<>(Collections.nCopies(setSize, setSize * itemDropChance));
+        // Any state past numReceived copies can be absorbing, since it is counted the same either way.
+        advanceProbabilities.addAll(Collections.nCopies(numReceived + 1, itemDropChance));
+
+        SetProgressMarkovChainDistribution dist = new SetProgressMarkovChainDistribution(numTrials, advanceProbabilities);
+
+        if (numReceived > 0) {
+            // every incomplete set has at most 1 of this item
+            return dist.cumulativeProbability(setSize + numReceived - 1);
+        }
+
+        // With an incomplete set of s pieces, this item is one of them with probability s / setSize
+        double cumProb = 0;
+        for (int numSetPieces = 0; numSetPieces < setSize; numSetPieces++) {
+            cumProb += dist.probability(numSetPieces) * (setSize - numSetPieces) / (double) setSize;
+        }
+        return cumProb;
+    }
+
+    @Override
+    protected boolean supportsProjection() {
+        return false;
+    }
+
 }
@@ -43,4 +43,10 @@ public class FiniteBinomialDrop extends BinomialDrop {
 
         return normalDryness;
     }
+
+    @Override
+    protected boolean supportsProjection() {
+        return false;
+    }
+
 }
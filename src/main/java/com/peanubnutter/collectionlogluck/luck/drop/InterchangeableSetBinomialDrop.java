@@ -3,10 +3,11 @@ package com.peanubnutter.collectionlogluck.luck.drop;
 import com.peanubnutter.collectionlogluck.CollectionLogLuckConfig;
 import com.peanubnutter.collectionlogluck.luck.LogItemInfo;
 import com.peanubnutter.collectionlogluck.luck.RollInfo;
+import com.peanubnutter.collectionlogluck.luck.probability.CdfTable;
 import com.peanubnutter.collectionlogluck.model.CollectionLog;
 import com.peanubnutter.collectionlogluck.model.CollectionLogItem;
+import com.google.common.collect.ImmutableList;
 
-import java.util.ArrayList;
 import java.util.List;
 
 // Represents a Binomial drop whose set of gear (configured in constructor) are considered equivalent. If the player
@@ -19,25 +20,37 @@ public class InterchangeableSetBinomialDrop extends BinomialDrop {
     // For technical reasons (LogItemInfos are static variables rather than an enum because of its size), these should
     // be integer item IDs.
     private final List<Integer> setItemIds;
-    protected final List<LogItemInfo> setLogItemInfos = new ArrayList<>();
+    // Looked up when the drop is created, or once every LogItemInfo exists. Never changes afterwards.
+    protected List<LogItemInfo> setLogItemInfos;
 
     public InterchangeableSetBinomialDrop(RollInfo rollInfo, List<Integer> setItemIds) {
         super(rollInfo);
-        this.setItemIds = setItemIds;
+        this.setItemIds = ImmutableList.copyOf(setItemIds);
+        this.setLogItemInfos = findLogItemInfos(this.setItemIds);
     }
 
-    protected void fetchLogItemInfos() {
-        if (setLogItemInfos.isEmpty()) {
-            for (Integer itemId : setItemIds) {
-                setLogItemInfos.add(LogItemInfo.findByItemId(itemId));
-            }
+    @Override
+    public void resolveLogItemInfos() {
+        if (setLogItemInfos == null) {
+            setLogItemInfos = requireLogItemInfos(setItemIds);
         }
+        super.resolveLogItemInfos();
     }
 
+    // Luck depends on how many of every set piece the player has, not just this item's quantity, so there is no
+    // distribution of this item alone to compare against.
     @Override
-    protected int getNumSuccesses(CollectionLogItem item, CollectionLog collectionLog, CollectionLogLuckConfig config) {
-        fetchLogItemInfos();
+    public CdfTable getCdfTable(CollectionLogItem item, CollectionLog collectionLog, CollectionLogLuckConfig config) {
+        return null;
+    }
+
+    @Override
+    public String getQuantityDescription(CollectionLogItem item, CollectionLog collectionLog) {
+        return getSetQuantityDescription(setLogItemInfos, collectionLog);
+    }
 
+    @Override
+    protected int getNumSuccesses(CollectionLogItem item, CollectionLog collectionLog, CollectionLogLuckConfig config) {
         // Sum the number of successes for all items in this set.
         int numSuccesses = 0;
         for (LogItemInfo setPiece : setLogItemInfos) {
@@ -49,11 +62,15 @@ public class InterchangeableSetBinomialDrop extends BinomialDrop {
         return numSuccesses;
     }
 
+    // Luck is based on the whole set, but each individual item still drops independently at its own drop chance.
     @Override
-    protected double getDropChance(RollInfo rollInfo, CollectionLog collectionLog, CollectionLogLuckConfig config) {
-        fetchLogItemInfos();
+    public double calculateChanceObtained(CollectionLogItem item, CollectionLog collectionLog, CollectionLogLuckConfig config) {
+        int numTrials = getNumTrials(collectionLog, config);
+        if (numTrials <= 0) {
+            return 0;
+        }
+        double dropChance = getDropChance(rollInfos.get(0), collectionLog, config);
 
-        // Assumes all items in the set drop with equal chance
-        return super.getDropChance(rollInfo, collectionLog, config);
+        return 1 - getCumulativeProbability(0, numTrials, dropChance);
     }
 }
@@ -2,9 +2,11 @@ package com.peanubnutter.collectionlogluck.luck.drop;
 
 import com.peanubnutter.collectionlogluck.CollectionLogLuckConfig;
 import com.peanubnutter.collectionlogluck.luck.RollInfo;
+import com.peanubnutter.collectionlogluck.luck.probability.SetProgressMarkovChainDistribution;
 import com.peanubnutter.collectionlogluck.model.CollectionLog;
 import com.peanubnutter.collectionlogluck.model.CollectionLogItem;
 
+import java.util.Collections;
 import java.util.List;
 
 // Combines the properties of InterchangeableSetBinomialDrop and FiniteBinomialDrop
@@ -33,4 +35,23 @@ public class InterchangeableSetFiniteBinomialDrop extends InterchangeableSetBino
 
         return normalDryness;
     }
+
+    // Once maxDropCount items have been received, no more can drop, so progress is a Markov chain whose final state is
+    // absorbing. Any state past numSuccesses can also be absorbing, since it is counted the same either way.
+    @Override
+    protected double getCumulativeProbability(int numSuccesses, int numTrials, double dropChance) {
+        if (numSuccesses < 0) {
+            return 0;
+        }
+
+        int numNonAbsorbingStates = Math.min(numSuccesses + 1, maxDropCount);
+        return new SetProgressMarkovChainDistribution(numTrials, Collections.nCopies(numNonAbsorbingStates, dropChance))
+                .cumulativeProbability(numSuccesses);
+    }
+
+    @Override
+    protected boolean supportsProjection() {
+        return false;
+    }
+
 }
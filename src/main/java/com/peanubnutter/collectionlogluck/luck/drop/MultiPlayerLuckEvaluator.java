@@ -0,0 +1,162 @@
+package com.peanubnutter.collectionlogluck.luck.drop;
+
+import com.peanubnutter.collectionlogluck.CollectionLogLuckConfig;
+import com.peanubnutter.collectionlogluck.luck.LogItemInfo;
+import com.peanubnutter.collectionlogluck.luck.LuckCalculationResult;
+import com.peanubnutter.collectionlogluck.luck.probability.LogFactorialTable;
+import com.peanubnutter.collectionlogluck.luck.probability.ProbabilityKernels;
+import com.peanubnutter.collectionlogluck.model.CollectionLog;
+import com.peanubnutter.collectionlogluck.model.CollectionLogItem;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Calculates luck for many players at once, e.g. to compare a raid team or a whole clan. Players' logs only differ in
+// KC and quantity, so for plain Binomial drops, every player's (KC, quantity) pair is evaluated against one shared
+// log-factorial table, and players with the same drop chance and pair share a single evaluation. Other drops are
+// calculated per player, the same way as for the !luck command.
+//
+// Not thread safe. Results match calculating each player separately.
+public class MultiPlayerLuckEvaluator {
+
+    // Summing the PMF is only faster than the regularized beta function when one of the tails is short
+    private static final int MAX_SUMMED_TERMS = 2000;
+
+    private final CollectionLogLuckConfig config;
+
+    private final LogFactorialTable logFactorialTable = new LogFactorialTable();
+
+    public MultiPlayerLuckEvaluator(CollectionLogLuckConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Calculate luck for every pair of player and item.
+     *
+     * @param collectionLogs Each player's collection log
+     * @param logItemInfos   The items to calculate
+     * @return results[player][item], in the order given. An entry is null if the item is not in the player's log or its
+     * luck cannot be calculated.
+     */
+    public LuckCalculationResult[][] evaluate(List<CollectionLog> collectionLogs, List<LogItemInfo> logItemInfos) {
+        LuckCalculationResult[][] results = new LuckCalculationResult[collectionLogs.size()][logItemInfos.size()];
+
+        for (int itemIndex = 0; itemIndex < logItemInfos.size(); itemIndex++) {
+            LogItemInfo logItemInfo = logItemInfos.get(itemIndex);
+            DropLuck dropLuck = logItemInfo.getDropProbabilityDistribution();
+
+            // Subclasses map quantities to successes differently or replace the distribution entirely
+            if (dropLuck.getClass() == BinomialDrop.class) {
+                evaluateBinomialDrop((BinomialDrop) dropLuck, logItemInfo, collectionLogs, itemIndex, results);
+                continue;
+            }
+
+            for (int playerIndex = 0; playerIndex < collectionLogs.size(); playerIndex++) {
+                CollectionLog collectionLog = collectionLogs.get(playerIndex);
+                CollectionLogItem item = findCalculableItem(dropLuck, logItemInfo, collectionLog);
+                if (item == null) continue;
+
+                results[playerIndex][itemIndex] = toResult(
+                        dropLuck.calculateLuck(item, collectionLog, config),
+                        dropLuck.calculateDryness(item, collectionLog, config));
+            }
+        }
+
+        return results;
+    }
+
+    private void evaluateBinomialDrop(BinomialDrop drop, LogItemInfo logItemInfo, List<CollectionLog> collectionLogs,
+                                      int itemIndex, LuckCalculationResult[][] results) {
+        // drop chance -> (numTrials, numSuccesses) -> cumulative probability
+        Map<Double, Map<Long, Double>> cumulativeProbabilitiesByDropChance = new HashMap<>();
+
+        for (int playerIndex = 0; playerIndex < collectionLogs.size(); playerIndex++) {
+            CollectionLog collectionLog = collectionLogs.get(playerIndex);
+            CollectionLogItem item = findCalculableItem(drop, logItemInfo, collectionLog);
+            if (item == null) continue;
+
+            int numTrials = drop.getNumTrials(collectionLog, config);
+            int numSuccesses = drop.getNumSuccesses(item, collectionLog, config);
+            int maxEquivalentNumSuccesses = drop.getMaxEquivalentNumSuccesses(item, collectionLog, config);
+            double dropChance = drop.getDropChance(drop.rollInfos.get(0), collectionLog, config);
+            Map<Long, Double> cumulativeProbabilities =
+                    cumulativeProbabilitiesByDropChance.computeIfAbsent(dropChance, k -> new HashMap<>());
+
+            // Same edge cases as BinomialDrop.calculateLuck and calculateDryness
+            double luck;
+            if (numSuccesses <= 0) {
+                luck = 0;
+            } else if (numSuccesses > numTrials) {
+                luck = -1;
+            } else {
+                luck = getCumulativeProbability(cumulativeProbabilities, numSuccesses - 1, numTrials, dropChance);
+            }
+
+            double dryness;
+            if (numTrials <= 0) {
+                dryness = 0;
+            } else if (numSuccesses > numTrials) {
+                dryness = -1;
+            } else {
+                dryness = 1 - getCumulativeProbability(
+                        cumulativeProbabilities, maxEquivalentNumSuccesses, numTrials, dropChance);
+            }
+
+            results[playerIndex][itemIndex] = toResult(luck, dryness);
+        }
+    }
+
+    private double getCumulativeProbability(Map<Long, Double> cumulativeProbabilities,
+                                            int numSuccesses, int numTrials, double dropChance) {
+        long key = ((long) numTrials << 32) | (numSuccesses & 0xFFFFFFFFL);
+        return cumulativeProbabilities.computeIfAbsent(key,
+                k -> calculateCumulativeProbability(numSuccesses, numTrials, dropChance));
+    }
+
+    // The chance of numSuccesses or fewer drops in numTrials, summing whichever tail of the PMF is shorter
+    private double calculateCumulativeProbability(int numSuccesses, int numTrials, double dropChance) {
+        if (numSuccesses < 0) return 0;
+        if (numSuccesses >= numTrials) return 1;
+        if (dropChance <= 0) return 1;
+        if (dropChance >= 1) return 0;
+
+        int numLowerTerms = numSuccesses + 1;
+        int numUpperTerms = numTrials - numSuccesses;
+        if (Math.min(numLowerTerms, numUpperTerms) > MAX_SUMMED_TERMS) {
+            return ProbabilityKernels.binomialCumulativeProbability(numSuccesses, numTrials, dropChance);
+        }
+
+        double logDropChance = Math.log(dropChance);
+        double logFailChance = Math.log1p(-dropChance);
+        double sum = 0;
+        if (numLowerTerms <= numUpperTerms) {
+            for (int k = 0; k <= numSuccesses; k++) {
+                sum += Math.exp(logFactorialTable.logBinomialProbability(k, numTrials, logDropChance, logFailChance));
+            }
+            return Math.min(1, sum);
+        }
+        for (int k = numSuccesses + 1; k <= numTrials; k++) {
+            sum += Math.exp(logFactorialTable.logBinomialProbability(k, numTrials, logDropChance, logFailChance));
+        }
+        return Math.max(0, 1 - sum);
+    }
+
+    private CollectionLogItem findCalculableItem(DropLuck dropLuck, LogItemInfo logItemInfo,
+                                                 CollectionLog collectionLog) {
+        CollectionLogItem item = collectionLog.searchForItem(logItemInfo.getItemName());
+        if (item == null || dropLuck.getIncalculableReason(item, config) != null) {
+            return null;
+        }
+        return item;
+    }
+
+    // Same as the plugin's "Unknown error calculating luck" case
+    private static LuckCalculationResult toResult(double luck, double dryness) {
+        if (luck < 0 || luck > 1 || dryness < 0 || dryness > 1) {
+            return null;
+        }
+        return new LuckCalculationResult(luck, dryness);
+    }
+
+}
@@ -5,9 +5,16 @@ import com.peanubnutter.collectionlogluck.model.CollectionLog;
 import com.peanubnutter.collectionlogluck.model.CollectionLogItem;
 import com.peanubnutter.collectionlogluck.model.CollectionLogKillCount;
 import com.peanubnutter.collectionlogluck.luck.LogItemSourceInfo;
+import com.peanubnutter.collectionlogluck.luck.LuckCalculationResult;
+import com.peanubnutter.collectionlogluck.luck.LuckProjection;
 import com.peanubnutter.collectionlogluck.luck.RollInfo;
+import com.peanubnutter.collectionlogluck.luck.probability.EngineSelection;
+import com.peanubnutter.collectionlogluck.luck.probability.GroupedPoissonBinomialDistribution;
 import com.peanubnutter.collectionlogluck.luck.probability.PoissonBinomialDistribution;
 import com.peanubnutter.collectionlogluck.luck.probability.PoissonBinomialRefinedNormalApproxDistribution;
+import com.peanubnutter.collectionlogluck.luck.probability.PoissonBinomialSaddlepointApproxDistribution;
+import com.peanubnutter.collectionlogluck.luck.probability.ProbabilityKernels;
+import com.peanubnutter.collectionlogluck.util.LuckMetrics;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -17,21 +24,16 @@ import java.util.List;
 // or bosses where the drop chances are not necessarily equal).
 public class PoissonBinomialDrop extends AbstractDrop {
 
-    // If numSuccesses > this value, use the Refined Normal Approximation instead of the exact distribution.
-    private static final int NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD = 100;
-
-    // If numTrials > this value, use the Refined Normal Approximation instead of the exact distribution.
-    // This is necessary more for performance than accuracy.
-    private static final int NORMAL_APPROX_NUM_TRIALS_THRESHOLD = 500;
+    // Above this drop chance, a Normal distribution approximates the number of drops better than a Poisson distribution
+    private static final double MAX_POISSON_APPROX_DROP_CHANCE = 0.05;
 
     public PoissonBinomialDrop(List<RollInfo> rollInfos) {
         super(rollInfos);
     }
 
-    // Duplicate all drop source's probabilities by the number of respective KC
-    private List<Double> convertKcToProbabilities(CollectionLog collectionLog, CollectionLogLuckConfig config) {
-        List<Double> probabilities = new ArrayList<>();
-
+    // Group the trials by drop source: each source contributes its drop chance once, along with the number of rolls at
+    // that chance. Sources without KC are skipped.
+    private void groupKcByProbability(List<Double> probabilities, List<Integer> counts, CollectionLog collectionLog, CollectionLogLuckConfig config) {
         for (int i = 0; i < rollInfos.size(); i++) {
             RollInfo rollInfo = rollInfos.get(i);
 
@@ -40,28 +42,72 @@ public class PoissonBinomialDrop extends AbstractDrop {
                 int numRolls = (int) Math.round(kc.getAmount() * getRollsPerKc(rollInfo, config));
                 numRolls = getNumRollsForCustomDrops(rollInfo, i, numRolls, config);
 
-                double dropChance = getDropChance(rollInfo, collectionLog, config);
-
-                probabilities.addAll(Collections.nCopies(numRolls, dropChance));
+                probabilities.add(getDropChance(rollInfo, collectionLog, config));
+                counts.add(numRolls);
             }
         }
-
-        return probabilities;
     }
 
     private double getExactOrApproxCumulativeProbability(int numSuccesses, int numTrials, CollectionLog collectionLog, CollectionLogLuckConfig config) {
-        List<Double> probabilities = convertKcToProbabilities(collectionLog, config);
-
-        if (numSuccesses > NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD
-                || numTrials > NORMAL_APPROX_NUM_TRIALS_THRESHOLD) {
-            return new PoissonBinomialRefinedNormalApproxDistribution(probabilities)
-                    .cumulativeProbability(numSuccesses);
-        } else {
-            return new PoissonBinomialDistribution(probabilities)
-                    .cumulativeProbability(numSuccesses);
+        List<Double> groupedProbabilities = new ArrayList<>();
+        List<Integer> groupedCounts = new ArrayList<>();
+        groupKcByProbability(groupedProbabilities, groupedCounts, collectionLog, config);
+
+        EngineSelection engineSelection =
+                engineSelector.selectPoissonBinomialEngine(groupedProbabilities, groupedCounts, numSuccesses);
+
+        long startTime = System.nanoTime();
+        double cumulativeProbability =
+                calculateCumulativeProbability(engineSelection, groupedProbabilities, groupedCounts, numSuccesses);
+        LuckMetrics.GLOBAL.recordLatency("engine." + engineSelection.getEngine(), System.nanoTime() - startTime);
+        return cumulativeProbability;
+    }
+
+    private double calculateCumulativeProbability(EngineSelection engineSelection,
+                                                  List<Double> groupedProbabilities, List<Integer> groupedCounts,
+                                                  int numSuccesses) {
+        switch (engineSelection.getEngine()) {
+            case EXACT_POISSON_BINOMIAL:
+                // Duplicate all drop source's probabilities by the number of respective KC
+                List<Double> probabilities = new ArrayList<>();
+                for (int i = 0; i < groupedProbabilities.size(); i++) {
+                    probabilities.addAll(Collections.nCopies(groupedCounts.get(i), groupedProbabilities.get(i)));
+                }
+                return new PoissonBinomialDistribution(probabilities)
+                        .cumulativeProbability(numSuccesses);
+            case POISSON_APPROX:
+                double mean = 0;
+                for (int i = 0; i < groupedProbabilities.size(); i++) {
+                    mean += groupedCounts.get(i) * groupedProbabilities.get(i);
+                }
+                if (mean <= 0) {
+                    return 1;
+                }
+                return ProbabilityKernels.poissonCumulativeProbability(numSuccesses, mean);
+            case REFINED_NORMAL_APPROX:
+                // The approximation only needs the moments, so there is no need to expand every individual trial.
+                return new PoissonBinomialRefinedNormalApproxDistribution(groupedProbabilities, groupedCounts)
+                        .cumulativeProbability(numSuccesses);
+            case SADDLEPOINT_APPROX:
+                return new PoissonBinomialSaddlepointApproxDistribution(groupedProbabilities, groupedCounts)
+                        .cumulativeProbability(numSuccesses);
+            case GROUPED_POISSON_BINOMIAL:
+            default:
+                return new GroupedPoissonBinomialDistribution(groupedProbabilities, groupedCounts)
+                        .cumulativeProbability(numSuccesses);
         }
     }
 
+    @Override
+    public LuckProjection projectLuck(CollectionLogItem item, CollectionLog collectionLog, CollectionLogLuckConfig config,
+                                      int numAdditionalKc) {
+        List<Double> groupedProbabilities = new ArrayList<>();
+        List<Integer> groupedCounts = new ArrayList<>();
+        groupKcByProbability(groupedProbabilities, groupedCounts, collectionLog, config);
+
+        return projectLuck(item, collectionLog, config, numAdditionalKc, groupedProbabilities, groupedCounts);
+    }
+
     @Override
     public double calculateLuck(CollectionLogItem item, CollectionLog collectionLog, CollectionLogLuckConfig config) {
         int numSuccesses = getNumSuccesses(item, collectionLog, config);
@@ -94,6 +140,54 @@ public class PoissonBinomialDrop extends AbstractDrop {
         return 1 - getExactOrApproxCumulativeProbability(maxEquivalentNumSuccesses, numTrials, collectionLog, config);
     }
 
+    // Approximate the distribution using only its mean and variance: a Poisson distribution when every drop is rare,
+    // otherwise a Normal distribution with continuity correction. Either takes constant time, however many rolls there
+    // are.
+    @Override
+    public LuckCalculationResult approximateLuck(CollectionLogItem item, CollectionLog collectionLog, CollectionLogLuckConfig config) {
+        int numSuccesses = getNumSuccesses(item, collectionLog, config);
+        int numTrials = getNumTrials(collectionLog, config);
+        if (numTrials <= 0 || numSuccesses > numTrials) {
+            // Trivial or invalid, so the exact calculation is already instant
+            return null;
+        }
+
+        List<Double> groupedProbabilities = new ArrayList<>();
+        List<Integer> groupedCounts = new ArrayList<>();
+        groupKcByProbability(groupedProbabilities, groupedCounts, collectionLog, config);
+
+        double mean = 0;
+        double variance = 0;
+        double maxProbability = 0;
+        for (int i = 0; i < groupedProbabilities.size(); i++) {
+            double probability = groupedProbabilities.get(i);
+            mean += groupedCounts.get(i) * probability;
+            variance += groupedCounts.get(i) * probability * (1 - probability);
+            maxProbability = Math.max(maxProbability, probability);
+        }
+        if (mean <= 0) {
+            return null;
+        }
+
+        boolean usePoisson = maxProbability <= MAX_POISSON_APPROX_DROP_CHANCE;
+        double standardDeviation = Math.sqrt(variance);
+
+        double luck = numSuccesses <= 0 ? 0
+                : approximateCumulativeProbability(numSuccesses - 1, mean, standardDeviation, usePoisson);
+        double dryness = 1 - approximateCumulativeProbability(
+                getMaxEquivalentNumSuccesses(item, collectionLog, config), mean, standardDeviation, usePoisson);
+
+        return new LuckCalculationResult(luck, dryness, true);
+    }
+
+    private double approximateCumulativeProbability(int numSuccesses, double mean, double standardDeviation,
+                                                    boolean usePoisson) {
+        if (usePoisson) {
+            return ProbabilityKernels.poissonCumulativeProbability(numSuccesses, mean);
+        }
+        return ProbabilityKernels.normalCumulativeProbability(numSuccesses + 0.5, mean, standardDeviation);
+    }
+
     private int getNumRollsForCustomDrops(RollInfo rollInfo, int rollInfoIndex, int numRolls, CollectionLogLuckConfig config) {
         if (
                 rollInfo.getDropSource().equals(LogItemSourceInfo.TZTOK_JAD_KILLS)
@@ -1,5 +1,6 @@
 package com.peanubnutter.collectionlogluck.luck.probability;
 
+import com.google.common.collect.ImmutableList;
 import org.apache.commons.math3.exception.OutOfRangeException;
 
 import java.util.List;
@@ -15,7 +16,8 @@ abstract class AbstractCustomProbabilityDistribution {
             }
         }
 
-        this.probabilities = probabilities;
+        // Copied, so that later changes to the caller's list can't affect calculations in progress
+        this.probabilities = ImmutableList.copyOf(probabilities);
     }
 
 }
@@ -1,7 +1,6 @@
 package com.peanubnutter.collectionlogluck.luck.probability;
 
 import com.google.common.collect.ImmutableList;
-import org.apache.commons.math3.distribution.BinomialDistribution;
 
 // This class approximates the distribution of receiving a given amount of loot when there is both a drop chance and a
 // quantity range. The PDF is computed by multiplying the binomial chance of every possible number of successes X
@@ -41,8 +40,6 @@ public class BinomialDiscreteApproxUniformSumDistribution extends AbstractCustom
             return 1;
         }
 
-        BinomialDistribution binomialDist = new BinomialDistribution(numTrials, successProbability);
-
         // The cumulative probability = sum across this PDF * the uniform sum distribution cumulative probability of x
         double cumProb = 0;
 
@@ -55,7 +52,7 @@ public class BinomialDiscreteApproxUniformSumDistribution extends AbstractCustom
 
         // There is no need to compute the binomial PDF * uniform sum distribution CDF for all
         // numSuccesses < minPossibleSuccesses, because the uniform sum distribution's cumulativeProbability will = 1
-        cumProb += binomialDist.cumulativeProbability(minPossibleSuccesses - 1);
+        cumProb += ProbabilityKernels.binomialCumulativeProbability(minPossibleSuccesses - 1, numTrials, successProbability);
 
         for (int numSuccesses = minPossibleSuccesses; numSuccesses <= maxPossibleSuccesses; numSuccesses++) {
             // Exit early if the cumulative probability is already maxed out.
@@ -64,7 +61,7 @@ public class BinomialDiscreteApproxUniformSumDistribution extends AbstractCustom
             }
             if (numSuccesses == 0) {
                 // no need to multiply by uniform sum distribution since no successful roll was performed
-                cumProb += binomialDist.probability(0);
+                cumProb += ProbabilityKernels.binomialProbability(0, numTrials, successProbability);
                 continue;
             }
             // It should be impossible for this to be <= 0 or > 1, because that would imply > max rolls every time, or
@@ -73,7 +70,7 @@ public class BinomialDiscreteApproxUniformSumDistribution extends AbstractCustom
                     ((maxRollOnSuccess - minRollOnSuccess) * numSuccesses + 1);
             double numReceivedInUniformScale = rollFraction * numSuccesses;
 
-            double chanceOfNumSuccesses = binomialDist.probability(numSuccesses);
+            double chanceOfNumSuccesses = ProbabilityKernels.binomialProbability(numSuccesses, numTrials, successProbability);
             UniformSumNormalApproxDistribution uniformSumDistribution = new UniformSumNormalApproxDistribution(numSuccesses);
             double cumProbAssumingNumSuccesses = uniformSumDistribution.cumulativeProbability(numReceivedInUniformScale);
 
@@ -1,7 +1,6 @@
 package com.peanubnutter.collectionlogluck.luck.probability;
 
 import com.google.common.collect.ImmutableList;
-import org.apache.commons.math3.distribution.NormalDistribution;
 
 // This distribution approximates the distribution of summing N identical uniform distributions after succeeding in
 // N Bernoulli trials by using a normal distribution with appropriate mean and standard deviation.
@@ -44,7 +43,7 @@ public class BinomialUniformSumNormalApproxDistribution extends AbstractCustomPr
             // add an entire average "half-success"
             continuityCorrection = 0.5 * (minRollOnSuccess + maxRollOnSuccess) / 2.0;
         }
-        return new NormalDistribution(mean, standardDeviation).cumulativeProbability(x + continuityCorrection);
+        return ProbabilityKernels.normalCumulativeProbability(x + continuityCorrection, mean, standardDeviation);
     }
 
     // Return the mean of the distribution (the first "moment" or "mu")
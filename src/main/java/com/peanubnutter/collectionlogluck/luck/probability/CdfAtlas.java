@@ -0,0 +1,237 @@
+package com.peanubnutter.collectionlogluck.luck.probability;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+// Precomputed Binomial CDFs for a fixed set of drop chances, stored in a file that is memory mapped rather than read
+// into the heap. Each drop chance has a table of P(X <= k) for every number of trials n up to a few times the expected
+// number of trials per drop, and every k up to MAX_SUCCESSES, so most plain Binomial items resolve with one read.
+// Lookups outside the tables return NaN, and the caller calculates the value as usual.
+//
+// File layout (big endian): magic, format version, fingerprint, number of tables, then per table its drop chance,
+// max number of trials and data offset, then every table's rows of MAX_SUCCESSES + 1 doubles.
+//
+// Lookups may be made from any thread.
+public class CdfAtlas {
+
+    private static final int MAGIC = 0x434C4341; // "CLCA"
+    private static final int FORMAT_VERSION = 1;
+
+    // Largest k stored for each n. Most Binomial items are only ever received a few times.
+    public static final int MAX_SUCCESSES = 7;
+    // Largest n stored, which bounds the size of each table to 256KB
+    public static final int MAX_TRIALS = 4095;
+    // Each table covers this many times the expected number of trials per drop. Beyond that, P(X <= 7) is rarely
+    // asked for, and starting from P(X = 0) = (1 - p)^n would lose precision.
+    private static final double EXPECTED_DROPS_COVERED = 5;
+
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4;
+    private static final int DIRECTORY_ENTRY_BYTES = 8 + 4 + 8;
+    private static final int ROW_BYTES = (MAX_SUCCESSES + 1) * Double.BYTES;
+
+    // The atlas used by Binomial drops, or null if none is installed
+    private static volatile CdfAtlas installed;
+
+    private static class Table {
+        private final int maxTrials;
+        private final long offset;
+
+        private Table(int maxTrials, long offset) {
+            this.maxTrials = maxTrials;
+            this.offset = offset;
+        }
+    }
+
+    private final ByteBuffer buffer;
+
+    private final long fingerprint;
+
+    // drop chance -> table
+    private final Map<Double, Table> tables;
+
+    private CdfAtlas(ByteBuffer buffer, long fingerprint, Map<Double, Table> tables) {
+        this.buffer = buffer;
+        this.fingerprint = fingerprint;
+        this.tables = tables;
+    }
+
+    public static CdfAtlas getInstalled() {
+        return installed;
+    }
+
+    // Use this atlas for all Binomial drops, or stop using any atlas if null
+    public static void install(CdfAtlas atlas) {
+        installed = atlas;
+    }
+
+    /**
+     * @return P(X <= numSuccesses) for numTrials trials with the given drop chance, or NaN if it is not in the atlas
+     */
+    public double cumulativeProbability(int numSuccesses, int numTrials, double dropChance) {
+        if (numSuccesses < 0 || numSuccesses > MAX_SUCCESSES || numTrials < 0) {
+            return Double.NaN;
+        }
+        Table table = tables.get(dropChance);
+        if (table == null || numTrials > table.maxTrials) {
+            return Double.NaN;
+        }
+        // absolute gets do not change the buffer's position, so they are safe from any thread
+        return buffer.getDouble((int) (table.offset + (long) numTrials * ROW_BYTES + (long) numSuccesses * Double.BYTES));
+    }
+
+    // Identifies the drop chances and layout the atlas was built for, so that outdated atlases can be rebuilt
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    public int getNumTables() {
+        return tables.size();
+    }
+
+    public static long fingerprint(Collection<Double> dropChances) {
+        long fingerprint = 31L * FORMAT_VERSION + MAX_SUCCESSES;
+        fingerprint = 31 * fingerprint + MAX_TRIALS;
+        for (double dropChance : new TreeSet<>(dropChances)) {
+            fingerprint = 31 * fingerprint + Double.doubleToLongBits(dropChance);
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Build an atlas for these drop chances. The file is written to a new temporary file next to its final location
+     * first, then moved into place, so that a partially written atlas is never loaded and concurrent writers don't
+     * overwrite each other's temporary file. An existing atlas at the location must not be memory mapped, since mapped
+     * files can't be replaced on Windows.
+     *
+     * @param file        Where to write the atlas
+     * @param dropChances Drop chances per trial, each in (0, 1)
+     */
+    public static void write(Path file, Collection<Double> dropChances) throws IOException {
+        SortedSet<Double> sortedDropChances = new TreeSet<>();
+        for (double dropChance : dropChances) {
+            if (dropChance > 0 && dropChance < 1) {
+                sortedDropChances.add(dropChance);
+            }
+        }
+
+        Path directory = file.toAbsolutePath().getParent();
+        Path tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream fileOut = Files.newOutputStream(tempFile);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(fingerprint(dropChances));
+                out.writeInt(sortedDropChances.size());
+
+                long offset = HEADER_BYTES + (long) DIRECTORY_ENTRY_BYTES * sortedDropChances.size();
+                for (double dropChance : sortedDropChances) {
+                    int maxTrials = getMaxTrials(dropChance);
+                    out.writeDouble(dropChance);
+                    out.writeInt(maxTrials);
+                    out.writeLong(offset);
+                    offset += (long) (maxTrials + 1) * ROW_BYTES;
+                }
+
+                for (double dropChance : sortedDropChances) {
+                    writeTable(out, dropChance, getMaxTrials(dropChance));
+                }
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            // Only left behind if writing or moving failed
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Read the fingerprint of an atlas written by {@link #write} without memory mapping it, so that an outdated atlas
+     * can still be replaced afterwards.
+     *
+     * @throws IOException If the file can't be read or is not an atlas of this format version
+     */
+    public static long readFingerprint(Path file) throws IOException {
+        try (InputStream fileIn = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(fileIn))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Not a CDF atlas of format version " + FORMAT_VERSION + ": " + file);
+            }
+            return in.readLong();
+        } catch (EOFException e) {
+            throw new IOException("Not a CDF atlas of format version " + FORMAT_VERSION + ": " + file, e);
+        }
+    }
+
+    /**
+     * Memory map an atlas written by {@link #write}.
+     *
+     * @throws IOException If the file can't be read or is not an atlas of this format version
+     */
+    public static CdfAtlas load(Path file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Not a CDF atlas of format version " + FORMAT_VERSION + ": " + file);
+        }
+        long fingerprint = buffer.getLong(8);
+        int numTables = buffer.getInt(16);
+
+        Map<Double, Table> tables = new HashMap<>();
+        for (int i = 0; i < numTables; i++) {
+            int entryOffset = HEADER_BYTES + i * DIRECTORY_ENTRY_BYTES;
+            double dropChance = buffer.getDouble(entryOffset);
+            int maxTrials = buffer.getInt(entryOffset + 8);
+            long offset = buffer.getLong(entryOffset + 12);
+            if (offset + (long) (maxTrials + 1) * ROW_BYTES > buffer.capacity()) {
+                throw new IOException("Truncated CDF atlas: " + file);
+            }
+            tables.put(dropChance, new Table(maxTrials, offset));
+        }
+
+        return new CdfAtlas(buffer, fingerprint, tables);
+    }
+
+    private static int getMaxTrials(double dropChance) {
+        return (int) Math.min(MAX_TRIALS, Math.ceil(EXPECTED_DROPS_COVERED / dropChance));
+    }
+
+    // Each row is the CDF at n trials, built by summing the PMF from P(X = 0) = (1 - p)^n
+    private static void writeTable(DataOutputStream out, double dropChance, int maxTrials) throws IOException {
+        double oddsRatio = dropChance / (1 - dropChance);
+        for (int n = 0; n <= maxTrials; n++) {
+            double probability = Math.exp(n * Math.log1p(-dropChance));
+            double cumulativeProbability = 0;
+            for (int k = 0; k <= MAX_SUCCESSES; k++) {
+                if (k >= n) {
+                    cumulativeProbability = 1;
+                } else {
+                    cumulativeProbability = Math.min(1, cumulativeProbability + probability);
+                    probability *= oddsRatio * (n - k) / (k + 1);
+                }
+                out.writeDouble(cumulativeProbability);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.peanubnutter.collectionlogluck.luck.probability;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntToDoubleFunction;
+
+// A discrete CDF, P(X <= k), that remembers every value it has computed. Quantiles are found by binary search, so
+// answering "how many drops is the 90th percentile" only computes O(log k) CDF values the first time, and is a table
+// lookup after that. Values are computed lazily since the support can be huge (e.g. stackable drops).
+//
+// Methods may be called from any thread.
+public class CdfTable {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Values below this are stored in an array. Drops with huge supports (e.g. stackables) only ever compute a few
+    // values beyond this, so they are kept in a map instead.
+    private static final int MAX_ARRAY_SIZE = 4096;
+
+    private final IntToDoubleFunction cdf;
+
+    // values[k] = P(X <= k), or NaN if not yet computed
+    private double[] values = new double[0];
+
+    private final Map<Integer, Double> sparseValues = new HashMap<>();
+
+    /**
+     * @param cdf P(X <= k) for k >= 0. Must be non-decreasing and eventually reach (or closely approach) 1.
+     */
+    public CdfTable(IntToDoubleFunction cdf) {
+        this.cdf = cdf;
+    }
+
+    // P(X <= k)
+    public synchronized double cumulativeProbability(int k) {
+        if (k < 0) {
+            return 0;
+        }
+        if (k >= MAX_ARRAY_SIZE) {
+            return sparseValues.computeIfAbsent(k, cdf::applyAsDouble);
+        }
+        if (k >= values.length) {
+            int oldLength = values.length;
+            values = Arrays.copyOf(values,
+                    Math.min(MAX_ARRAY_SIZE, Math.max(INITIAL_CAPACITY, Math.max(k + 1, 2 * oldLength))));
+            Arrays.fill(values, oldLength, values.length, Double.NaN);
+        }
+        if (Double.isNaN(values[k])) {
+            values[k] = cdf.applyAsDouble(k);
+        }
+        return values[k];
+    }
+
+    /**
+     * Return the smallest k such that P(X <= k) >= quantile, e.g. quantile(0.5) is the median.
+     *
+     * @param quantile A probability between 0 and 1, exclusive
+     * @return The quantile, or -1 if the CDF never reaches it (which may happen for approximations very close to 1)
+     */
+    public synchronized int quantile(double quantile) {
+        if (quantile <= 0 || quantile >= 1) {
+            throw new IllegalArgumentException("quantile must be between 0 and 1, exclusive");
+        }
+
+        // Find an upper bound by doubling, then binary search below it
+        int low = -1;
+        int high = 0;
+        while (cumulativeProbability(high) < quantile) {
+            if (high >= Integer.MAX_VALUE / 4) {
+                return -1;
+            }
+            low = high;
+            high = high * 2 + 1;
+        }
+
+        // Invariant: P(X <= low) < quantile <= P(X <= high)
+        while (high - low > 1) {
+            int mid = low + (high - low) / 2;
+            if (cumulativeProbability(mid) >= quantile) {
+                high = mid;
+            } else {
+                low = mid;
+            }
+        }
+        return high;
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.peanubnutter.collectionlogluck.luck.probability;
+
+// The ways a cumulative probability can be computed. Which one is used for a given calculation is decided by
+// DistributionEngineSelector based on the estimated cost and error of each engine.
+public enum DistributionEngine {
+
+    // PoissonBinomialDistribution over every individual trial. Exact, but slow for large numbers of trials.
+    EXACT_POISSON_BINOMIAL,
+
+    // GroupedPoissonBinomialDistribution, convolving one binomial per distinct drop chance. Exact to double precision.
+    GROUPED_POISSON_BINOMIAL,
+
+    // A Poisson distribution with the same mean. Very accurate for rare drops.
+    POISSON_APPROX,
+
+    // PoissonBinomialRefinedNormalApproxDistribution
+    REFINED_NORMAL_APPROX,
+
+    // PoissonBinomialSaddlepointApproxDistribution
+    SADDLEPOINT_APPROX,
+
+    // BinomialDiscreteApproxUniformSumDistribution
+    BINOMIAL_UNIFORM_SUM_DISCRETE_APPROX,
+
+    // BinomialUniformSumNormalApproxDistribution
+    BINOMIAL_UNIFORM_SUM_NORMAL_APPROX
+
+}
@@ -0,0 +1,216 @@
+package com.peanubnutter.collectionlogluck.luck.probability;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Chooses how to compute a cumulative probability by estimating both the cost and the error of every available engine
+// for the given parameters, then picking the cheapest engine whose error is within the accuracy target. If no engine
+// within the cost budget can meet the accuracy target, the most accurate engine within the cost budget is picked.
+// Only engines with a proven error bound can meet the accuracy target. Engines whose error is only a rough estimate
+// are just candidates for the most accurate engine.
+public class DistributionEngineSelector {
+
+    // Luck is displayed with at least 2 significant digits of a percentage, so 0.01% is beyond what is typically shown.
+    public static final double DEFAULT_ACCURACY_TARGET = 1e-4;
+
+    // Roughly a few milliseconds of computation. Engines estimated to cost more than this are only used as a last resort.
+    public static final double DEFAULT_MAX_COST = 5e6;
+
+    public static final DistributionEngineSelector DEFAULT = new DistributionEngineSelector();
+
+    // Shevtsova (2010) constant for the Berry-Esseen theorem for sums of non-identically distributed variables
+    private static final double BERRY_ESSEEN_CONSTANT = 0.5600;
+
+    // The exact Irwin-Hall CDF is used for up to this many uniform random variables (see
+    // UniformSumNormalApproxDistribution), beyond which it has an error of ~0.2%.
+    private static final int UNIFORM_SUM_EXACT_MAX_N = 11;
+    private static final double UNIFORM_SUM_NORMAL_APPROX_ERROR = 0.002;
+
+    // Rough relative costs of the basic operations used by each engine
+    private static final double BIG_DECIMAL_OPERATION_COST = 50;
+    private static final double PMF_COST = 20;
+    private static final double CDF_COST = 100;
+    private static final double SADDLEPOINT_COST_PER_GROUP = 100;
+
+    private final double accuracyTarget;
+
+    private final double maxCost;
+
+    public DistributionEngineSelector() {
+        this(DEFAULT_ACCURACY_TARGET, DEFAULT_MAX_COST);
+    }
+
+    public DistributionEngineSelector(double accuracyTarget, double maxCost) {
+        if (accuracyTarget <= 0 || maxCost <= 0) {
+            throw new IllegalArgumentException("accuracyTarget and maxCost must be > 0");
+        }
+        this.accuracyTarget = accuracyTarget;
+        this.maxCost = maxCost;
+    }
+
+    public double getAccuracyTarget() {
+        return accuracyTarget;
+    }
+
+    public double getMaxCost() {
+        return maxCost;
+    }
+
+    /**
+     * Select an engine to compute P(X <= x) for a Poisson binomial distribution given as grouped trials.
+     *
+     * @param probabilities the distinct success probabilities
+     * @param counts        the number of trials at each respective probability
+     * @param x             the number of successes at which the CDF will be evaluated
+     */
+    public EngineSelection selectPoissonBinomialEngine(List<Double> probabilities, List<Integer> counts, int x) {
+        long numTrials = 0;
+        int numGroups = 0;
+        int lastCount = 0;
+        double mean = 0;
+        double variance = 0;
+        double sumOfSquares = 0;
+        double sumOfThirdAbsoluteMoments = 0;
+        for (int i = 0; i < probabilities.size(); i++) {
+            double p = probabilities.get(i);
+            int count = counts.get(i);
+            if (count <= 0) {
+                continue;
+            }
+            numTrials += count;
+            numGroups++;
+            lastCount = count;
+            mean += count * p;
+            variance += count * p * (1 - p);
+            sumOfSquares += count * p * p;
+            // E|X - p|^3 for a single Bernoulli trial
+            sumOfThirdAbsoluteMoments += count * p * (1 - p) * (p * p + (1 - p) * (1 - p));
+        }
+
+        // Only values <= x are ever needed by the exact engines
+        double m = Math.max(0, Math.min(x, numTrials)) + 1;
+
+        List<EngineEstimate> candidates = new ArrayList<>();
+
+        candidates.add(new EngineEstimate(DistributionEngine.EXACT_POISSON_BINOMIAL,
+                0,
+                numTrials * m * BIG_DECIMAL_OPERATION_COST));
+
+        double lastGroupCdfs = Math.min(m, numTrials - lastCount + 1);
+        candidates.add(new EngineEstimate(DistributionEngine.GROUPED_POISSON_BINOMIAL,
+                0,
+                Math.max(0, numGroups - 1) * (m * PMF_COST + m * m / 2) + lastGroupCdfs * CDF_COST));
+
+        // Barbour and Hall (1984) refinement of Le Cam's theorem: the total variation distance between the Poisson
+        // binomial and Poisson distributions with the same mean is at most (1 - e^-mean) / mean * sum(p^2).
+        double poissonError = mean == 0 ? 0 : -Math.expm1(-mean) / mean * sumOfSquares;
+        candidates.add(new EngineEstimate(DistributionEngine.POISSON_APPROX,
+                Math.min(1, poissonError),
+                CDF_COST));
+
+        // The Berry-Esseen bound for the plain normal approximation. The refined normal approximation's skewness
+        // correction typically does much better than this, so it is a conservative estimate.
+        double standardDeviation = Math.sqrt(variance);
+        double berryEsseenError = standardDeviation == 0
+                ? 1
+                : BERRY_ESSEEN_CONSTANT * sumOfThirdAbsoluteMoments / (variance * standardDeviation);
+        candidates.add(new EngineEstimate(DistributionEngine.REFINED_NORMAL_APPROX,
+                Math.min(1, berryEsseenError),
+                numGroups));
+
+        // The saddlepoint approximation's relative error is an order of 1 / sigma smaller than the normal
+        // approximation's (Daniels 1987), but there is no known bound with explicit constants. This only ranks it
+        // against the other engines, so it is never trusted to meet the accuracy target by itself.
+        double saddlepointError = standardDeviation < 1 ? berryEsseenError : berryEsseenError / standardDeviation;
+        candidates.add(new EngineEstimate(DistributionEngine.SADDLEPOINT_APPROX,
+                Math.min(1, saddlepointError),
+                false,
+                numGroups * SADDLEPOINT_COST_PER_GROUP));
+
+        return select(candidates);
+    }
+
+    /**
+     * Select an engine to compute P(X <= x) for the total loot from numTrials trials that each have a successProbability
+     * chance of rolling a uniform amount of loot between minRollOnSuccess and maxRollOnSuccess.
+     */
+    public EngineSelection selectBinomialUniformSumEngine(int numTrials, double successProbability,
+                                                          double minRollOnSuccess, double maxRollOnSuccess, double x) {
+        double p = successProbability;
+        double meanSuccesses = numTrials * p;
+        double successesStandardDeviation = Math.sqrt(numTrials * p * (1 - p));
+
+        List<EngineEstimate> candidates = new ArrayList<>();
+
+        // The discrete approximation is exact in the number of successes, and only approximates the uniform sum for
+        // each number of successes: exactly for few successes, and to within ~0.2% beyond that. Treating whole items
+        // as continuous adds an error of roughly half an item out of the range of possible rolls.
+        double chanceOfAnySuccess = numTrials == 0 ? 0 : 1 - Math.pow(1 - p, numTrials);
+        double chanceOfManySuccesses = numTrials <= UNIFORM_SUM_EXACT_MAX_N || p == 0
+                ? 0
+                : 1 - ProbabilityKernels.binomialCumulativeProbability(UNIFORM_SUM_EXACT_MAX_N, numTrials, p);
+        double discreteError = UNIFORM_SUM_NORMAL_APPROX_ERROR * chanceOfManySuccesses
+                + chanceOfAnySuccess / (2 * (maxRollOnSuccess - minRollOnSuccess + 1));
+
+        // The discrete approximation loops over every possible number of successes, stopping early once the rest of
+        // the binomial distribution is negligible.
+        double minPossibleSuccesses = maxRollOnSuccess <= 0 ? 0 : Math.ceil(x / maxRollOnSuccess);
+        double maxPossibleSuccesses = minRollOnSuccess > 0 ? Math.floor(x / minRollOnSuccess) : numTrials;
+        double lastLikelySuccesses = Math.min(maxPossibleSuccesses, meanSuccesses + 10 * successesStandardDeviation + 1);
+        double numTerms = Math.max(0, lastLikelySuccesses - minPossibleSuccesses) + 1;
+        candidates.add(new EngineEstimate(DistributionEngine.BINOMIAL_UNIFORM_SUM_DISCRETE_APPROX,
+                Math.min(1, discreteError),
+                numTerms * (PMF_COST + CDF_COST) + CDF_COST));
+
+        // Berry-Esseen bound for the sum of numTrials identical (success * uniform roll) random variables
+        double rollMean = p * (minRollOnSuccess + maxRollOnSuccess) / 2;
+        double rollVariance = p * (minRollOnSuccess * minRollOnSuccess + minRollOnSuccess * maxRollOnSuccess
+                + maxRollOnSuccess * maxRollOnSuccess) / 3 - rollMean * rollMean;
+        double rollThirdAbsoluteMoment = (1 - p) * Math.pow(Math.abs(rollMean), 3)
+                + p * uniformThirdAbsoluteMoment(minRollOnSuccess, maxRollOnSuccess, rollMean);
+        double normalError = numTrials == 0 || rollVariance <= 0
+                ? 1
+                : BERRY_ESSEEN_CONSTANT * rollThirdAbsoluteMoment / (Math.pow(rollVariance, 1.5) * Math.sqrt(numTrials));
+        candidates.add(new EngineEstimate(DistributionEngine.BINOMIAL_UNIFORM_SUM_NORMAL_APPROX,
+                Math.min(1, normalError),
+                CDF_COST));
+
+        return select(candidates);
+    }
+
+    // E|U - c|^3 for U uniformly distributed between a and b
+    private static double uniformThirdAbsoluteMoment(double a, double b, double c) {
+        if (b <= a) {
+            return Math.pow(Math.abs(a - c), 3);
+        }
+        // integral of |u - c|^3 from a to b, divided by (b - a)
+        double upper = Math.signum(b - c) * Math.pow(b - c, 4);
+        double lower = Math.signum(a - c) * Math.pow(a - c, 4);
+        return (upper - lower) / (4 * (b - a));
+    }
+
+    private EngineSelection select(List<EngineEstimate> candidates) {
+        EngineEstimate selected = candidates.stream()
+                .filter(estimate -> estimate.getEstimatedCost() <= maxCost)
+                .filter(EngineEstimate::isErrorBounded)
+                .filter(estimate -> estimate.getEstimatedError() <= accuracyTarget)
+                .min(Comparator.comparingDouble(EngineEstimate::getEstimatedCost))
+                .orElse(null);
+
+        if (selected == null) {
+            // Nothing affordable meets the target, so settle for the most accurate affordable engine (or the cheapest
+            // engine if even that is too expensive).
+            selected = candidates.stream()
+                    .filter(estimate -> estimate.getEstimatedCost() <= maxCost)
+                    .min(Comparator.comparingDouble(EngineEstimate::getEstimatedError)
+                            .thenComparingDouble(EngineEstimate::getEstimatedCost))
+                    .orElseGet(() -> candidates.stream()
+                            .min(Comparator.comparingDouble(EngineEstimate::getEstimatedCost))
+                            .get());
+        }
+
+        return new EngineSelection(selected, candidates, accuracyTarget);
+    }
+
+}
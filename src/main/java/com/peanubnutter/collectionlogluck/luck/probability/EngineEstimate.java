@@ -0,0 +1,49 @@
+package com.peanubnutter.collectionlogluck.luck.probability;
+
+// The estimated absolute error (of the cumulative probability) and relative cost of computing a distribution with a
+// particular engine.
+public class EngineEstimate {
+
+    private final DistributionEngine engine;
+
+    private final double estimatedError;
+
+    // Whether the estimated error is a proven upper bound, rather than a rough guess of the error's order of magnitude
+    private final boolean errorBounded;
+
+    // A rough count of floating point operations. Only meaningful relative to other estimates.
+    private final double estimatedCost;
+
+    public EngineEstimate(DistributionEngine engine, double estimatedError, double estimatedCost) {
+        this(engine, estimatedError, true, estimatedCost);
+    }
+
+    public EngineEstimate(DistributionEngine engine, double estimatedError, boolean errorBounded, double estimatedCost) {
+        this.engine = engine;
+        this.estimatedError = estimatedError;
+        this.errorBounded = errorBounded;
+        this.estimatedCost = estimatedCost;
+    }
+
+    public DistributionEngine getEngine() {
+        return engine;
+    }
+
+    public double getEstimatedError() {
+        return estimatedError;
+    }
+
+    public boolean isErrorBounded() {
+        return errorBounded;
+    }
+
+    public double getEstimatedCost() {
+        return estimatedCost;
+    }
+
+    @Override
+    public String toString() {
+        return engine + " (error " + (errorBounded ? "<= " : "~") + estimatedError + ", cost ~" + estimatedCost + ")";
+    }
+
+}
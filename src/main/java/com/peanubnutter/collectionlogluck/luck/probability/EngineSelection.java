@@ -0,0 +1,51 @@
+package com.peanubnutter.collectionlogluck.luck.probability;
+
+import java.util.List;
+
+// The result of DistributionEngineSelector choosing an engine, along with every candidate that was considered.
+public class EngineSelection {
+
+    private final EngineEstimate selected;
+
+    private final List<EngineEstimate> candidates;
+
+    private final double accuracyTarget;
+
+    public EngineSelection(EngineEstimate selected, List<EngineEstimate> candidates, double accuracyTarget) {
+        this.selected = selected;
+        this.candidates = candidates;
+        this.accuracyTarget = accuracyTarget;
+    }
+
+    public DistributionEngine getEngine() {
+        return selected.getEngine();
+    }
+
+    public double getEstimatedError() {
+        return selected.getEstimatedError();
+    }
+
+    public double getEstimatedCost() {
+        return selected.getEstimatedCost();
+    }
+
+    public List<EngineEstimate> getCandidates() {
+        return candidates;
+    }
+
+    public double getAccuracyTarget() {
+        return accuracyTarget;
+    }
+
+    // False if no affordable engine could guarantee the accuracy target, in which case the most accurate affordable
+    // engine was selected.
+    public boolean meetsAccuracyTarget() {
+        return selected.isErrorBounded() && selected.getEstimatedError() <= accuracyTarget;
+    }
+
+    @Override
+    public String toString() {
+        return "Selected " + selected + " with accuracy target " + accuracyTarget + " from " + candidates;
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.peanubnutter.collectionlogluck.luck.probability;
+
+// Convolution of probability mass functions. Short PMFs are convolved directly, and longer ones with a radix-2 fast
+// Fourier transform, which brings the cost from O(n * m) down to O((n + m) log(n + m)).
+public final class FftConvolution {
+
+    // Below this many multiplications, direct convolution is faster than the FFT's overhead.
+    private static final int DIRECT_CONVOLUTION_MAX_COST = 4096;
+
+    private FftConvolution() {
+    }
+
+    // Return the convolution of a and b, i.e. the PMF of the sum of two independent variables with PMFs a and b.
+    public static double[] convolve(double[] a, double[] b) {
+        if (a.length == 0 || b.length == 0) {
+            return new double[0];
+        }
+        if ((long) a.length * b.length <= DIRECT_CONVOLUTION_MAX_COST || Math.min(a.length, b.length) <= 8) {
+            return convolveDirectly(a, b);
+        }
+        return convolveWithFft(a, b);
+    }
+
+    static double[] convolveDirectly(double[] a, double[] b) {
+        double[] result = new double[a.length + b.length - 1];
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == 0) continue;
+            for (int j = 0; j < b.length; j++) {
+                result[i + j] += a[i] * b[j];
+            }
+        }
+        return result;
+    }
+
+    static double[] convolveWithFft(double[] a, double[] b) {
+        int resultLength = a.length + b.length - 1;
+        int n = Integer.highestOneBit(resultLength);
+        if (n < resultLength) {
+            n <<= 1;
+        }
+
+        double[] aReal = new double[n];
+        double[] aImag = new double[n];
+        double[] bReal = new double[n];
+        double[] bImag = new double[n];
+        System.arraycopy(a, 0, aReal, 0, a.length);
+        System.arraycopy(b, 0, bReal, 0, b.length);
+
+        transform(aReal, aImag, false);
+        transform(bReal, bImag, false);
+
+        // pointwise complex multiplication
+        for (int i = 0; i < n; i++) {
+            double real = aReal[i] * bReal[i] - aImag[i] * bImag[i];
+            double imag = aReal[i] * bImag[i] + aImag[i] * bReal[i];
+            aReal[i] = real;
+            aImag[i] = imag;
+        }
+
+        transform(aReal, aImag, true);
+
+        double[] result = new double[resultLength];
+        for (int i = 0; i < resultLength; i++) {
+            // Probabilities cannot be negative, but rounding error can produce tiny negative values.
+            result[i] = Math.max(0, aReal[i] / n);
+        }
+        return result;
+    }
+
+    // In-place iterative Cooley-Tukey FFT. The length must be a power of 2. The inverse transform is not normalized.
+    private static void transform(double[] real, double[] imag, boolean inverse) {
+        int n = real.length;
+
+        // bit-reversal permutation
+        for (int i = 1, j = 0; i < n; i++) {
+            int bit = n >> 1;
+            for (; (j & bit) != 0; bit >>= 1) {
+                j ^= bit;
+            }
+            j ^= bit;
+            if (i < j) {
+                double tmp = real[i];
+                real[i] = real[j];
+                real[j] = tmp;
+                tmp = imag[i];
+                imag[i] = imag[j];
+                imag[j] = tmp;
+            }
+        }
+
+        for (int length = 2; length <= n; length <<= 1) {
+            double angle = 2 * Math.PI / length * (inverse ? 1 : -1);
+            double wReal = Math.cos(angle);
+            double wImag = Math.sin(angle);
+            for (int start = 0; start < n; start += length) {
+                double curReal = 1;
+                double curImag = 0;
+                for (int k = 0; k < length / 2; k++) {
+                    int even = start + k;
+                    int odd = even + length / 2;
+                    double oddReal = real[odd] * curReal - imag[odd] * curImag;
+                    double oddImag = real[odd] * curImag + imag[odd] * curReal;
+                    real[odd] = real[even] - oddReal;
+                    imag[odd] = imag[even] - oddImag;
+                    real[even] += oddReal;
+                    imag[even] += oddImag;
+
+                    double nextReal = curReal * wReal - curImag * wImag;
+                    curImag = curReal * wImag + curImag * wReal;
+                    curReal = nextReal;
+                }
+            }
+        }
+    }
+
+}
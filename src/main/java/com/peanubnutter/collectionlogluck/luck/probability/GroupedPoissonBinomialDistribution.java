@@ -0,0 +1,98 @@
+package com.peanubnutter.collectionlogluck.luck.probability;
+
+import java.util.List;
+
+// An exact Poisson binomial distribution for trials that come in groups sharing the same probability, e.g. one group
+// per drop source. Each group is a binomial distribution, and the groups' PMFs are convolved together. Only values
+// <= x are ever needed for the CDF at x, and every term is non-negative, so the PMFs can be truncated at x without
+// losing any accuracy or suffering from the cancellation errors that require PoissonBinomialDistribution to use
+// BigDecimal.
+public class GroupedPoissonBinomialDistribution extends AbstractCustomProbabilityDistribution {
+
+    private final List<Integer> counts;
+
+    private final int numTrials;
+
+    /**
+     * @param probabilities the distinct success probabilities
+     * @param counts        the number of trials at each respective probability
+     */
+    public GroupedPoissonBinomialDistribution(List<Double> probabilities, List<Integer> counts) {
+        super(probabilities);
+
+        if (probabilities.size() != counts.size()) {
+            throw new IllegalArgumentException("Must have exactly one count per probability");
+        }
+
+        int totalTrials = 0;
+        for (int count : counts) {
+            if (count < 0) {
+                throw new IllegalArgumentException("Counts must be >= 0");
+            }
+            totalTrials += count;
+        }
+
+        this.counts = counts;
+        this.numTrials = totalTrials;
+    }
+
+    // Return the probability of numSuccesses <= x
+    public double cumulativeProbability(int x) {
+        if (x < 0) {
+            return 0;
+        }
+        if (x >= numTrials) {
+            return 1;
+        }
+
+        // The PMF of all groups except the last, truncated at x
+        double[] pmf = new double[x + 1];
+        pmf[0] = 1;
+        int maxPmfIndex = 0;
+        int lastGroup = probabilities.size() - 1;
+        while (lastGroup >= 0 && counts.get(lastGroup) == 0) {
+            lastGroup--;
+        }
+
+        for (int group = 0; group < lastGroup; group++) {
+            int count = counts.get(group);
+            if (count == 0) {
+                continue;
+            }
+            int groupMax = Math.min(count, x);
+            double[] groupPmf = new double[groupMax + 1];
+            for (int i = 0; i <= groupMax; i++) {
+                groupPmf[i] = ProbabilityKernels.binomialProbability(i, count, probabilities.get(group));
+            }
+
+            int newMaxPmfIndex = Math.min(x, maxPmfIndex + groupMax);
+            double[] newPmf = new double[x + 1];
+            for (int i = 0; i <= maxPmfIndex; i++) {
+                if (pmf[i] == 0) continue;
+                int jMax = Math.min(groupMax, x - i);
+                for (int j = 0; j <= jMax; j++) {
+                    newPmf[i + j] += pmf[i] * groupPmf[j];
+                }
+            }
+            pmf = newPmf;
+            maxPmfIndex = newMaxPmfIndex;
+        }
+
+        if (lastGroup < 0) {
+            // no trials at all
+            return 1;
+        }
+
+        // The last group only needs its CDF: P(total <= x) = sum over i of P(others = i) * P(last <= x - i)
+        int lastCount = counts.get(lastGroup);
+        double lastProbability = probabilities.get(lastGroup);
+        double cumProb = 0;
+        for (int i = 0; i <= maxPmfIndex; i++) {
+            if (pmf[i] == 0) continue;
+            cumProb += pmf[i] * ProbabilityKernels.binomialCumulativeProbability(x - i, lastCount, lastProbability);
+        }
+
+        return Math.max(0, Math.min(1, cumProb));
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.peanubnutter.collectionlogluck.luck.probability;
+
+import java.util.Arrays;
+
+// The PMF of the number of successes in independent trials that may each have a different success chance, truncated
+// at maxSuccesses. Adding one trial is the recurrence P(X' = j) = (1 - p) P(X = j) + p P(X = j - 1), which takes
+// O(maxSuccesses), so the CDF can be read after every added trial to get it for every number of trials in one pass.
+// Like GroupedPoissonBinomialDistribution, every term is non-negative and values above maxSuccesses never affect values
+// below it, so truncating loses no accuracy.
+public class IncrementalPoissonBinomialPmf {
+
+    private final double[] pmf;
+
+    private long numTrials = 0;
+
+    public IncrementalPoissonBinomialPmf(int maxSuccesses) {
+        if (maxSuccesses < 0) {
+            throw new IllegalArgumentException("maxSuccesses must be >= 0");
+        }
+        pmf = new double[maxSuccesses + 1];
+        pmf[0] = 1;
+    }
+
+    public void addTrial(double p) {
+        for (int j = pmf.length - 1; j > 0; j--) {
+            pmf[j] = pmf[j] * (1 - p) + pmf[j - 1] * p;
+        }
+        pmf[0] *= 1 - p;
+        numTrials++;
+    }
+
+    // Add many trials with the same success chance at once, by convolving with their (truncated) binomial PMF when
+    // that is cheaper than adding them one by one.
+    public void addTrials(double p, int count) {
+        if (count <= 0) {
+            return;
+        }
+        if (count <= pmf.length) {
+            for (int i = 0; i < count; i++) {
+                addTrial(p);
+            }
+            return;
+        }
+
+        double[] binomialPmf = new double[pmf.length];
+        for (int i = 0; i < binomialPmf.length; i++) {
+            binomialPmf[i] = ProbabilityKernels.binomialProbability(i, count, p);
+        }
+
+        double[] convolved = new double[pmf.length];
+        for (int j = 0; j < pmf.length; j++) {
+            double sum = 0;
+            for (int i = 0; i <= j; i++) {
+                sum += pmf[j - i] * binomialPmf[i];
+            }
+            convolved[j] = sum;
+        }
+        System.arraycopy(convolved, 0, pmf, 0, pmf.length);
+        numTrials += count;
+    }
+
+    public long getNumTrials() {
+        return numTrials;
+    }
+
+    public int getMaxSuccesses() {
+        return pmf.length - 1;
+    }
+
+    // P(X <= k), for k <= maxSuccesses
+    public double cumulativeProbability(int k) {
+        if (k < 0) {
+            return 0;
+        }
+        if (k > getMaxSuccesses()) {
+            throw new IllegalArgumentException("k is beyond the truncated PMF");
+        }
+        return Math.min(1, Arrays.stream(pmf, 0, k + 1).sum());
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.peanubnutter.collectionlogluck.luck.probability;
+
+import org.apache.commons.math3.special.Gamma;
+
+// ln(n!) for every n up to the largest requested so far, so that Binomial probabilities for many (n, k) pairs only cost
+// a few lookups each. The table grows on demand, up to a size limit beyond which logGamma is used instead.
+//
+// Not thread safe.
+public class LogFactorialTable {
+
+    // 16MB of doubles. KC-based trial counts are far below this.
+    private static final int MAX_TABLE_SIZE = 1 << 21;
+
+    private double[] logFactorials = new double[]{0};
+
+    private int size = 1;
+
+    public double logFactorial(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be non-negative.");
+        }
+        if (n >= MAX_TABLE_SIZE) {
+            return Gamma.logGamma(n + 1.0);
+        }
+        if (n >= size) {
+            grow(n + 1);
+        }
+        return logFactorials[n];
+    }
+
+    // ln of the chance of exactly numSuccesses in numTrials, given ln(dropChance) and ln(1 - dropChance)
+    public double logBinomialProbability(int numSuccesses, int numTrials, double logDropChance, double logFailChance) {
+        return logFactorial(numTrials) - logFactorial(numSuccesses) - logFactorial(numTrials - numSuccesses)
+                + numSuccesses * logDropChance + (numTrials - numSuccesses) * logFailChance;
+    }
+
+    private void grow(int minSize) {
+        int newSize = Math.min(MAX_TABLE_SIZE, Math.max(minSize, logFactorials.length * 2));
+        if (newSize > logFactorials.length) {
+            double[] newLogFactorials = new double[newSize];
+            System.arraycopy(logFactorials, 0, newLogFactorials, 0, size);
+            logFactorials = newLogFactorials;
+        }
+        for (int n = size; n < newSize; n++) {
+            logFactorials[n] = logFactorials[n - 1] + Math.log(n);
+        }
+        size = newSize;
+    }
+
+}
@@ -12,10 +12,13 @@ import java.util.stream.Collectors;
 
 // An implementation of the Poisson Binomial Distribution which is performant up to several hundred trials
 // NOTE: This implementation returns all NaNs if any probability equals 1!
+//
+// Thread safe. The PMF and CDF are cached as immutable lists, which are only ever replaced by longer ones. Threads that
+// need a longer list at the same time may each calculate it, but they never see a partially calculated list.
 public class PoissonBinomialDistribution extends AbstractCustomProbabilityDistribution {
 
-    private List<Double> probabilityMassFunction;
-    private List<Double> cumulativeDensityFunction;
+    private volatile List<Double> probabilityMassFunction;
+    private volatile List<Double> cumulativeDensityFunction;
 
     public PoissonBinomialDistribution(List<Double> probabilities) {
         super(probabilities);
@@ -42,18 +45,23 @@ public class PoissonBinomialDistribution extends AbstractCustomProbabilityDistri
 
     // Return the probability of numSuccesses == x for all possible values of x <= maxX, (re)calculating if necessary
     public List<Double> getPmf(int maxX) {
-        if (probabilityMassFunction == null || probabilityMassFunction.size() <= maxX) {
-            probabilityMassFunction = calculatePmf(maxX);
+        // Read the field once, since another thread may replace it in the meantime
+        List<Double> pmf = probabilityMassFunction;
+        if (pmf == null || pmf.size() <= maxX) {
+            pmf = ImmutableList.copyOf(calculatePmf(maxX));
+            probabilityMassFunction = pmf;
         }
-        return probabilityMassFunction;
+        return pmf;
     }
 
     // Return the probability of numSuccesses <= x for all possible values of x <= maxX, (re)calculating if necessary
     public List<Double> getCdf(int maxX) {
-        if (cumulativeDensityFunction == null || cumulativeDensityFunction.size() <= maxX) {
-            cumulativeDensityFunction = calculateCdf(maxX);
+        List<Double> cdf = cumulativeDensityFunction;
+        if (cdf == null || cdf.size() <= maxX) {
+            cdf = ImmutableList.copyOf(calculateCdf(maxX));
+            cumulativeDensityFunction = cdf;
         }
-        return cumulativeDensityFunction;
+        return cdf;
     }
 
     // Simply accumulate the PDF to get the CDF
@@ -1,7 +1,8 @@
 package com.peanubnutter.collectionlogluck.luck.probability;
 
-import org.apache.commons.math3.distribution.NormalDistribution;
+import com.google.common.collect.ImmutableList;
 
+import java.util.Collections;
 import java.util.List;
 
 // An implementation of the Poisson Binomial Distribution using the Refined Normal Approximation method based on
@@ -10,55 +11,116 @@ import java.util.List;
 // Primenen., 1995, Volume 40, Issue 4, 885–888
 public class PoissonBinomialRefinedNormalApproxDistribution extends AbstractCustomProbabilityDistribution {
 
+    private final int numTrials;
+
     private final double mean;
     private final double standardDeviation;
     private final double skewness;
 
     public PoissonBinomialRefinedNormalApproxDistribution(List<Double> probabilities) {
+        this(probabilities, Collections.nCopies(probabilities.size(), 1));
+    }
+
+    /**
+     * Construct the distribution from grouped trials, which is much cheaper than expanding every trial into a list
+     * when there are many trials at the same probability (e.g. one group per drop source).
+     *
+     * @param probabilities the distinct success probabilities
+     * @param counts        the number of trials at each respective probability
+     */
+    public PoissonBinomialRefinedNormalApproxDistribution(List<Double> probabilities, List<Integer> counts) {
         super(probabilities);
 
-        this.mean = computeMean();
-        this.standardDeviation = computeStandardDeviation();
-        this.skewness = computeSkewness(standardDeviation);
+        if (probabilities.size() != counts.size()) {
+            throw new IllegalArgumentException("Must have exactly one count per probability");
+        }
+
+        int totalTrials = 0;
+        double totalMean = 0;
+        double totalVariance = 0;
+        double totalThirdCentralMoment = 0;
+        for (int i = 0; i < probabilities.size(); i++) {
+            double p = probabilities.get(i);
+            int count = counts.get(i);
+            if (count < 0) {
+                throw new IllegalArgumentException("Counts must be >= 0");
+            }
+
+            totalTrials += count;
+            totalMean += count * p;
+            totalVariance += count * p * (1 - p);
+            totalThirdCentralMoment += count * p * (1 - p) * (1 - 2 * p);
+        }
+
+        this.numTrials = totalTrials;
+        this.mean = totalMean;
+        this.standardDeviation = Math.sqrt(totalVariance);
+        this.skewness = computeSkewness(totalThirdCentralMoment, standardDeviation);
+    }
+
+    /**
+     * Construct the distribution directly from its accumulated moments, i.e. the sums over all trials of p, p(1-p),
+     * and p(1-p)(1-2p).
+     *
+     * @param numTrials          the total number of trials
+     * @param mean               the mean of the distribution
+     * @param variance           the variance of the distribution
+     * @param thirdCentralMoment the third central moment of the distribution
+     */
+    public PoissonBinomialRefinedNormalApproxDistribution(int numTrials, double mean, double variance, double thirdCentralMoment) {
+        super(ImmutableList.of());
+
+        if (numTrials < 0 || mean < 0 || variance < 0) {
+            throw new IllegalArgumentException("numTrials, mean, and variance must be >= 0");
+        }
+
+        this.numTrials = numTrials;
+        this.mean = mean;
+        this.standardDeviation = Math.sqrt(variance);
+        this.skewness = computeSkewness(thirdCentralMoment, standardDeviation);
     }
 
     public double cumulativeProbability(int x) {
         if (x < 0) {
             return 0;
         }
-        if (x > probabilities.size()) {
+        if (x > numTrials) {
             return 1;
         }
         return Math.max(0, Math.min(1, refinedNormalApproximation(x)));
     }
 
+    public int getNumTrials() {
+        return numTrials;
+    }
+
     // Return the mean of the distribution (the first "moment" or "mu")
-    protected double computeMean() {
-        return probabilities.stream().mapToDouble(Double::doubleValue).sum();
+    public double getMean() {
+        return mean;
+    }
+
+    // Return the standard deviation of the distribution (the square root of the second central "moment", or "sigma")
+    public double getStandardDeviation() {
+        return standardDeviation;
     }
 
-    // Return the standard deviation of the distribution (the second "moment" or "sigma")
-    protected double computeStandardDeviation() {
-        return Math.sqrt(
-                probabilities.stream().mapToDouble(
-                        p -> p * (1 - p)).sum()
-        );
+    // Return the skewness of the distribution (the third standardized "moment" or "gamma")
+    public double getSkewness() {
+        return skewness;
     }
 
-    // Return the skewness of the distribution (the third "moment" or "gamma")
-    protected double computeSkewness(double standardDeviation) {
-        return Math.pow(standardDeviation, -3) * probabilities.stream().mapToDouble(
-                p -> p * (1 - p) * (1 - 2 * p)).sum();
+    protected static double computeSkewness(double thirdCentralMoment, double standardDeviation) {
+        return Math.pow(standardDeviation, -3) * thirdCentralMoment;
     }
 
     // the cumulative distribution function (CDF) of the standard normal distribution
     protected double normalCdf(double x) {
-        return new NormalDistribution().cumulativeProbability(x);
+        return ProbabilityKernels.standardNormalCumulativeProbability(x);
     }
 
     // the probability density function (PDF) of the standard normal distribution
     protected double normalPdf(double x) {
-        return new NormalDistribution().density(x);
+        return ProbabilityKernels.standardNormalDensity(x);
     }
 
     protected double refinedNormalApproximation(int x) {
@@ -0,0 +1,161 @@
+package com.peanubnutter.collectionlogluck.luck.probability;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+// An approximation of the Poisson binomial distribution using the Lugannani-Rice saddlepoint approximation with
+// Daniels' second continuity correction for lattice distributions:
+// H. E. Daniels, Tail Probability Approximations, International Statistical Review, 1987, Volume 55, Issue 1, 37-48.
+// Unlike the normal approximations, this stays accurate far into the tails of the distribution. The cost is a short
+// root-finding loop over the distinct probabilities, so it does not depend on the number of trials.
+public class PoissonBinomialSaddlepointApproxDistribution extends AbstractCustomProbabilityDistribution {
+
+    private static final int MAX_ITERATIONS = 200;
+
+    // K'(t) moves from 0 to the number of uncertain trials as t goes from -inf to +inf, so any target inside that range
+    // is bracketed long before this. Capped in case of floating point trouble, rather than looping forever.
+    private static final int MAX_BRACKET_DOUBLINGS = 64;
+
+    private static final double SADDLEPOINT_TOLERANCE = 1e-12;
+
+    // Closer than this many standard deviations to the mean, the saddlepoint formula is numerically unstable (it is a
+    // difference of two nearly-infinite terms), so fall back to the refined normal approximation, which is very
+    // accurate there anyway.
+    private static final double NEAR_MEAN_STANDARD_DEVIATIONS = 1e-3;
+
+    // Only trials with 0 < p < 1. Trials with p == 0 or p == 1 never change the number of successes, and would cap
+    // K'(t) below the number of trials (or keep it above the number of certain trials), so the saddlepoint could
+    // never be bracketed.
+    private final List<Double> uncertainProbabilities;
+
+    private final List<Integer> uncertainCounts;
+
+    private final int numUncertainTrials;
+
+    // The number of trials with probability exactly 1, which are guaranteed successes
+    private final int numCertainTrials;
+
+    private final PoissonBinomialRefinedNormalApproxDistribution refinedNormalApprox;
+
+    /**
+     * @param probabilities the distinct success probabilities
+     * @param counts        the number of trials at each respective probability
+     */
+    public PoissonBinomialSaddlepointApproxDistribution(List<Double> probabilities, List<Integer> counts) {
+        super(probabilities);
+
+        this.refinedNormalApprox = new PoissonBinomialRefinedNormalApproxDistribution(probabilities, counts);
+
+        ImmutableList.Builder<Double> uncertainProbabilities = ImmutableList.builder();
+        ImmutableList.Builder<Integer> uncertainCounts = ImmutableList.builder();
+        int certainTrials = 0;
+        int uncertainTrials = 0;
+        for (int i = 0; i < probabilities.size(); i++) {
+            double p = probabilities.get(i);
+            if (p == 1) {
+                certainTrials += counts.get(i);
+            } else if (p > 0) {
+                uncertainProbabilities.add(p);
+                uncertainCounts.add(counts.get(i));
+                uncertainTrials += counts.get(i);
+            }
+        }
+        this.uncertainProbabilities = uncertainProbabilities.build();
+        this.uncertainCounts = uncertainCounts.build();
+        this.numCertainTrials = certainTrials;
+        this.numUncertainTrials = uncertainTrials;
+    }
+
+    // Return the probability of numSuccesses <= x
+    public double cumulativeProbability(int x) {
+        if (x < numCertainTrials) {
+            return 0;
+        }
+        if (x >= numCertainTrials + numUncertainTrials) {
+            return 1;
+        }
+
+        // P(X <= x) = 1 - P(X >= x + 1), and the continuity correction evaluates the upper tail at (x + 1) - 1/2
+        double y = x + 0.5;
+        if (Math.abs(y - refinedNormalApprox.getMean()) < NEAR_MEAN_STANDARD_DEVIATIONS * refinedNormalApprox.getStandardDeviation()) {
+            return refinedNormalApprox.cumulativeProbability(x);
+        }
+        // The certain trials always succeed, so the uncertain trials must make up the rest
+        y -= numCertainTrials;
+
+        double t = solveSaddlepoint(y);
+        double w = Math.signum(t) * Math.sqrt(Math.max(0, 2 * (t * y - cumulantGeneratingFunction(t))));
+        double u = 2 * Math.sinh(t / 2) * Math.sqrt(cumulantGeneratingFunctionSecondDerivative(t));
+
+        double cumProb = ProbabilityKernels.standardNormalCumulativeProbability(w)
+                + ProbabilityKernels.standardNormalDensity(w) * (1 / w - 1 / u);
+
+        return Math.max(0, Math.min(1, cumProb));
+    }
+
+    // Find t such that K'(t) = y. K' is strictly increasing, so a bracketed Newton's method always converges.
+    private double solveSaddlepoint(double y) {
+        double lower = -1;
+        for (int i = 0; i < MAX_BRACKET_DOUBLINGS && cumulantGeneratingFunctionDerivative(lower) > y; i++) {
+            lower *= 2;
+        }
+        double upper = 1;
+        for (int i = 0; i < MAX_BRACKET_DOUBLINGS && cumulantGeneratingFunctionDerivative(upper) < y; i++) {
+            upper *= 2;
+        }
+
+        double t = 0;
+        for (int i = 0; i < MAX_ITERATIONS; i++) {
+            double error = cumulantGeneratingFunctionDerivative(t) - y;
+            if (Math.abs(error) < SADDLEPOINT_TOLERANCE * Math.max(1, y)) {
+                break;
+            }
+            if (error > 0) {
+                upper = t;
+            } else {
+                lower = t;
+            }
+
+            double newtonStep = t - error / cumulantGeneratingFunctionSecondDerivative(t);
+            // Bisect instead if Newton's method would leave the bracket
+            t = newtonStep > lower && newtonStep < upper ? newtonStep : (lower + upper) / 2;
+        }
+        return t;
+    }
+
+    // K(t) = sum of log(1 - p + p * e^t) over all uncertain trials
+    private double cumulantGeneratingFunction(double t) {
+        double k = 0;
+        for (int i = 0; i < uncertainProbabilities.size(); i++) {
+            double p = uncertainProbabilities.get(i);
+            k += uncertainCounts.get(i) * Math.log1p(p * Math.expm1(t));
+        }
+        return k;
+    }
+
+    // K'(t) = sum of q(t) over all uncertain trials, where q(t) = p * e^t / (1 - p + p * e^t) is the "tilted" probability
+    private double cumulantGeneratingFunctionDerivative(double t) {
+        double k1 = 0;
+        for (int i = 0; i < uncertainProbabilities.size(); i++) {
+            k1 += uncertainCounts.get(i) * tiltedProbability(uncertainProbabilities.get(i), t);
+        }
+        return k1;
+    }
+
+    // K''(t) = sum of q(t) * (1 - q(t)) over all uncertain trials
+    private double cumulantGeneratingFunctionSecondDerivative(double t) {
+        double k2 = 0;
+        for (int i = 0; i < uncertainProbabilities.size(); i++) {
+            double q = tiltedProbability(uncertainProbabilities.get(i), t);
+            k2 += uncertainCounts.get(i) * q * (1 - q);
+        }
+        return k2;
+    }
+
+    private static double tiltedProbability(double p, double t) {
+        // written to avoid overflow of e^t for large t
+        return 1 / (1 + (1 - p) / p * Math.exp(-t));
+    }
+
+}
@@ -0,0 +1,128 @@
+package com.peanubnutter.collectionlogluck.luck.probability;
+
+import org.apache.commons.math3.special.Beta;
+import org.apache.commons.math3.special.Erf;
+import org.apache.commons.math3.special.Gamma;
+
+// Stateless Binomial, Poisson and Normal distribution functions. commons-math's distribution classes create a random
+// number generator on construction (for sampling, which this plugin never does), so constructing one per calculation
+// was the main source of allocations when recalculating luck. These use the same special functions, so results match.
+public final class ProbabilityKernels {
+
+    private static final double SQRT_2 = Math.sqrt(2);
+
+    private static final double HALF_LOG_2_PI = 0.5 * Math.log(2 * Math.PI);
+
+    private static final double SQRT_2_PI = Math.sqrt(2 * Math.PI);
+
+    // Beyond this many standard deviations, the Normal CDF is 0 or 1 to double precision
+    private static final double MAX_NORMAL_STANDARD_DEVIATIONS = 40;
+
+    private ProbabilityKernels() {
+    }
+
+    // The chance of exactly numSuccesses in numTrials. Uses Loader's saddle point expansion, which stays accurate for
+    // huge numbers of trials where ln(n!) - ln(k!) - ln((n-k)!) would cancel catastrophically.
+    public static double binomialProbability(int numSuccesses, int numTrials, double successProbability) {
+        if (numSuccesses < 0 || numSuccesses > numTrials) {
+            return 0;
+        }
+        if (successProbability <= 0) {
+            return numSuccesses == 0 ? 1 : 0;
+        }
+        if (successProbability >= 1) {
+            return numSuccesses == numTrials ? 1 : 0;
+        }
+        double failureProbability = 1 - successProbability;
+
+        if (numSuccesses == 0) {
+            return Math.exp(numTrials * Math.log1p(-successProbability));
+        }
+        if (numSuccesses == numTrials) {
+            return Math.exp(numTrials * Math.log(successProbability));
+        }
+
+        int numFailures = numTrials - numSuccesses;
+        double logProbability = getStirlingError(numTrials) - getStirlingError(numSuccesses) - getStirlingError(numFailures)
+                - getDeviancePart(numSuccesses, numTrials * successProbability)
+                - getDeviancePart(numFailures, numTrials * failureProbability);
+        double f = 2 * Math.PI * numSuccesses * (double) numFailures / numTrials;
+        return Math.exp(logProbability - 0.5 * Math.log(f));
+    }
+
+    // The chance of numSuccesses or fewer in numTrials
+    public static double binomialCumulativeProbability(int numSuccesses, int numTrials, double successProbability) {
+        if (numSuccesses < 0) {
+            return 0;
+        }
+        if (numSuccesses >= numTrials) {
+            return 1;
+        }
+        return 1 - Beta.regularizedBeta(successProbability, numSuccesses + 1.0, numTrials - numSuccesses);
+    }
+
+    // The chance of numSuccesses or fewer from a Poisson distribution with the given mean
+    public static double poissonCumulativeProbability(int numSuccesses, double mean) {
+        if (numSuccesses < 0) {
+            return 0;
+        }
+        if (numSuccesses == Integer.MAX_VALUE) {
+            return 1;
+        }
+        return Gamma.regularizedGammaQ(numSuccesses + 1.0, mean);
+    }
+
+    // P(X <= x) for a Normal distribution. Uses erfc, which stays accurate far into the lower tail, unlike 1 + erf.
+    public static double normalCumulativeProbability(double x, double mean, double standardDeviation) {
+        double deviation = x - mean;
+        if (Math.abs(deviation) > MAX_NORMAL_STANDARD_DEVIATIONS * standardDeviation) {
+            return deviation < 0 ? 0 : 1;
+        }
+        return 0.5 * Erf.erfc(-deviation / (standardDeviation * SQRT_2));
+    }
+
+    public static double normalDensity(double x, double mean, double standardDeviation) {
+        double z = (x - mean) / standardDeviation;
+        return Math.exp(-0.5 * z * z) / (standardDeviation * SQRT_2_PI);
+    }
+
+    public static double standardNormalCumulativeProbability(double x) {
+        return normalCumulativeProbability(x, 0, 1);
+    }
+
+    public static double standardNormalDensity(double x) {
+        return normalDensity(x, 0, 1);
+    }
+
+    // ln(z!) - ln(sqrt(2 pi z) (z/e)^z), the error of Stirling's approximation
+    private static double getStirlingError(double z) {
+        if (z < 15) {
+            return Gamma.logGamma(z + 1) - (z + 0.5) * Math.log(z) + z - HALF_LOG_2_PI;
+        }
+        double z2 = z * z;
+        return (0.083333333333333333333 - (0.00277777777777777777778 - (0.00079365079365079365079365
+                - (0.000595238095238095238095238 - 0.0008417508417508417508417508 / z2) / z2) / z2) / z2) / z;
+    }
+
+    // x ln(x / mu) + mu - x, computed with a series when x is close to mu to avoid cancellation
+    private static double getDeviancePart(double x, double mu) {
+        if (Math.abs(x - mu) >= 0.1 * (x + mu)) {
+            return x * Math.log(x / mu) + mu - x;
+        }
+        double d = x - mu;
+        double v = d / (x + mu);
+        double s1 = v * d;
+        double s = Double.NaN;
+        double ej = 2 * x * v;
+        v = v * v;
+        int j = 1;
+        while (s1 != s) {
+            s = s1;
+            ej *= v;
+            s1 = s + ej / (j * 2 + 1);
+            j++;
+        }
+        return s1;
+    }
+
+}
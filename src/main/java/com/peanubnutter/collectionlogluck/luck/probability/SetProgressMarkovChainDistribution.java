@@ -0,0 +1,125 @@
+package com.peanubnutter.collectionlogluck.luck.probability;
+
+import java.util.List;
+
+// An exact distribution of progress through a drop mechanic whose chance of progressing depends on the progress already
+// made, e.g. dupe-protected set pieces, or drops that can only be received a limited number of times. Progress is
+// modelled as a Markov chain where each trial either advances the state by one or leaves it unchanged, and the final
+// state is absorbing. The state distribution after n trials is computed by exponentiation by squaring of the
+// (upper bidiagonal) transition matrix, so the cost grows with log(n) and the cube of the (tiny) number of states.
+public class SetProgressMarkovChainDistribution extends AbstractCustomProbabilityDistribution {
+
+    private final int numTrials;
+
+    // The probability of being in each state after numTrials trials.
+    private final double[] stateDistribution;
+
+    /**
+     * @param numTrials            the number of trials
+     * @param advanceProbabilities the chance of advancing from state s to state s + 1 in a single trial, for each
+     *                             non-absorbing state s. The state after the last entry is absorbing, so callers that
+     *                             only care about the first few states may truncate the chain, in which case the final
+     *                             state represents "at least this much progress".
+     */
+    public SetProgressMarkovChainDistribution(int numTrials, List<Double> advanceProbabilities) {
+        super(advanceProbabilities);
+
+        if (numTrials < 0) {
+            throw new IllegalArgumentException("numTrials must be >= 0");
+        }
+
+        this.numTrials = numTrials;
+        this.stateDistribution = calculateStateDistribution();
+    }
+
+    // The number of states, including the final absorbing state
+    public int getNumStates() {
+        return stateDistribution.length;
+    }
+
+    // Return the probability of being in exactly state x after all trials
+    public double probability(int x) {
+        if (x < 0 || x >= stateDistribution.length) {
+            return 0;
+        }
+        return stateDistribution[x];
+    }
+
+    // Return the probability of being in state x or lower after all trials
+    public double cumulativeProbability(int x) {
+        if (x < 0) {
+            return 0;
+        }
+        if (x >= stateDistribution.length - 1) {
+            return 1;
+        }
+
+        double cumProb = 0;
+        for (int state = 0; state <= x; state++) {
+            cumProb += stateDistribution[state];
+        }
+        // floating point error could otherwise push this slightly above 1
+        return Math.min(1, cumProb);
+    }
+
+    private double[] calculateStateDistribution() {
+        int numStates = probabilities.size() + 1;
+
+        double[][] transitionMatrix = new double[numStates][numStates];
+        for (int state = 0; state < numStates - 1; state++) {
+            double advanceProbability = probabilities.get(state);
+            transitionMatrix[state][state] = 1 - advanceProbability;
+            transitionMatrix[state][state + 1] = advanceProbability;
+        }
+        transitionMatrix[numStates - 1][numStates - 1] = 1;
+
+        // All progress starts in state 0
+        double[] distribution = new double[numStates];
+        distribution[0] = 1;
+
+        // Powers of the same matrix commute, so the bits of numTrials can be applied from least significant upwards.
+        int remainingTrials = numTrials;
+        double[][] power = transitionMatrix;
+        while (remainingTrials > 0) {
+            if ((remainingTrials & 1) == 1) {
+                distribution = multiply(distribution, power);
+            }
+            remainingTrials >>= 1;
+            if (remainingTrials > 0) {
+                power = multiplyUpperTriangular(power, power);
+            }
+        }
+
+        return distribution;
+    }
+
+    // Multiply a row vector by an upper triangular matrix
+    private static double[] multiply(double[] vector, double[][] matrix) {
+        int n = vector.length;
+        double[] result = new double[n];
+        for (int i = 0; i < n; i++) {
+            if (vector[i] == 0) continue;
+            for (int j = i; j < n; j++) {
+                result[j] += vector[i] * matrix[i][j];
+            }
+        }
+        return result;
+    }
+
+    // Products of upper triangular matrices are upper triangular, so only entries with i <= k <= j contribute.
+    private static double[][] multiplyUpperTriangular(double[][] a, double[][] b) {
+        int n = a.length;
+        double[][] result = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int k = i; k < n; k++) {
+                double aik = a[i][k];
+                if (aik == 0) continue;
+                for (int j = k; j < n; j++) {
+                    result[i][j] += aik * b[k][j];
+                }
+            }
+        }
+        return result;
+    }
+
+}
@@ -1,7 +1,5 @@
 package com.peanubnutter.collectionlogluck.luck.probability;
 
-import org.apache.commons.math3.distribution.NormalDistribution;
-
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.MathContext;
@@ -53,8 +51,7 @@ public class UniformSumNormalApproxDistribution {
     private double computeApproxCdf(double x) {
         double mean = n / 2.0;
         double stdDev = Math.sqrt(n / 12.0);
-        NormalDistribution normalDistribution = new NormalDistribution(mean, stdDev);
-        return normalDistribution.cumulativeProbability(x);
+        return ProbabilityKernels.normalCumulativeProbability(x, mean, stdDev);
     }
 
     private static BigInteger binomialCoefficient(int N, int K) {
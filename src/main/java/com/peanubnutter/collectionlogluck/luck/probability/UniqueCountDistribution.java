@@ -0,0 +1,112 @@
+package com.peanubnutter.collectionlogluck.luck.probability;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+// The distribution of the number of unique items obtained, given each item's independent chance of having been
+// obtained (a Poisson binomial distribution over items rather than trials). The per-item PMFs are combined pairwise in
+// a balanced tree of FFT convolutions, and the negligible tails of every intermediate PMF are truncated, so that
+// combining an entire collection log of over a thousand items takes milliseconds.
+public class UniqueCountDistribution extends AbstractCustomProbabilityDistribution {
+
+    // Probabilities smaller than this at either end of an intermediate PMF are dropped. Even across thousands of
+    // convolutions, the total probability lost is far too small to affect displayed luck.
+    private static final double SUPPORT_TRUNCATION_THRESHOLD = 1e-17;
+
+    // pmf[i] is the probability of (offset + i) unique items
+    private final int offset;
+    private final double[] pmf;
+
+    /**
+     * @param probabilities each item's chance of having been obtained
+     */
+    public UniqueCountDistribution(List<Double> probabilities) {
+        super(probabilities);
+
+        Deque<TruncatedPmf> queue = new ArrayDeque<>();
+        int numCertainItems = 0;
+        for (double p : probabilities) {
+            if (p == 1) {
+                numCertainItems++;
+            } else if (p > 0) {
+                queue.add(new TruncatedPmf(0, new double[]{1 - p, p}));
+            }
+        }
+
+        if (queue.isEmpty()) {
+            queue.add(new TruncatedPmf(0, new double[]{1}));
+        }
+
+        // Convolving pairs from the front and adding the result to the back forms a balanced tree, so the
+        // convolutions at each level have similar sizes.
+        while (queue.size() > 1) {
+            TruncatedPmf a = queue.poll();
+            TruncatedPmf b = queue.poll();
+            queue.add(TruncatedPmf.truncate(a.offset + b.offset, FftConvolution.convolve(a.pmf, b.pmf)));
+        }
+
+        TruncatedPmf result = queue.poll();
+        this.offset = result.offset + numCertainItems;
+        this.pmf = result.pmf;
+    }
+
+    // Return the probability of exactly x unique items
+    public double probability(int x) {
+        int index = x - offset;
+        if (index < 0 || index >= pmf.length) {
+            return 0;
+        }
+        return pmf[index];
+    }
+
+    // Return the probability of x or fewer unique items
+    public double cumulativeProbability(int x) {
+        int lastIndex = x - offset;
+        if (lastIndex < 0) {
+            return 0;
+        }
+        if (lastIndex >= pmf.length - 1) {
+            return 1;
+        }
+
+        double cumProb = 0;
+        for (int i = 0; i <= lastIndex; i++) {
+            cumProb += pmf[i];
+        }
+        return Math.min(1, cumProb);
+    }
+
+    public double getMean() {
+        return probabilities.stream().mapToDouble(Double::doubleValue).sum();
+    }
+
+    private static class TruncatedPmf {
+        private final int offset;
+        private final double[] pmf;
+
+        private TruncatedPmf(int offset, double[] pmf) {
+            this.offset = offset;
+            this.pmf = pmf;
+        }
+
+        private static TruncatedPmf truncate(int offset, double[] pmf) {
+            int start = 0;
+            while (start < pmf.length - 1 && pmf[start] < SUPPORT_TRUNCATION_THRESHOLD) {
+                start++;
+            }
+            int end = pmf.length - 1;
+            while (end > start && pmf[end] < SUPPORT_TRUNCATION_THRESHOLD) {
+                end--;
+            }
+            if (start == 0 && end == pmf.length - 1) {
+                return new TruncatedPmf(offset, pmf);
+            }
+
+            double[] truncated = new double[end - start + 1];
+            System.arraycopy(pmf, start, truncated, 0, truncated.length);
+            return new TruncatedPmf(offset + start, truncated);
+        }
+    }
+
+}
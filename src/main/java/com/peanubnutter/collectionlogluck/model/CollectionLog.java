@@ -6,8 +6,12 @@ import lombok.Setter;
 import net.runelite.client.util.Text;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Getter
 @AllArgsConstructor
@@ -29,9 +33,14 @@ public class CollectionLog
 
     private final Map<String, CollectionLogTab> tabs;
 
+    // Lookups are cached, and luck may be calculated from several threads at once, so the caches are only used while
+    // holding this log's lock
     private final Map<String, CollectionLogItem> collectionLogItemCache = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
     private final Map<String, CollectionLogKillCount> collectionLogKillCountCache = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
 
+    // A copy of this log that is never modified, for calculations on other threads. Replaced after every correction.
+    private final AtomicReference<CollectionLog> snapshot = new AtomicReference<>();
+
     public CollectionLogPage searchForPage(String pageName)
     {
         if (StringUtils.isEmpty(pageName))
@@ -52,7 +61,7 @@ public class CollectionLog
         return null;
     }
 
-    public CollectionLogItem searchForItem(String itemName) {
+    public synchronized CollectionLogItem searchForItem(String itemName) {
         if (StringUtils.isEmpty(itemName)) {
             return null;
         }
@@ -81,7 +90,7 @@ public class CollectionLog
         return collectionLogItemCache.get(itemName);
     }
 
-    public CollectionLogKillCount searchForKillCount(String killCountName) {
+    public synchronized CollectionLogKillCount searchForKillCount(String killCountName) {
         if (StringUtils.isEmpty(killCountName)) {
             return null;
         }
@@ -121,4 +130,60 @@ public class CollectionLog
         return collectionLogKillCountCache.get(killCountName);
     }
 
-}
\ No newline at end of file
+    /**
+     * Return a copy of this log that is never modified, so that luck can be calculated on other threads while this log
+     * is corrected. The same copy is returned until the next correction, so this is cheap to call often.
+     */
+    public synchronized CollectionLog getSnapshot() {
+        CollectionLog currentSnapshot = snapshot.get();
+        if (currentSnapshot == null) {
+            currentSnapshot = copy();
+            snapshot.set(currentSnapshot);
+        }
+        return currentSnapshot;
+    }
+
+    // Corrections must go through these methods rather than the item's or KC's setters, so that snapshots taken before
+    // the correction are left unchanged and later snapshots see it.
+    public synchronized void correctItemQuantity(CollectionLogItem item, int quantity) {
+        item.setQuantity(quantity);
+        snapshot.set(null);
+    }
+
+    public synchronized void correctKillCount(CollectionLogKillCount killCount, int amount) {
+        killCount.setAmount(amount);
+        snapshot.set(null);
+    }
+
+    private CollectionLog copy() {
+        Map<String, CollectionLogTab> tabsCopy = new LinkedHashMap<>();
+        for (Map.Entry<String, CollectionLogTab> tabEntry : tabs.entrySet()) {
+            CollectionLogTab tab = tabEntry.getValue();
+            Map<String, CollectionLogPage> pagesCopy = new LinkedHashMap<>();
+
+            for (Map.Entry<String, CollectionLogPage> pageEntry : tab.getPages().entrySet()) {
+                CollectionLogPage page = pageEntry.getValue();
+
+                List<CollectionLogItem> itemsCopy = new ArrayList<>();
+                for (CollectionLogItem item : page.getItems()) {
+                    itemsCopy.add(item.copy());
+                }
+                List<CollectionLogKillCount> killCountsCopy = new ArrayList<>();
+                for (CollectionLogKillCount killCount : page.getKillCounts()) {
+                    killCountsCopy.add(new CollectionLogKillCount(killCount.getName(), killCount.getAmount(),
+                            killCount.getSequence()));
+                }
+
+                pagesCopy.put(pageEntry.getKey(),
+                        new CollectionLogPage(page.getName(), itemsCopy, killCountsCopy, page.isUpdated()));
+            }
+            tabsCopy.put(tabEntry.getKey(), new CollectionLogTab(tab.getName(), pagesCopy));
+        }
+
+        CollectionLog copy = new CollectionLog(username, totalObtained, totalItems, uniqueObtained, uniqueItems, tabsCopy);
+        // A snapshot is already unchanging, so it is its own snapshot
+        copy.snapshot.set(copy);
+        return copy;
+    }
+
+}
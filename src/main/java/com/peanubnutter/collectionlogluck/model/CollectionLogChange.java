@@ -0,0 +1,28 @@
+package com.peanubnutter.collectionlogluck.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// A correction made to a loaded collection log, e.g. because an item count seen in game differs from the loaded log.
+@Getter
+@AllArgsConstructor
+public class CollectionLogChange
+{
+    public enum Type
+    {
+        ITEM_QUANTITY,
+        KILL_COUNT
+    }
+
+    private final Type type;
+
+    // The item's name or the kill count's name
+    private final String name;
+
+    // The item's ID, or -1 for kill counts
+    private final int itemId;
+
+    private final int oldValue;
+
+    private final int newValue;
+}
@@ -23,6 +23,11 @@ public class CollectionLogItem
 
     private final int sequence;
 
+    public CollectionLogItem copy()
+    {
+        return new CollectionLogItem(id, name, quantity, obtained, sequence);
+    }
+
     public static CollectionLogItem fromItemComposition(ItemComposition itemComposition, Integer sequence)
     {
         return new CollectionLogItem(
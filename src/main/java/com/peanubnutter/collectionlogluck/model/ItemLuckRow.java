@@ -0,0 +1,25 @@
+package com.peanubnutter.collectionlogluck.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// One item's calculated luck, as listed in the luck panel
+@Getter
+@AllArgsConstructor
+public class ItemLuckRow {
+
+    private final int itemId;
+
+    private final String itemName;
+
+    private final int quantity;
+
+    private final String killCountDescription;
+
+    private final double luck;
+
+    private final double dryness;
+
+    private final double overallLuck;
+
+}
@@ -0,0 +1,109 @@
+package com.peanubnutter.collectionlogluck.source;
+
+import com.peanubnutter.collectionlogluck.model.CollectionLog;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Collects the usernames requested within a short window and fetches them all in one batch. In a busy chat, every
+// player who uses !luck around the same time is then fetched in a single round trip.
+public class BatchingCollectionLogSource implements CollectionLogSource {
+
+    private final CollectionLogSource delegate;
+    private final ScheduledExecutorService scheduler;
+    private final long batchWindowMillis;
+    private final int maxBatchSize;
+
+    // username -> futures waiting for the next batch. Guarded by this.
+    private Map<String, List<CompletableFuture<CollectionLog>>> pendingRequests = new LinkedHashMap<>();
+    private boolean batchScheduled = false;
+
+    /**
+     * @param delegate          The source that fetches each batch
+     * @param scheduler         Used to wait for the batch window. Must not be blocked by callers waiting for logs.
+     * @param batchWindowMillis How long to wait for more usernames after the first username of a batch
+     * @param maxBatchSize      Batches are sent early once they reach this many usernames
+     */
+    public BatchingCollectionLogSource(CollectionLogSource delegate, ScheduledExecutorService scheduler,
+                                       long batchWindowMillis, int maxBatchSize) {
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+        this.batchWindowMillis = batchWindowMillis;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    public CompletableFuture<Map<String, CollectionLog>> fetchCollectionLogs(Collection<String> usernames) {
+        Map<String, CompletableFuture<CollectionLog>> futures = new HashMap<>();
+        for (String username : usernames) {
+            futures.put(username, fetchCollectionLog(username));
+        }
+
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0]))
+                .thenApply(v -> {
+                    Map<String, CollectionLog> collectionLogs = new HashMap<>();
+                    futures.forEach((username, future) -> {
+                        CollectionLog collectionLog = future.join();
+                        if (collectionLog != null) {
+                            collectionLogs.put(username, collectionLog);
+                        }
+                    });
+                    return collectionLogs;
+                });
+    }
+
+    @Override
+    public CompletableFuture<CollectionLog> fetchCollectionLog(String username) {
+        CompletableFuture<CollectionLog> future = new CompletableFuture<>();
+
+        boolean sendNow = false;
+        synchronized (this) {
+            pendingRequests.computeIfAbsent(username, u -> new ArrayList<>()).add(future);
+            if (pendingRequests.size() >= maxBatchSize) {
+                sendNow = true;
+            } else if (!batchScheduled) {
+                batchScheduled = true;
+                scheduler.schedule(this::sendBatch, batchWindowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (sendNow) {
+            sendBatch();
+        }
+
+        return future;
+    }
+
+    private void sendBatch() {
+        Map<String, List<CompletableFuture<CollectionLog>>> batch;
+        synchronized (this) {
+            if (pendingRequests.isEmpty()) {
+                // Already sent early because the batch was full
+                batchScheduled = false;
+                return;
+            }
+            batch = pendingRequests;
+            pendingRequests = new LinkedHashMap<>();
+            batchScheduled = false;
+        }
+
+        delegate.fetchCollectionLogs(batch.keySet()).whenComplete((collectionLogs, e) -> {
+            batch.forEach((username, futures) -> {
+                for (CompletableFuture<CollectionLog> future : futures) {
+                    if (e != null) {
+                        future.completeExceptionally(e);
+                    } else {
+                        future.complete(collectionLogs.get(username));
+                    }
+                }
+            });
+        });
+    }
+
+}
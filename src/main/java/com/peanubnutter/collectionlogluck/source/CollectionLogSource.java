@@ -0,0 +1,32 @@
+package com.peanubnutter.collectionlogluck.source;
+
+import com.peanubnutter.collectionlogluck.model.CollectionLog;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// Somewhere collection logs can be loaded from, e.g. logs captured in game, a remote server, or placeholder logs.
+public interface CollectionLogSource {
+
+    /**
+     * Fetch the collection logs of many players at once, ideally in a single request.
+     *
+     * @param usernames Sanitized usernames
+     * @return A map of username to collection log. Usernames this source has no log for are left out.
+     */
+    CompletableFuture<Map<String, CollectionLog>> fetchCollectionLogs(Collection<String> usernames);
+
+    /**
+     * Fetch a single player's collection log.
+     *
+     * @param username Sanitized username
+     * @return The collection log, or null if this source has no log for the player
+     */
+    default CompletableFuture<CollectionLog> fetchCollectionLog(String username) {
+        return fetchCollectionLogs(Collections.singletonList(username))
+                .thenApply(collectionLogs -> collectionLogs.get(username));
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.peanubnutter.collectionlogluck.source;
+
+import com.peanubnutter.collectionlogluck.model.CollectionLog;
+import com.peanubnutter.collectionlogluck.util.CollectionLogBuilder;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// A last resort that returns a log with every item at 0, which is then filled in from what is seen in game.
+public class EmptyCollectionLogSource implements CollectionLogSource {
+
+    @Override
+    public CompletableFuture<Map<String, CollectionLog>> fetchCollectionLogs(Collection<String> usernames) {
+        Map<String, CollectionLog> collectionLogs = new HashMap<>();
+        for (String username : usernames) {
+            collectionLogs.put(username, CollectionLogBuilder.getEmptyCollectionLog(username));
+        }
+        return CompletableFuture.completedFuture(collectionLogs);
+    }
+
+}
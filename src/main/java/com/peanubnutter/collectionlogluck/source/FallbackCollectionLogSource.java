@@ -0,0 +1,55 @@
+package com.peanubnutter.collectionlogluck.source;
+
+import com.peanubnutter.collectionlogluck.model.CollectionLog;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// Tries each source in order, asking each source only for the usernames that earlier sources did not have. A source
+// that fails is treated as having no logs.
+@Slf4j
+public class FallbackCollectionLogSource implements CollectionLogSource {
+
+    private final List<CollectionLogSource> sources;
+
+    public FallbackCollectionLogSource(List<CollectionLogSource> sources) {
+        this.sources = new ArrayList<>(sources);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, CollectionLog>> fetchCollectionLogs(Collection<String> usernames) {
+        return fetchFromSource(0, new ArrayList<>(usernames), new HashMap<>());
+    }
+
+    private CompletableFuture<Map<String, CollectionLog>> fetchFromSource(int sourceIndex,
+                                                                          List<String> remainingUsernames,
+                                                                          Map<String, CollectionLog> found) {
+        if (sourceIndex >= sources.size() || remainingUsernames.isEmpty()) {
+            return CompletableFuture.completedFuture(found);
+        }
+
+        return sources.get(sourceIndex).fetchCollectionLogs(remainingUsernames)
+                .exceptionally(e -> {
+                    log.warn("Unable to fetch collection logs: " + e.getMessage());
+                    return new HashMap<>();
+                })
+                .thenCompose(collectionLogs -> {
+                    List<String> stillMissing = new ArrayList<>();
+                    for (String username : remainingUsernames) {
+                        CollectionLog collectionLog = collectionLogs.get(username);
+                        if (collectionLog != null) {
+                            found.put(username, collectionLog);
+                        } else {
+                            stillMissing.add(username);
+                        }
+                    }
+                    return fetchFromSource(sourceIndex + 1, stillMissing, found);
+                });
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.peanubnutter.collectionlogluck.source;
+
+import com.peanubnutter.collectionlogluck.model.CollectionLog;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Collection logs that were read on this machine, e.g. by capturing the player's whole collection log in game.
+public class LocalCollectionLogSource implements CollectionLogSource {
+
+    private final Map<String, CollectionLog> collectionLogs = new ConcurrentHashMap<>();
+
+    public void put(String username, CollectionLog collectionLog) {
+        collectionLogs.put(username.toLowerCase(), collectionLog);
+    }
+
+    public void clear() {
+        collectionLogs.clear();
+    }
+
+    @Override
+    public CompletableFuture<Map<String, CollectionLog>> fetchCollectionLogs(Collection<String> usernames) {
+        Map<String, CollectionLog> found = new HashMap<>();
+        for (String username : usernames) {
+            CollectionLog collectionLog = collectionLogs.get(username.toLowerCase());
+            if (collectionLog != null) {
+                found.put(username, collectionLog);
+            }
+        }
+        return CompletableFuture.completedFuture(found);
+    }
+
+}
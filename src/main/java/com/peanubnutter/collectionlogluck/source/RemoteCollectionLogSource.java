@@ -0,0 +1,187 @@
+package com.peanubnutter.collectionlogluck.source;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.peanubnutter.collectionlogluck.model.CollectionLog;
+import com.peanubnutter.collectionlogluck.util.CollectionLogDeserializer;
+import com.peanubnutter.collectionlogluck.util.CollectionLogLuckApiClient;
+import com.peanubnutter.collectionlogluck.util.JsonUtils;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.RuneLite;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.Response;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Collection logs from a log server, fetching every requested username in a single request. Each log is also cached on
+// disk, so re-logging or hopping worlds does not download every log again. Only usernames without a recent cached log
+// are sent to the server.
+@Slf4j
+public class RemoteCollectionLogSource implements CollectionLogSource {
+
+    // Each log in the response may be wrapped like collectionlog.net's single user responses
+    private static final String COLLECTION_LOG_KEY = "collectionLog";
+
+    private static final File COLLECTION_LOG_CACHE_DIR = new File(RuneLite.CACHE_DIR, "collection-log-luck");
+    // How long a cached collection log is used without asking the server again
+    private static final long DEFAULT_CACHE_TTL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final CollectionLogLuckApiClient apiClient;
+    private final JsonUtils jsonUtils;
+    private final HttpUrl serverUrl;
+    private final File cacheDir;
+    private final long cacheTtlMillis;
+
+    public RemoteCollectionLogSource(CollectionLogLuckApiClient apiClient, JsonUtils jsonUtils, HttpUrl serverUrl) {
+        this(apiClient, jsonUtils, serverUrl, new File(COLLECTION_LOG_CACHE_DIR, encodeFileName(serverUrl.toString())),
+                DEFAULT_CACHE_TTL_MILLIS);
+    }
+
+    // Also used to cache logs in a temporary directory in tests
+    RemoteCollectionLogSource(CollectionLogLuckApiClient apiClient, JsonUtils jsonUtils, HttpUrl serverUrl,
+                              File cacheDir, long cacheTtlMillis) {
+        this.apiClient = apiClient;
+        this.jsonUtils = jsonUtils;
+        this.serverUrl = serverUrl;
+        this.cacheDir = cacheDir;
+        this.cacheTtlMillis = cacheTtlMillis;
+    }
+
+    @Override
+    public CompletableFuture<Map<String, CollectionLog>> fetchCollectionLogs(Collection<String> usernames) {
+        Map<String, CollectionLog> collectionLogs = new HashMap<>();
+        // Lowercased, like LocalCollectionLogSource, since the server may not return names as they were requested.
+        // Results are keyed by the requested names, so that Batching and Fallback sources find them.
+        Map<String, String> missingUsernames = new HashMap<>();
+        for (String username : usernames) {
+            String key = username.toLowerCase();
+            CollectionLog collectionLog = parseCollectionLog(username, readCachedCollectionLog(key));
+            if (collectionLog != null) {
+                collectionLogs.put(username, collectionLog);
+            } else {
+                missingUsernames.put(key, username);
+            }
+        }
+        if (missingUsernames.isEmpty()) {
+            return CompletableFuture.completedFuture(collectionLogs);
+        }
+
+        CompletableFuture<Map<String, CollectionLog>> future = new CompletableFuture<>();
+        apiClient.getCollectionLogs(serverUrl, new ArrayList<>(missingUsernames.keySet()), new Callback() {
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) {
+                try (Response r = response) {
+                    JsonObject collectionLogsJson = apiClient.processResponse(r);
+                    if (collectionLogsJson == null) {
+                        future.completeExceptionally(new IOException("Unexpected response: " + r.code()));
+                        return;
+                    }
+                    for (Map.Entry<String, JsonElement> entry : collectionLogsJson.entrySet()) {
+                        String key = entry.getKey().toLowerCase();
+                        String username = missingUsernames.get(key);
+                        if (username == null || !entry.getValue().isJsonObject()) {
+                            continue;
+                        }
+                        JsonObject collectionLogJson = entry.getValue().getAsJsonObject();
+                        CollectionLog collectionLog = parseCollectionLog(username, collectionLogJson);
+                        if (collectionLog != null) {
+                            collectionLogs.put(username, collectionLog);
+                            writeCachedCollectionLog(key, collectionLogJson);
+                        }
+                    }
+                    future.complete(collectionLogs);
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            }
+        });
+
+        return future;
+    }
+
+    private CollectionLog parseCollectionLog(String username, JsonObject collectionLogJson) {
+        if (collectionLogJson == null) {
+            return null;
+        }
+        if (collectionLogJson.has(COLLECTION_LOG_KEY)) {
+            collectionLogJson = collectionLogJson.getAsJsonObject(COLLECTION_LOG_KEY);
+        }
+        try {
+            return jsonUtils.fromJsonObject(collectionLogJson, CollectionLog.class, new CollectionLogDeserializer());
+        } catch (RuntimeException e) {
+            log.warn("Unable to parse collection log for " + username + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Return the cached log, or null if there is none or it is older than the TTL
+    private JsonObject readCachedCollectionLog(String key) {
+        File cacheFile = getCacheFile(key);
+        if (System.currentTimeMillis() - cacheFile.lastModified() > cacheTtlMillis) {
+            // Also covers missing files, whose lastModified is 0
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(cacheFile.toPath(), StandardCharsets.UTF_8)) {
+            return new JsonParser().parse(reader).getAsJsonObject();
+        } catch (IOException | RuntimeException e) {
+            log.debug("Unable to read cached collection log for " + key + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Written to a temporary file first, so that readers never see a partly written log
+    private void writeCachedCollectionLog(String key, JsonObject collectionLogJson) {
+        try {
+            Files.createDirectories(cacheDir.toPath());
+            Path tmp = Files.createTempFile(cacheDir.toPath(), "collection-log", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                writer.write(collectionLogJson.toString());
+            } catch (IOException e) {
+                Files.deleteIfExists(tmp);
+                throw e;
+            }
+            Files.move(tmp, getCacheFile(key).toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.debug("Unable to cache collection log for " + key + ": " + e.getMessage());
+        }
+    }
+
+    private File getCacheFile(String key) {
+        return new File(cacheDir, encodeFileName(key) + ".json");
+    }
+
+    // Usernames and URLs may contain characters that are not allowed in file names
+    private static String encodeFileName(String name) {
+        try {
+            return URLEncoder.encode(name, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
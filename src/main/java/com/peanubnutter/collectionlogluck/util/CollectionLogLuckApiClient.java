@@ -1,5 +1,6 @@
 package com.peanubnutter.collectionlogluck.util;
 
+import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.peanubnutter.collectionlogluck.CollectionLogLuckConfig;
@@ -9,35 +10,57 @@ import okhttp3.*;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.IOException;
+import java.io.Reader;
+import java.util.Collection;
 
+// OkHttp requests and decompresses gzip responses transparently. Collection logs are cached on disk by
+// RemoteCollectionLogSource, since OkHttp does not cache the responses of batched POST requests.
 @Slf4j
 @Singleton
 public class CollectionLogLuckApiClient
 {
-	private static final String COLLECTION_LOG_API_BASE = "api.collectionlog.net";
-	private static final String COLLECTION_LOG_API_SCHEME = "https";
-	private static final String COLLECTION_LOG_USER_PATH = "user";
 	private static final String COLLECTION_LOG_LOG_PATH = "collectionlog";
+	private static final String COLLECTION_LOG_USERS_PATH = "users";
+	private static final String COLLECTION_LOG_USERNAMES_KEY = "usernames";
+	private static final MediaType JSON_MEDIA_TYPE = MediaType.parse("application/json; charset=utf-8");
 	// Use a separate user agent to distinguish collection-log plugin from collection-log-luck plugin
 	private static final String COLLECTION_LOG_LUCK_USER_AGENT = "Runelite collection-log-luck/" + CollectionLogLuckConfig.COLLECTION_LOG_VERSION;
 
 	@Inject
 	private CollectionLogLuckConfig config;
 
+	private final OkHttpClient okHttpClient;
+
 	@Inject
-	private OkHttpClient okHttpClient;
+	public CollectionLogLuckApiClient(OkHttpClient okHttpClient)
+	{
+		this.okHttpClient = okHttpClient;
+	}
 
-	public void getCollectionLog(String username, Callback callback) throws IOException
+	/**
+	 * Request many collection logs in one round trip. The response is a JSON object of username -> collection log, and
+	 * leaves out usernames that the server has no log for.
+	 *
+	 * @param serverUrl Base URL of a log server that supports batched requests
+	 * @param usernames Sanitized usernames
+	 * @param callback  Called with the response
+	 */
+	public void getCollectionLogs(HttpUrl serverUrl, Collection<String> usernames, Callback callback)
 	{
-		HttpUrl url = new HttpUrl.Builder()
-			.scheme(COLLECTION_LOG_API_SCHEME)
-			.host(COLLECTION_LOG_API_BASE)
+		HttpUrl url = serverUrl.newBuilder()
 			.addPathSegment(COLLECTION_LOG_LOG_PATH)
-			.addPathSegment(COLLECTION_LOG_USER_PATH)
-			.addEncodedPathSegment(username)
+			.addPathSegment(COLLECTION_LOG_USERS_PATH)
 			.build();
 
-		getRequest(url, callback);
+		JsonArray usernamesJson = new JsonArray();
+		usernames.forEach(usernamesJson::add);
+		JsonObject body = new JsonObject();
+		body.add(COLLECTION_LOG_USERNAMES_KEY, usernamesJson);
+
+		Request request = createRequestBuilder(url)
+			.post(RequestBody.create(JSON_MEDIA_TYPE, body.toString()))
+			.build();
+		apiRequest(request, callback);
 	}
 
 	private Request.Builder createRequestBuilder(HttpUrl url)
@@ -47,14 +70,6 @@ public class CollectionLogLuckApiClient
 			.url(url);
 	}
 
-	private void getRequest(HttpUrl url, Callback callback)
-	{
-		Request request = createRequestBuilder(url)
-			.get()
-			.build();
-		apiRequest(request, callback);
-	}
-
 	private void apiRequest(Request request, Callback callback)
 	{
 		okHttpClient.newCall(request).enqueue(callback);
@@ -72,6 +87,10 @@ public class CollectionLogLuckApiClient
 		{
 			return null;
 		}
-		return new JsonParser().parse(resBody.string()).getAsJsonObject();
+		// Parse while reading, rather than holding the whole log in memory as a String first
+		try (Reader reader = resBody.charStream())
+		{
+			return new JsonParser().parse(reader).getAsJsonObject();
+		}
 	}
 }
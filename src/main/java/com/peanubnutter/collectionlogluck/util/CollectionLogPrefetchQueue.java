@@ -0,0 +1,81 @@
+package com.peanubnutter.collectionlogluck.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Predicate;
+
+// Players who were recently active nearby (e.g. chatting in a clan or friends chat) and are likely to use !luck soon.
+// Their collection logs are fetched in the background a few at a time, most recently active first, so that their
+// !luck replies can be answered from memory. Only the most recently active players are remembered.
+//
+// Methods may be called from any thread.
+public class CollectionLogPrefetchQueue {
+
+    private final int maxPendingUsernames;
+    private final int maxPrefetchesPerPoll;
+
+    // Usernames waiting to be prefetched, least recently active first
+    private final LinkedHashSet<String> pendingUsernames = new LinkedHashSet<>();
+
+    /**
+     * @param maxPendingUsernames  The number of usernames remembered. Less recently active players are forgotten.
+     * @param maxPrefetchesPerPoll The number of usernames returned by each poll
+     */
+    public CollectionLogPrefetchQueue(int maxPendingUsernames, int maxPrefetchesPerPoll) {
+        if (maxPendingUsernames <= 0 || maxPrefetchesPerPoll <= 0) {
+            throw new IllegalArgumentException("Prefetch limits must be > 0");
+        }
+        this.maxPendingUsernames = maxPendingUsernames;
+        this.maxPrefetchesPerPoll = maxPrefetchesPerPoll;
+    }
+
+    // Note that the player was just active
+    public synchronized void offer(String username) {
+        // Re-inserting moves the username to the most recently active end
+        pendingUsernames.remove(username);
+        pendingUsernames.add(username);
+
+        if (pendingUsernames.size() > maxPendingUsernames) {
+            Iterator<String> leastRecentlyActive = pendingUsernames.iterator();
+            leastRecentlyActive.next();
+            leastRecentlyActive.remove();
+        }
+    }
+
+    /**
+     * Remove the usernames to prefetch now.
+     *
+     * @param alreadyLoaded Usernames whose logs are loaded or loading already. These are dropped without counting
+     *                      towards the limit.
+     * @return Up to maxPrefetchesPerPoll usernames, most recently active first
+     */
+    public synchronized List<String> poll(Predicate<String> alreadyLoaded) {
+        List<String> usernamesToPrefetch = new ArrayList<>();
+
+        List<String> mostRecentlyActiveFirst = new ArrayList<>(pendingUsernames);
+        for (int i = mostRecentlyActiveFirst.size() - 1; i >= 0 && usernamesToPrefetch.size() < maxPrefetchesPerPoll; i--) {
+            String username = mostRecentlyActiveFirst.get(i);
+            pendingUsernames.remove(username);
+            if (!alreadyLoaded.test(username)) {
+                usernamesToPrefetch.add(username);
+            }
+        }
+
+        return usernamesToPrefetch;
+    }
+
+    public synchronized int size() {
+        return pendingUsernames.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return pendingUsernames.isEmpty();
+    }
+
+    public synchronized void clear() {
+        pendingUsernames.clear();
+    }
+
+}
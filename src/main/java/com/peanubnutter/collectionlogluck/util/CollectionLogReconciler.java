@@ -0,0 +1,126 @@
+package com.peanubnutter.collectionlogluck.util;
+
+import com.peanubnutter.collectionlogluck.CollectionLogLuckConfig;
+import com.peanubnutter.collectionlogluck.luck.LogItemInfo;
+import com.peanubnutter.collectionlogluck.model.CollectionLog;
+import com.peanubnutter.collectionlogluck.model.CollectionLogChange;
+import com.peanubnutter.collectionlogluck.model.CollectionLogItem;
+import com.peanubnutter.collectionlogluck.model.CollectionLogKillCount;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+// Keeps track of item counts and kill counts seen in game, and corrects a loaded collection log that is out of date.
+// Only counts that changed since the last reconciliation are checked, so reopening the collection log with unchanged
+// counts costs nothing.
+public class CollectionLogReconciler {
+
+    // Map of the player's seen item counts and boss KC in the collection log
+    private final Map<Integer, Integer> seenItemCounts = new HashMap<>();
+    private final Map<String, Integer> seenKillCounts = new HashMap<>();
+
+    // Seen counts that have not yet been applied to the collection log
+    private final Set<Integer> dirtyItemIds = new LinkedHashSet<>();
+    private final Set<String> dirtyKillCounts = new LinkedHashSet<>();
+
+    // The collection log that the seen counts were last applied to. If a different log is loaded, every seen count
+    // must be applied again.
+    private CollectionLog reconciledCollectionLog;
+
+    public synchronized void recordItemCount(int itemId, int quantity) {
+        Integer previousQuantity = seenItemCounts.put(itemId, quantity);
+        if (!Objects.equals(previousQuantity, quantity)) {
+            dirtyItemIds.add(itemId);
+        }
+    }
+
+    public synchronized void recordKillCount(String killCountName, int amount) {
+        Integer previousAmount = seenKillCounts.put(killCountName, amount);
+        if (!Objects.equals(previousAmount, amount)) {
+            dirtyKillCounts.add(killCountName);
+        }
+    }
+
+    // Re-check every seen count on the next reconciliation, e.g. after a config change makes more items calculable
+    public synchronized void markAllDirty() {
+        dirtyItemIds.addAll(seenItemCounts.keySet());
+        dirtyKillCounts.addAll(seenKillCounts.keySet());
+    }
+
+    public synchronized boolean hasPendingChanges() {
+        return !dirtyItemIds.isEmpty() || !dirtyKillCounts.isEmpty();
+    }
+
+    /**
+     * Apply any seen counts that changed since the last reconciliation to the collection log.
+     *
+     * @param collectionLog The collection log to correct
+     * @param config        The config used to skip unsupported items
+     * @return Every correction made to the collection log
+     */
+    public synchronized List<CollectionLogChange> reconcile(CollectionLog collectionLog, CollectionLogLuckConfig config) {
+        if (collectionLog != reconciledCollectionLog) {
+            markAllDirty();
+            reconciledCollectionLog = collectionLog;
+        }
+        if (!hasPendingChanges()) {
+            return Collections.emptyList();
+        }
+
+        List<CollectionLogChange> changes = new ArrayList<>();
+
+        // check obtained item counts
+        for (Integer itemId : dirtyItemIds) {
+            LogItemInfo logItemInfo = LogItemInfo.findByItemId(itemId);
+            if (logItemInfo == null) continue;
+
+            CollectionLogItem item = collectionLog.searchForItem(logItemInfo.getItemName());
+            if (item == null) continue;
+
+            // Out of date unsupported drops don't matter
+            String incalculableReason = logItemInfo.getDropProbabilityDistribution().getIncalculableReason(item, config);
+            if (incalculableReason != null) continue;
+
+            // Whatever is seen in game should be authoritative, so use the in-game value even if the collectionlog.net
+            // has a higher value. This also protects against corrupt (or manipulated) data on collectionlog.net.
+            int seenQuantity = seenItemCounts.get(itemId);
+            if (seenQuantity != item.getQuantity()) {
+                changes.add(new CollectionLogChange(CollectionLogChange.Type.ITEM_QUANTITY,
+                        item.getName(), itemId, item.getQuantity(), seenQuantity));
+                collectionLog.correctItemQuantity(item, seenQuantity);
+            }
+        }
+        dirtyItemIds.clear();
+
+        // check kill counts
+        for (String dropSource : dirtyKillCounts) {
+            CollectionLogKillCount collectionLogKc = collectionLog.searchForKillCount(dropSource);
+            if (collectionLogKc == null) continue;
+
+            int seenAmount = seenKillCounts.get(dropSource);
+            if (seenAmount != collectionLogKc.getAmount()) {
+                changes.add(new CollectionLogChange(CollectionLogChange.Type.KILL_COUNT,
+                        collectionLogKc.getName(), -1, collectionLogKc.getAmount(), seenAmount));
+                collectionLog.correctKillCount(collectionLogKc, seenAmount);
+            }
+        }
+        dirtyKillCounts.clear();
+
+        return changes;
+    }
+
+    public synchronized void clear() {
+        seenItemCounts.clear();
+        seenKillCounts.clear();
+        dirtyItemIds.clear();
+        dirtyKillCounts.clear();
+        reconciledCollectionLog = null;
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.peanubnutter.collectionlogluck.util;
+
+import com.peanubnutter.collectionlogluck.model.ItemLuckRow;
+
+import javax.swing.AbstractListModel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+// The rows of the luck panel, filtered and sorted. Rows are added in batches as they are calculated, and a JList only
+// renders the visible rows, so even a list of every item is cheap to show while it is still being calculated.
+//
+// Like any Swing model, this must only be used on the event dispatch thread.
+public class ItemLuckListModel extends AbstractListModel<ItemLuckRow> {
+
+    public enum SortOrder {
+        NAME("Name", Comparator.comparing(row -> row.getItemName().toLowerCase())),
+        LUCKIEST("Luckiest first", Comparator.comparingDouble(ItemLuckRow::getOverallLuck).reversed()),
+        DRIEST("Driest first", Comparator.comparingDouble(ItemLuckRow::getOverallLuck)),
+        QUANTITY("Most obtained first", Comparator.comparingInt(ItemLuckRow::getQuantity).reversed());
+
+        private final String displayName;
+        private final Comparator<ItemLuckRow> comparator;
+
+        SortOrder(String displayName, Comparator<ItemLuckRow> comparator) {
+            this.displayName = displayName;
+            this.comparator = comparator;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
+    private final List<ItemLuckRow> allRows = new ArrayList<>();
+
+    private List<ItemLuckRow> visibleRows = new ArrayList<>();
+
+    private String filterText = "";
+
+    private SortOrder sortOrder = SortOrder.NAME;
+
+    public void addRows(Collection<ItemLuckRow> rows) {
+        allRows.addAll(rows);
+        updateVisibleRows();
+    }
+
+    public void clear() {
+        allRows.clear();
+        updateVisibleRows();
+    }
+
+    // Only show rows whose item name or KC contains this text, ignoring case
+    public void setFilterText(String filterText) {
+        this.filterText = filterText == null ? "" : filterText.trim().toLowerCase();
+        updateVisibleRows();
+    }
+
+    public void setSortOrder(SortOrder sortOrder) {
+        this.sortOrder = sortOrder;
+        updateVisibleRows();
+    }
+
+    // The number of rows, including those hidden by the filter
+    public int getNumRows() {
+        return allRows.size();
+    }
+
+    @Override
+    public int getSize() {
+        return visibleRows.size();
+    }
+
+    @Override
+    public ItemLuckRow getElementAt(int index) {
+        return visibleRows.get(index);
+    }
+
+    private void updateVisibleRows() {
+        int oldSize = visibleRows.size();
+
+        List<ItemLuckRow> newVisibleRows = new ArrayList<>();
+        for (ItemLuckRow row : allRows) {
+            if (matchesFilter(row)) {
+                newVisibleRows.add(row);
+            }
+        }
+        newVisibleRows.sort(sortOrder.comparator.thenComparing(ItemLuckRow::getItemName));
+        visibleRows = newVisibleRows;
+
+        int newSize = visibleRows.size();
+        if (newSize > oldSize) {
+            fireIntervalAdded(this, oldSize, newSize - 1);
+        } else if (newSize < oldSize) {
+            fireIntervalRemoved(this, newSize, oldSize - 1);
+        }
+        if (Math.min(oldSize, newSize) > 0) {
+            fireContentsChanged(this, 0, Math.min(oldSize, newSize) - 1);
+        }
+    }
+
+    private boolean matchesFilter(ItemLuckRow row) {
+        return filterText.isEmpty()
+                || row.getItemName().toLowerCase().contains(filterText)
+                || row.getKillCountDescription().toLowerCase().contains(filterText);
+    }
+
+}
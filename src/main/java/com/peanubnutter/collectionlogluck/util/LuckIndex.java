@@ -0,0 +1,156 @@
+package com.peanubnutter.collectionlogluck.util;
+
+import com.peanubnutter.collectionlogluck.model.ItemLuckRow;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// The luck of every item in one collection log, for finding the luckiest or driest few items without sorting every
+// item. Each item remembers the inputs (e.g. quantity and KC) it was calculated from, so only items whose inputs
+// changed need to be calculated again.
+//
+// Rows are kept in a max-heap and a min-heap by overall luck. Replacing or removing a row leaves its old heap entries
+// behind, which are skipped by queries and dropped once they outnumber the current rows.
+public class LuckIndex {
+
+    private static final Comparator<Entry> LUCKIEST_FIRST = Comparator
+            .comparingDouble((Entry entry) -> entry.row.getOverallLuck()).reversed()
+            .thenComparing(entry -> entry.row.getItemName());
+    private static final Comparator<Entry> DRIEST_FIRST = Comparator
+            .comparingDouble((Entry entry) -> entry.row.getOverallLuck())
+            .thenComparing(entry -> entry.row.getItemName());
+
+    private static class Entry {
+        private final String inputsId;
+        // null if the item's luck cannot be calculated
+        private final ItemLuckRow row;
+
+        private Entry(String inputsId, ItemLuckRow row) {
+            this.inputsId = inputsId;
+            this.row = row;
+        }
+    }
+
+    // item name -> current entry
+    private final Map<String, Entry> currentEntries = new HashMap<>();
+
+    private final Heap luckiest = new Heap(LUCKIEST_FIRST);
+
+    private final Heap driest = new Heap(DRIEST_FIRST);
+
+    // Number of rows, excluding items whose luck cannot be calculated
+    private int numRows;
+
+    // Whether the item's current row was calculated from these inputs, so does not need to be calculated again
+    public boolean isUpToDate(String itemName, String inputsId) {
+        Entry entry = currentEntries.get(itemName);
+        return entry != null && entry.inputsId.equals(inputsId);
+    }
+
+    /**
+     * Replace the item's row.
+     *
+     * @param itemName The item's name
+     * @param inputsId Identifies the inputs the row was calculated from
+     * @param row      The item's luck, or null if its luck cannot be calculated from these inputs
+     */
+    public void update(String itemName, String inputsId, ItemLuckRow row) {
+        Entry entry = new Entry(inputsId, row);
+        Entry oldEntry = currentEntries.put(itemName, entry);
+        if (oldEntry != null && oldEntry.row != null) {
+            numRows--;
+            luckiest.numStaleEntries++;
+            driest.numStaleEntries++;
+        }
+        if (row != null) {
+            numRows++;
+            luckiest.entries.add(entry);
+            driest.entries.add(entry);
+        }
+        luckiest.compactIfNeeded();
+        driest.compactIfNeeded();
+    }
+
+    public void remove(String itemName) {
+        Entry oldEntry = currentEntries.remove(itemName);
+        if (oldEntry != null && oldEntry.row != null) {
+            numRows--;
+            luckiest.numStaleEntries++;
+            driest.numStaleEntries++;
+            luckiest.compactIfNeeded();
+            driest.compactIfNeeded();
+        }
+    }
+
+    public List<ItemLuckRow> getLuckiest(int n) {
+        return luckiest.peek(n);
+    }
+
+    public List<ItemLuckRow> getDriest(int n) {
+        return driest.peek(n);
+    }
+
+    public int size() {
+        return numRows;
+    }
+
+    public void clear() {
+        currentEntries.clear();
+        luckiest.entries.clear();
+        luckiest.numStaleEntries = 0;
+        driest.entries.clear();
+        driest.numStaleEntries = 0;
+        numRows = 0;
+    }
+
+    private boolean isCurrent(Entry entry) {
+        return currentEntries.get(entry.row.getItemName()) == entry;
+    }
+
+    private class Heap {
+        private final Comparator<Entry> comparator;
+        private PriorityQueue<Entry> entries;
+        private int numStaleEntries;
+
+        private Heap(Comparator<Entry> comparator) {
+            this.comparator = comparator;
+            this.entries = new PriorityQueue<>(comparator);
+        }
+
+        // The first n current rows, in order. Stale entries found on the way are dropped.
+        private List<ItemLuckRow> peek(int n) {
+            List<Entry> polledEntries = new ArrayList<>();
+            List<ItemLuckRow> rows = new ArrayList<>();
+            while (rows.size() < n && !entries.isEmpty()) {
+                Entry entry = entries.poll();
+                if (!isCurrent(entry)) {
+                    numStaleEntries--;
+                    continue;
+                }
+                polledEntries.add(entry);
+                rows.add(entry.row);
+            }
+            entries.addAll(polledEntries);
+            return rows;
+        }
+
+        private void compactIfNeeded() {
+            if (numStaleEntries <= numRows) {
+                return;
+            }
+            PriorityQueue<Entry> compactedEntries = new PriorityQueue<>(Math.max(1, numRows), comparator);
+            for (Entry entry : currentEntries.values()) {
+                if (entry.row != null) {
+                    compactedEntries.add(entry);
+                }
+            }
+            entries = compactedEntries;
+            numStaleEntries = 0;
+        }
+    }
+
+}
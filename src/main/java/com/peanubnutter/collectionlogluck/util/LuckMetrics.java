@@ -0,0 +1,210 @@
+package com.peanubnutter.collectionlogluck.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Lightweight counters, latency histograms, cache hit ratios, and gauges (e.g. queue depths) recorded on the
+// calculation and fetch paths, to find out which items or engines are expensive. Recording a value only touches a
+// couple of atomics, so it is cheap enough to always be on.
+//
+// Methods may be called from any thread.
+public class LuckMetrics {
+
+    // Calculations are mostly done in static helpers, so like DistributionEngineSelector.DEFAULT, there is one shared
+    // registry.
+    public static final LuckMetrics GLOBAL = new LuckMetrics();
+
+    private static final String HIT_SUFFIX = ".hit";
+    private static final String MISS_SUFFIX = ".miss";
+
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+    private final Map<String, Supplier<? extends Number>> gauges = new ConcurrentHashMap<>();
+
+    public void increment(String name) {
+        counters.computeIfAbsent(name, n -> new LongAdder()).increment();
+    }
+
+    public long getCount(String name) {
+        LongAdder counter = counters.get(name);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    public void recordCacheLookup(String cacheName, boolean hit) {
+        increment(cacheName + (hit ? HIT_SUFFIX : MISS_SUFFIX));
+    }
+
+    // The fraction of lookups that hit the cache, or NaN if the cache was never used
+    public double getHitRatio(String cacheName) {
+        long hits = getCount(cacheName + HIT_SUFFIX);
+        long misses = getCount(cacheName + MISS_SUFFIX);
+        return hits + misses == 0 ? Double.NaN : (double) hits / (hits + misses);
+    }
+
+    public void recordLatency(String name, long nanos) {
+        latencies.computeIfAbsent(name, n -> new LatencyHistogram()).record(nanos);
+    }
+
+    // Returns null if no latency has been recorded with this name
+    public LatencySummary getLatency(String name) {
+        LatencyHistogram histogram = latencies.get(name);
+        return histogram == null ? null : histogram.summarize(name);
+    }
+
+    // Gauges are read whenever metrics are summarized, e.g. the current size of a queue
+    public void registerGauge(String name, Supplier<? extends Number> gauge) {
+        gauges.put(name, gauge);
+    }
+
+    public void unregisterGauge(String name) {
+        gauges.remove(name);
+    }
+
+    public void reset() {
+        counters.clear();
+        latencies.clear();
+    }
+
+    /**
+     * Describe every metric in a line of text: gauges, cache hit ratios, other counters, then latencies in order of
+     * total time spent, most expensive first.
+     */
+    public List<String> summarize() {
+        List<String> lines = new ArrayList<>();
+
+        gauges.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(gauge -> lines.add(gauge.getKey() + ": " + gauge.getValue().get()));
+
+        List<String> counterNames = new ArrayList<>(counters.keySet());
+        counterNames.sort(Comparator.naturalOrder());
+        for (String counterName : counterNames) {
+            if (counterName.endsWith(MISS_SUFFIX)
+                    && counters.containsKey(counterName.substring(0, counterName.length() - MISS_SUFFIX.length()) + HIT_SUFFIX)) {
+                // Described along with the hits
+                continue;
+            }
+            if (counterName.endsWith(HIT_SUFFIX) || counterName.endsWith(MISS_SUFFIX)) {
+                String cacheName = counterName.substring(0, counterName.lastIndexOf('.'));
+                long lookups = getCount(cacheName + HIT_SUFFIX) + getCount(cacheName + MISS_SUFFIX);
+                lines.add(cacheName + ": " + String.format("%.1f", getHitRatio(cacheName) * 100) + "% hits of "
+                        + lookups);
+            } else {
+                lines.add(counterName + ": " + getCount(counterName));
+            }
+        }
+
+        latencies.keySet().stream()
+                .map(this::getLatency)
+                .sorted(Comparator.comparingLong(LatencySummary::getTotalNanos).reversed())
+                .forEach(latency -> lines.add(latency.toString()));
+
+        return lines;
+    }
+
+    public static class LatencySummary {
+        private final String name;
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long p50Nanos;
+        private final long p95Nanos;
+
+        private LatencySummary(String name, long count, long totalNanos, long maxNanos, long p50Nanos, long p95Nanos) {
+            this.name = name;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.p50Nanos = p50Nanos;
+            this.p95Nanos = p95Nanos;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        // Percentiles are upper bounds, accurate to within a factor of 2
+        public long getP50Nanos() {
+            return p50Nanos;
+        }
+
+        public long getP95Nanos() {
+            return p95Nanos;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": n=" + count
+                    + " total=" + formatNanos(totalNanos)
+                    + " p50<=" + formatNanos(p50Nanos)
+                    + " p95<=" + formatNanos(p95Nanos)
+                    + " max=" + formatNanos(maxNanos);
+        }
+
+        private static String formatNanos(long nanos) {
+            if (nanos >= 1_000_000) {
+                return String.format("%.1fms", nanos / 1e6);
+            }
+            return String.format("%.0fus", nanos / 1e3);
+        }
+    }
+
+    // Counts latencies in power of 2 buckets of nanoseconds, so recording never allocates
+    private static class LatencyHistogram {
+        private static final int NUM_BUCKETS = 64;
+
+        // bucket 0 counts latencies of 0ns, and bucket i counts latencies in [2^(i-1), 2^i) ns
+        private final AtomicLongArray buckets = new AtomicLongArray(NUM_BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private volatile long maxNanos = 0;
+
+        private void record(long nanos) {
+            nanos = Math.max(0, nanos);
+            buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(nanos));
+            count.increment();
+            totalNanos.add(nanos);
+            if (nanos > maxNanos) {
+                // A racing update may keep a slightly smaller max, which is fine for debugging
+                maxNanos = nanos;
+            }
+        }
+
+        private LatencySummary summarize(String name) {
+            long[] snapshot = new long[NUM_BUCKETS];
+            long total = 0;
+            for (int i = 0; i < NUM_BUCKETS; i++) {
+                snapshot[i] = buckets.get(i);
+                total += snapshot[i];
+            }
+            return new LatencySummary(name, count.sum(), totalNanos.sum(), maxNanos,
+                    percentile(snapshot, total, 0.5), percentile(snapshot, total, 0.95));
+        }
+
+        private long percentile(long[] snapshot, long total, double fraction) {
+            long seen = 0;
+            for (int i = 0; i < NUM_BUCKETS; i++) {
+                seen += snapshot[i];
+                if (seen > 0 && seen >= fraction * total) {
+                    return Math.min(maxNanos, (1L << i) - 1);
+                }
+            }
+            return maxNanos;
+        }
+    }
+
+}
@@ -0,0 +1,228 @@
+package com.peanubnutter.collectionlogluck.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// Caches results that are expensive to calculate exactly, but that have a cheap approximation. Callers that must not
+// block (e.g. overlays, which run every frame) wait for the exact result for at most a short deadline when they first
+// ask for it, and otherwise get the approximation while the exact result is calculated in the background. Later
+// lookups never wait, and neither do lookups that start a calculation while others are still running, since their
+// calculation would be queued behind them. Once ready, the exact result replaces the approximation in the cache.
+// Callers that need the exact result (e.g. chat messages) can always ask for it. Failed exact calculations are retried
+// by later lookups, waiting longer after each failure.
+//
+// Results are safe to read and write from any thread.
+@Slf4j
+public class ProgressiveResultCache<K, V> {
+
+    private static final long DEFAULT_INITIAL_RETRY_DELAY_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long MAX_RETRY_DELAY_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private static class Entry<V> {
+        private final V value;
+        private final boolean exact;
+
+        private Entry(V value, boolean exact) {
+            this.value = value;
+            this.exact = exact;
+        }
+    }
+
+    private static class Failure {
+        private final long retryDelayNanos;
+        private final long retryAtNanos;
+
+        private Failure(long retryDelayNanos) {
+            this.retryDelayNanos = retryDelayNanos;
+            this.retryAtNanos = System.nanoTime() + retryDelayNanos;
+        }
+    }
+
+    private final Executor executor;
+
+    private final long deadlineNanos;
+
+    private final long initialRetryDelayNanos;
+
+    private final Map<K, Entry<V>> results = new ConcurrentHashMap<>();
+
+    // Exact calculations that are still running in the background, so each key is only calculated once
+    private final Map<K, CompletableFuture<V>> pendingCalculations = new ConcurrentHashMap<>();
+
+    // Keys whose last exact calculation failed, and when it may be retried
+    private final Map<K, Failure> failedCalculations = new ConcurrentHashMap<>();
+
+    // Incremented whenever results are invalidated, so background calculations that started before then are not cached
+    private final AtomicInteger generation = new AtomicInteger();
+
+    /**
+     * @param executor      Runs exact calculations in the background
+     * @param deadlineNanos How long the progressive lookup that starts an exact calculation waits for it before using
+     *                      the approximation
+     */
+    public ProgressiveResultCache(Executor executor, long deadlineNanos) {
+        this(executor, deadlineNanos, DEFAULT_INITIAL_RETRY_DELAY_NANOS);
+    }
+
+    // Also used to retry failed calculations straight away in tests
+    ProgressiveResultCache(Executor executor, long deadlineNanos, long initialRetryDelayNanos) {
+        this.executor = executor;
+        this.deadlineNanos = deadlineNanos;
+        this.initialRetryDelayNanos = initialRetryDelayNanos;
+    }
+
+    /**
+     * Return the exact result for this key, calculating it on the calling thread if it is not cached. A cached
+     * approximation is never returned.
+     *
+     * @param key   The cache key, which should include every input of the calculation
+     * @param exact Calculates the exact result
+     * @return The exact result
+     */
+    public V getExact(K key, Supplier<V> exact) {
+        Entry<V> entry = results.get(key);
+        if (entry != null && entry.exact) {
+            return entry.value;
+        }
+
+        V value = exact.get();
+        results.put(key, new Entry<>(value, true));
+        return value;
+    }
+
+    /**
+     * Return the exact result for this key if it is cached or can be calculated within the deadline, and otherwise
+     * return an approximation. The exact result continues to be calculated in the background and is returned by later
+     * lookups once it is ready. Only the lookup that starts the calculation waits, and only if no other calculation is
+     * running, so a burst of lookups for different keys costs at most about one deadline in total.
+     *
+     * @param key         The cache key, which should include every input of the calculation
+     * @param exact       Calculates the exact result. Called on the executor, so it must be thread-safe.
+     * @param approximate Calculates an approximation on the calling thread, or returns null if there is none
+     * @return The exact result, an approximation, or null if neither is available yet
+     */
+    public V getProgressive(K key, Supplier<V> exact, Supplier<V> approximate) {
+        Entry<V> entry = results.get(key);
+        if (entry != null && (entry.exact || !canStartExactCalculation(key))) {
+            // Either exact, or an approximation whose exact calculation is running or waiting to be retried
+            return entry.value;
+        }
+
+        if (canStartExactCalculation(key)) {
+            CompletableFuture<V> calculation = new CompletableFuture<>();
+            if (pendingCalculations.putIfAbsent(key, calculation) == null) {
+                if (!startExactCalculation(key, exact, calculation)) {
+                    // The executor has been shut down, so nothing would ever replace an approximation
+                    return getExact(key, exact);
+                }
+
+                // Otherwise this calculation is queued behind others, and waiting for it would add up across keys
+                if (pendingCalculations.size() == 1) {
+                    try {
+                        return calculation.get(deadlineNanos, TimeUnit.NANOSECONDS);
+                    } catch (TimeoutException e) {
+                        // fall through to the approximation
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (ExecutionException e) {
+                        // Already logged, and retried by a later lookup. Fall through to the approximation.
+                    }
+                }
+            }
+        }
+
+        if (entry != null) {
+            // The approximation of a failed calculation that is being retried
+            return entry.value;
+        }
+
+        V approximation = approximate.get();
+        if (approximation == null) {
+            return null;
+        }
+        // The exact result may have finished in the meantime, in which case it should not be replaced
+        Entry<V> existingEntry = results.putIfAbsent(key, new Entry<>(approximation, false));
+        return existingEntry == null ? approximation : existingEntry.value;
+    }
+
+    // Run the exact calculation on the executor, completing the given future with its result. Return false if the
+    // calculation could not be started.
+    private boolean startExactCalculation(K key, Supplier<V> exact, CompletableFuture<V> calculation) {
+        int startGeneration = generation.get();
+        try {
+            executor.execute(() -> {
+                try {
+                    V value = exact.get();
+                    if (generation.get() == startGeneration) {
+                        results.put(key, new Entry<>(value, true));
+                    }
+                    failedCalculations.remove(key);
+                    pendingCalculations.remove(key, calculation);
+                    calculation.complete(value);
+                } catch (RuntimeException | Error e) {
+                    Failure lastFailure = failedCalculations.get(key);
+                    long retryDelayNanos = lastFailure == null ? initialRetryDelayNanos
+                            : Math.min(lastFailure.retryDelayNanos * 2, MAX_RETRY_DELAY_NANOS);
+                    log.warn("Exact calculation failed for " + key + ", retrying in "
+                            + TimeUnit.NANOSECONDS.toMillis(retryDelayNanos) + " ms", e);
+                    if (generation.get() == startGeneration) {
+                        failedCalculations.put(key, new Failure(retryDelayNanos));
+                    }
+                    // Removed after recording the failure, so later lookups do not retry it straight away
+                    pendingCalculations.remove(key, calculation);
+                    calculation.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingCalculations.remove(key, calculation);
+            return false;
+        }
+        return true;
+    }
+
+    // Whether no exact calculation for this key is running, and it has not failed too recently to retry
+    private boolean canStartExactCalculation(K key) {
+        if (pendingCalculations.containsKey(key)) {
+            return false;
+        }
+        Failure failure = failedCalculations.get(key);
+        return failure == null || System.nanoTime() - failure.retryAtNanos >= 0;
+    }
+
+    // Whether the cached result for this key is exact, rather than an approximation or missing
+    public boolean isExact(K key) {
+        Entry<V> entry = results.get(key);
+        return entry != null && entry.exact;
+    }
+
+    // Forget the results of every key matching the filter. Keys that are still being calculated in the background are
+    // cached again once they finish, which is harmless as long as keys include every input of the calculation.
+    public void invalidate(Predicate<K> filter) {
+        results.keySet().removeIf(filter);
+        failedCalculations.keySet().removeIf(filter);
+    }
+
+    // Forget every result, including those of background calculations that have not finished yet
+    public void clear() {
+        generation.incrementAndGet();
+        pendingCalculations.clear();
+        failedCalculations.clear();
+        results.clear();
+    }
+
+    public int size() {
+        return results.size();
+    }
+
+}
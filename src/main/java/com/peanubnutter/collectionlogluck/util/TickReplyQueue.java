@@ -0,0 +1,101 @@
+package com.peanubnutter.collectionlogluck.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Queues chat command replies so that they can be handled in bounded batches once per game tick. Identical requests
+// (same request key) that are waiting at the same time are grouped so that the reply only needs to be built once, and
+// senders that send too many requests within a window of ticks are ignored.
+//
+// Requests may be offered from any thread.
+public class TickReplyQueue<T> {
+
+    private final int maxRequestsPerSender;
+    private final int rateLimitWindowTicks;
+    private final int maxRepliesPerTick;
+
+    // request key -> every waiting request with that key, in the order the first request for each key was offered
+    private final LinkedHashMap<String, List<T>> pendingRequests = new LinkedHashMap<>();
+
+    // sender -> the ticks at which the sender's accepted requests were offered, within the rate limit window
+    private final Map<String, Deque<Integer>> senderRequestTicks = new HashMap<>();
+
+    /**
+     * @param maxRequestsPerSender The number of requests accepted from a single sender within the rate limit window
+     * @param rateLimitWindowTicks The length of the rate limit window, in ticks
+     * @param maxRepliesPerTick    The maximum number of distinct replies to build each tick. Any others wait.
+     */
+    public TickReplyQueue(int maxRequestsPerSender, int rateLimitWindowTicks, int maxRepliesPerTick) {
+        if (maxRequestsPerSender <= 0 || rateLimitWindowTicks <= 0 || maxRepliesPerTick <= 0) {
+            throw new IllegalArgumentException("Rate limits must be > 0");
+        }
+        this.maxRequestsPerSender = maxRequestsPerSender;
+        this.rateLimitWindowTicks = rateLimitWindowTicks;
+        this.maxRepliesPerTick = maxRepliesPerTick;
+    }
+
+    /**
+     * Queue a request unless its sender is rate limited.
+     *
+     * @param sender     The sender of the request, for rate limiting
+     * @param requestKey Requests with equal keys receive the same reply
+     * @param request    The request
+     * @param tick       The current game tick
+     * @return Whether the request was queued
+     */
+    public synchronized boolean offer(String sender, String requestKey, T request, int tick) {
+        Deque<Integer> requestTicks = senderRequestTicks.computeIfAbsent(sender, s -> new ArrayDeque<>());
+        while (!requestTicks.isEmpty() && requestTicks.peekFirst() <= tick - rateLimitWindowTicks) {
+            requestTicks.pollFirst();
+        }
+        if (requestTicks.size() >= maxRequestsPerSender) {
+            return false;
+        }
+        requestTicks.addLast(tick);
+
+        pendingRequests.computeIfAbsent(requestKey, k -> new ArrayList<>()).add(request);
+        return true;
+    }
+
+    /**
+     * Remove the requests that should be replied to this tick.
+     *
+     * @param tick The current game tick
+     * @return Up to maxRepliesPerTick groups of requests, where every request in a group has the same request key
+     */
+    public synchronized List<List<T>> poll(int tick) {
+        List<List<T>> batches = new ArrayList<>();
+
+        Iterator<List<T>> pendingIterator = pendingRequests.values().iterator();
+        while (pendingIterator.hasNext() && batches.size() < maxRepliesPerTick) {
+            batches.add(pendingIterator.next());
+            pendingIterator.remove();
+        }
+
+        // Forget senders with no requests left in the rate limit window, so the map doesn't grow forever
+        senderRequestTicks.values().removeIf(requestTicks -> requestTicks.peekLast() <= tick - rateLimitWindowTicks);
+
+        return batches;
+    }
+
+    // The number of requests waiting, including grouped requests
+    public synchronized int size() {
+        return pendingRequests.values().stream().mapToInt(List::size).sum();
+    }
+
+    public synchronized boolean isEmpty() {
+        return pendingRequests.isEmpty();
+    }
+
+    public synchronized void clear() {
+        pendingRequests.clear();
+        senderRequestTicks.clear();
+    }
+
+}
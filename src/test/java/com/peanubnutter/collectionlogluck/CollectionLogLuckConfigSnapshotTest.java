@@ -0,0 +1,154 @@
+package com.peanubnutter.collectionlogluck;
+
+import com.peanubnutter.collectionlogluck.luck.LogItemSourceInfo;
+import com.peanubnutter.collectionlogluck.luck.RollInfo;
+import com.peanubnutter.collectionlogluck.luck.drop.AbstractDrop;
+import com.peanubnutter.collectionlogluck.luck.drop.BinomialDrop;
+import com.peanubnutter.collectionlogluck.luck.drop.CollectionLogLuckTestUtils;
+import com.peanubnutter.collectionlogluck.model.CollectionLog;
+import com.peanubnutter.collectionlogluck.model.CollectionLogItem;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+
+import static org.junit.Assert.*;
+
+public class CollectionLogLuckConfigSnapshotTest {
+
+    // A config whose settings can change after a snapshot is taken, like the live config
+    private static class MutableConfig implements CollectionLogLuckConfig {
+        private int numInvalidBarrowsKc = 35;
+        private double avgNexContribution = 0.2;
+        private String collectionLogServerUrl = "https://example.com";
+
+        @Override
+        public int numInvalidBarrowsKc() {
+            return numInvalidBarrowsKc;
+        }
+
+        @Override
+        public double avgNexContribution() {
+            return avgNexContribution;
+        }
+
+        @Override
+        public String collectionLogServerUrl() {
+            return collectionLogServerUrl;
+        }
+    }
+
+    @Test
+    public void of_copiesSettings() {
+        MutableConfig config = new MutableConfig();
+
+        CollectionLogLuckConfigSnapshot snapshot = CollectionLogLuckConfigSnapshot.of(config);
+
+        assertEquals(35, snapshot.numInvalidBarrowsKc());
+        assertEquals(0.2, snapshot.avgNexContribution(), 0);
+        assertEquals("https://example.com", snapshot.collectionLogServerUrl());
+        // Settings the config does not override keep their defaults
+        assertEquals(new CollectionLogLuckConfig() {}.avgPersonalCoxPoints(), snapshot.avgPersonalCoxPoints());
+    }
+
+    @Test
+    public void of_ignoresLaterChanges() {
+        MutableConfig config = new MutableConfig();
+        CollectionLogLuckConfigSnapshot snapshot = CollectionLogLuckConfigSnapshot.of(config);
+
+        config.numInvalidBarrowsKc = 0;
+        config.avgNexContribution = 1;
+        config.collectionLogServerUrl = "";
+
+        assertEquals(35, snapshot.numInvalidBarrowsKc());
+        assertEquals(0.2, snapshot.avgNexContribution(), 0);
+        assertEquals("https://example.com", snapshot.collectionLogServerUrl());
+    }
+
+    @Test
+    public void of_givesEachSnapshotANewVersion() {
+        MutableConfig config = new MutableConfig();
+
+        CollectionLogLuckConfigSnapshot first = CollectionLogLuckConfigSnapshot.of(config);
+        CollectionLogLuckConfigSnapshot second = CollectionLogLuckConfigSnapshot.of(config);
+
+        assertNotEquals(first.getSnapshotVersion(), second.getSnapshotVersion());
+    }
+
+    @Test
+    public void withUnversionedChanges_keepsVersionAndCopiesSettings() {
+        MutableConfig config = new MutableConfig();
+        CollectionLogLuckConfigSnapshot snapshot = CollectionLogLuckConfigSnapshot.of(config);
+
+        config.collectionLogServerUrl = "https://example.org";
+        CollectionLogLuckConfigSnapshot updatedSnapshot = snapshot.withUnversionedChanges(config);
+
+        assertEquals(snapshot.getSnapshotVersion(), updatedSnapshot.getSnapshotVersion());
+        assertEquals("https://example.org", updatedSnapshot.collectionLogServerUrl());
+        assertEquals("https://example.com", snapshot.collectionLogServerUrl());
+    }
+
+    // Every config method must be overridden by the snapshot and return the copied value, or a setting added to the
+    // config later would silently fall back to its default in every calculation.
+    @Test
+    public void of_copiesEveryConfigMethod() throws Exception {
+        CollectionLogLuckConfig defaults = new CollectionLogLuckConfig() {};
+        // Every method returns something other than its default
+        CollectionLogLuckConfig config = (CollectionLogLuckConfig) Proxy.newProxyInstance(
+                CollectionLogLuckConfig.class.getClassLoader(),
+                new Class<?>[]{CollectionLogLuckConfig.class},
+                (proxy, method, args) -> getNonDefaultValue(method.invoke(defaults)));
+
+        CollectionLogLuckConfigSnapshot snapshot = CollectionLogLuckConfigSnapshot.of(config);
+
+        int numMethods = 0;
+        for (Method method : CollectionLogLuckConfig.class.getDeclaredMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0) {
+                continue;
+            }
+            numMethods++;
+
+            Method snapshotMethod = CollectionLogLuckConfigSnapshot.class.getMethod(method.getName());
+            assertEquals(method.getName() + " is not overridden",
+                    CollectionLogLuckConfigSnapshot.class, snapshotMethod.getDeclaringClass());
+            assertEquals(method.getName() + " is not copied",
+                    getNonDefaultValue(method.invoke(defaults)), method.invoke(snapshot));
+        }
+        assertTrue(numMethods > 0);
+    }
+
+    private static Object getNonDefaultValue(Object defaultValue) {
+        if (defaultValue instanceof Boolean) {
+            return !(Boolean) defaultValue;
+        }
+        if (defaultValue instanceof Integer) {
+            return (Integer) defaultValue + 1;
+        }
+        if (defaultValue instanceof Double) {
+            return (Double) defaultValue + 0.5;
+        }
+        if (defaultValue instanceof String) {
+            return defaultValue + "-changed";
+        }
+        throw new IllegalArgumentException("Unsupported config type: " + defaultValue);
+    }
+
+    @Test
+    public void calculateLuck_sameAsLiveConfig() {
+        MutableConfig config = new MutableConfig();
+        CollectionLogLuckConfigSnapshot snapshot = CollectionLogLuckConfigSnapshot.of(config);
+
+        AbstractDrop drop = new BinomialDrop(new RollInfo(LogItemSourceInfo.BARROWS_CHESTS_OPENED, 1.0 / 100))
+                .withConfigOption(CollectionLogLuckConfig.NUM_INVALID_BARROWS_KC_KEY);
+        CollectionLogItem item = new CollectionLogItem(1234, "some item name", 1, true, 0);
+        CollectionLog collectionLog = CollectionLogLuckTestUtils.getMockCollectionLogWithKc(
+                LogItemSourceInfo.BARROWS_CHESTS_OPENED.getName(), 135);
+
+        assertEquals(drop.calculateLuck(item, collectionLog, config),
+                drop.calculateLuck(item, collectionLog, snapshot), 0);
+        assertEquals(drop.calculateDryness(item, collectionLog, config),
+                drop.calculateDryness(item, collectionLog, snapshot), 0);
+    }
+
+}
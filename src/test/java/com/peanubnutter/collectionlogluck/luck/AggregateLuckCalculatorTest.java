@@ -0,0 +1,72 @@
+package com.peanubnutter.collectionlogluck.luck;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.peanubnutter.collectionlogluck.luck.drop.CollectionLogLuckTestUtils;
+import com.peanubnutter.collectionlogluck.model.CollectionLog;
+import com.peanubnutter.collectionlogluck.model.CollectionLogItem;
+import com.peanubnutter.collectionlogluck.model.CollectionLogKillCount;
+import com.peanubnutter.collectionlogluck.model.CollectionLogPage;
+import com.peanubnutter.collectionlogluck.model.CollectionLogTab;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class AggregateLuckCalculatorTest {
+
+    @Test
+    public void calculatePageLuck_matchesIndependentItems() {
+        int kc = 100;
+        List<CollectionLogItem> items = ImmutableList.of(
+                new CollectionLogItem(29022, "Blood moon chestplate", 1, true, 0),
+                new CollectionLogItem(29025, "Blood moon tassets", 0, false, 1),
+                new CollectionLogItem(29028, "Blood moon helm", 0, false, 2),
+                new CollectionLogItem(28997, "Dual macuahuitl", 0, false, 3),
+                // not a real item, so it should be ignored
+                new CollectionLogItem(-1, "some unsupported item", 1, true, 4)
+        );
+        CollectionLog collectionLog = CollectionLogLuckTestUtils.getMockCollectionLogWithKcsAndItems(
+                ImmutableMap.of(LogItemSourceInfo.LUNAR_CHESTS_OPENED.getName(), kc),
+                items
+        );
+        CollectionLogPage page = collectionLog.searchForPage("some page");
+
+        AggregateLuckCalculationResult result = AggregateLuckCalculator.calculatePageLuck(page, collectionLog, null);
+
+        // All 4 set pieces have the same chance of having been obtained
+        double q = LogItemInfo.BLOOD_MOON_HELM_29028.getDropProbabilityDistribution()
+                .calculateChanceObtained(items.get(2), collectionLog, null);
+
+        assertEquals(4, result.getNumItems());
+        assertEquals(1, result.getNumObtained());
+        assertEquals(4 * q, result.getExpectedNumObtained(), 0.0000001);
+        // luck = chance of 0 uniques, dryness = chance of 2+ uniques
+        assertEquals(Math.pow(1 - q, 4), result.getLuck(), 0.0000001);
+        assertEquals(1 - Math.pow(1 - q, 4) - 4 * q * Math.pow(1 - q, 3), result.getDryness(), 0.0000001);
+    }
+
+    @Test
+    public void calculateAccountLuck_countsItemsOnMultiplePagesOnce() {
+        CollectionLogItem helm = new CollectionLogItem(29028, "Blood moon helm", 1, true, 0);
+        List<CollectionLogKillCount> killCounts =
+                ImmutableList.of(new CollectionLogKillCount(LogItemSourceInfo.LUNAR_CHESTS_OPENED.getName(), 50, 0));
+
+        CollectionLogPage page1 = new CollectionLogPage("page 1", ImmutableList.of(helm), killCounts, true);
+        CollectionLogPage page2 = new CollectionLogPage("page 2", ImmutableList.of(helm), killCounts, true);
+        CollectionLogTab tab = new CollectionLogTab("tab", ImmutableMap.of(page1.getName(), page1, page2.getName(), page2));
+        CollectionLog collectionLog = new CollectionLog("someusername", 0, 0, 0, 0, ImmutableMap.of(tab.getName(), tab));
+
+        AggregateLuckCalculationResult result = AggregateLuckCalculator.calculateAccountLuck(collectionLog, null);
+
+        double q = LogItemInfo.BLOOD_MOON_HELM_29028.getDropProbabilityDistribution()
+                .calculateChanceObtained(helm, collectionLog, null);
+
+        assertEquals(1, result.getNumItems());
+        assertEquals(1, result.getNumObtained());
+        assertEquals(1 - q, result.getLuck(), 0.0000001);
+        assertEquals(0, result.getDryness(), 0.0000001);
+    }
+
+}
@@ -3,7 +3,9 @@ package com.peanubnutter.collectionlogluck.luck.drop;
 import com.peanubnutter.collectionlogluck.model.CollectionLog;
 import com.peanubnutter.collectionlogluck.model.CollectionLogItem;
 import com.peanubnutter.collectionlogluck.luck.LogItemSourceInfo;
+import com.peanubnutter.collectionlogluck.luck.LuckProjection;
 import com.peanubnutter.collectionlogluck.luck.RollInfo;
+import com.peanubnutter.collectionlogluck.luck.probability.CdfTable;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import org.junit.Test;
@@ -12,6 +14,7 @@ import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public class BinomialDropTest {
 
@@ -277,4 +280,83 @@ public class BinomialDropTest {
         double actualDryness = drop.calculateDryness(mockItem, mockCollectionLog, null);
         assertEquals(expectedDryness, actualDryness, tolerance);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testBinomial_chanceObtained() {
+        double dropChance = 0.01;
+        int kc = 100;
+
+        BinomialDrop drop = new BinomialDrop(new RollInfo(LogItemSourceInfo.ABYSSAL_SIRE_KILLS, dropChance));
+
+        CollectionLogItem mockItem = new CollectionLogItem(1234, "some item name", 3, true, 0);
+
+        CollectionLog mockCollectionLog = CollectionLogLuckTestUtils.getMockCollectionLogWithKc(
+                LogItemSourceInfo.ABYSSAL_SIRE_KILLS.getName(), kc);
+
+        // Independent of the number actually obtained
+        assertEquals(1 - Math.pow(1 - dropChance, kc), drop.calculateChanceObtained(mockItem, mockCollectionLog, null), 0.00001);
+    }
+
+    @Test
+    public void testBinomial_cdfTableMatchesLuck() {
+        int kc = 500;
+        BinomialDrop drop = new BinomialDrop(new RollInfo(LogItemSourceInfo.ABYSSAL_SIRE_KILLS, 0.01));
+        // A subclass that only uses the general table built from calculateLuck
+        BinomialDrop generalDrop = new BinomialDrop(new RollInfo(LogItemSourceInfo.ABYSSAL_SIRE_KILLS, 0.01)) {};
+        CollectionLog mockCollectionLog = CollectionLogLuckTestUtils.getMockCollectionLogWithKc(
+                LogItemSourceInfo.ABYSSAL_SIRE_KILLS.getName(), kc);
+        CollectionLogItem mockItem = new CollectionLogItem(1234, "some item name", 0, false, 0);
+
+        CdfTable cdfTable = drop.getCdfTable(mockItem, mockCollectionLog, null);
+        CdfTable generalCdfTable = generalDrop.getCdfTable(mockItem, mockCollectionLog, null);
+
+        for (int numObtained = 1; numObtained < 15; numObtained++) {
+            CollectionLogItem item = new CollectionLogItem(1234, "some item name", numObtained, true, 0);
+            double luck = drop.calculateLuck(item, mockCollectionLog, null);
+            assertEquals(luck, cdfTable.cumulativeProbability(numObtained - 1), 1e-12);
+            assertEquals(luck, generalCdfTable.cumulativeProbability(numObtained - 1), 1e-12);
+        }
+
+        // 5 expected drops
+        assertEquals(5, DropLuck.calculateQuantile(0.5, cdfTable));
+        assertEquals(cdfTable.quantile(0.1), generalCdfTable.quantile(0.1));
+        assertEquals(cdfTable.quantile(0.9), generalCdfTable.quantile(0.9));
+        assertEquals(-1, DropLuck.calculateQuantile(0.5, null));
+    }
+
+    @Test
+    public void testBinomial_projectLuckMatchesCalculationAtEachKc() {
+        int kc = 200;
+        int numAdditionalKc = 300;
+        BinomialDrop drop = new BinomialDrop(new RollInfo(LogItemSourceInfo.ABYSSAL_SIRE_KILLS, 1.0 / 128));
+        CollectionLogItem item = new CollectionLogItem(1234, "some item name", 2, true, 0);
+
+        LuckProjection projection = drop.projectLuck(item,
+                CollectionLogLuckTestUtils.getMockCollectionLogWithKc(LogItemSourceInfo.ABYSSAL_SIRE_KILLS.getName(), kc),
+                null, numAdditionalKc);
+
+        assertEquals(kc, projection.getCurrentKc());
+        assertEquals(numAdditionalKc, projection.getNumAdditionalKc());
+        assertEquals(0, projection.getChanceOfNextDrop(0), 0);
+        for (int additionalKc = 0; additionalKc <= numAdditionalKc; additionalKc += 50) {
+            CollectionLog futureCollectionLog = CollectionLogLuckTestUtils.getMockCollectionLogWithKc(
+                    LogItemSourceInfo.ABYSSAL_SIRE_KILLS.getName(), kc + additionalKc);
+            assertEquals(drop.calculateLuck(item, futureCollectionLog, null), projection.getLuck(additionalKc), 1e-9);
+            assertEquals(drop.calculateDryness(item, futureCollectionLog, null), projection.getDryness(additionalKc), 1e-9);
+            assertEquals(1 - Math.pow(1 - 1.0 / 128, additionalKc), projection.getChanceOfNextDrop(additionalKc), 1e-9);
+        }
+        // Half of players would get another drop within ~88 kills
+        assertEquals(89, projection.getAdditionalKcForChanceOfNextDrop(0.5));
+    }
+
+    @Test
+    public void testBinomial_projectLuckUnsupportedForFiniteDrops() {
+        FiniteBinomialDrop drop = new FiniteBinomialDrop(new RollInfo(LogItemSourceInfo.ABYSSAL_SIRE_KILLS, 0.01), 3);
+        CollectionLogItem item = new CollectionLogItem(1234, "some item name", 1, true, 0);
+
+        assertNull(drop.projectLuck(item,
+                CollectionLogLuckTestUtils.getMockCollectionLogWithKc(LogItemSourceInfo.ABYSSAL_SIRE_KILLS.getName(), 100),
+                null, 100));
+    }
+
+}
@@ -174,7 +174,6 @@ public class BinomialUniformSumDropTest {
     public void testBinomialUniformSum_exact_sample() {
         int kc = 20;
         double dropChance = 0.01;
-        assertTrue(kc * dropChance < BinomialUniformSumDrop.NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD);
         int minRoll = 5;
         int maxRoll = 25;
 
@@ -199,7 +198,6 @@ public class BinomialUniformSumDropTest {
     public void testBinomialUniformSum_minExact_spooned_lowRange() {
         int kc = 20;
         double dropChance = 0.01;
-        assertTrue(kc * dropChance < BinomialUniformSumDrop.NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD);
         int minRoll = 5;
         int maxRoll = 25;
         int numObtained = 5 * maxRoll;
@@ -215,7 +213,6 @@ public class BinomialUniformSumDropTest {
     public void testBinomialUniformSum_minExact_spooned_highRange() {
         int kc = 20;
         double dropChance = 0.01;
-        assertTrue(kc * dropChance < BinomialUniformSumDrop.NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD);
         int minRoll = 500000;
         int maxRoll = 2500000;
         int numObtained = 5 * maxRoll;
@@ -231,7 +228,6 @@ public class BinomialUniformSumDropTest {
     public void testBinomialUniformSum_minExact_dry_lowRange() {
         int kc = 50;
         double dropChance = 0.1;
-        assertTrue(kc * dropChance < BinomialUniformSumDrop.NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD);
         int minRoll = 5;
         int maxRoll = 25;
         int numObtained = 0;
@@ -247,7 +243,6 @@ public class BinomialUniformSumDropTest {
     public void testBinomialUniformSum_minExact_dry_highRange() {
         int kc = 50;
         double dropChance = 0.1;
-        assertTrue(kc * dropChance < BinomialUniformSumDrop.NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD);
         int minRoll = 500000;
         int maxRoll = 2500000;
         int numObtained = 0;
@@ -263,8 +258,6 @@ public class BinomialUniformSumDropTest {
     public void testBinomialUniformSum_maxExact_spooned_lowRange() {
         int kc = 500;
         double dropChance = 0.199;
-        assertTrue(kc * dropChance < BinomialUniformSumDrop.NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD);
-        assertEquals(BinomialUniformSumDrop.NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD, kc * dropChance, 1);
         int minRoll = 5;
         int maxRoll = 25;
         int numObtained = 150 * (minRoll + maxRoll) / 2;
@@ -280,8 +273,6 @@ public class BinomialUniformSumDropTest {
     public void testBinomialUniformSum_maxExact_spooned_highRange() {
         int kc = 500;
         double dropChance = 0.199;
-        assertTrue(kc * dropChance < BinomialUniformSumDrop.NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD);
-        assertEquals(BinomialUniformSumDrop.NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD, kc * dropChance, 1);
         int minRoll = 500000;
         int maxRoll = 2500000;
         int numObtained = 150 * (minRoll + maxRoll) / 2;
@@ -297,8 +288,6 @@ public class BinomialUniformSumDropTest {
     public void testBinomialUniformSum_maxExact_dry_lowRange() {
         int kc = 500;
         double dropChance = 0.199;
-        assertTrue(kc * dropChance < BinomialUniformSumDrop.NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD);
-        assertEquals(BinomialUniformSumDrop.NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD, kc * dropChance, 1);
         int minRoll = 5;
         int maxRoll = 25;
         int numObtained = 50 * (minRoll + maxRoll) / 2;
@@ -314,8 +303,6 @@ public class BinomialUniformSumDropTest {
     public void testBinomialUniformSum_maxExact_dry_highRange() {
         int kc = 500;
         double dropChance = 0.199;
-        assertTrue(kc * dropChance < BinomialUniformSumDrop.NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD);
-        assertEquals(BinomialUniformSumDrop.NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD, kc * dropChance, 1);
         int minRoll = 500000;
         int maxRoll = 2500000;
         int numObtained = 50 * (minRoll + maxRoll) / 2;
@@ -331,7 +318,6 @@ public class BinomialUniformSumDropTest {
     public void testBinomialUniformSum_approx_sample() {
         int kc = 2000;
         double dropChance = 0.051;
-        assertTrue(kc * dropChance > BinomialUniformSumDrop.NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD);
         int minRoll = 5;
         int maxRoll = 25;
 
@@ -351,15 +337,13 @@ public class BinomialUniformSumDropTest {
     public void testBinomialUniformSum_minApprox_spooned_lowRange() {
         int kc = 2000;
         double dropChance = 0.051;
-        assertTrue(kc * dropChance > BinomialUniformSumDrop.NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD);
-        assertEquals(BinomialUniformSumDrop.NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD, kc * dropChance, 2);
         int minRoll = 5;
         int maxRoll = 25;
-        // Any lower than this fails the test. This makes sense.
         int numObtained = (int) (1.4 * kc * dropChance * (minRoll + maxRoll) / 2);
 
-        double expectedLuck = 1;
-        double expectedDryness = 0;
+        // calculated exactly by convolving the per-kc loot distribution
+        double expectedLuck = 0.99985;
+        double expectedDryness = 0.00015;
         double tolerance = 0.0001;
 
         doTest_binomialUniformSum(kc, dropChance, numObtained, minRoll, maxRoll, tolerance, expectedLuck, expectedDryness);
@@ -369,14 +353,13 @@ public class BinomialUniformSumDropTest {
     public void testBinomialUniformSum_minApprox_spooned_highRange() {
         int kc = 2000;
         double dropChance = 0.051;
-        assertTrue(kc * dropChance > BinomialUniformSumDrop.NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD);
-        assertEquals(BinomialUniformSumDrop.NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD, kc * dropChance, 2);
         int minRoll = 500000;
         int maxRoll = 2500000;
         int numObtained = (int) (1.4 * kc * dropChance * (minRoll + maxRoll) / 2);
 
-        double expectedLuck = 1;
-        double expectedDryness = 0;
+        // calculated exactly by convolving the per-kc loot distribution
+        double expectedLuck = 0.99985;
+        double expectedDryness = 0.00015;
         double tolerance = 0.0001;
 
         doTest_binomialUniformSum(kc, dropChance, numObtained, minRoll, maxRoll, tolerance, expectedLuck, expectedDryness);
@@ -386,8 +369,6 @@ public class BinomialUniformSumDropTest {
     public void testBinomialUniformSum_minApprox_dry_lowRange() {
         int kc = 2000;
         double dropChance = 0.051;
-        assertTrue(kc * dropChance > BinomialUniformSumDrop.NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD);
-        assertEquals(BinomialUniformSumDrop.NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD, kc * dropChance, 2);
         int minRoll = 5;
         int maxRoll = 25;
         int numObtained = (int) (0.6 * kc * dropChance * (minRoll + maxRoll) / 2);
@@ -403,8 +384,6 @@ public class BinomialUniformSumDropTest {
     public void testBinomialUniformSum_minApprox_dry_highRange() {
         int kc = 2000;
         double dropChance = 0.051;
-        assertTrue(kc * dropChance > BinomialUniformSumDrop.NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD);
-        assertEquals(BinomialUniformSumDrop.NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD, kc * dropChance, 2);
         int minRoll = 500000;
         int maxRoll = 2500000;
         int numObtained = (int) (0.6 * kc * dropChance * (minRoll + maxRoll) / 2);
@@ -420,7 +399,6 @@ public class BinomialUniformSumDropTest {
     public void testBinomialUniformSum_manySuccessesApprox_spooned_lowRange() {
         int kc = 1_000_000;
         double dropChance = 0.101;
-        assertTrue(kc * dropChance > BinomialUniformSumDrop.NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD * 100);
         int minRoll = 5;
         int maxRoll = 25;
         int numObtained = (int) (1.02 * kc * dropChance * (minRoll + maxRoll) / 2);
@@ -436,7 +414,6 @@ public class BinomialUniformSumDropTest {
     public void testBinomialUniformSum_manySuccessesApprox_spooned_highRange() {
         int kc = 1_000_000;
         double dropChance = 0.101;
-        assertTrue(kc * dropChance > BinomialUniformSumDrop.NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD * 100);
         // any higher runs into integer overflow, but this would not happen in a real scenario because the collection log
         // likely only stores up to Integer.MAX_VALUE items anyway.
         int minRoll = 5000;
@@ -454,7 +431,6 @@ public class BinomialUniformSumDropTest {
     public void testBinomialUniformSum_manySuccessesApprox_dry_lowRange() {
         int kc = 1_000_000;
         double dropChance = 0.101;
-        assertTrue(kc * dropChance > BinomialUniformSumDrop.NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD * 100);
         int minRoll = 5;
         int maxRoll = 25;
         int numObtained = (int) (0.98 * kc * dropChance * (minRoll + maxRoll) / 2);
@@ -470,7 +446,6 @@ public class BinomialUniformSumDropTest {
     public void testBinomialUniformSum_manySuccessesApprox_dry_highRange() {
         int kc = 1_000_000;
         double dropChance = 0.101;
-        assertTrue(kc * dropChance > BinomialUniformSumDrop.NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD * 100);
         int minRoll = 5000;
         int maxRoll = 25000;
         int numObtained = (int) (0.98 * kc * dropChance * (minRoll + maxRoll) / 2);
@@ -486,7 +461,6 @@ public class BinomialUniformSumDropTest {
     public void testBinomialUniformSum_approx_guaranteed() {
         int kc = 2000;
         double dropChance = 1;
-        assertTrue(kc * dropChance > BinomialUniformSumDrop.NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD);
         int minRoll = 1;
         int maxRoll = 3;
 
@@ -509,7 +483,6 @@ public class BinomialUniformSumDropTest {
     public void testBinomialUniformSum_exact_guaranteed() {
         int kc = 2;
         double dropChance = 1;
-        assertTrue(kc * dropChance < BinomialUniformSumDrop.NORMAL_APPROX_NUM_SUCCESSES_THRESHOLD);
         int minRoll = 1;
         int maxRoll = 3;
 
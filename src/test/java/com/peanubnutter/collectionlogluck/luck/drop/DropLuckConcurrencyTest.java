@@ -0,0 +1,139 @@
+package com.peanubnutter.collectionlogluck.luck.drop;
+
+import com.peanubnutter.collectionlogluck.CollectionLogLuckConfig;
+import com.peanubnutter.collectionlogluck.CollectionLogLuckConfigSnapshot;
+import com.peanubnutter.collectionlogluck.luck.LogItemInfo;
+import com.peanubnutter.collectionlogluck.luck.LogItemSourceInfo;
+import com.peanubnutter.collectionlogluck.luck.RollInfo;
+import com.peanubnutter.collectionlogluck.luck.probability.DistributionEngineSelector;
+import com.peanubnutter.collectionlogluck.model.CollectionLog;
+import com.peanubnutter.collectionlogluck.model.CollectionLogItem;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+
+// Drops are shared by every calculation, so evaluating every item from many threads at once must give exactly the same
+// results as evaluating them one at a time.
+public class DropLuckConcurrencyTest {
+
+    private static final int NUM_THREADS = 8;
+
+    private static CollectionLog getMockCollectionLog(long seed) {
+        Random random = new Random(seed);
+
+        Map<String, Integer> kcs = new HashMap<>();
+        for (LogItemSourceInfo source : LogItemSourceInfo.values()) {
+            kcs.put(source.getName(), random.nextInt(2000));
+        }
+
+        List<CollectionLogItem> items = new ArrayList<>();
+        int sequence = 0;
+        for (LogItemInfo logItemInfo : LogItemInfo.getAllLogItemInfos()) {
+            int quantity = random.nextInt(4);
+            items.add(new CollectionLogItem(logItemInfo.getItemId(), logItemInfo.getItemName(), quantity, quantity > 0,
+                    sequence++));
+        }
+
+        return CollectionLogLuckTestUtils.getMockCollectionLogWithKcsAndItems(kcs, items);
+    }
+
+    // {luck, dryness} per item, in the order of the given items, or null if the item can't be calculated
+    private static List<double[]> evaluate(List<LogItemInfo> logItemInfos, CollectionLog collectionLog,
+                                           CollectionLogLuckConfig config) {
+        List<double[]> results = new ArrayList<>();
+        for (LogItemInfo logItemInfo : logItemInfos) {
+            DropLuck dropLuck = logItemInfo.getDropProbabilityDistribution();
+            CollectionLogItem item = collectionLog.searchForItem(logItemInfo.getItemName());
+            if (item == null || dropLuck.getIncalculableReason(item, config) != null) {
+                results.add(null);
+                continue;
+            }
+            results.add(new double[]{
+                    dropLuck.calculateLuck(item, collectionLog, config),
+                    dropLuck.calculateDryness(item, collectionLog, config)
+            });
+        }
+        return results;
+    }
+
+    @Test
+    public void evaluateAllItems_manyThreads_matchesSingleThread() throws Exception {
+        CollectionLogLuckConfig config = CollectionLogLuckConfigSnapshot.of(new CollectionLogLuckConfig() {});
+        List<LogItemInfo> logItemInfos = new ArrayList<>(LogItemInfo.getAllLogItemInfos());
+
+        List<double[]> expectedResults = evaluate(logItemInfos, getMockCollectionLog(1), config);
+
+        // A separate copy of the same log, so that its lookup caches are filled by all threads at once
+        CollectionLog sharedCollectionLog = getMockCollectionLog(1);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+        try {
+            List<Future<Map<LogItemInfo, double[]>>> futures = new ArrayList<>();
+            for (int thread = 0; thread < NUM_THREADS; thread++) {
+                // Each thread evaluates the items in a different order, so that different drops overlap
+                List<LogItemInfo> shuffledLogItemInfos = new ArrayList<>(logItemInfos);
+                Collections.shuffle(shuffledLogItemInfos, new Random(thread));
+                Callable<Map<LogItemInfo, double[]>> task = () -> {
+                    start.await();
+                    List<double[]> results = evaluate(shuffledLogItemInfos, sharedCollectionLog, config);
+                    Map<LogItemInfo, double[]> resultsByItem = new HashMap<>();
+                    for (int i = 0; i < shuffledLogItemInfos.size(); i++) {
+                        resultsByItem.put(shuffledLogItemInfos.get(i), results.get(i));
+                    }
+                    return resultsByItem;
+                };
+                futures.add(executor.submit(task));
+            }
+            start.countDown();
+
+            for (Future<Map<LogItemInfo, double[]>> future : futures) {
+                Map<LogItemInfo, double[]> actualResults = future.get();
+                for (int i = 0; i < logItemInfos.size(); i++) {
+                    LogItemInfo logItemInfo = logItemInfos.get(i);
+                    double[] expected = expectedResults.get(i);
+                    double[] actual = actualResults.get(logItemInfo);
+                    String message = logItemInfo.getItemName();
+
+                    if (expected == null) {
+                        assertEquals(message, null, actual);
+                        continue;
+                    }
+                    // Calculations are deterministic, so results must match exactly
+                    assertEquals(message + " luck", expected[0], actual[0], 0);
+                    assertEquals(message + " dryness", expected[1], actual[1], 0);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void withConfigOption_afterResolve_throws() {
+        AbstractDrop drop = new BinomialDrop(new RollInfo(LogItemSourceInfo.ZULRAH_KILLS, 1.0 / 1024, 2));
+        drop.resolveLogItemInfos();
+
+        drop.withConfigOption(CollectionLogLuckConfig.BARROWS_BOLT_RACKS_ENABLED_KEY);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void withEngineSelector_logItemInfoDrop_throws() {
+        // Every drop is frozen once LogItemInfo is initialized, including set drops
+        AbstractDrop drop = (AbstractDrop) LogItemInfo.findByName("Bludgeon axon").getDropProbabilityDistribution();
+
+        drop.withEngineSelector(DistributionEngineSelector.DEFAULT);
+    }
+
+}
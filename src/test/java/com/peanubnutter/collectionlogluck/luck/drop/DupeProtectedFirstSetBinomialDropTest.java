@@ -90,7 +90,7 @@ public class DupeProtectedFirstSetBinomialDropTest {
     @Test
     public void test_setPastComplete() {
         int kc = 100;
-        // expected probabilities calculated online, with the following sig digits
+        // expected probabilities calculated exactly (and verified by simulation), with the following sig digits
         double tolerance = 0.00001;
 
         DupeProtectedFirstSetBinomialDrop drop = new DupeProtectedFirstSetBinomialDrop(
@@ -110,24 +110,24 @@ public class DupeProtectedFirstSetBinomialDropTest {
         );
 
         double actualLuck = drop.calculateLuck(items.get(0), mockCollectionLog, null);
-        assertEquals(0.92594, actualLuck, tolerance);
+        assertEquals(0.98940, actualLuck, tolerance);
         double actualDryness = drop.calculateDryness(items.get(0), mockCollectionLog, null);
-        assertEquals(0.01043, actualDryness, tolerance);
+        assertEquals(0.00084, actualDryness, tolerance);
 
         actualLuck = drop.calculateLuck(items.get(1), mockCollectionLog, null);
-        assertEquals(0.63927, actualLuck, tolerance);
+        assertEquals(0.56507, actualLuck, tolerance);
         actualDryness = drop.calculateDryness(items.get(1), mockCollectionLog, null);
-        assertEquals(0.07406, actualDryness, tolerance);
+        assertEquals(0.01060, actualDryness, tolerance);
 
         actualLuck = drop.calculateLuck(items.get(2), mockCollectionLog, null);
-        assertEquals(0.63927, actualLuck, tolerance);
+        assertEquals(0.56507, actualLuck, tolerance);
         actualDryness = drop.calculateDryness(items.get(2), mockCollectionLog, null);
-        assertEquals(0.07406, actualDryness, tolerance);
+        assertEquals(0.01060, actualDryness, tolerance);
 
         actualLuck = drop.calculateLuck(items.get(3), mockCollectionLog, null);
-        assertEquals(0.63927, actualLuck, tolerance);
+        assertEquals(0.56507, actualLuck, tolerance);
         actualDryness = drop.calculateDryness(items.get(3), mockCollectionLog, null);
-        assertEquals(0.07406, actualDryness, tolerance);
+        assertEquals(0.01060, actualDryness, tolerance);
 
     }
 }
\ No newline at end of file
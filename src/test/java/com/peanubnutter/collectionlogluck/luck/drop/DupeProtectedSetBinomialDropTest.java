@@ -12,6 +12,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public class DupeProtectedSetBinomialDropTest {
 
@@ -119,4 +120,27 @@ public class DupeProtectedSetBinomialDropTest {
             assertEquals(expectedDryness, actualDryness, tolerance);
         }
     }
-}
\ No newline at end of file
+    @Test
+    public void test_noExpectedRange() {
+        DupeProtectedSetBinomialDrop drop = new DupeProtectedSetBinomialDrop(
+                new RollInfo(LogItemSourceInfo.ABYSSAL_SIRE_KILLS, 1.0 / 100.0 * 62.0 / 128.0 / 3.0),
+                ImmutableList.of(13276, 13275, 13274)
+        );
+
+        List<CollectionLogItem> items = new ArrayList<>();
+        items.add(new CollectionLogItem(13276, "Bludgeon claw", 0, false, 0));
+        items.add(new CollectionLogItem(13275, "Bludgeon spine", 1, true, 0));
+        items.add(new CollectionLogItem(13274, "Bludgeon axon", 1, true, 0));
+
+        CollectionLog mockCollectionLog = CollectionLogLuckTestUtils.getMockCollectionLogWithKcsAndItems(
+                ImmutableMap.of(LogItemSourceInfo.ABYSSAL_SIRE_KILLS.getName(), 100),
+                items
+        );
+
+        // Luck comes from the whole set, so a range of this item's own quantity would be meaningless
+        for (CollectionLogItem mockItem : items) {
+            assertNull(drop.getCdfTable(mockItem, mockCollectionLog, null));
+        }
+    }
+
+}
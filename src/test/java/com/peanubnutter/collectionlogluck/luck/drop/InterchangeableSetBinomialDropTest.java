@@ -13,6 +13,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
 
 public class InterchangeableSetBinomialDropTest {
 
@@ -141,4 +143,51 @@ public class InterchangeableSetBinomialDropTest {
             assertEquals(expectedDryness, actualDryness, tolerance);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void test_noExpectedRange() {
+        InterchangeableSetBinomialDrop drop = new InterchangeableSetBinomialDrop(
+                new RollInfo(LogItemSourceInfo.ROYAL_TITAN_KILLS, 1.0 / 83.33),
+                ImmutableList.of(30628, 30631)
+        );
+
+        List<CollectionLogItem> items = new ArrayList<>();
+        items.add(new CollectionLogItem(30628, "Ice element staff crown", 0, false, 0));
+        items.add(new CollectionLogItem(30631, "Fire element staff crown", 3, true, 0));
+
+        CollectionLog mockCollectionLog = CollectionLogLuckTestUtils.getMockCollectionLogWithKcsAndItems(
+                ImmutableMap.of(LogItemSourceInfo.ROYAL_TITAN_KILLS.getName(), 100),
+                items
+        );
+
+        // Luck comes from the whole set, so a range of this item's own quantity would be meaningless
+        for (CollectionLogItem mockItem : items) {
+            assertNull(drop.getCdfTable(mockItem, mockCollectionLog, null));
+            assertEquals(-1, DropLuck.calculateQuantile(0.5, drop.getCdfTable(mockItem, mockCollectionLog, null)));
+        }
+    }
+
+    @Test
+    public void test_quantityDescriptionIncludesOtherPieces() {
+        InterchangeableSetBinomialDrop drop = new InterchangeableSetBinomialDrop(
+                new RollInfo(LogItemSourceInfo.ROYAL_TITAN_KILLS, 1.0 / 83.33),
+                ImmutableList.of(30628, 30631)
+        );
+
+        CollectionLogItem iceCrown = new CollectionLogItem(30628, "Ice element staff crown", 0, false, 0);
+        CollectionLogItem fireCrown = new CollectionLogItem(30631, "Fire element staff crown", 3, true, 0);
+        CollectionLog mockCollectionLog = CollectionLogLuckTestUtils.getMockCollectionLogWithKcsAndItems(
+                ImmutableMap.of(LogItemSourceInfo.ROYAL_TITAN_KILLS.getName(), 100),
+                ImmutableList.of(iceCrown, fireCrown)
+        );
+        String quantityDescription = drop.getQuantityDescription(iceCrown, mockCollectionLog);
+
+        // The ice crown's luck changes when another fire crown is received, so cached results must too
+        mockCollectionLog.correctItemQuantity(fireCrown, 4);
+
+        assertNotEquals(quantityDescription, drop.getQuantityDescription(iceCrown, mockCollectionLog));
+        assertEquals(drop.getQuantityDescription(iceCrown, mockCollectionLog),
+                drop.getQuantityDescription(fireCrown, mockCollectionLog));
+    }
+
+}
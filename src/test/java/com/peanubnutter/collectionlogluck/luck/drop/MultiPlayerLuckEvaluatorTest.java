@@ -0,0 +1,102 @@
+package com.peanubnutter.collectionlogluck.luck.drop;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.peanubnutter.collectionlogluck.luck.LogItemInfo;
+import com.peanubnutter.collectionlogluck.luck.LogItemSourceInfo;
+import com.peanubnutter.collectionlogluck.luck.LuckCalculationResult;
+import com.peanubnutter.collectionlogluck.model.CollectionLog;
+import com.peanubnutter.collectionlogluck.model.CollectionLogItem;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class MultiPlayerLuckEvaluatorTest {
+
+    private static final List<LogItemInfo> LOG_ITEM_INFOS = ImmutableList.of(
+            LogItemInfo.MAGIC_FANG_12932,
+            LogItemInfo.JAR_OF_SWAMP_12936,
+            LogItemInfo.PET_SNAKELING_12921,
+            LogItemInfo.ABYSSAL_ORPHAN_13262,
+            // not a plain BinomialDrop
+            LogItemInfo.BLOOD_MOON_HELM_29028,
+            // missing KC
+            LogItemInfo.ABYSSAL_WHIP_4151
+    );
+
+    private static CollectionLog getMockCollectionLog(int zulrahKc, int sireKc, int numMagicFangs, int numOtherItems) {
+        List<CollectionLogItem> items = new ArrayList<>();
+        items.add(new CollectionLogItem(12932, "Magic fang", numMagicFangs, numMagicFangs > 0, 0));
+        items.add(new CollectionLogItem(12936, "Jar of swamp", numOtherItems, numOtherItems > 0, 1));
+        items.add(new CollectionLogItem(12921, "Pet snakeling", numOtherItems, numOtherItems > 0, 2));
+        items.add(new CollectionLogItem(13262, "Abyssal orphan", numOtherItems, numOtherItems > 0, 3));
+        items.add(new CollectionLogItem(29028, "Blood moon helm", numOtherItems, numOtherItems > 0, 4));
+        items.add(new CollectionLogItem(4151, "Abyssal whip", numOtherItems, numOtherItems > 0, 5));
+        return CollectionLogLuckTestUtils.getMockCollectionLogWithKcsAndItems(ImmutableMap.of(
+                LogItemSourceInfo.ZULRAH_KILLS.getName(), zulrahKc,
+                LogItemSourceInfo.ABYSSAL_SIRE_KILLS.getName(), sireKc,
+                LogItemSourceInfo.LUNAR_CHESTS_OPENED.getName(), zulrahKc / 10
+        ), items);
+    }
+
+    @Test
+    public void evaluate_matchesSinglePlayerCalculation() {
+        List<CollectionLog> collectionLogs = ImmutableList.of(
+                getMockCollectionLog(0, 0, 0, 0),
+                getMockCollectionLog(500, 200, 1, 0),
+                // same inputs as the previous player
+                getMockCollectionLog(500, 200, 1, 0),
+                getMockCollectionLog(3000, 4000, 4, 1),
+                getMockCollectionLog(25_000, 10, 60, 3),
+                // more items than trials
+                getMockCollectionLog(1, 1, 5, 2),
+                // both tails are long
+                getMockCollectionLog(1_000_000, 100_000, 3000, 40)
+        );
+
+        LuckCalculationResult[][] results = new MultiPlayerLuckEvaluator(null).evaluate(collectionLogs, LOG_ITEM_INFOS);
+
+        for (int playerIndex = 0; playerIndex < collectionLogs.size(); playerIndex++) {
+            CollectionLog collectionLog = collectionLogs.get(playerIndex);
+            for (int itemIndex = 0; itemIndex < LOG_ITEM_INFOS.size(); itemIndex++) {
+                LogItemInfo logItemInfo = LOG_ITEM_INFOS.get(itemIndex);
+                DropLuck dropLuck = logItemInfo.getDropProbabilityDistribution();
+                CollectionLogItem item = collectionLog.searchForItem(logItemInfo.getItemName());
+                LuckCalculationResult result = results[playerIndex][itemIndex];
+                String message = logItemInfo.getItemName() + " for player " + playerIndex;
+
+                if (dropLuck.getIncalculableReason(item, null) != null) {
+                    assertNull(message, result);
+                    continue;
+                }
+                double expectedLuck = dropLuck.calculateLuck(item, collectionLog, null);
+                double expectedDryness = dropLuck.calculateDryness(item, collectionLog, null);
+                if (expectedLuck < 0 || expectedDryness < 0) {
+                    assertNull(message, result);
+                    continue;
+                }
+                assertEquals(message, expectedLuck, result.getLuck(), 1e-9);
+                assertEquals(message, expectedDryness, result.getDryness(), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void evaluate_skipsItemsMissingFromLog() {
+        CollectionLog emptyCollectionLog = CollectionLogLuckTestUtils.getMockCollectionLogWithKc(
+                LogItemSourceInfo.ZULRAH_KILLS.getName(), 100);
+
+        LuckCalculationResult[][] results = new MultiPlayerLuckEvaluator(null)
+                .evaluate(ImmutableList.of(emptyCollectionLog), LOG_ITEM_INFOS);
+
+        assertEquals(1, results.length);
+        for (LuckCalculationResult result : results[0]) {
+            assertNull(result);
+        }
+    }
+
+}
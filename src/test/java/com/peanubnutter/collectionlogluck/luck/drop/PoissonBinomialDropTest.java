@@ -3,6 +3,8 @@ package com.peanubnutter.collectionlogluck.luck.drop;
 import com.peanubnutter.collectionlogluck.model.CollectionLog;
 import com.peanubnutter.collectionlogluck.model.CollectionLogItem;
 import com.peanubnutter.collectionlogluck.luck.LogItemSourceInfo;
+import com.peanubnutter.collectionlogluck.luck.LuckCalculationResult;
+import com.peanubnutter.collectionlogluck.luck.LuckProjection;
 import com.peanubnutter.collectionlogluck.luck.RollInfo;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -12,6 +14,8 @@ import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class PoissonBinomialDropTest {
 
@@ -106,9 +110,9 @@ public class PoissonBinomialDropTest {
         int kc1 = 400;
         int kc2 = 600;
         int numObtained = 2;
-        double expectedLuck = 0.00006;
-        double expectedDryness = 0.99709;
-        // expected probabilities calculated online, with the following sig digits
+        double expectedLuck = 0.00048;
+        double expectedDryness = 0.99732;
+        // expected probabilities calculated exactly (binomial, since both sources have the same drop chance)
         double tolerance = 0.00001;
 
         Map<String, Integer> kcs = ImmutableMap.of(
@@ -136,9 +140,9 @@ public class PoissonBinomialDropTest {
         int kc1 = 400;
         int kc2 = 600;
         int numObtained = 20;
-        double expectedLuck = 0.99697;
-        double expectedDryness = 0.00122;
-        // expected probabilities calculated online, with the following sig digits
+        double expectedLuck = 0.99671;
+        double expectedDryness = 0.00150;
+        // expected probabilities calculated exactly (binomial, since both sources have the same drop chance)
         double tolerance = 0.00001;
 
         Map<String, Integer> kcs = ImmutableMap.of(
@@ -199,9 +203,9 @@ public class PoissonBinomialDropTest {
         int kc1 = 40000;
         int kc2 = 60000;
         int numObtained = 4;
-        double expectedLuck = 0.97845;
-        double expectedDryness = 0.00187;
-        // expected probabilities calculated online, with the following sig digits
+        double expectedLuck = 0.98101;
+        double expectedDryness = 0.00366;
+        // expected probabilities calculated exactly (binomial, since both sources have the same drop chance)
         double tolerance = 0.00001;
 
         Map<String, Integer> kcs = ImmutableMap.of(
@@ -528,4 +532,70 @@ public class PoissonBinomialDropTest {
         assertEquals(expectedKcString, actualKcString);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testPoissonBinomial_projectLuckMatchesCalculationAtEachKc() {
+        int artioKc = 150;
+        int callistoKc = 60;
+        int numAdditionalKc = 200;
+        PoissonBinomialDrop drop = new PoissonBinomialDrop(ImmutableList.of(
+                new RollInfo(LogItemSourceInfo.ARTIO_KILLS, 1.0 / 100),
+                new RollInfo(LogItemSourceInfo.CALLISTO_KILLS, 1.0 / 40)));
+        CollectionLogItem item = new CollectionLogItem(1234, "some item name", 3, true, 0);
+
+        LuckProjection projection = drop.projectLuck(item,
+                CollectionLogLuckTestUtils.getMockCollectionLogWithKcs(ImmutableMap.of(
+                        LogItemSourceInfo.ARTIO_KILLS.getName(), artioKc,
+                        LogItemSourceInfo.CALLISTO_KILLS.getName(), callistoKc)),
+                null, numAdditionalKc);
+
+        // Additional KC is of the first drop source
+        assertEquals(LogItemSourceInfo.ARTIO_KILLS, projection.getDropSource());
+        for (int additionalKc = 0; additionalKc <= numAdditionalKc; additionalKc += 40) {
+            CollectionLog futureCollectionLog = CollectionLogLuckTestUtils.getMockCollectionLogWithKcs(ImmutableMap.of(
+                    LogItemSourceInfo.ARTIO_KILLS.getName(), artioKc + additionalKc,
+                    LogItemSourceInfo.CALLISTO_KILLS.getName(), callistoKc));
+            assertEquals(drop.calculateLuck(item, futureCollectionLog, null), projection.getLuck(additionalKc), 1e-6);
+            assertEquals(drop.calculateDryness(item, futureCollectionLog, null), projection.getDryness(additionalKc), 1e-6);
+        }
+    }
+
+    @Test
+    public void testApproximateLuck_rareDrops_closeToExact() {
+        assertApproximationCloseToExact(0.002, 0.0005, 1500, 2500, 5, 0.01);
+    }
+
+    @Test
+    public void testApproximateLuck_commonDrops_closeToExact() {
+        assertApproximationCloseToExact(0.2, 0.3, 400, 600, 260, 0.01);
+    }
+
+    @Test
+    public void testApproximateLuck_noKc() {
+        PoissonBinomialDrop drop = new PoissonBinomialDrop(ImmutableList.of(
+                new RollInfo(LogItemSourceInfo.ABYSSAL_SIRE_KILLS, 0.01)));
+        CollectionLog collectionLog = CollectionLogLuckTestUtils.getMockCollectionLogWithKc(
+                LogItemSourceInfo.ABYSSAL_SIRE_KILLS.getName(), 0);
+        CollectionLogItem item = new CollectionLogItem(1234, "some item name", 0, false, 0);
+
+        assertNull(drop.approximateLuck(item, collectionLog, null));
+    }
+
+    private void assertApproximationCloseToExact(double dropChance1, double dropChance2, int kc1, int kc2,
+                                                 int numObtained, double tolerance) {
+        Map<String, Integer> kcs = ImmutableMap.of(
+                LogItemSourceInfo.ARTIO_KILLS.getName(), kc1,
+                LogItemSourceInfo.CALLISTO_KILLS.getName(), kc2);
+        CollectionLog collectionLog = CollectionLogLuckTestUtils.getMockCollectionLogWithKcs(kcs);
+        PoissonBinomialDrop drop = new PoissonBinomialDrop(ImmutableList.of(
+                new RollInfo(LogItemSourceInfo.ARTIO_KILLS, dropChance1),
+                new RollInfo(LogItemSourceInfo.CALLISTO_KILLS, dropChance2)));
+        CollectionLogItem item = new CollectionLogItem(1234, "some item name", numObtained, true, 0);
+
+        LuckCalculationResult approximation = drop.approximateLuck(item, collectionLog, null);
+
+        assertTrue(approximation.isApproximate());
+        assertEquals(drop.calculateLuck(item, collectionLog, null), approximation.getLuck(), tolerance);
+        assertEquals(drop.calculateDryness(item, collectionLog, null), approximation.getDryness(), tolerance);
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.peanubnutter.collectionlogluck.luck.probability;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CdfAtlasTest {
+
+    private static final List<Double> DROP_CHANCES = ImmutableList.of(1.0 / 5000, 1.0 / 128, 1.0 / 3, 0.95);
+
+    private Path atlasFile;
+
+    @After
+    public void tearDown() throws IOException {
+        CdfAtlas.install(null);
+        if (atlasFile != null) {
+            Files.deleteIfExists(atlasFile);
+        }
+    }
+
+    private CdfAtlas writeAndLoad(List<Double> dropChances) throws IOException {
+        atlasFile = Files.createTempFile("cdf-atlas", ".bin");
+        CdfAtlas.write(atlasFile, dropChances);
+        return CdfAtlas.load(atlasFile);
+    }
+
+    @Test
+    public void cumulativeProbability_matchesLiveCalculation() throws IOException {
+        CdfAtlas atlas = writeAndLoad(DROP_CHANCES);
+        assertEquals(DROP_CHANCES.size(), atlas.getNumTables());
+
+        for (double dropChance : DROP_CHANCES) {
+            for (int numTrials : new int[]{0, 1, 2, 7, 10, 300, 4095}) {
+                for (int numSuccesses = 0; numSuccesses <= CdfAtlas.MAX_SUCCESSES; numSuccesses++) {
+                    double cumulativeProbability = atlas.cumulativeProbability(numSuccesses, numTrials, dropChance);
+                    if (Double.isNaN(cumulativeProbability)) {
+                        // only trial counts far beyond the expected number of trials per drop are left out
+                        assertTrue(numTrials * dropChance > 5);
+                        continue;
+                    }
+                    assertEquals(
+                            ProbabilityKernels.binomialCumulativeProbability(numSuccesses, numTrials, dropChance),
+                            cumulativeProbability, 1e-10);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void cumulativeProbability_returnsNaNOutsideAtlas() throws IOException {
+        CdfAtlas atlas = writeAndLoad(DROP_CHANCES);
+
+        assertTrue(Double.isNaN(atlas.cumulativeProbability(0, 100, 1.0 / 129)));
+        assertTrue(Double.isNaN(atlas.cumulativeProbability(CdfAtlas.MAX_SUCCESSES + 1, 100, 1.0 / 128)));
+        assertTrue(Double.isNaN(atlas.cumulativeProbability(-1, 100, 1.0 / 128)));
+        assertTrue(Double.isNaN(atlas.cumulativeProbability(0, CdfAtlas.MAX_TRIALS + 1, 1.0 / 5000)));
+    }
+
+    @Test
+    public void fingerprint_changesWithDropChances() throws IOException {
+        CdfAtlas atlas = writeAndLoad(DROP_CHANCES);
+
+        assertEquals(CdfAtlas.fingerprint(DROP_CHANCES), atlas.getFingerprint());
+        assertEquals(CdfAtlas.fingerprint(DROP_CHANCES), CdfAtlas.fingerprint(ImmutableList.of(0.95, 1.0 / 3, 1.0 / 128, 1.0 / 5000)));
+        assertNotEquals(CdfAtlas.fingerprint(DROP_CHANCES), CdfAtlas.fingerprint(DROP_CHANCES.subList(0, 2)));
+    }
+
+    @Test
+    public void readFingerprint_matchesLoadedAtlas() throws IOException {
+        CdfAtlas atlas = writeAndLoad(DROP_CHANCES);
+
+        assertEquals(atlas.getFingerprint(), CdfAtlas.readFingerprint(atlasFile));
+    }
+
+    @Test
+    public void write_replacesOutdatedAtlasWithoutLeavingTempFiles() throws IOException {
+        atlasFile = Files.createTempFile("cdf-atlas", ".bin");
+        CdfAtlas.write(atlasFile, DROP_CHANCES.subList(0, 2));
+        CdfAtlas.write(atlasFile, DROP_CHANCES);
+
+        assertEquals(CdfAtlas.fingerprint(DROP_CHANCES), CdfAtlas.readFingerprint(atlasFile));
+        try (Stream<Path> siblings = Files.list(atlasFile.getParent())) {
+            String atlasFileName = atlasFile.getFileName().toString();
+            assertFalse(siblings.anyMatch(sibling -> sibling.getFileName().toString().startsWith(atlasFileName)
+                    && sibling.getFileName().toString().endsWith(".tmp")));
+        }
+    }
+
+    @Test
+    public void readFingerprint_rejectsOtherFiles() throws IOException {
+        atlasFile = Files.createTempFile("cdf-atlas", ".bin");
+        Files.write(atlasFile, new byte[]{1, 2, 3});
+        try {
+            CdfAtlas.readFingerprint(atlasFile);
+            fail("Expected an IOException");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void load_rejectsOtherFiles() throws IOException {
+        atlasFile = Files.createTempFile("cdf-atlas", ".bin");
+        Files.write(atlasFile, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21});
+        try {
+            CdfAtlas.load(atlasFile);
+            fail("Expected an IOException");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+}
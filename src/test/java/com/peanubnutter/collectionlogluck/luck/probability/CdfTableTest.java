@@ -0,0 +1,62 @@
+package com.peanubnutter.collectionlogluck.luck.probability;
+
+import org.apache.commons.math3.distribution.BinomialDistribution;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class CdfTableTest {
+
+    @Test
+    public void quantile_matchesInverseCdf() {
+        BinomialDistribution binomial = new BinomialDistribution(1000, 0.01);
+        CdfTable table = new CdfTable(binomial::cumulativeProbability);
+
+        for (double quantile : new double[]{0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99}) {
+            assertEquals(binomial.inverseCumulativeProbability(quantile), table.quantile(quantile));
+        }
+    }
+
+    @Test
+    public void quantile_onlyComputesFewValues() {
+        AtomicInteger numComputed = new AtomicInteger();
+        BinomialDistribution binomial = new BinomialDistribution(1_000_000, 0.1);
+        CdfTable table = new CdfTable(k -> {
+            numComputed.incrementAndGet();
+            return binomial.cumulativeProbability(k);
+        });
+
+        int median = table.quantile(0.5);
+        assertEquals(100_000, median);
+        // Doubling up to ~2^17, then binary searching down from there
+        assertTrue(numComputed.get() < 60);
+
+        // Already computed values are looked up
+        int numComputedBefore = numComputed.get();
+        assertEquals(median, table.quantile(0.5));
+        assertEquals(numComputedBefore, numComputed.get());
+    }
+
+    @Test
+    public void quantile_returnsZeroForLikelyNoDrops() {
+        CdfTable table = new CdfTable(new BinomialDistribution(10, 0.001)::cumulativeProbability);
+
+        assertEquals(0, table.quantile(0.9));
+        assertEquals(0.0, table.cumulativeProbability(-1), 0);
+    }
+
+    @Test
+    public void quantile_returnsNegativeIfNeverReached() {
+        CdfTable table = new CdfTable(k -> 0.5);
+
+        assertEquals(-1, table.quantile(0.9));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void quantile_rejectsInvalidQuantile() {
+        new CdfTable(k -> 1).quantile(1);
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.peanubnutter.collectionlogluck.luck.probability;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DistributionEngineSelectorTest {
+
+    private final DistributionEngineSelector selector = new DistributionEngineSelector();
+
+    @Test
+    public void selectPoissonBinomialEngine_lowKc_exact() {
+        EngineSelection selection = selector.selectPoissonBinomialEngine(
+                ImmutableList.of(0.01, 0.02), ImmutableList.of(40, 60), 3);
+
+        assertEquals(DistributionEngine.GROUPED_POISSON_BINOMIAL, selection.getEngine());
+        assertEquals(0, selection.getEstimatedError(), 0);
+        assertTrue(selection.meetsAccuracyTarget());
+        assertEquals(DistributionEngine.values().length - 2, selection.getCandidates().size());
+    }
+
+    @Test
+    public void selectPoissonBinomialEngine_rareDrop_poisson() {
+        // Le Cam-style bound: the error is tiny for very rare drops, and the Poisson CDF is cheaper than convolution
+        EngineSelection selection = selector.selectPoissonBinomialEngine(
+                ImmutableList.of(1.0 / 50_000, 1.0 / 100_000), ImmutableList.of(200_000, 300_000), 10);
+
+        assertEquals(DistributionEngine.POISSON_APPROX, selection.getEngine());
+        assertTrue(selection.getEstimatedError() <= selector.getAccuracyTarget());
+    }
+
+    @Test
+    public void selectPoissonBinomialEngine_manyCommonDrops_approximate() {
+        // Far too expensive to compute exactly, and not rare enough for the Poisson approximation
+        EngineSelection selection = selector.selectPoissonBinomialEngine(
+                ImmutableList.of(0.3, 0.4, 0.2), ImmutableList.of(400_000, 600_000, 100_000), 380_000);
+
+        assertEquals(DistributionEngine.SADDLEPOINT_APPROX, selection.getEngine());
+        assertTrue(selection.getEstimatedCost() <= selector.getMaxCost());
+        // The saddlepoint approximation has no proven error bound
+        assertFalse(selection.meetsAccuracyTarget());
+    }
+
+    @Test
+    public void selectPoissonBinomialEngine_affordableExact_preferredToSaddlepoint() {
+        // The saddlepoint approximation is cheaper and probably accurate enough, but only the exact engine is known to be
+        EngineSelection selection = selector.selectPoissonBinomialEngine(
+                ImmutableList.of(0.3, 0.4), ImmutableList.of(8000, 8000), 2499);
+
+        assertEquals(DistributionEngine.GROUPED_POISSON_BINOMIAL, selection.getEngine());
+        assertTrue(selection.meetsAccuracyTarget());
+        for (EngineEstimate candidate : selection.getCandidates()) {
+            if (candidate.getEngine() == DistributionEngine.SADDLEPOINT_APPROX) {
+                assertFalse(candidate.isErrorBounded());
+                assertTrue(candidate.getEstimatedError() <= selector.getAccuracyTarget());
+                assertTrue(candidate.getEstimatedCost() < selection.getEstimatedCost());
+            }
+        }
+    }
+
+    @Test
+    public void selectPoissonBinomialEngine_looseTarget_cheapestApproximation() {
+        DistributionEngineSelector looseSelector = new DistributionEngineSelector(0.1, DistributionEngineSelector.DEFAULT_MAX_COST);
+
+        EngineSelection selection = looseSelector.selectPoissonBinomialEngine(
+                ImmutableList.of(0.3, 0.4), ImmutableList.of(40_000, 60_000), 35_000);
+
+        assertEquals(DistributionEngine.REFINED_NORMAL_APPROX, selection.getEngine());
+        assertTrue(selection.meetsAccuracyTarget());
+    }
+
+    @Test
+    public void selectPoissonBinomialEngine_unreachableTarget_mostAccurateAffordable() {
+        DistributionEngineSelector strictSelector = new DistributionEngineSelector(1e-12, 1000);
+
+        EngineSelection selection = strictSelector.selectPoissonBinomialEngine(
+                ImmutableList.of(0.3, 0.2), ImmutableList.of(100_000, 50_000), 40_000);
+
+        assertFalse(selection.meetsAccuracyTarget());
+        assertTrue(selection.getEstimatedCost() <= strictSelector.getMaxCost());
+        for (EngineEstimate candidate : selection.getCandidates()) {
+            if (candidate.getEstimatedCost() <= strictSelector.getMaxCost()) {
+                assertTrue(selection.getEstimatedError() <= candidate.getEstimatedError());
+            }
+        }
+    }
+
+    @Test
+    public void selectBinomialUniformSumEngine_fewSuccesses_discrete() {
+        EngineSelection selection = selector.selectBinomialUniformSumEngine(20, 0.01, 5, 25, 20);
+
+        assertEquals(DistributionEngine.BINOMIAL_UNIFORM_SUM_DISCRETE_APPROX, selection.getEngine());
+    }
+
+    @Test
+    public void selectBinomialUniformSumEngine_manySuccesses_normal() {
+        EngineSelection selection = selector.selectBinomialUniformSumEngine(1_000_000, 0.5, 100, 10_000, 2.5e9);
+
+        assertEquals(DistributionEngine.BINOMIAL_UNIFORM_SUM_NORMAL_APPROX, selection.getEngine());
+    }
+
+}
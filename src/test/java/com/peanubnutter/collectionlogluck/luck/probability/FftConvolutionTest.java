@@ -0,0 +1,39 @@
+package com.peanubnutter.collectionlogluck.luck.probability;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class FftConvolutionTest {
+
+    @Test
+    public void convolve_twoCoinFlips() {
+        double[] result = FftConvolution.convolve(new double[]{0.5, 0.5}, new double[]{0.5, 0.5});
+
+        assertArrayEquals(new double[]{0.25, 0.5, 0.25}, result, 0.0000000001);
+    }
+
+    @Test
+    public void convolve_fftEqualToDirect() {
+        // To make test deterministic
+        Random r = new Random(1234);
+        double[] a = new double[300];
+        double[] b = new double[77];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = r.nextDouble();
+        }
+        for (int i = 0; i < b.length; i++) {
+            b[i] = r.nextDouble();
+        }
+
+        double[] direct = FftConvolution.convolveDirectly(a, b);
+        double[] fft = FftConvolution.convolveWithFft(a, b);
+
+        assertEquals(a.length + b.length - 1, fft.length);
+        assertArrayEquals(direct, fft, 0.000000001);
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.peanubnutter.collectionlogluck.luck.probability;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.commons.math3.distribution.BinomialDistribution;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class GroupedPoissonBinomialDistributionTest {
+
+    @Test
+    public void cumulativeProbability_outOfRange() {
+        GroupedPoissonBinomialDistribution dist = new GroupedPoissonBinomialDistribution(
+                ImmutableList.of(0.5, 0.25), ImmutableList.of(1, 1));
+
+        assertEquals(0, dist.cumulativeProbability(-1), 0.0000000001);
+        assertEquals(1, dist.cumulativeProbability(2), 0.0000000001);
+    }
+
+    @Test
+    public void cumulativeProbability_noTrials() {
+        GroupedPoissonBinomialDistribution dist = new GroupedPoissonBinomialDistribution(
+                ImmutableList.of(0.5), ImmutableList.of(0));
+
+        assertEquals(1, dist.cumulativeProbability(0), 0.0000000001);
+    }
+
+    @Test
+    public void cumulativeProbability_singleGroupEqualToBinomial() {
+        int kc = 5000;
+        double dropChance = 0.01;
+
+        GroupedPoissonBinomialDistribution dist = new GroupedPoissonBinomialDistribution(
+                ImmutableList.of(dropChance), ImmutableList.of(kc));
+        BinomialDistribution binomial = new BinomialDistribution(kc, dropChance);
+
+        for (int successes = 0; successes < 100; successes++) {
+            assertEquals(binomial.cumulativeProbability(successes), dist.cumulativeProbability(successes), 0.0000000001);
+        }
+    }
+
+    @Test
+    public void cumulativeProbability_equalToExact() {
+        List<Double> groupedProbabilities = ImmutableList.of(0.01, 0.2, 0.05, 0.5);
+        List<Integer> groupedCounts = ImmutableList.of(100, 20, 0, 30);
+
+        List<Double> probabilities = new ArrayList<>();
+        for (int i = 0; i < groupedProbabilities.size(); i++) {
+            probabilities.addAll(Collections.nCopies(groupedCounts.get(i), groupedProbabilities.get(i)));
+        }
+
+        GroupedPoissonBinomialDistribution groupedDist =
+                new GroupedPoissonBinomialDistribution(groupedProbabilities, groupedCounts);
+        PoissonBinomialDistribution exactDist = new PoissonBinomialDistribution(probabilities);
+
+        for (int successes = 0; successes <= 40; successes++) {
+            assertEquals(exactDist.cumulativeProbability(successes), groupedDist.cumulativeProbability(successes), 0.0000000001);
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.peanubnutter.collectionlogluck.luck.probability;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.commons.math3.distribution.BinomialDistribution;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class IncrementalPoissonBinomialPmfTest {
+
+    @Test
+    public void addTrial_matchesBinomialForEveryNumberOfTrials() {
+        double p = 0.05;
+        IncrementalPoissonBinomialPmf pmf = new IncrementalPoissonBinomialPmf(4);
+
+        for (int n = 1; n <= 500; n++) {
+            pmf.addTrial(p);
+            BinomialDistribution binomial = new BinomialDistribution(n, p);
+            for (int k = 0; k <= 4; k++) {
+                assertEquals(binomial.cumulativeProbability(k), pmf.cumulativeProbability(k), 1e-10);
+            }
+        }
+        assertEquals(500, pmf.getNumTrials());
+    }
+
+    @Test
+    public void addTrials_matchesGroupedPoissonBinomial() {
+        IncrementalPoissonBinomialPmf pmf = new IncrementalPoissonBinomialPmf(6);
+        pmf.addTrials(0.01, 300);
+        pmf.addTrials(0.2, 3);
+        pmf.addTrials(0.05, 40);
+
+        GroupedPoissonBinomialDistribution expected = new GroupedPoissonBinomialDistribution(
+                ImmutableList.of(0.01, 0.2, 0.05), ImmutableList.of(300, 3, 40));
+        for (int k = 0; k <= 6; k++) {
+            assertEquals(expected.cumulativeProbability(k), pmf.cumulativeProbability(k), 1e-10);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cumulativeProbability_rejectsTruncatedValues() {
+        new IncrementalPoissonBinomialPmf(2).cumulativeProbability(3);
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.peanubnutter.collectionlogluck.luck.probability;
+
+import org.apache.commons.math3.distribution.BinomialDistribution;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class LogFactorialTableTest {
+
+    @Test
+    public void logFactorial_matchesDirectProduct() {
+        LogFactorialTable table = new LogFactorialTable();
+        assertEquals(0, table.logFactorial(0), 0);
+        assertEquals(0, table.logFactorial(1), 0);
+        assertEquals(Math.log(120), table.logFactorial(5), 1e-12);
+        assertEquals(Math.log(3628800), table.logFactorial(10), 1e-12);
+    }
+
+    @Test
+    public void logFactorial_growsAndFallsBackToLogGamma() {
+        LogFactorialTable table = new LogFactorialTable();
+        // Growing the table in steps must match growing it at once
+        double small = table.logFactorial(1000);
+        double large = table.logFactorial(100_000);
+        LogFactorialTable otherTable = new LogFactorialTable();
+        assertEquals(large, otherTable.logFactorial(100_000), 1e-6);
+        assertEquals(small, otherTable.logFactorial(1000), 1e-9);
+
+        // Stirling's approximation is very accurate for large n
+        int n = 5_000_000;
+        double stirling = n * Math.log(n) - n + 0.5 * Math.log(2 * Math.PI * n) + 1.0 / (12.0 * n);
+        assertEquals(stirling, table.logFactorial(n), 1e-3);
+    }
+
+    @Test
+    public void logBinomialProbability_matchesBinomialDistribution() {
+        LogFactorialTable table = new LogFactorialTable();
+        double dropChance = 1.0 / 512;
+        int numTrials = 3000;
+        BinomialDistribution distribution = new BinomialDistribution(numTrials, dropChance);
+        for (int k = 0; k <= 20; k++) {
+            double probability = Math.exp(
+                    table.logBinomialProbability(k, numTrials, Math.log(dropChance), Math.log1p(-dropChance)));
+            assertEquals(distribution.probability(k), probability, 1e-10);
+        }
+    }
+
+}
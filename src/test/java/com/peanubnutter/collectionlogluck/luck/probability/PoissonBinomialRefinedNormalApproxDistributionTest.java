@@ -298,4 +298,56 @@ public class PoissonBinomialRefinedNormalApproxDistributionTest {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    public void cumulativeProbability_groupedEqualToExpanded() {
+        List<Double> groupedProbabilities = ImmutableList.of(1.0 / 50, 1.0 / 200, 1.0 / 1000);
+        List<Integer> groupedCounts = ImmutableList.of(300, 1200, 5000);
+
+        List<Double> probabilities = new ArrayList<>();
+        for (int i = 0; i < groupedProbabilities.size(); i++) {
+            probabilities.addAll(Collections.nCopies(groupedCounts.get(i), groupedProbabilities.get(i)));
+        }
+
+        PoissonBinomialRefinedNormalApproxDistribution expandedDist = new PoissonBinomialRefinedNormalApproxDistribution(probabilities);
+        PoissonBinomialRefinedNormalApproxDistribution groupedDist =
+                new PoissonBinomialRefinedNormalApproxDistribution(groupedProbabilities, groupedCounts);
+
+        assertEquals(expandedDist.getNumTrials(), groupedDist.getNumTrials());
+        for (int successes = 0; successes <= 40; successes++) {
+            assertEquals(expandedDist.cumulativeProbability(successes), groupedDist.cumulativeProbability(successes), 0.0000000001);
+        }
+    }
+
+    @Test
+    public void cumulativeProbability_momentsEqualToExpanded() {
+        double p = 0.1;
+        int kc = 500;
+        List<Double> probabilities = new ArrayList<>(Collections.nCopies(kc, p));
+
+        PoissonBinomialRefinedNormalApproxDistribution expandedDist = new PoissonBinomialRefinedNormalApproxDistribution(probabilities);
+        PoissonBinomialRefinedNormalApproxDistribution momentsDist = new PoissonBinomialRefinedNormalApproxDistribution(
+                kc, kc * p, kc * p * (1 - p), kc * p * (1 - p) * (1 - 2 * p));
+
+        assertEquals(expandedDist.getMean(), momentsDist.getMean(), 0.0000000001);
+        assertEquals(expandedDist.getStandardDeviation(), momentsDist.getStandardDeviation(), 0.0000000001);
+        assertEquals(expandedDist.getSkewness(), momentsDist.getSkewness(), 0.0000000001);
+        for (int successes = 0; successes <= kc; successes += 5) {
+            assertEquals(expandedDist.cumulativeProbability(successes), momentsDist.cumulativeProbability(successes), 0.0000000001);
+        }
+    }
+
+    @Test
+    public void cumulativeProbability_grouped_manyKc_equalToBinomial() {
+        double dropChance = 1.0 / 25;
+        int kc = 100_000;
+
+        PoissonBinomialRefinedNormalApproxDistribution dist = new PoissonBinomialRefinedNormalApproxDistribution(
+                ImmutableList.of(dropChance), ImmutableList.of(kc));
+        BinomialDistribution binomial = new BinomialDistribution(kc, dropChance);
+
+        for (int successes = 3800; successes <= 4200; successes += 20) {
+            assertEquals(binomial.cumulativeProbability(successes), dist.cumulativeProbability(successes), 0.001);
+        }
+    }
+
+}
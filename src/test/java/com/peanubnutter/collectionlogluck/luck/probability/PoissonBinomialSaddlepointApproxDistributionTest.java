@@ -0,0 +1,89 @@
+package com.peanubnutter.collectionlogluck.luck.probability;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.commons.math3.distribution.BinomialDistribution;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class PoissonBinomialSaddlepointApproxDistributionTest {
+
+    @Test
+    public void cumulativeProbability_outOfRange() {
+        PoissonBinomialSaddlepointApproxDistribution dist = new PoissonBinomialSaddlepointApproxDistribution(
+                ImmutableList.of(0.5), ImmutableList.of(2));
+
+        assertEquals(0, dist.cumulativeProbability(-1), 0.0000000001);
+        assertEquals(1, dist.cumulativeProbability(2), 0.0000000001);
+    }
+
+    @Test
+    public void cumulativeProbability_certainTrials() {
+        // 3 trials are guaranteed to succeed, so there can never be fewer than 3 successes
+        PoissonBinomialSaddlepointApproxDistribution dist = new PoissonBinomialSaddlepointApproxDistribution(
+                ImmutableList.of(1.0, 0.5), ImmutableList.of(3, 10));
+
+        assertEquals(0, dist.cumulativeProbability(2), 0.0000000001);
+    }
+
+    @Test
+    public void cumulativeProbability_zeroProbabilityTrials() {
+        // The 5 impossible trials can never succeed, so 10 successes is the most possible
+        List<Double> probabilities = ImmutableList.of(0.0, 0.3);
+        List<Integer> counts = ImmutableList.of(5, 10);
+        PoissonBinomialSaddlepointApproxDistribution dist =
+                new PoissonBinomialSaddlepointApproxDistribution(probabilities, counts);
+        GroupedPoissonBinomialDistribution exactDist = new GroupedPoissonBinomialDistribution(probabilities, counts);
+
+        assertEquals(1, dist.cumulativeProbability(10), 0.0000000001);
+        assertEquals(1, dist.cumulativeProbability(12), 0.0000000001);
+        assertEquals(exactDist.cumulativeProbability(9), dist.cumulativeProbability(9), 0.0005);
+    }
+
+    @Test
+    public void cumulativeProbability_certainTrials_compareToExact() {
+        List<Double> probabilities = ImmutableList.of(1.0, 0.2);
+        List<Integer> counts = ImmutableList.of(3, 50);
+        PoissonBinomialSaddlepointApproxDistribution dist =
+                new PoissonBinomialSaddlepointApproxDistribution(probabilities, counts);
+        GroupedPoissonBinomialDistribution exactDist = new GroupedPoissonBinomialDistribution(probabilities, counts);
+
+        // Just above the certain trials, the saddlepoint must be found below K'(t) of the certain trials alone
+        for (int successes = 3; successes <= 25; successes++) {
+            assertEquals(exactDist.cumulativeProbability(successes), dist.cumulativeProbability(successes), 0.0005);
+        }
+    }
+
+    @Test
+    public void cumulativeProbability_compareToBinomial() {
+        int kc = 2000;
+        double dropChance = 0.02;
+
+        PoissonBinomialSaddlepointApproxDistribution dist = new PoissonBinomialSaddlepointApproxDistribution(
+                ImmutableList.of(dropChance), ImmutableList.of(kc));
+        BinomialDistribution binomial = new BinomialDistribution(kc, dropChance);
+
+        // Accurate across the whole distribution, including the tails
+        for (int successes = 10; successes <= 80; successes++) {
+            assertEquals(binomial.cumulativeProbability(successes), dist.cumulativeProbability(successes), 0.0005);
+        }
+    }
+
+    @Test
+    public void cumulativeProbability_compareToExact_unequalProbabilities() {
+        List<Double> groupedProbabilities = ImmutableList.of(0.01, 0.1, 0.3);
+        List<Integer> groupedCounts = ImmutableList.of(3000, 400, 50);
+
+        PoissonBinomialSaddlepointApproxDistribution approxDist =
+                new PoissonBinomialSaddlepointApproxDistribution(groupedProbabilities, groupedCounts);
+        GroupedPoissonBinomialDistribution exactDist =
+                new GroupedPoissonBinomialDistribution(groupedProbabilities, groupedCounts);
+
+        for (int successes = 40; successes <= 130; successes += 3) {
+            assertEquals(exactDist.cumulativeProbability(successes), approxDist.cumulativeProbability(successes), 0.0005);
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.peanubnutter.collectionlogluck.luck.probability;
+
+import org.apache.commons.math3.distribution.BinomialDistribution;
+import org.apache.commons.math3.distribution.NormalDistribution;
+import org.apache.commons.math3.distribution.PoissonDistribution;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ProbabilityKernelsTest {
+
+    @Test
+    public void binomial_matchesKnownValues() {
+        assertEquals(Math.pow(0.99, 100), ProbabilityKernels.binomialProbability(0, 100, 0.01), 1e-15);
+        assertEquals(100 * 0.01 * Math.pow(0.99, 99), ProbabilityKernels.binomialProbability(1, 100, 0.01), 1e-14);
+        assertEquals(Math.pow(0.01, 100), ProbabilityKernels.binomialProbability(100, 100, 0.01), 1e-210);
+        assertEquals(Math.pow(0.99, 100), ProbabilityKernels.binomialCumulativeProbability(0, 100, 0.01), 1e-12);
+
+        assertEquals(0, ProbabilityKernels.binomialProbability(-1, 100, 0.01), 0);
+        assertEquals(0, ProbabilityKernels.binomialProbability(101, 100, 0.01), 0);
+        assertEquals(1, ProbabilityKernels.binomialProbability(0, 100, 0), 0);
+        assertEquals(1, ProbabilityKernels.binomialProbability(100, 100, 1), 0);
+        assertEquals(0, ProbabilityKernels.binomialCumulativeProbability(-1, 100, 0.01), 0);
+        assertEquals(1, ProbabilityKernels.binomialCumulativeProbability(100, 100, 0.01), 0);
+    }
+
+    @Test
+    public void binomial_matchesBinomialDistribution() {
+        int[] numTrialsValues = {1, 10, 500, 100_000};
+        double[] probabilities = {1.0 / 5000, 1.0 / 128, 0.3, 0.95};
+        for (int numTrials : numTrialsValues) {
+            for (double p : probabilities) {
+                BinomialDistribution distribution = new BinomialDistribution(numTrials, p);
+                int mean = (int) (numTrials * p);
+                for (int k : new int[]{0, 1, mean / 2, mean, mean + 1, 2 * mean + 3}) {
+                    if (k > numTrials) continue;
+                    double expectedPmf = distribution.probability(k);
+                    assertEquals(expectedPmf, ProbabilityKernels.binomialProbability(k, numTrials, p),
+                            1e-9 * expectedPmf + 1e-300);
+                    assertEquals(distribution.cumulativeProbability(k),
+                            ProbabilityKernels.binomialCumulativeProbability(k, numTrials, p), 1e-12);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void binomialProbability_staysAccurateForManyTrials() {
+        // expected values calculated exactly, to 16 significant digits
+        assertEquals(0.01994495339994156, ProbabilityKernels.binomialProbability(400, 2_000_000, 1.0 / 5000), 1e-17);
+        assertEquals(0.003204061627412102, ProbabilityKernels.binomialProbability(15625, 2_000_000, 1.0 / 128), 1e-17);
+        assertEquals(0.001294337910832464, ProbabilityKernels.binomialProbability(1_900_001, 2_000_000, 0.95), 1e-17);
+    }
+
+    @Test
+    public void poisson_matchesPoissonDistribution() {
+        assertEquals(2.5 * Math.exp(-1), ProbabilityKernels.poissonCumulativeProbability(2, 1), 1e-14);
+        for (double mean : new double[]{0.01, 1, 37.5, 5000}) {
+            PoissonDistribution distribution = new PoissonDistribution(mean);
+            for (int k : new int[]{-1, 0, 1, (int) mean, (int) (2 * mean) + 1}) {
+                assertEquals(distribution.cumulativeProbability(k),
+                        ProbabilityKernels.poissonCumulativeProbability(k, mean), 1e-12);
+            }
+        }
+    }
+
+    @Test
+    public void normal_matchesNormalDistribution() {
+        NormalDistribution standardNormal = new NormalDistribution();
+        for (double x = -6; x <= 6; x += 0.25) {
+            assertEquals(standardNormal.cumulativeProbability(x),
+                    ProbabilityKernels.standardNormalCumulativeProbability(x), 1e-14);
+            assertEquals(standardNormal.density(x), ProbabilityKernels.standardNormalDensity(x), 1e-15);
+        }
+        assertEquals(0.9750021048517795, ProbabilityKernels.normalCumulativeProbability(1.96, 0, 1), 1e-15);
+
+        NormalDistribution normal = new NormalDistribution(250, 12.5);
+        for (double x = 150; x <= 350; x += 7) {
+            assertEquals(normal.cumulativeProbability(x), ProbabilityKernels.normalCumulativeProbability(x, 250, 12.5), 1e-14);
+            assertEquals(normal.density(x), ProbabilityKernels.normalDensity(x, 250, 12.5), 1e-15);
+        }
+
+        // Far into the lower tail, erfc keeps its relative accuracy
+        double farTail = ProbabilityKernels.standardNormalCumulativeProbability(-10);
+        assertEquals(7.619853024160527e-24, farTail, 1e-32);
+        assertEquals(0, ProbabilityKernels.standardNormalCumulativeProbability(-41), 0);
+        assertEquals(1, ProbabilityKernels.standardNormalCumulativeProbability(41), 0);
+    }
+
+}
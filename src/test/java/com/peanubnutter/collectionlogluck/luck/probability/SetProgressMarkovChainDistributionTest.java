@@ -0,0 +1,91 @@
+package com.peanubnutter.collectionlogluck.luck.probability;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.commons.math3.distribution.BinomialDistribution;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class SetProgressMarkovChainDistributionTest {
+
+    @Test
+    public void probability_zeroTrials() {
+        SetProgressMarkovChainDistribution dist = new SetProgressMarkovChainDistribution(0, ImmutableList.of(0.5, 0.5));
+
+        assertEquals(3, dist.getNumStates());
+        assertEquals(1, dist.probability(0), 0.00001);
+        assertEquals(0, dist.probability(1), 0.00001);
+        assertEquals(0, dist.probability(2), 0.00001);
+    }
+
+    @Test
+    public void probability_twoCoinFlips() {
+        SetProgressMarkovChainDistribution dist = new SetProgressMarkovChainDistribution(2, ImmutableList.of(0.5, 0.5));
+
+        // Without reaching the absorbing state early, this matches two independent coin flips
+        assertEquals(0.25, dist.probability(0), 0.00001);
+        assertEquals(0.5, dist.probability(1), 0.00001);
+        assertEquals(0.25, dist.probability(2), 0.00001);
+    }
+
+    @Test
+    public void probability_absorbingStateCapturesExtraProgress() {
+        // A single state before absorption: the absorbing state means "at least 1 success"
+        SetProgressMarkovChainDistribution dist = new SetProgressMarkovChainDistribution(3, ImmutableList.of(0.5));
+
+        assertEquals(0.125, dist.probability(0), 0.00001);
+        assertEquals(0.875, dist.probability(1), 0.00001);
+        assertEquals(0, dist.probability(2), 0.00001);
+    }
+
+    @Test
+    public void probability_dupeProtectedSet() {
+        // 2-piece dupe-protected set where each piece is 1/10: the first piece drops at 2/10, the second at 1/10.
+        SetProgressMarkovChainDistribution dist = new SetProgressMarkovChainDistribution(2, ImmutableList.of(0.2, 0.1));
+
+        assertEquals(0.64, dist.probability(0), 0.00001);
+        assertEquals(0.8 * 0.2 + 0.2 * 0.9, dist.probability(1), 0.00001);
+        assertEquals(0.2 * 0.1, dist.probability(2), 0.00001);
+    }
+
+    @Test
+    public void cumulativeProbability_matchesBinomialForConstantProbabilities() {
+        int numTrials = 1234;
+        double p = 0.01;
+        int numStates = 40;
+
+        SetProgressMarkovChainDistribution dist = new SetProgressMarkovChainDistribution(numTrials,
+                Collections.nCopies(numStates, p));
+        BinomialDistribution binomial = new BinomialDistribution(numTrials, p);
+
+        // Below the absorbing state, the chain is identical to the binomial distribution
+        for (int x = 0; x < numStates; x++) {
+            assertEquals(binomial.cumulativeProbability(x), dist.cumulativeProbability(x), 0.000001);
+        }
+        assertEquals(1, dist.cumulativeProbability(numStates), 0.00001);
+    }
+
+    @Test
+    public void cumulativeProbability_outOfRange() {
+        SetProgressMarkovChainDistribution dist = new SetProgressMarkovChainDistribution(5, ImmutableList.of(0.5, 0.5));
+
+        assertEquals(0, dist.cumulativeProbability(-1), 0.00001);
+        assertEquals(1, dist.cumulativeProbability(2), 0.00001);
+        assertEquals(1, dist.cumulativeProbability(100), 0.00001);
+    }
+
+    @Test
+    public void cumulativeProbability_manyTrials() {
+        List<Double> advanceProbabilities = Collections.nCopies(20, 1.0 / 5000);
+
+        SetProgressMarkovChainDistribution dist = new SetProgressMarkovChainDistribution(1_000_000, advanceProbabilities);
+
+        // Expected 200 successes, so nearly all mass is in the absorbing state
+        assertEquals(0, dist.cumulativeProbability(19), 0.00001);
+        assertEquals(1, dist.probability(20), 0.00001);
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.peanubnutter.collectionlogluck.luck.probability;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class UniqueCountDistributionTest {
+
+    @Test
+    public void probability_noItems() {
+        UniqueCountDistribution dist = new UniqueCountDistribution(ImmutableList.of());
+
+        assertEquals(1, dist.probability(0), 0.0000000001);
+        assertEquals(1, dist.cumulativeProbability(0), 0.0000000001);
+    }
+
+    @Test
+    public void probability_certainAndImpossibleItems() {
+        UniqueCountDistribution dist = new UniqueCountDistribution(ImmutableList.of(1.0, 0.0, 0.5, 1.0));
+
+        assertEquals(0, dist.probability(1), 0.0000000001);
+        assertEquals(0.5, dist.probability(2), 0.0000000001);
+        assertEquals(0.5, dist.probability(3), 0.0000000001);
+        assertEquals(0, dist.cumulativeProbability(1), 0.0000000001);
+        assertEquals(1, dist.cumulativeProbability(3), 0.0000000001);
+    }
+
+    @Test
+    public void cumulativeProbability_equalToExact() {
+        // To make test deterministic
+        Random r = new Random(1234);
+        List<Double> probabilities = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            probabilities.add(r.nextDouble());
+        }
+
+        UniqueCountDistribution dist = new UniqueCountDistribution(probabilities);
+        PoissonBinomialDistribution exactDist = new PoissonBinomialDistribution(probabilities);
+
+        for (int x = 40; x <= 80; x++) {
+            assertEquals(exactDist.cumulativeProbability(x), dist.cumulativeProbability(x), 0.0000001);
+        }
+    }
+
+    @Test
+    public void cumulativeProbability_wholeAccount() {
+        Random r = new Random(2345);
+        List<Double> probabilities = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            // mostly common items, with a long tail of rare ones
+            probabilities.add(Math.pow(r.nextDouble(), 3));
+        }
+
+        UniqueCountDistribution dist = new UniqueCountDistribution(probabilities);
+
+        double mean = probabilities.stream().mapToDouble(Double::doubleValue).sum();
+        assertEquals(mean, dist.getMean(), 0.0000001);
+        assertEquals(0.5, dist.cumulativeProbability((int) Math.round(mean)), 0.05);
+
+        double totalProbability = 0;
+        for (int x = 0; x <= probabilities.size(); x++) {
+            totalProbability += dist.probability(x);
+        }
+        assertEquals(1, totalProbability, 0.0000001);
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.peanubnutter.collectionlogluck.source;
+
+import com.google.common.collect.ImmutableList;
+import com.peanubnutter.collectionlogluck.model.CollectionLog;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.Assert.*;
+
+public class BatchingCollectionLogSourceTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void fetchCollectionLog_batchesRequestsWithinWindow() {
+        StubCollectionLogSource stub = new StubCollectionLogSource(ImmutableList.of("a", "b", "c"));
+        BatchingCollectionLogSource source = new BatchingCollectionLogSource(stub, scheduler, 50, 100);
+
+        List<CompletableFuture<CollectionLog>> futures = new ArrayList<>();
+        for (String username : ImmutableList.of("a", "b", "a", "c", "d")) {
+            futures.add(source.fetchCollectionLog(username));
+        }
+
+        assertEquals("a", futures.get(0).join().getUsername());
+        assertEquals("b", futures.get(1).join().getUsername());
+        assertEquals("a", futures.get(2).join().getUsername());
+        assertEquals("c", futures.get(3).join().getUsername());
+        assertNull(futures.get(4).join());
+
+        List<List<String>> batches = stub.getRequestedBatches();
+        assertEquals(1, batches.size());
+        assertEquals(ImmutableList.of("a", "b", "c", "d"), batches.get(0));
+    }
+
+    @Test
+    public void fetchCollectionLog_sendsFullBatchesEarly() {
+        StubCollectionLogSource stub = new StubCollectionLogSource(ImmutableList.of());
+        // Long enough that only full batches are sent before the window ends
+        BatchingCollectionLogSource source = new BatchingCollectionLogSource(stub, scheduler, 60_000, 2);
+
+        CompletableFuture<CollectionLog> first = source.fetchCollectionLog("a");
+        CompletableFuture<CollectionLog> second = source.fetchCollectionLog("b");
+
+        assertTrue(first.isDone());
+        assertTrue(second.isDone());
+        assertEquals(1, stub.getRequestedBatches().size());
+    }
+
+    @Test
+    public void fetchCollectionLogs_returnsFoundLogs() {
+        StubCollectionLogSource stub = new StubCollectionLogSource(ImmutableList.of("a", "b"));
+        BatchingCollectionLogSource source = new BatchingCollectionLogSource(stub, scheduler, 10, 100);
+
+        assertEquals(new HashSet<>(ImmutableList.of("a", "b")),
+                source.fetchCollectionLogs(ImmutableList.of("a", "b", "c")).join().keySet());
+    }
+
+    @Test
+    public void fetchCollectionLog_propagatesFailures() {
+        StubCollectionLogSource stub = new StubCollectionLogSource(ImmutableList.of("a"), true);
+        BatchingCollectionLogSource source = new BatchingCollectionLogSource(stub, scheduler, 10, 100);
+
+        CompletableFuture<CollectionLog> future = source.fetchCollectionLog("a");
+
+        try {
+            future.join();
+            fail("Expected the fetch to fail");
+        } catch (RuntimeException e) {
+            assertTrue(future.isCompletedExceptionally());
+        }
+    }
+
+}
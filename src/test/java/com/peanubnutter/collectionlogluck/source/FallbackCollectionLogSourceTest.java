@@ -0,0 +1,54 @@
+package com.peanubnutter.collectionlogluck.source;
+
+import com.google.common.collect.ImmutableList;
+import com.peanubnutter.collectionlogluck.model.CollectionLog;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class FallbackCollectionLogSourceTest {
+
+    @Test
+    public void fetchCollectionLogs_onlyAsksLaterSourcesForMissingUsernames() {
+        StubCollectionLogSource first = new StubCollectionLogSource(ImmutableList.of("a"));
+        StubCollectionLogSource second = new StubCollectionLogSource(ImmutableList.of("a", "b"));
+        StubCollectionLogSource third = new StubCollectionLogSource(ImmutableList.of("c"));
+        FallbackCollectionLogSource source = new FallbackCollectionLogSource(ImmutableList.of(first, second, third));
+
+        Map<String, CollectionLog> collectionLogs = source.fetchCollectionLogs(ImmutableList.of("a", "b", "c", "d")).join();
+
+        assertEquals(3, collectionLogs.size());
+        assertEquals("b", collectionLogs.get("b").getUsername());
+        assertNull(collectionLogs.get("d"));
+
+        assertEquals(ImmutableList.of(ImmutableList.of("a", "b", "c", "d")), first.getRequestedBatches());
+        assertEquals(ImmutableList.of(ImmutableList.of("b", "c", "d")), second.getRequestedBatches());
+        assertEquals(ImmutableList.of(ImmutableList.of("c", "d")), third.getRequestedBatches());
+    }
+
+    @Test
+    public void fetchCollectionLogs_skipsFailedSources() {
+        StubCollectionLogSource failing = new StubCollectionLogSource(ImmutableList.of("a"), true);
+        FallbackCollectionLogSource source = new FallbackCollectionLogSource(
+                ImmutableList.of(failing, new EmptyCollectionLogSource()));
+
+        CollectionLog collectionLog = source.fetchCollectionLog("a").join();
+
+        assertNotNull(collectionLog);
+        assertEquals("a", collectionLog.getUsername());
+    }
+
+    @Test
+    public void fetchCollectionLogs_stopsOnceEveryUsernameIsFound() {
+        StubCollectionLogSource first = new StubCollectionLogSource(ImmutableList.of("a"));
+        StubCollectionLogSource second = new StubCollectionLogSource(ImmutableList.of("a"));
+        FallbackCollectionLogSource source = new FallbackCollectionLogSource(ImmutableList.of(first, second));
+
+        source.fetchCollectionLog("a").join();
+
+        assertTrue(second.getRequestedBatches().isEmpty());
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.peanubnutter.collectionlogluck.source;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonObject;
+import com.peanubnutter.collectionlogluck.model.CollectionLog;
+import com.peanubnutter.collectionlogluck.util.CollectionLogLuckApiClient;
+import com.peanubnutter.collectionlogluck.util.JsonUtils;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class RemoteCollectionLogSourceTest {
+
+    @Rule
+    public TemporaryFolder cacheDir = new TemporaryFolder();
+
+    private MockWebServer server;
+
+    // The real JsonUtils has its Gson injected
+    private final JsonUtils jsonUtils = new JsonUtils() {
+        @Override
+        public <T, D extends JsonDeserializer<T>> T fromJsonObject(JsonObject data, Class<T> type, D deserializer) {
+            return new GsonBuilder().registerTypeAdapter(type, deserializer).create().fromJson(data, type);
+        }
+    };
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private RemoteCollectionLogSource createSource(long cacheTtlMillis) {
+        return new RemoteCollectionLogSource(new CollectionLogLuckApiClient(new OkHttpClient()), jsonUtils,
+                server.url("/"), cacheDir.getRoot(), cacheTtlMillis);
+    }
+
+    private static String getCollectionLogJson(String username) {
+        return "{\"collectionLog\":{\"username\":\"" + username + "\",\"totalObtained\":0,\"totalItems\":0,"
+                + "\"uniqueObtained\":0,\"uniqueItems\":0,\"tabs\":{}}}";
+    }
+
+    @Test
+    public void fetchCollectionLogs_reusesCachedLogsWithinTtl() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"a\":" + getCollectionLogJson("a") + "}"));
+        server.enqueue(new MockResponse().setBody("{\"b\":" + getCollectionLogJson("b") + "}"));
+
+        createSource(600_000).fetchCollectionLogs(ImmutableList.of("a")).join();
+        // A new source, like after re-logging, still has the log cached on disk
+        Map<String, CollectionLog> collectionLogs = createSource(600_000)
+                .fetchCollectionLogs(ImmutableList.of("a", "b")).join();
+
+        assertEquals(2, server.getRequestCount());
+        assertTrue(server.takeRequest().getBody().readUtf8().contains("\"a\""));
+        // Only the username without a cached log is requested
+        String secondRequestBody = server.takeRequest().getBody().readUtf8();
+        assertFalse(secondRequestBody.contains("\"a\""));
+        assertTrue(secondRequestBody.contains("\"b\""));
+        assertEquals("a", collectionLogs.get("a").getUsername());
+        assertEquals("b", collectionLogs.get("b").getUsername());
+    }
+
+    @Test
+    public void fetchCollectionLogs_expiredCache_fetchesAgain() {
+        server.enqueue(new MockResponse().setBody("{\"a\":" + getCollectionLogJson("a") + "}"));
+        server.enqueue(new MockResponse().setBody("{\"a\":" + getCollectionLogJson("a") + "}"));
+
+        createSource(-1).fetchCollectionLogs(ImmutableList.of("a")).join();
+        createSource(-1).fetchCollectionLogs(ImmutableList.of("a")).join();
+
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void fetchCollectionLogs_keysByRequestedUsername() throws Exception {
+        // The server may return names in a different case than they were requested
+        server.enqueue(new MockResponse().setBody("{\"SOME NAME\":" + getCollectionLogJson("Some Name") + "}"));
+
+        RemoteCollectionLogSource source = createSource(600_000);
+        CollectionLog collectionLog = source.fetchCollectionLog("some Name").join();
+        CollectionLog cachedCollectionLog = source.fetchCollectionLog("Some name").join();
+
+        assertNotNull(collectionLog);
+        assertNotNull(cachedCollectionLog);
+        assertEquals(1, server.getRequestCount());
+        assertTrue(server.takeRequest().getBody().readUtf8().contains("\"some name\""));
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.peanubnutter.collectionlogluck.source;
+
+import com.peanubnutter.collectionlogluck.model.CollectionLog;
+import com.peanubnutter.collectionlogluck.util.CollectionLogBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+// Knows a fixed set of usernames, and records every batch it is asked for
+public class StubCollectionLogSource implements CollectionLogSource {
+
+    private final Set<String> knownUsernames;
+    private final boolean fail;
+
+    private final List<List<String>> requestedBatches = new ArrayList<>();
+
+    public StubCollectionLogSource(Collection<String> knownUsernames) {
+        this(knownUsernames, false);
+    }
+
+    public StubCollectionLogSource(Collection<String> knownUsernames, boolean fail) {
+        this.knownUsernames = new HashSet<>(knownUsernames);
+        this.fail = fail;
+    }
+
+    public synchronized List<List<String>> getRequestedBatches() {
+        return new ArrayList<>(requestedBatches);
+    }
+
+    @Override
+    public synchronized CompletableFuture<Map<String, CollectionLog>> fetchCollectionLogs(Collection<String> usernames) {
+        requestedBatches.add(new ArrayList<>(usernames));
+
+        CompletableFuture<Map<String, CollectionLog>> future = new CompletableFuture<>();
+        if (fail) {
+            future.completeExceptionally(new RuntimeException("Stub failure"));
+            return future;
+        }
+
+        Map<String, CollectionLog> collectionLogs = new HashMap<>();
+        for (String username : usernames) {
+            if (knownUsernames.contains(username)) {
+                collectionLogs.put(username, CollectionLogBuilder.getEmptyCollectionLog(username));
+            }
+        }
+        future.complete(collectionLogs);
+        return future;
+    }
+
+}
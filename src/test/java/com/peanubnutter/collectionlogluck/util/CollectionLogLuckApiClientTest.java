@@ -0,0 +1,91 @@
+package com.peanubnutter.collectionlogluck.util;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.JsonObject;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import okio.GzipSink;
+import okio.Okio;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class CollectionLogLuckApiClientTest {
+
+    private static final String COLLECTION_LOGS_JSON = "{\"someusername\":{\"collectionLog\":{\"username\":\"someusername\"}}}";
+
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private JsonObject fetch(CollectionLogLuckApiClient client) throws Exception {
+        CompletableFuture<JsonObject> result = new CompletableFuture<>();
+        client.getCollectionLogs(server.url("/"), ImmutableList.of("someusername", "other"), new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                result.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) throws IOException {
+                try (Response r = response) {
+                    result.complete(client.processResponse(r));
+                }
+            }
+        });
+        return result.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void getCollectionLogs_postsEveryUsername() throws Exception {
+        CollectionLogLuckApiClient client = new CollectionLogLuckApiClient(new OkHttpClient());
+        server.enqueue(new MockResponse().setBody(COLLECTION_LOGS_JSON));
+
+        JsonObject collectionLogs = fetch(client);
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("POST", request.getMethod());
+        assertEquals("/collectionlog/users", request.getPath());
+        assertEquals("{\"usernames\":[\"someusername\",\"other\"]}", request.getBody().readUtf8());
+        assertTrue(collectionLogs.has("someusername"));
+    }
+
+    @Test
+    public void getCollectionLogs_decompressesGzip() throws Exception {
+        CollectionLogLuckApiClient client = new CollectionLogLuckApiClient(new OkHttpClient());
+
+        Buffer gzipped = new Buffer();
+        try (okio.BufferedSink sink = Okio.buffer(new GzipSink(gzipped))) {
+            sink.writeUtf8(COLLECTION_LOGS_JSON);
+        }
+        server.enqueue(new MockResponse().setHeader("Content-Encoding", "gzip").setBody(gzipped));
+
+        JsonObject collectionLogs = fetch(client);
+
+        assertEquals("gzip", server.takeRequest().getHeader("Accept-Encoding"));
+        assertEquals("someusername", collectionLogs.getAsJsonObject("someusername")
+                .getAsJsonObject("collectionLog").get("username").getAsString());
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.peanubnutter.collectionlogluck.util;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class CollectionLogPrefetchQueueTest {
+
+    @Test
+    public void poll_returnsMostRecentlyActiveFirst() {
+        CollectionLogPrefetchQueue queue = new CollectionLogPrefetchQueue(10, 2);
+
+        queue.offer("a");
+        queue.offer("b");
+        queue.offer("c");
+        // a is active again, so it moves ahead of b and c
+        queue.offer("a");
+
+        assertEquals(ImmutableList.of("a", "c"), queue.poll(username -> false));
+        assertEquals(ImmutableList.of("b"), queue.poll(username -> false));
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void offer_forgetsLeastRecentlyActive() {
+        CollectionLogPrefetchQueue queue = new CollectionLogPrefetchQueue(3, 10);
+
+        for (String username : ImmutableList.of("a", "b", "c", "d", "e")) {
+            queue.offer(username);
+        }
+
+        assertEquals(ImmutableList.of("e", "d", "c"), queue.poll(username -> false));
+    }
+
+    @Test
+    public void poll_skipsLoadedUsernamesWithoutUsingBudget() {
+        CollectionLogPrefetchQueue queue = new CollectionLogPrefetchQueue(10, 2);
+        Set<String> loaded = ImmutableSet.of("c", "d");
+
+        for (String username : ImmutableList.of("a", "b", "c", "d")) {
+            queue.offer(username);
+        }
+
+        assertEquals(ImmutableList.of("b", "a"), queue.poll(loaded::contains));
+        assertTrue(queue.isEmpty());
+    }
+
+}
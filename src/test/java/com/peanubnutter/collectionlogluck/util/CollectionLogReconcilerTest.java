@@ -0,0 +1,100 @@
+package com.peanubnutter.collectionlogluck.util;
+
+import com.peanubnutter.collectionlogluck.luck.LogItemSourceInfo;
+import com.peanubnutter.collectionlogluck.model.CollectionLog;
+import com.peanubnutter.collectionlogluck.model.CollectionLogChange;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CollectionLogReconcilerTest {
+
+    @Test
+    public void reconcile_appliesSeenCounts() {
+        CollectionLog collectionLog = CollectionLogBuilder.getEmptyCollectionLog("someusername");
+        CollectionLogReconciler reconciler = new CollectionLogReconciler();
+
+        reconciler.recordItemCount(13275, 2);
+        reconciler.recordKillCount(LogItemSourceInfo.ABYSSAL_SIRE_KILLS.getName(), 500);
+        // Unsupported items are ignored
+        reconciler.recordItemCount(4151, 1);
+
+        List<CollectionLogChange> changes = reconciler.reconcile(collectionLog, null);
+
+        assertEquals(2, changes.size());
+        assertEquals(CollectionLogChange.Type.ITEM_QUANTITY, changes.get(0).getType());
+        assertEquals(13275, changes.get(0).getItemId());
+        assertEquals(0, changes.get(0).getOldValue());
+        assertEquals(2, changes.get(0).getNewValue());
+        assertEquals(CollectionLogChange.Type.KILL_COUNT, changes.get(1).getType());
+        assertEquals(500, changes.get(1).getNewValue());
+
+        assertEquals(2, collectionLog.searchForItem("Bludgeon claw").getQuantity());
+        assertEquals(500, collectionLog.searchForKillCount(LogItemSourceInfo.ABYSSAL_SIRE_KILLS.getName()).getAmount());
+        assertEquals(0, collectionLog.searchForItem("Abyssal whip").getQuantity());
+    }
+
+    @Test
+    public void reconcile_onlyAppliesChangedCounts() {
+        CollectionLog collectionLog = CollectionLogBuilder.getEmptyCollectionLog("someusername");
+        CollectionLogReconciler reconciler = new CollectionLogReconciler();
+
+        reconciler.recordItemCount(13275, 2);
+        reconciler.reconcile(collectionLog, null);
+
+        // Seeing the same page again is not a change
+        reconciler.recordItemCount(13275, 2);
+        assertFalse(reconciler.hasPendingChanges());
+        assertTrue(reconciler.reconcile(collectionLog, null).isEmpty());
+
+        // Changes made to the log elsewhere are not overwritten until the item is seen again
+        collectionLog.searchForItem("Bludgeon claw").setQuantity(5);
+        assertTrue(reconciler.reconcile(collectionLog, null).isEmpty());
+
+        reconciler.markAllDirty();
+        List<CollectionLogChange> changes = reconciler.reconcile(collectionLog, null);
+        assertEquals(1, changes.size());
+        assertEquals(5, changes.get(0).getOldValue());
+        assertEquals(2, changes.get(0).getNewValue());
+    }
+
+    @Test
+    public void reconcile_reappliesAllCountsToNewCollectionLog() {
+        CollectionLogReconciler reconciler = new CollectionLogReconciler();
+
+        reconciler.recordItemCount(13275, 2);
+        reconciler.reconcile(CollectionLogBuilder.getEmptyCollectionLog("someusername"), null);
+
+        CollectionLog reloadedCollectionLog = CollectionLogBuilder.getEmptyCollectionLog("someusername");
+        assertEquals(1, reconciler.reconcile(reloadedCollectionLog, null).size());
+        assertEquals(2, reloadedCollectionLog.searchForItem("Bludgeon claw").getQuantity());
+    }
+
+    @Test
+    public void reconcile_leavesEarlierSnapshotsUnchanged() {
+        CollectionLog collectionLog = CollectionLogBuilder.getEmptyCollectionLog("someusername");
+        CollectionLogReconciler reconciler = new CollectionLogReconciler();
+
+        CollectionLog snapshot = collectionLog.getSnapshot();
+        // Nothing changed, so the same snapshot is reused
+        assertSame(snapshot, collectionLog.getSnapshot());
+        assertSame(snapshot, snapshot.getSnapshot());
+
+        reconciler.recordItemCount(13275, 2);
+        reconciler.recordKillCount(LogItemSourceInfo.ABYSSAL_SIRE_KILLS.getName(), 500);
+        reconciler.reconcile(collectionLog, null);
+
+        // A calculation that already started from the snapshot keeps seeing the counts it started with
+        assertEquals(0, snapshot.searchForItem("Bludgeon claw").getQuantity());
+        assertEquals(0, snapshot.searchForKillCount(LogItemSourceInfo.ABYSSAL_SIRE_KILLS.getName()).getAmount());
+
+        CollectionLog newSnapshot = collectionLog.getSnapshot();
+        assertNotSame(snapshot, newSnapshot);
+        assertEquals("someusername", newSnapshot.getUsername());
+        assertEquals(2, newSnapshot.searchForItem("Bludgeon claw").getQuantity());
+        assertEquals(500, newSnapshot.searchForKillCount(LogItemSourceInfo.ABYSSAL_SIRE_KILLS.getName()).getAmount());
+    }
+
+}
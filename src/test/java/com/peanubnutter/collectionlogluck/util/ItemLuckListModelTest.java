@@ -0,0 +1,94 @@
+package com.peanubnutter.collectionlogluck.util;
+
+import com.google.common.collect.ImmutableList;
+import com.peanubnutter.collectionlogluck.model.ItemLuckRow;
+import org.junit.Test;
+
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ItemLuckListModelTest {
+
+    private static ItemLuckRow row(String itemName, int quantity, String kcDescription, double overallLuck) {
+        return new ItemLuckRow(0, itemName, quantity, kcDescription, overallLuck, 1 - overallLuck, overallLuck);
+    }
+
+    private static List<String> itemNames(ItemLuckListModel model) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < model.getSize(); i++) {
+            names.add(model.getElementAt(i).getItemName());
+        }
+        return names;
+    }
+
+    @Test
+    public void addRows_keepsRowsSorted() {
+        ItemLuckListModel model = new ItemLuckListModel();
+        model.setSortOrder(ItemLuckListModel.SortOrder.DRIEST);
+
+        model.addRows(ImmutableList.of(row("Twisted bow", 1, "500x Chambers of Xeric", 0.8)));
+        model.addRows(ImmutableList.of(
+                row("Dragon claws", 0, "500x Chambers of Xeric", 0.2),
+                row("Abyssal whip", 3, "2000x Abyssal demon", 0.5)));
+
+        assertEquals(ImmutableList.of("Dragon claws", "Abyssal whip", "Twisted bow"), itemNames(model));
+
+        model.setSortOrder(ItemLuckListModel.SortOrder.NAME);
+        assertEquals(ImmutableList.of("Abyssal whip", "Dragon claws", "Twisted bow"), itemNames(model));
+
+        model.setSortOrder(ItemLuckListModel.SortOrder.QUANTITY);
+        assertEquals("Abyssal whip", model.getElementAt(0).getItemName());
+    }
+
+    @Test
+    public void setFilterText_matchesItemNameOrKc() {
+        ItemLuckListModel model = new ItemLuckListModel();
+        model.addRows(ImmutableList.of(
+                row("Twisted bow", 1, "500x Chambers of Xeric", 0.8),
+                row("Dragon claws", 0, "500x Chambers of Xeric", 0.2),
+                row("Abyssal whip", 3, "2000x Abyssal demon", 0.5)));
+
+        model.setFilterText("  XERIC ");
+        assertEquals(ImmutableList.of("Dragon claws", "Twisted bow"), itemNames(model));
+
+        model.setFilterText("whip");
+        assertEquals(ImmutableList.of("Abyssal whip"), itemNames(model));
+        assertEquals(3, model.getNumRows());
+
+        model.setFilterText("");
+        assertEquals(3, model.getSize());
+    }
+
+    @Test
+    public void updates_notifyListenersOfSizeChanges() {
+        ItemLuckListModel model = new ItemLuckListModel();
+        List<Integer> eventTypes = new ArrayList<>();
+        model.addListDataListener(new ListDataListener() {
+            @Override
+            public void intervalAdded(ListDataEvent e) {
+                eventTypes.add(e.getType());
+            }
+
+            @Override
+            public void intervalRemoved(ListDataEvent e) {
+                eventTypes.add(e.getType());
+            }
+
+            @Override
+            public void contentsChanged(ListDataEvent e) {
+                eventTypes.add(e.getType());
+            }
+        });
+
+        model.addRows(ImmutableList.of(row("Twisted bow", 1, "500x Chambers of Xeric", 0.8)));
+        model.clear();
+
+        assertEquals(ImmutableList.of(ListDataEvent.INTERVAL_ADDED, ListDataEvent.INTERVAL_REMOVED), eventTypes);
+        assertEquals(0, model.getSize());
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.peanubnutter.collectionlogluck.util;
+
+import com.google.common.collect.ImmutableList;
+import com.peanubnutter.collectionlogluck.model.ItemLuckRow;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LuckIndexTest {
+
+    private static ItemLuckRow row(String itemName, double overallLuck) {
+        return new ItemLuckRow(0, itemName, 1, "100x Boss", overallLuck, 1 - overallLuck, overallLuck);
+    }
+
+    private static List<String> itemNames(List<ItemLuckRow> rows) {
+        List<String> names = new ArrayList<>();
+        for (ItemLuckRow row : rows) {
+            names.add(row.getItemName());
+        }
+        return names;
+    }
+
+    @Test
+    public void getLuckiestAndDriest_returnExtremeRowsInOrder() {
+        LuckIndex luckIndex = new LuckIndex();
+        luckIndex.update("a", "1", row("a", 0.5));
+        luckIndex.update("b", "1", row("b", 0.9));
+        luckIndex.update("c", "1", row("c", 0.1));
+        luckIndex.update("d", "1", row("d", 0.7));
+        luckIndex.update("e", "1", null);
+
+        assertEquals(ImmutableList.of("b", "d"), itemNames(luckIndex.getLuckiest(2)));
+        assertEquals(ImmutableList.of("c", "a", "d"), itemNames(luckIndex.getDriest(3)));
+        // queries do not consume rows
+        assertEquals(ImmutableList.of("b", "d", "a", "c"), itemNames(luckIndex.getLuckiest(10)));
+        assertEquals(4, luckIndex.size());
+    }
+
+    @Test
+    public void update_replacesRowAndTracksInputs() {
+        LuckIndex luckIndex = new LuckIndex();
+        luckIndex.update("a", "1|100", row("a", 0.5));
+        luckIndex.update("b", "1|100", row("b", 0.6));
+
+        assertTrue(luckIndex.isUpToDate("a", "1|100"));
+        assertFalse(luckIndex.isUpToDate("a", "2|150"));
+        assertFalse(luckIndex.isUpToDate("c", "1|100"));
+
+        luckIndex.update("a", "2|150", row("a", 0.95));
+        assertTrue(luckIndex.isUpToDate("a", "2|150"));
+        assertEquals(ImmutableList.of("a", "b"), itemNames(luckIndex.getLuckiest(5)));
+        assertEquals(ImmutableList.of("b", "a"), itemNames(luckIndex.getDriest(5)));
+        assertEquals(2, luckIndex.size());
+
+        // An item that became incalculable is up to date, but has no row
+        luckIndex.update("b", "0|150", null);
+        assertTrue(luckIndex.isUpToDate("b", "0|150"));
+        assertEquals(ImmutableList.of("a"), itemNames(luckIndex.getDriest(5)));
+        assertEquals(1, luckIndex.size());
+    }
+
+    @Test
+    public void remove_excludesRow() {
+        LuckIndex luckIndex = new LuckIndex();
+        luckIndex.update("a", "1", row("a", 0.5));
+        luckIndex.update("b", "1", row("b", 0.6));
+        luckIndex.remove("b");
+        luckIndex.remove("missing");
+
+        assertEquals(ImmutableList.of("a"), itemNames(luckIndex.getLuckiest(5)));
+        assertFalse(luckIndex.isUpToDate("b", "1"));
+
+        luckIndex.clear();
+        assertEquals(0, luckIndex.size());
+        assertTrue(luckIndex.getDriest(5).isEmpty());
+    }
+
+    @Test
+    public void manyUpdates_matchSortedRows() {
+        LuckIndex luckIndex = new LuckIndex();
+        Random random = new Random(42);
+        Map<String, Double> expectedLuck = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            String itemName = "item" + random.nextInt(50);
+            double overallLuck = random.nextDouble();
+            luckIndex.update(itemName, String.valueOf(i), row(itemName, overallLuck));
+            expectedLuck.put(itemName, overallLuck);
+        }
+
+        List<String> expectedDriest = new ArrayList<>(expectedLuck.keySet());
+        expectedDriest.sort(Comparator.comparing(expectedLuck::get));
+        assertEquals(expectedDriest.subList(0, 10), itemNames(luckIndex.getDriest(10)));
+        assertEquals(expectedLuck.size(), luckIndex.size());
+    }
+
+}
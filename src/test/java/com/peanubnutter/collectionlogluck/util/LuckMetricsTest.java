@@ -0,0 +1,74 @@
+package com.peanubnutter.collectionlogluck.util;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class LuckMetricsTest {
+
+    @Test
+    public void increment_countsPerName() {
+        LuckMetrics metrics = new LuckMetrics();
+
+        metrics.increment("a");
+        metrics.increment("a");
+        metrics.increment("b");
+
+        assertEquals(2, metrics.getCount("a"));
+        assertEquals(1, metrics.getCount("b"));
+        assertEquals(0, metrics.getCount("c"));
+    }
+
+    @Test
+    public void getHitRatio_combinesHitsAndMisses() {
+        LuckMetrics metrics = new LuckMetrics();
+        assertTrue(Double.isNaN(metrics.getHitRatio("cache")));
+
+        metrics.recordCacheLookup("cache", true);
+        metrics.recordCacheLookup("cache", true);
+        metrics.recordCacheLookup("cache", true);
+        metrics.recordCacheLookup("cache", false);
+
+        assertEquals(0.75, metrics.getHitRatio("cache"), 1e-12);
+    }
+
+    @Test
+    public void getLatency_summarizesHistogram() {
+        LuckMetrics metrics = new LuckMetrics();
+        assertNull(metrics.getLatency("calc"));
+
+        for (int i = 0; i < 99; i++) {
+            metrics.recordLatency("calc", 1000);
+        }
+        metrics.recordLatency("calc", 5_000_000);
+
+        LuckMetrics.LatencySummary latency = metrics.getLatency("calc");
+        assertEquals(100, latency.getCount());
+        assertEquals(99 * 1000 + 5_000_000, latency.getTotalNanos());
+        assertEquals(5_000_000, latency.getMaxNanos());
+        // Percentiles are bucket upper bounds, within a factor of 2
+        assertTrue(latency.getP50Nanos() >= 1000 && latency.getP50Nanos() < 2000);
+        assertTrue(latency.getP95Nanos() >= 1000 && latency.getP95Nanos() < 2000);
+    }
+
+    @Test
+    public void summarize_listsMostExpensiveLatenciesFirst() {
+        LuckMetrics metrics = new LuckMetrics();
+        metrics.registerGauge("queue", () -> 7);
+        metrics.recordCacheLookup("cache", true);
+        metrics.recordCacheLookup("cache", false);
+        metrics.recordLatency("cheap", 10);
+        metrics.recordLatency("expensive", 10_000_000);
+
+        List<String> lines = metrics.summarize();
+
+        assertEquals(4, lines.size());
+        assertEquals("queue: 7", lines.get(0));
+        assertEquals("cache: 50.0% hits of 2", lines.get(1));
+        assertTrue(lines.get(2).startsWith("expensive:"));
+        assertTrue(lines.get(3).startsWith("cheap:"));
+    }
+
+}
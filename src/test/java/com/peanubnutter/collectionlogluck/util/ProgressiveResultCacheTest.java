@@ -0,0 +1,272 @@
+package com.peanubnutter.collectionlogluck.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+public class ProgressiveResultCacheTest {
+
+    // Runs background calculations only when asked, so tests control when they finish
+    private static class ManualExecutor implements Executor {
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        private void runAll() {
+            List<Runnable> tasksToRun = new ArrayList<>(tasks);
+            tasks.clear();
+            tasksToRun.forEach(Runnable::run);
+        }
+    }
+
+    @Test
+    public void getProgressive_returnsApproximationUntilExactIsReady() {
+        ManualExecutor executor = new ManualExecutor();
+        ProgressiveResultCache<String, String> cache = new ProgressiveResultCache<>(executor, 0);
+
+        assertEquals("approximate", cache.getProgressive("key", () -> "exact", () -> "approximate"));
+        assertFalse(cache.isExact("key"));
+        // The approximation is cached rather than recalculated
+        assertEquals("approximate", cache.getProgressive("key", () -> "exact", () -> "other approximation"));
+
+        executor.runAll();
+
+        assertTrue(cache.isExact("key"));
+        assertEquals("exact", cache.getProgressive("key", () -> "exact", () -> "approximate"));
+    }
+
+    @Test
+    public void getProgressive_calculatesEachKeyOnce() {
+        ManualExecutor executor = new ManualExecutor();
+        ProgressiveResultCache<String, Integer> cache = new ProgressiveResultCache<>(executor, 0);
+        AtomicInteger numExactCalculations = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            cache.getProgressive("key", numExactCalculations::incrementAndGet, () -> -1);
+        }
+        executor.runAll();
+
+        assertEquals(1, numExactCalculations.get());
+        assertEquals(1, (int) cache.getProgressive("key", numExactCalculations::incrementAndGet, () -> -1));
+    }
+
+    @Test
+    public void getProgressive_returnsExactWithinDeadline() {
+        // Direct executor, so the exact result is always ready before the deadline
+        ProgressiveResultCache<String, String> cache = new ProgressiveResultCache<>(Runnable::run,
+                TimeUnit.SECONDS.toNanos(1));
+
+        assertEquals("exact", cache.getProgressive("key", () -> "exact", () -> "approximate"));
+        assertTrue(cache.isExact("key"));
+    }
+
+    @Test
+    public void getProgressive_onlyFirstLookupWaitsForDeadline() throws Exception {
+        long deadlineNanos = TimeUnit.SECONDS.toNanos(5);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ExecutorService firstLookup = Executors.newSingleThreadExecutor();
+        try {
+            ProgressiveResultCache<String, String> cache = new ProgressiveResultCache<>(executor, deadlineNanos);
+            Supplier<String> exact = () -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "exact";
+            };
+
+            // The lookup that starts the calculation waits for it
+            Future<String> firstResult = firstLookup.submit(() -> cache.getProgressive("key", exact, () -> "approximate"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // Every later lookup returns straight away, even though the calculation is still running. If each of
+            // them waited for the deadline, this would take minutes.
+            long startNanos = System.nanoTime();
+            for (int i = 0; i < 100; i++) {
+                assertEquals("approximate", cache.getProgressive("key", exact, () -> "approximate"));
+            }
+            assertTrue(System.nanoTime() - startNanos < deadlineNanos);
+            assertFalse(firstResult.isDone());
+
+            release.countDown();
+            assertEquals("exact", firstResult.get(5, TimeUnit.SECONDS));
+            assertEquals("exact", cache.getProgressive("key", exact, () -> "approximate"));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+            firstLookup.shutdownNow();
+        }
+    }
+
+    @Test
+    public void getProgressive_queuedCalculationsDoNotWait() throws Exception {
+        long deadlineNanos = TimeUnit.SECONDS.toNanos(5);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ExecutorService firstLookup = Executors.newSingleThreadExecutor();
+        try {
+            ProgressiveResultCache<String, String> cache = new ProgressiveResultCache<>(executor, deadlineNanos);
+            Supplier<String> blockedExact = () -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "exact";
+            };
+
+            firstLookup.submit(() -> cache.getProgressive("first", blockedExact, () -> "approximate"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // Each of these is queued behind the first calculation, so none of them waits for the deadline
+            long startNanos = System.nanoTime();
+            for (int i = 0; i < 10; i++) {
+                assertEquals("approximate", cache.getProgressive("key" + i, () -> "exact", () -> "approximate"));
+            }
+            assertTrue(System.nanoTime() - startNanos < deadlineNanos);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+            firstLookup.shutdownNow();
+        }
+    }
+
+    @Test
+    public void getProgressive_retriesFailedCalculation() {
+        ManualExecutor executor = new ManualExecutor();
+        ProgressiveResultCache<String, String> cache = new ProgressiveResultCache<>(executor, 0, 0);
+
+        assertEquals("approximate", cache.getProgressive("key", () -> {
+            throw new IllegalStateException("failed");
+        }, () -> "approximate"));
+        executor.runAll();
+        assertFalse(cache.isExact("key"));
+
+        // The approximation is still returned while the exact calculation is retried
+        assertEquals("approximate", cache.getProgressive("key", () -> "exact", () -> "other approximation"));
+        executor.runAll();
+
+        assertTrue(cache.isExact("key"));
+        assertEquals("exact", cache.getProgressive("key", () -> "exact", () -> "approximate"));
+    }
+
+    @Test
+    public void getProgressive_waitsBeforeRetryingFailedCalculation() {
+        ManualExecutor executor = new ManualExecutor();
+        ProgressiveResultCache<String, String> cache = new ProgressiveResultCache<>(executor, 0,
+                TimeUnit.HOURS.toNanos(1));
+        AtomicInteger numExactCalculations = new AtomicInteger();
+        Supplier<String> failingExact = () -> {
+            numExactCalculations.incrementAndGet();
+            throw new IllegalStateException("failed");
+        };
+
+        cache.getProgressive("key", failingExact, () -> "approximate");
+        executor.runAll();
+        for (int i = 0; i < 5; i++) {
+            assertEquals("approximate", cache.getProgressive("key", failingExact, () -> "approximate"));
+            executor.runAll();
+        }
+
+        assertEquals(1, numExactCalculations.get());
+        // Clearing the cache also forgets the failure
+        cache.clear();
+        cache.getProgressive("key", failingExact, () -> "approximate");
+        executor.runAll();
+        assertEquals(2, numExactCalculations.get());
+    }
+
+    @Test
+    public void getProgressive_failedCalculationWithinDeadline_returnsApproximation() {
+        ProgressiveResultCache<String, String> cache = new ProgressiveResultCache<>(Runnable::run,
+                TimeUnit.SECONDS.toNanos(1));
+
+        assertEquals("approximate", cache.getProgressive("key", () -> {
+            throw new IllegalStateException("failed");
+        }, () -> "approximate"));
+        assertFalse(cache.isExact("key"));
+    }
+
+    @Test
+    public void getProgressive_withoutApproximation() {
+        ManualExecutor executor = new ManualExecutor();
+        ProgressiveResultCache<String, String> cache = new ProgressiveResultCache<>(executor, 0);
+
+        assertNull(cache.getProgressive("key", () -> "exact", () -> null));
+        assertEquals(0, cache.size());
+
+        executor.runAll();
+
+        assertEquals("exact", cache.getProgressive("key", () -> "exact", () -> null));
+    }
+
+    @Test
+    public void getProgressive_rejectedExecutor_calculatesExactly() {
+        ProgressiveResultCache<String, String> cache = new ProgressiveResultCache<>(task -> {
+            throw new RejectedExecutionException();
+        }, 0);
+
+        assertEquals("exact", cache.getProgressive("key", () -> "exact", () -> "approximate"));
+        assertTrue(cache.isExact("key"));
+    }
+
+    @Test
+    public void getExact_ignoresApproximation() {
+        ManualExecutor executor = new ManualExecutor();
+        ProgressiveResultCache<String, String> cache = new ProgressiveResultCache<>(executor, 0);
+
+        cache.getProgressive("key", () -> "exact", () -> "approximate");
+
+        assertEquals("exact", cache.getExact("key", () -> "exact"));
+        assertTrue(cache.isExact("key"));
+    }
+
+    @Test
+    public void clear_discardsUnfinishedCalculations() {
+        ManualExecutor executor = new ManualExecutor();
+        ProgressiveResultCache<String, String> cache = new ProgressiveResultCache<>(executor, 0);
+
+        cache.getProgressive("key", () -> "stale exact", () -> "approximate");
+        cache.clear();
+        executor.runAll();
+
+        assertEquals(0, cache.size());
+        assertEquals("new approximate", cache.getProgressive("key", () -> "exact", () -> "new approximate"));
+    }
+
+    @Test
+    public void invalidate_removesMatchingKeys() {
+        ProgressiveResultCache<String, String> cache = new ProgressiveResultCache<>(Runnable::run, 0);
+        cache.getExact("a|1", () -> "a1");
+        cache.getExact("a|2", () -> "a2");
+        cache.getExact("b|1", () -> "b1");
+
+        cache.invalidate(key -> key.startsWith("a|"));
+
+        assertEquals(1, cache.size());
+        assertTrue(cache.isExact("b|1"));
+        assertFalse(cache.isExact("a|1"));
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.peanubnutter.collectionlogluck.util;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TickReplyQueueTest {
+
+    @Test
+    public void poll_groupsIdenticalRequests() {
+        TickReplyQueue<String> queue = new TickReplyQueue<>(5, 10, 10);
+
+        assertTrue(queue.offer("player a", "a|tbow", "request 1", 0));
+        assertTrue(queue.offer("player b", "b|tbow", "request 2", 0));
+        assertTrue(queue.offer("player a", "a|tbow", "request 3", 0));
+
+        List<List<String>> batches = queue.poll(1);
+
+        assertEquals(2, batches.size());
+        assertEquals(ImmutableList.of("request 1", "request 3"), batches.get(0));
+        assertEquals(ImmutableList.of("request 2"), batches.get(1));
+        assertTrue(queue.isEmpty());
+        assertTrue(queue.poll(2).isEmpty());
+    }
+
+    @Test
+    public void poll_limitsRepliesPerTick() {
+        TickReplyQueue<Integer> queue = new TickReplyQueue<>(100, 10, 3);
+
+        for (int i = 0; i < 7; i++) {
+            queue.offer("some player", "key " + i, i, 0);
+        }
+
+        assertEquals(3, queue.poll(1).size());
+        assertEquals(3, queue.poll(2).size());
+        List<List<Integer>> lastBatches = queue.poll(3);
+        assertEquals(1, lastBatches.size());
+        assertEquals(ImmutableList.of(6), lastBatches.get(0));
+    }
+
+    @Test
+    public void offer_rateLimitsSenders() {
+        TickReplyQueue<Integer> queue = new TickReplyQueue<>(2, 10, 100);
+
+        assertTrue(queue.offer("spammer", "key 1", 1, 0));
+        assertTrue(queue.offer("spammer", "key 2", 2, 5));
+        assertFalse(queue.offer("spammer", "key 3", 3, 5));
+        // Other senders are unaffected
+        assertTrue(queue.offer("someone else", "key 4", 4, 5));
+
+        // Draining the queue doesn't reset the rate limit
+        assertEquals(3, queue.poll(6).size());
+        assertFalse(queue.offer("spammer", "key 5", 5, 9));
+
+        // The first request has left the window
+        assertTrue(queue.offer("spammer", "key 6", 6, 10));
+        assertFalse(queue.offer("spammer", "key 7", 7, 10));
+        // Both remaining requests have left the window
+        assertTrue(queue.offer("spammer", "key 8", 8, 20));
+    }
+
+}